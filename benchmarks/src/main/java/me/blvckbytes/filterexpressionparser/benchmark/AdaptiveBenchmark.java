@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.benchmark;
+
+import me.blvckbytes.filterexpressionparser.cache.PatternCache;
+import me.blvckbytes.filterexpressionparser.evaluator.AdaptiveJunction;
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.FuzzyMatcher;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.parser.ExpressionOptimizer;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Measures a filter on skewed data, where the estimates of the ExpressionOptimizer pick the wrong order, compared
+ * to re-planning the order by the pass rates which have been observed while evaluating, on four threads at once
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class AdaptiveBenchmark {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final IFieldAccessor<Map<String, Object>> MAP_ACCESSOR = identifier -> target -> target.get(identifier);
+  private static final String INPUT = "deleted==null&&color==\"gold\"i&&active==true&&price<1";
+
+  @Param({ "STATIC", "OPTIMIZED", "ADAPTIVE" })
+  public String mode;
+
+  private Predicate<Map<String, Object>> predicate;
+  private Map<String, Object>[] records;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    ABinaryFilterExpression<?, ?> expression = new FilterExpressionParser(LOGGER).parse(new FilterExpressionTokenizer(LOGGER, INPUT));
+
+    if (mode.equals("OPTIMIZED"))
+      expression = new ExpressionOptimizer().optimize(expression);
+
+    predicate = new FilterPredicateCompiler(
+      LOGGER, PatternCache.getShared(), FuzzyMatcher.DEFAULT_MAXIMUM_EDITS,
+      mode.equals("ADAPTIVE"), AdaptiveJunction.DEFAULT_REPLAN_INTERVAL
+    ).compile(expression, MAP_ACCESSOR);
+
+    Random random = new Random(0);
+    records = new Map[10_000];
+
+    // Almost all records pass all but the last comparison, which hardly any record passes
+    for (int i = 0; i < records.length; i++) {
+      Map<String, Object> record = new HashMap<>();
+      record.put("color", "Gold");
+      record.put("price", (long) random.nextInt(50));
+      record.put("active", true);
+      record.put("deleted", null);
+      records[i] = record;
+    }
+  }
+
+  @Benchmark
+  public int evaluate() {
+    int matches = 0;
+
+    for (Map<String, Object> record : records) {
+      if (predicate.test(record))
+        ++matches;
+    }
+
+    return matches;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.benchmark;
+
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.IPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.bytecode.BytecodeFilterCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.columnar.*;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Measures the throughput in rows per second of evaluating filters on whole column batches,
+ * compared to evaluating compiled predicates on one record at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OperationsPerInvocation(ColumnarBenchmark.ROWS)
+@Fork(1)
+public class ColumnarBenchmark {
+
+  static final int ROWS = 10_000;
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final IFieldAccessor<Map<String, Object>> MAP_ACCESSOR = identifier -> target -> target.get(identifier);
+  private static final String[] COLORS = { "purple", "gold", "green", "red" };
+
+  @Param({ "COLUMNAR", "CLOSURES", "BYTECODE" })
+  public String engine;
+
+  @Param({
+    "price<5&&weight>=2.5",
+    "color==\"purple\"&&price<5||color==\"gold\"&&price<10",
+  })
+  public String input;
+
+  private ColumnarFilterEvaluator evaluator;
+  private ABinaryFilterExpression<?, ?> expression;
+  private ColumnBatch batch;
+
+  private Predicate<Map<String, Object>> predicate;
+  private Map<String, Object>[] records;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    expression = new FilterExpressionParser(LOGGER).parse(new FilterExpressionTokenizer(LOGGER, input));
+    evaluator = new ColumnarFilterEvaluator(LOGGER);
+
+    if (!engine.equals("COLUMNAR")) {
+      IPredicateCompiler predicateCompiler = engine.equals("BYTECODE") ? new BytecodeFilterCompiler(LOGGER) : new FilterPredicateCompiler(LOGGER);
+      predicate = predicateCompiler.compile(expression, MAP_ACCESSOR);
+    }
+
+    Random random = new Random(0);
+    records = new Map[ROWS];
+
+    long[] prices = new long[ROWS];
+    double[] weights = new double[ROWS];
+    String[] colors = new String[ROWS];
+
+    for (int i = 0; i < ROWS; i++) {
+      prices[i] = random.nextInt(12);
+      weights[i] = random.nextDouble() * 10;
+      colors[i] = COLORS[random.nextInt(COLORS.length)];
+
+      Map<String, Object> record = new HashMap<>();
+      record.put("price", prices[i]);
+      record.put("weight", weights[i]);
+      record.put("color", colors[i]);
+      records[i] = record;
+    }
+
+    Map<String, AColumn> columns = new HashMap<>();
+    columns.put("price", new LongColumn(prices));
+    columns.put("weight", new DoubleColumn(weights));
+    columns.put("color", new StringColumn(colors));
+    batch = new ColumnBatch(ROWS, columns);
+  }
+
+  @Benchmark
+  public int evaluate() {
+    if (predicate == null)
+      return Bitmaps.cardinality(evaluator.evaluate(expression, batch));
+
+    int matches = 0;
+
+    for (Map<String, Object> record : records) {
+      if (predicate.test(record))
+        ++matches;
+    }
+
+    return matches;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.benchmark;
+
+import java.util.function.IntFunction;
+
+/**
+ * Inputs of different shapes, each stressing another part of the tokenizer and the parser
+ */
+public enum Corpus {
+
+  SHORT(
+    "color == \"purple\" && price < 5"
+  ),
+
+  // Every level of nesting passes through the whole precedence ladder of the parser
+  DEEP_PARENTHESES(generateDeepParentheses(64)),
+
+  LONG_OR_CHAIN(generateChain(500, " || ", i -> "id == " + i)),
+
+  STRING_ESCAPES(generateChain(32, " && ", i -> (
+    "path" + i + " %% \"C:\\\\Users\\\\" + i + " \\\"quoted\\\" dir\"it"
+  ))),
+
+  NUMBER_EXPONENTS(generateChain(64, " || ", i -> (
+    "amount" + i + " >= " + (i + 1) + "e3 && ratio" + i + " < -" + i + ".25e-3 && weight" + i + " != " + i + "5.5"
+  ))),
+  ;
+
+  private final String input;
+
+  Corpus(String input) {
+    this.input = input;
+  }
+
+  public String getInput() {
+    return input;
+  }
+
+  private static String generateDeepParentheses(int depth) {
+    StringBuilder result = new StringBuilder("a0 == 0");
+
+    for (int i = 1; i <= depth; i++) {
+      result.insert(0, '(');
+      result.append(") ").append(i % 2 == 0 ? "&&" : "||").append(" a").append(i).append(" == ").append(i);
+    }
+
+    return result.toString();
+  }
+
+  private static String generateChain(int length, String junction, IntFunction<String> term) {
+    StringBuilder result = new StringBuilder();
+
+    for (int i = 0; i < length; i++) {
+      if (i != 0)
+        result.append(junction);
+
+      result.append(term.apply(i));
+    }
+
+    return result.toString();
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.benchmark;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.error.UnexpectedTokenError;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import me.blvckbytes.filterexpressionparser.tokenizer.TokenType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorBenchmark {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+
+  @Param
+  public Corpus corpus;
+
+  private FilterExpressionParser parser;
+  private FilterExpressionTokenizer exhaustedTokenizer;
+  private String invalidInput;
+
+  @Setup
+  public void setup() {
+    parser = new FilterExpressionParser(LOGGER);
+
+    // The error is reported past the last token, so that the whole input has to be processed first
+    invalidInput = corpus.getInput() + " &&";
+
+    exhaustedTokenizer = new FilterExpressionTokenizer(LOGGER, corpus.getInput());
+    while (exhaustedTokenizer.consumeToken() != null);
+  }
+
+  /**
+   * Constructing an error renders the marked up input line and captures a stack trace
+   */
+  @Benchmark
+  public AParserError construct() {
+    return new UnexpectedTokenError(exhaustedTokenizer, null, TokenType.valueTypes);
+  }
+
+  @Benchmark
+  public AParserError parseInvalid() {
+    try {
+      parser.parse(new FilterExpressionTokenizer(LOGGER, invalidInput));
+    } catch (AParserError e) {
+      return e;
+    }
+
+    throw new IllegalStateException("Expected the input to be invalid");
+  }
+}
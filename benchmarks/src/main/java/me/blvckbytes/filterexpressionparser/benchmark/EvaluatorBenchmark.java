@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.benchmark;
+
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.IPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.bytecode.BytecodeFilterCompiler;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final IFieldAccessor<Map<String, Object>> MAP_ACCESSOR = identifier -> target -> target.get(identifier);
+  private static final String[] COLORS = { "purple", "gold", "green", "red" };
+
+  @Param({ "CLOSURES", "BYTECODE" })
+  public String compiler;
+
+  @Param({
+    "color==\"purple\"&&price<5||color==\"gold\"&&price<10",
+    "(color==\"purple\"||color==\"gold\"i||name>%\"item1\")&&(price>=2&&price<8.5||weight<=3)&&active==true&&deleted==null",
+  })
+  public String input;
+
+  private Predicate<Map<String, Object>> predicate;
+  private Map<String, Object>[] records;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    IPredicateCompiler predicateCompiler = compiler.equals("BYTECODE") ? new BytecodeFilterCompiler(LOGGER) : new FilterPredicateCompiler(LOGGER);
+    predicate = predicateCompiler.compile(new FilterExpressionParser(LOGGER).parse(new FilterExpressionTokenizer(LOGGER, input)), MAP_ACCESSOR);
+
+    Random random = new Random(0);
+    records = new Map[10_000];
+
+    for (int i = 0; i < records.length; i++) {
+      Map<String, Object> record = new HashMap<>();
+      record.put("name", "item" + i);
+      record.put("color", COLORS[random.nextInt(COLORS.length)]);
+      record.put("price", (long) random.nextInt(12));
+      record.put("weight", random.nextDouble() * 10);
+      record.put("active", random.nextBoolean());
+      record.put("deleted", random.nextInt(10) == 0 ? "yes" : null);
+      records[i] = record;
+    }
+  }
+
+  @Benchmark
+  public int evaluate() {
+    int matches = 0;
+
+    for (Map<String, Object> record : records) {
+      if (predicate.test(record))
+        ++matches;
+    }
+
+    return matches;
+  }
+}
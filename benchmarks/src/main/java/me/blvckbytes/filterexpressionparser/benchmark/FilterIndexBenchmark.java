@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.benchmark;
+
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.index.FilterIndex;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Measures matching a record against many saved searches by the FilterIndex, compared to evaluating all of them one by one
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterIndexBenchmark {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final IFieldAccessor<Map<String, Object>> MAP_ACCESSOR = identifier -> target -> target.get(identifier);
+
+  @Param({ "1000", "50000" })
+  public int filterCount;
+
+  // Saved searches either select by categories and regions, or by price ranges only
+  @Param({ "MIXED", "RANGES" })
+  public String workload;
+
+  private FilterIndex<Integer, Map<String, Object>> index;
+  private List<Predicate<Map<String, Object>>> predicates;
+  private Map<String, Object>[] records;
+  private int nextRecord;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    FilterExpressionParser parser = new FilterExpressionParser(LOGGER);
+    FilterPredicateCompiler compiler = new FilterPredicateCompiler(LOGGER);
+    Random random = new Random(0);
+
+    index = new FilterIndex<>(LOGGER, MAP_ACCESSOR);
+    predicates = new ArrayList<>();
+
+    for (int i = 0; i < filterCount; i++) {
+      String input;
+
+      if (workload.equals("RANGES")) {
+        int low = random.nextInt(100);
+        input = "price>=" + low + "&&price<" + (low + 1 + random.nextInt(3));
+      }
+
+      else if (random.nextBoolean())
+        input = "category==\"c" + random.nextInt(500) + "\"&&price<" + random.nextInt(100);
+
+      else
+        input = "(region==\"r" + random.nextInt(50) + "\"||region==\"r" + random.nextInt(50) + "\")&&priority>=" + random.nextInt(10) + "&&active==true";
+
+      ABinaryFilterExpression<?, ?> expression = parser.parse(new FilterExpressionTokenizer(LOGGER, input));
+      index.register(i, expression);
+      predicates.add(compiler.compile(expression, MAP_ACCESSOR));
+    }
+
+    records = new Map[1024];
+
+    for (int i = 0; i < records.length; i++) {
+      Map<String, Object> record = new HashMap<>();
+      record.put("category", "c" + random.nextInt(500));
+      record.put("region", "r" + random.nextInt(50));
+      record.put("price", random.nextDouble() * 100);
+      record.put("priority", (long) random.nextInt(10));
+      record.put("active", random.nextBoolean());
+      records[i] = record;
+    }
+  }
+
+  @Benchmark
+  public Set<Integer> index() {
+    return index.match(records[nextRecord++ & (records.length - 1)]);
+  }
+
+  @Benchmark
+  public Set<Integer> oneByOne() {
+    Map<String, Object> record = records[nextRecord++ & (records.length - 1)];
+    Set<Integer> result = new HashSet<>();
+
+    for (int i = 0; i < predicates.size(); i++) {
+      if (predicates.get(i).test(record))
+        result.add(i);
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.benchmark;
+
+import me.blvckbytes.filterexpressionparser.evaluator.FuzzyMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures fuzzy searches by the bit-parallel FuzzyMatcher, compared to filling the whole table of edit distances
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FuzzyBenchmark {
+
+  private static final String VALUE = "a rather long description of a shiny golden bar, as seen in the catalogue of the store";
+
+  @Param({ "silver", "Gloden Bar", "the catalogue of the shop, which holds descriptions of all the shiny bars of gold" })
+  public String needle;
+
+  @Param({ "true", "false" })
+  public boolean ignoreCase;
+
+  private FuzzyMatcher matcher;
+
+  @Setup
+  public void setup() {
+    matcher = new FuzzyMatcher(needle, ignoreCase, FuzzyMatcher.DEFAULT_MAXIMUM_EDITS);
+  }
+
+  @Benchmark
+  public boolean bitParallel() {
+    return matcher.find(VALUE);
+  }
+
+  @Benchmark
+  public boolean table() {
+    int[] previous = new int[needle.length() + 1], current = new int[needle.length() + 1];
+
+    for (int i = 0; i <= needle.length(); i++)
+      previous[i] = i;
+
+    for (int j = 1; j <= VALUE.length(); j++) {
+      char c = VALUE.charAt(j - 1);
+
+      for (int i = 1; i <= needle.length(); i++) {
+        char n = needle.charAt(i - 1);
+        boolean isEqual = n == c || (ignoreCase && Character.toLowerCase(Character.toUpperCase(n)) == Character.toLowerCase(Character.toUpperCase(c)));
+        current[i] = Math.min(Math.min(current[i - 1], previous[i]) + 1, previous[i - 1] + (isEqual ? 0 : 1));
+      }
+
+      if (current[needle.length()] <= matcher.getMaximumEdits())
+        return true;
+
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+
+    return false;
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.benchmark;
+
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.index.IndexedCollection;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Measures filtering a catalog of a million items by the IndexedCollection, compared to scanning all of them
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndexedCollectionBenchmark {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final String[] STATUSES = { "open", "pending", "closed", "archived" };
+
+  public static class Item {
+    final String category;
+    final double price;
+    final long stock;
+    final String name;
+    final String status;
+
+    Item(String category, double price, long stock, String name, String status) {
+      this.category = category;
+      this.price = price;
+      this.stock = stock;
+      this.name = name;
+      this.status = status;
+    }
+  }
+
+  private static final IFieldAccessor<Item> ITEM_ACCESSOR = identifier -> {
+    switch (identifier) {
+      case "category":
+        return item -> item.category;
+
+      case "price":
+        return item -> item.price;
+
+      case "stock":
+        return item -> item.stock;
+
+      case "name":
+        return item -> item.name;
+
+      case "status":
+        return item -> item.status;
+
+      default:
+        return item -> null;
+    }
+  };
+
+  @Param({
+    "category==\"c42\"&&price<50",
+    "price>=10&&price<10.5&&stock>0",
+    "category==\"c1\"||category==\"c2\"||stock==7",
+    "name%\"QXZ\"i",
+    "name?\"^ab.*xyz\"",
+    "name>%\"abc\"&&price<1",
+    "status==\"open\"||status==\"pending\"",
+    "status!=\"closed\"&&status!=\"open\"&&stock==7",
+  })
+  public String input;
+
+  private List<Item> items;
+  private IndexedCollection<Item> collection;
+  private ABinaryFilterExpression<?, ?> expression;
+  private Predicate<Item> predicate;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0);
+    items = new ArrayList<>();
+    collection = new IndexedCollection<>(LOGGER, ITEM_ACCESSOR);
+
+    collection.addHashIndex("category");
+    collection.addSortedIndex("price");
+    collection.addHashIndex("stock");
+    collection.addTrigramIndex("name");
+    collection.addBitmapIndex("status");
+
+    for (int i = 0; i < 1_000_000; i++) {
+      StringBuilder name = new StringBuilder();
+
+      for (int j = 0; j < 12; j++)
+        name.append((char) ('a' + random.nextInt(26)));
+
+      String status = STATUSES[random.nextInt(STATUSES.length)];
+      Item item = new Item("c" + random.nextInt(1000), random.nextDouble() * 100, random.nextInt(100), name.toString(), status);
+      items.add(item);
+      collection.add(item);
+    }
+
+    expression = new FilterExpressionParser(LOGGER).parse(new FilterExpressionTokenizer(LOGGER, input));
+    predicate = new FilterPredicateCompiler(LOGGER).compile(expression, ITEM_ACCESSOR);
+
+    // Sort the index before measuring
+    collection.filter(expression);
+  }
+
+  @Benchmark
+  public List<Item> indexed() {
+    return collection.filter(expression);
+  }
+
+  @Benchmark
+  public List<Item> scan() {
+    List<Item> result = new ArrayList<>();
+
+    for (Item item : items) {
+      if (predicate.test(item))
+        result.add(item);
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.benchmark;
+
+import me.blvckbytes.filterexpressionparser.cache.PatternCache;
+import me.blvckbytes.filterexpressionparser.parser.expression.StringExpression;
+import me.blvckbytes.filterexpressionparser.regex.IRegexMatcher;
+import me.blvckbytes.filterexpressionparser.regex.RegexBackend;
+import me.blvckbytes.filterexpressionparser.tokenizer.Token;
+import me.blvckbytes.filterexpressionparser.tokenizer.TokenType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures the time it takes to search a pattern within a value, by both regular expression backends.
+ * The pathological case backtracks exponentially within java.util.regex, which is why it's input is kept short.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegexBenchmark {
+
+  public enum Case {
+    EMAIL("^[a-z0-9._]+@[a-z0-9]+\\.(com|org|net)$", "first.last_name@example.org"),
+    CONTAINS_WORD("gold(en)? bar", "a rather long description of a shiny golden bar, as seen in the catalogue"),
+    PATHOLOGICAL("(x+x+)+y", "xxxxxxxxxxxxxxxxxxxx"),
+    ;
+
+    final String pattern, value;
+
+    Case(String pattern, String value) {
+      this.pattern = pattern;
+      this.value = value;
+    }
+  }
+
+  @Param({ "JAVA", "LINEAR" })
+  public RegexBackend backend;
+
+  @Param({ "EMAIL", "CONTAINS_WORD", "PATHOLOGICAL" })
+  public Case input;
+
+  private IRegexMatcher matcher;
+
+  @Setup
+  public void setup() {
+    Token token = new Token(TokenType.STRING, 0, 0, input.pattern);
+    StringExpression string = new StringExpression(input.pattern, true, false, token, token, input.pattern);
+    matcher = new PatternCache(Logger.getGlobal(), backend, 1).compile(string);
+  }
+
+  @Benchmark
+  public boolean find() {
+    return matcher.find(input.value);
+  }
+}
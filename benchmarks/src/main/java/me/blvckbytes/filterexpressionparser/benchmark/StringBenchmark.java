@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.benchmark;
+
+import me.blvckbytes.filterexpressionparser.evaluator.StringMatcher;
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures trimmed, case-insensitive string comparisons by the StringMatcher, compared to
+ * trimming and lower-casing each value before comparing, which allocates two strings per value
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringBenchmark {
+
+  private static final String VALUE = "   A rather long description of a shiny Golden Bar, as seen in the catalogue of the store   ";
+
+  @Param({ "CONTAINS", "EQUAL", "STARTS_WITH" })
+  public ComparisonOperator operator;
+
+  @Param({ "bar", "catalogue of the store" })
+  public String needle;
+
+  private StringMatcher matcher;
+
+  @Setup
+  public void setup() {
+    matcher = new StringMatcher(operator, needle, true, true);
+  }
+
+  @Benchmark
+  public boolean matcher() {
+    return matcher.matches(VALUE);
+  }
+
+  @Benchmark
+  public boolean trimAndLowerCase() {
+    String value = VALUE.trim().toLowerCase();
+
+    switch (operator) {
+      case EQUAL:
+        return value.equals(needle);
+
+      case STARTS_WITH:
+        return value.startsWith(needle);
+
+      default:
+        return value.contains(needle);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.benchmark;
+
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.ITypedFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.accessor.PathAccessorFactory;
+import me.blvckbytes.filterexpressionparser.evaluator.bytecode.BytecodeFilterCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.typed.FieldType;
+import me.blvckbytes.filterexpressionparser.evaluator.typed.IFilterSchema;
+import me.blvckbytes.filterexpressionparser.evaluator.typed.TypedFilterCompiler;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedBenchmark {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final String[] COLORS = { "purple", "gold", "green", "red" };
+
+  @Param({ "CLOSURES", "BYTECODE", "TYPED" })
+  public String compiler;
+
+  @Param({
+    "price<5&&stock>=3||price<10&&weight<=3.5",
+    "(color==\"purple\"||color==\"gold\")&&price>=2&&price<8.5&&stock>weight",
+  })
+  public String input;
+
+  private Predicate<Item> predicate;
+  private Item[] items;
+
+  @Setup
+  public void setup() {
+    Map<String, FieldType> types = new HashMap<>();
+    types.put("price", FieldType.LONG);
+    types.put("stock", FieldType.LONG);
+    types.put("weight", FieldType.DOUBLE);
+    types.put("color", FieldType.STRING);
+
+    IFilterSchema schema = types::get;
+    ITypedFieldAccessor<Item> accessor = PathAccessorFactory.getShared().forClass(Item.class);
+    ABinaryFilterExpression<?, ?> expression = new FilterExpressionParser(LOGGER).parse(new FilterExpressionTokenizer(LOGGER, input));
+
+    if (compiler.equals("TYPED"))
+      predicate = new TypedFilterCompiler(LOGGER).compile(expression, schema, accessor);
+    else if (compiler.equals("BYTECODE"))
+      predicate = new BytecodeFilterCompiler(LOGGER).compile(expression, accessor);
+    else
+      predicate = new FilterPredicateCompiler(LOGGER).compile(expression, accessor);
+
+    Random random = new Random(0);
+    items = new Item[10_000];
+
+    for (int i = 0; i < items.length; i++)
+      items[i] = new Item(random.nextInt(12), random.nextInt(8), random.nextDouble() * 10, COLORS[random.nextInt(COLORS.length)]);
+  }
+
+  @Benchmark
+  public int evaluate() {
+    int matches = 0;
+
+    for (Item item : items) {
+      if (predicate.test(item))
+        ++matches;
+    }
+
+    return matches;
+  }
+
+  public static class Item {
+
+    private final long price;
+    private final int stock;
+    private final double weight;
+    private final String color;
+
+    public Item(long price, int stock, double weight, String color) {
+      this.price = price;
+      this.stock = stock;
+      this.weight = weight;
+      this.color = color;
+    }
+
+    public long getPrice() {
+      return price;
+    }
+
+    public int getStock() {
+      return stock;
+    }
+
+    public double getWeight() {
+      return weight;
+    }
+
+    public String getColor() {
+      return color;
+    }
+  }
+}
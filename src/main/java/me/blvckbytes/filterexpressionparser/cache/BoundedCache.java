@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.cache;
+
+import me.blvckbytes.filterexpressionparser.logging.DebugLogSource;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread-safe map of immutable values, bounded by the number of entries as well as by their total
+ * weight, which is the sum of the lengths of their keys. Hits are served without locking, while
+ * insertions and evictions are serialized and delegated to a pluggable eviction policy.
+ * @param <V> Type of the cached values
+ */
+class BoundedCache<V> {
+
+  private final Logger logger;
+  private final IEvictionPolicy evictionPolicy;
+  private final int maximumSize;
+  private final long maximumWeight;
+
+  private final ConcurrentHashMap<String, V> entries;
+  private final ReentrantLock lock;
+  private final LongAdder hits, misses, evictions;
+
+  // Guarded by the lock
+  private long weight;
+
+  /**
+   * @param logger Logger to report rejected admissions to
+   * @param evictionPolicy Policy which decides about admissions and evictions
+   * @param maximumSize Maximum number of cached entries
+   * @param maximumWeight Maximum total length of all cached keys
+   */
+  BoundedCache(Logger logger, IEvictionPolicy evictionPolicy, int maximumSize, long maximumWeight) {
+    this.logger = logger;
+    this.evictionPolicy = evictionPolicy;
+    this.maximumSize = maximumSize;
+    this.maximumWeight = maximumWeight;
+
+    this.entries = new ConcurrentHashMap<>();
+    this.lock = new ReentrantLock();
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.evictions = new LongAdder();
+  }
+
+  /**
+   * Looks up the value of a key, counting the request as either a hit or a miss
+   * @return Cached value or null if the key is not cached
+   */
+  @Nullable V get(String key) {
+    V value = entries.get(key);
+
+    if (value == null) {
+      misses.increment();
+      return null;
+    }
+
+    hits.increment();
+
+    // Recording accesses is best-effort, as hits should never have to wait on the lock
+    if (lock.tryLock()) {
+      try {
+        evictionPolicy.onAccess(key);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    return value;
+  }
+
+  /**
+   * Adds the value of a key which has been missed before, if the eviction policy admits it
+   * @return Value which has been cached concurrently in the meantime, or the provided value
+   */
+  V putIfAbsent(String key, V value) {
+    lock.lock();
+    try {
+      evictionPolicy.onMiss(key);
+
+      V existing = entries.get(key);
+
+      if (existing != null)
+        return existing;
+
+      if (makeRoomFor(key)) {
+        entries.put(key, value);
+        weight += key.length();
+        evictionPolicy.onInsert(key);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    return value;
+  }
+
+  /**
+   * Removes all entries from the cache
+   */
+  void invalidateAll() {
+    lock.lock();
+    try {
+      for (String key : entries.keySet())
+        evictionPolicy.onRemove(key);
+
+      entries.clear();
+      weight = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  CacheStats getStats() {
+    lock.lock();
+    try {
+      return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weight);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Evicts entries until the key fits into the cache, which has to be called while holding the lock
+   * @return True if the key may be added, false if it has not been admitted
+   */
+  private boolean makeRoomFor(String key) {
+    long entryWeight = key.length();
+
+    if (maximumSize <= 0 || entryWeight > maximumWeight)
+      return false;
+
+    boolean isAdmitted = false;
+
+    while (entries.size() >= maximumSize || weight + entryWeight > maximumWeight) {
+      String victim = evictionPolicy.selectVictim();
+
+      // The policy is not tracking any entry which could make room for the key
+      if (victim == null)
+        return false;
+
+      // Only consult admission once, as the candidate is compared against the first victim it displaces
+      if (!isAdmitted) {
+        if (!evictionPolicy.shouldAdmit(key, victim)) {
+          logger.log(Level.FINEST, () -> DebugLogSource.CACHE + "Rejected admission of " + key);
+          return false;
+        }
+
+        isAdmitted = true;
+      }
+
+      if (entries.remove(victim) != null) {
+        weight -= victim.length();
+        evictions.increment();
+      }
+
+      evictionPolicy.onRemove(victim);
+    }
+
+    return true;
+  }
+}
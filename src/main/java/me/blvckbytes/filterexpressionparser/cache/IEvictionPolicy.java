@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decides which entries of a ParseCache or PatternCache are to be evicted. All methods are called
+ * while holding the cache's lock, which is why implementations do not need to be thread-safe themselves.
+ */
+public interface IEvictionPolicy {
+
+  /**
+   * Called whenever a cached key has been read. Reads which occur while
+   * the cache is busy are not guaranteed to be reported.
+   */
+  void onAccess(String key);
+
+  /**
+   * Called whenever a key has been looked up without being cached
+   */
+  default void onMiss(String key) {}
+
+  /**
+   * Called after a key has been added to the cache
+   */
+  void onInsert(String key);
+
+  /**
+   * Called after a key has been removed from the cache
+   */
+  void onRemove(String key);
+
+  /**
+   * Selects the key which is to be evicted next
+   * @return Key to evict or null if no keys are tracked
+   */
+  @Nullable String selectVictim();
+
+  /**
+   * Decides whether a key should be added at all, if it would cause the victim to be evicted
+   */
+  default boolean shouldAdmit(String candidate, String victim) {
+    return true;
+  }
+}
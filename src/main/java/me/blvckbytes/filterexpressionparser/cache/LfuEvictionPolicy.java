@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Evicts the least frequently used key, where ties are broken by evicting the key
+ * which reached it's frequency first. Frequencies are only tracked while a key is cached.
+ */
+public class LfuEvictionPolicy implements IEvictionPolicy {
+
+  private final Map<String, Integer> frequencies;
+
+  // Keys grouped by their frequency, each group in the order they reached it
+  private final TreeMap<Integer, LinkedHashSet<String>> keysByFrequency;
+
+  public LfuEvictionPolicy() {
+    this.frequencies = new HashMap<>();
+    this.keysByFrequency = new TreeMap<>();
+  }
+
+  @Override
+  public void onAccess(String key) {
+    Integer frequency = frequencies.get(key);
+
+    if (frequency == null)
+      return;
+
+    removeFromGroup(key, frequency);
+    addToGroup(key, frequency + 1);
+  }
+
+  @Override
+  public void onInsert(String key) {
+    if (frequencies.containsKey(key))
+      return;
+
+    addToGroup(key, 1);
+  }
+
+  @Override
+  public void onRemove(String key) {
+    Integer frequency = frequencies.remove(key);
+
+    if (frequency != null)
+      removeFromGroup(key, frequency);
+  }
+
+  @Override
+  public @Nullable String selectVictim() {
+    if (keysByFrequency.isEmpty())
+      return null;
+
+    return keysByFrequency.firstEntry().getValue().iterator().next();
+  }
+
+  private void addToGroup(String key, int frequency) {
+    frequencies.put(key, frequency);
+    keysByFrequency.computeIfAbsent(frequency, k -> new LinkedHashSet<>()).add(key);
+  }
+
+  private void removeFromGroup(String key, int frequency) {
+    LinkedHashSet<String> group = keysByFrequency.get(frequency);
+    group.remove(key);
+
+    if (group.isEmpty())
+      keysByFrequency.remove(frequency);
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Evicts the least recently used key
+ */
+public class LruEvictionPolicy implements IEvictionPolicy {
+
+  // Iterates in order of access, from least to most recently used
+  private final LinkedHashMap<String, Boolean> keys;
+
+  public LruEvictionPolicy() {
+    this.keys = new LinkedHashMap<>(16, .75F, true);
+  }
+
+  @Override
+  public void onAccess(String key) {
+    keys.get(key);
+  }
+
+  @Override
+  public void onInsert(String key) {
+    keys.put(key, Boolean.TRUE);
+  }
+
+  @Override
+  public void onRemove(String key) {
+    keys.remove(key);
+  }
+
+  @Override
+  public @Nullable String selectVictim() {
+    Iterator<String> iterator = keys.keySet().iterator();
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.cache;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import me.blvckbytes.filterexpressionparser.tokenizer.TokenizerMode;
+
+import java.util.logging.Logger;
+
+/**
+ * Thread-safe cache of parse results, keyed by the raw input text. Both expressions and the
+ * errors of invalid inputs are cached, where expressions are immutable and thus shared between
+ * all callers. The cache is bounded by the number of entries as well as by their total weight,
+ * which is the sum of the lengths of their inputs. Hits are served without locking, while
+ * insertions and evictions are serialized and delegated to a pluggable eviction policy.
+ */
+public class ParseCache {
+
+  private final Logger logger;
+  private final FilterExpressionParser parser;
+  private final TokenizerMode tokenizerMode;
+  private final BoundedCache<ParseResult> entries;
+
+  public ParseCache(Logger logger, FilterExpressionParser parser, int maximumSize) {
+    this(logger, parser, TokenizerMode.TABLE_DRIVEN, new LruEvictionPolicy(), maximumSize, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param logger Logger to pass to tokenizers
+   * @param parser Parser to parse inputs with on misses
+   * @param tokenizerMode Mode of the tokenizers created on misses
+   * @param evictionPolicy Policy which decides about admissions and evictions
+   * @param maximumSize Maximum number of cached entries
+   * @param maximumWeight Maximum total length of all cached inputs
+   */
+  public ParseCache(
+    Logger logger, FilterExpressionParser parser, TokenizerMode tokenizerMode,
+    IEvictionPolicy evictionPolicy, int maximumSize, long maximumWeight
+  ) {
+    this.logger = logger;
+    this.parser = parser;
+    this.tokenizerMode = tokenizerMode;
+    this.entries = new BoundedCache<>(logger, evictionPolicy, maximumSize, maximumWeight);
+  }
+
+  /**
+   * Parses the input or returns the cached expression of a previous call
+   * @throws AParserError The error the input caused, which is cached as well
+   */
+  public ABinaryFilterExpression<?, ?> parse(String input) throws AParserError {
+    return parseResult(input).getExpressionOrThrow();
+  }
+
+  /**
+   * Parses the input or returns the cached result of a previous call
+   */
+  public ParseResult parseResult(String input) {
+    ParseResult result = entries.get(input);
+
+    if (result != null)
+      return result;
+
+    // Parse outside of the lock, at the risk of concurrently parsing the same input more than once
+    return entries.putIfAbsent(input, parseUncached(input));
+  }
+
+  /**
+   * Removes all entries from the cache
+   */
+  public void invalidateAll() {
+    entries.invalidateAll();
+  }
+
+  public CacheStats getStats() {
+    return entries.getStats();
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private ParseResult parseUncached(String input) {
+    try {
+      return ParseResult.ofExpression(parser.parse(new FilterExpressionTokenizer(logger, input, tokenizerMode)));
+    } catch (AParserError e) {
+      return ParseResult.ofError(e);
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.cache;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.error.InvalidPatternError;
+import me.blvckbytes.filterexpressionparser.logging.DebugLogSource;
+import me.blvckbytes.filterexpressionparser.parser.expression.StringExpression;
+import me.blvckbytes.filterexpressionparser.regex.IRegexMatcher;
+import me.blvckbytes.filterexpressionparser.regex.JavaRegexMatcher;
+import me.blvckbytes.filterexpressionparser.regex.LinearRegexCompiler;
+import me.blvckbytes.filterexpressionparser.regex.RegexBackend;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Thread-safe cache of compiled regular expressions, keyed by their source and case sensitivity.
+ * Matchers are immutable and thus shared between all callers, while invalid patterns are reported
+ * as errors and not cached. Patterns are always validated by java.util.regex, but may be matched
+ * by another backend, which can reject patterns it does not support. The cache is bounded by the
+ * number of patterns as well as by their total length, just like the ParseCache.
+ */
+public class PatternCache {
+
+  private static final PatternCache SHARED = new PatternCache(Logger.getLogger(PatternCache.class.getName()), 1024);
+
+  /**
+   * Maximum number of automaton states each matcher of the LINEAR backend caches at once
+   */
+  public static final int MAXIMUM_DFA_STATES = 1024;
+
+  private final Logger logger;
+  private final RegexBackend backend;
+  private final BoundedCache<IRegexMatcher> entries;
+
+  public PatternCache(Logger logger, int maximumSize) {
+    this(logger, RegexBackend.JAVA, new LruEvictionPolicy(), maximumSize);
+  }
+
+  public PatternCache(Logger logger, RegexBackend backend, int maximumSize) {
+    this(logger, backend, new LruEvictionPolicy(), maximumSize);
+  }
+
+  public PatternCache(Logger logger, RegexBackend backend, IEvictionPolicy evictionPolicy, int maximumSize) {
+    this(logger, backend, evictionPolicy, maximumSize, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param logger Logger to report compilations to
+   * @param backend Backend which matches the compiled patterns
+   * @param evictionPolicy Policy which decides about admissions and evictions
+   * @param maximumSize Maximum number of cached patterns
+   * @param maximumWeight Maximum total length of all cached patterns
+   */
+  public PatternCache(Logger logger, RegexBackend backend, IEvictionPolicy evictionPolicy, int maximumSize, long maximumWeight) {
+    this.logger = logger;
+    this.backend = backend;
+    this.entries = new BoundedCache<>(logger, evictionPolicy, maximumSize, maximumWeight);
+  }
+
+  /**
+   * Cache which is shared by default by the parser and all compilers, holding up to 1024 patterns
+   */
+  public static PatternCache getShared() {
+    return SHARED;
+  }
+
+  public RegexBackend getBackend() {
+    return backend;
+  }
+
+  /**
+   * Compiles the pattern of a regular expression string, honoring it's case sensitivity,
+   * or returns the cached matcher of a previous call
+   * @throws InvalidPatternError The pattern is not a valid regular expression
+   * @throws me.blvckbytes.filterexpressionparser.error.UnsupportedPatternError The backend does not support the pattern
+   */
+  public IRegexMatcher compile(StringExpression string) throws AParserError {
+    // Case sensitivity is encoded by the first character, so that both variants may be cached
+    String key = (string.isCaseSensitive() ? 'c' : 'i') + string.getValue();
+    IRegexMatcher matcher = entries.get(key);
+
+    if (matcher != null)
+      return matcher;
+
+    // Compile outside of the lock, at the risk of concurrently compiling the same pattern more than once
+    Pattern pattern;
+
+    try {
+      pattern = Pattern.compile(string.getValue(), string.isCaseSensitive() ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    } catch (PatternSyntaxException e) {
+      throw new InvalidPatternError(string, e.getDescription());
+    }
+
+    if (backend == RegexBackend.LINEAR)
+      matcher = LinearRegexCompiler.compile(string, MAXIMUM_DFA_STATES);
+    else
+      matcher = new JavaRegexMatcher(pattern);
+
+    logger.log(Level.FINEST, () -> DebugLogSource.CACHE + "Compiled pattern " + key);
+
+    return entries.putIfAbsent(key, matcher);
+  }
+
+  /**
+   * Removes all patterns from the cache
+   */
+  public void invalidateAll() {
+    entries.invalidateAll();
+  }
+
+  /**
+   * @return Statistics, where the weight is the total length of all cached patterns
+   */
+  public CacheStats getStats() {
+    return entries.getStats();
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Admission filter in the style of TinyLFU, which only admits a new key if it has been requested
+ * more frequently than the victim it would displace, while the actual choice of the victim is left
+ * to another policy. Frequencies are estimated for all requested keys, cached or not, by a count-min
+ * sketch of small counters, which are halved periodically, so that past popularity fades.
+ */
+public class TinyLfuAdmissionPolicy implements IEvictionPolicy {
+
+  private static final int DEPTH = 4;
+  private static final int MAX_COUNT = 15;
+  private static final int[] SEEDS = { 0x97CB3127, 0x2C8D6A9B, 0x5BD1E995, 0x7FEB352D };
+
+  private final IEvictionPolicy delegate;
+  private final int[] counters;
+  private final int width, sampleSize;
+  private int additions;
+
+  /**
+   * @param delegate Policy to select victims with
+   * @param expectedKeys Number of keys the cache is expected to hold, used to size the sketch
+   */
+  public TinyLfuAdmissionPolicy(IEvictionPolicy delegate, int expectedKeys) {
+    this.delegate = delegate;
+    this.width = Integer.highestOneBit(Math.max(16, expectedKeys - 1) * 2);
+    this.counters = new int[DEPTH * width];
+    this.sampleSize = 10 * width;
+  }
+
+  @Override
+  public void onAccess(String key) {
+    increment(key);
+    delegate.onAccess(key);
+  }
+
+  @Override
+  public void onMiss(String key) {
+    increment(key);
+    delegate.onMiss(key);
+  }
+
+  @Override
+  public void onInsert(String key) {
+    delegate.onInsert(key);
+  }
+
+  @Override
+  public void onRemove(String key) {
+    delegate.onRemove(key);
+  }
+
+  @Override
+  public @Nullable String selectVictim() {
+    return delegate.selectVictim();
+  }
+
+  @Override
+  public boolean shouldAdmit(String candidate, String victim) {
+    return estimateFrequency(candidate) > estimateFrequency(victim) && delegate.shouldAdmit(candidate, victim);
+  }
+
+  /**
+   * Estimates how often a key has been requested recently
+   */
+  public int estimateFrequency(String key) {
+    int hash = spread(key.hashCode());
+    int result = MAX_COUNT;
+
+    for (int row = 0; row < DEPTH; row++)
+      result = Math.min(result, counters[indexOf(hash, row)]);
+
+    return result;
+  }
+
+  private void increment(String key) {
+    int hash = spread(key.hashCode());
+    boolean incremented = false;
+
+    for (int row = 0; row < DEPTH; row++) {
+      int index = indexOf(hash, row);
+
+      if (counters[index] < MAX_COUNT) {
+        ++counters[index];
+        incremented = true;
+      }
+    }
+
+    if (incremented && ++additions >= sampleSize)
+      age();
+  }
+
+  /**
+   * Halves all counters, so that keys which are no longer requested lose their advantage
+   */
+  private void age() {
+    for (int i = 0; i < counters.length; i++)
+      counters[i] >>>= 1;
+
+    additions /= 2;
+  }
+
+  private int indexOf(int hash, int row) {
+    int rowHash = hash * SEEDS[row];
+    rowHash ^= rowHash >>> 17;
+    return row * width + (rowHash & (width - 1));
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
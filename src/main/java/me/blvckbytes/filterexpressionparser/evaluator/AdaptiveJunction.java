@@ -0,0 +1,209 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates the operands of a junction in an order which is re-planned periodically, based on how often
+ * each operand has been observed to pass and how long it took to evaluate. About every SAMPLING_INTERVAL-th
+ * evaluation is a sample, which evaluates all operands instead of short-circuiting, so that the pass rates of
+ * operands which are rarely reached are not skewed. Samples and re-plans are decided by thread-local random
+ * numbers and recorded by striped counters, so that threads evaluating concurrently don't contend.
+ */
+public class AdaptiveJunction<T> implements Predicate<T> {
+
+  public static final int SAMPLING_INTERVAL = 64;
+  public static final int DEFAULT_REPLAN_INTERVAL = 1 << 14;
+
+  // Chances to short-circuit below this value are raised to it, to keep ranks finite
+  private static final double MINIMUM_CHANCE = 1e-3;
+
+  // Costs below the resolution of the timer are raised to it, so that operands which are too cheap to be
+  // timed reliably, possibly even measuring zero, are ranked by their chance to short-circuit alone
+  private static final double MINIMUM_COST = measureTimerResolution();
+
+  private final Predicate<T>[] operands;
+  private final boolean isConjunction;
+  private final int samplesPerReplan;
+
+  private final LongAdder samples;
+  private final LongAdder[] passes, nanos;
+
+  // Smoothed estimates of all operands, only accessed while holding the planning flag
+  private final double[] passRates, costs;
+  private boolean hasEstimates;
+
+  private final AtomicBoolean isPlanning;
+  private volatile int[] order;
+
+  /**
+   * @param operands Operands of the junction, which are evaluated in the passed order until the first re-plan
+   * @param isConjunction Whether all operands need to pass, or whether any single passing operand suffices
+   * @param replanInterval Approximate number of evaluations between re-plans of the order of operands
+   */
+  public AdaptiveJunction(Predicate<T>[] operands, boolean isConjunction, int replanInterval) {
+    this.operands = operands;
+    this.isConjunction = isConjunction;
+    this.samplesPerReplan = Math.max(1, replanInterval / SAMPLING_INTERVAL);
+
+    this.samples = new LongAdder();
+    this.passes = new LongAdder[operands.length];
+    this.nanos = new LongAdder[operands.length];
+
+    for (int i = 0; i < operands.length; i++) {
+      passes[i] = new LongAdder();
+      nanos[i] = new LongAdder();
+    }
+
+    this.passRates = new double[operands.length];
+    this.costs = new double[operands.length];
+
+    this.isPlanning = new AtomicBoolean();
+    this.order = new int[operands.length];
+
+    for (int i = 0; i < operands.length; i++)
+      order[i] = i;
+  }
+
+  @Override
+  public boolean test(T target) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int[] currentOrder = order;
+
+    if (random.nextInt(SAMPLING_INTERVAL) != 0) {
+      for (int index : currentOrder) {
+        if (operands[index].test(target) != isConjunction)
+          return !isConjunction;
+      }
+
+      return isConjunction;
+    }
+
+    boolean result = isConjunction;
+
+    for (int index : currentOrder) {
+      long start = System.nanoTime();
+      boolean passed = operands[index].test(target);
+      nanos[index].add(System.nanoTime() - start);
+
+      if (passed)
+        passes[index].increment();
+
+      if (passed != isConjunction)
+        result = !isConjunction;
+    }
+
+    samples.increment();
+
+    if (random.nextInt(samplesPerReplan) == 0)
+      replan();
+
+    return result;
+  }
+
+  /**
+   * @return Indices of the operands, in the order in which they're currently evaluated
+   */
+  public int[] getOrder() {
+    return order.clone();
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private void replan() {
+    // Skip re-planning if another thread is already doing so, as it's going to publish an order soon
+    if (!isPlanning.compareAndSet(false, true))
+      return;
+
+    try {
+      // Samples which are recorded concurrently may be split between windows, which only blurs the estimates a bit
+      long sampleCount = samples.sumThenReset();
+
+      if (sampleCount == 0)
+        return;
+
+      for (int i = 0; i < operands.length; i++) {
+        double passRate = passes[i].sumThenReset() / (double) sampleCount;
+        double cost = nanos[i].sumThenReset() / (double) sampleCount;
+
+        // Halve the weight of older windows, so that the order follows changes of the data
+        passRates[i] = hasEstimates ? (passRates[i] + passRate) / 2 : passRate;
+        costs[i] = hasEstimates ? (costs[i] + cost) / 2 : cost;
+      }
+
+      hasEstimates = true;
+
+      Integer[] indices = new Integer[operands.length];
+
+      for (int i = 0; i < indices.length; i++)
+        indices[i] = order[i];
+
+      // Sorting is stable, so operands of equal rank keep their current order
+      Arrays.sort(indices, Comparator.comparingDouble(this::rankOperand));
+
+      int[] newOrder = new int[indices.length];
+
+      for (int i = 0; i < newOrder.length; i++)
+        newOrder[i] = indices[i];
+
+      order = newOrder;
+    } finally {
+      isPlanning.set(false);
+    }
+  }
+
+  private double rankOperand(int index) {
+    double chanceToShortCircuit = isConjunction ? 1 - passRates[index] : passRates[index];
+    return Math.max(costs[index], MINIMUM_COST) / Math.max(chanceToShortCircuit, MINIMUM_CHANCE);
+  }
+
+  /**
+   * @return Smallest non-zero difference between two consecutive readings of System#nanoTime
+   */
+  private static long measureTimerResolution() {
+    long resolution = Long.MAX_VALUE;
+
+    for (int i = 0; i < 1000; i++) {
+      long start = System.nanoTime(), difference;
+
+      // Spin until the timer advances, which takes at most one tick
+      do {
+        difference = System.nanoTime() - start;
+      } while (difference == 0);
+
+      resolution = Math.min(resolution, difference);
+    }
+
+    return Math.max(resolution, 1);
+  }
+}
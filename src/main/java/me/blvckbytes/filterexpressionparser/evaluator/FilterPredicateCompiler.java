@@ -0,0 +1,342 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator;
+
+import me.blvckbytes.filterexpressionparser.cache.PatternCache;
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.error.UnsupportedComparisonError;
+import me.blvckbytes.filterexpressionparser.logging.DebugLogSource;
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import me.blvckbytes.filterexpressionparser.parser.LiteralType;
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+import me.blvckbytes.filterexpressionparser.regex.IRegexMatcher;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compiles filter expressions into predicates, which can be reused to evaluate any number of
+ * objects. Identifiers are resolved, literals are converted and operators as well as string
+ * flags are dispatched once while compiling, so that evaluating only walks a tree of closures.
+ */
+public class FilterPredicateCompiler implements IPredicateCompiler {
+
+  private final Logger logger;
+  private final PatternCache patternCache;
+  private final int maximumFuzzyEdits;
+  private final boolean reorderAdaptively;
+  private final int replanInterval;
+
+  public FilterPredicateCompiler(Logger logger) {
+    this(logger, PatternCache.getShared());
+  }
+
+  public FilterPredicateCompiler(Logger logger, PatternCache patternCache) {
+    this(logger, patternCache, FuzzyMatcher.DEFAULT_MAXIMUM_EDITS);
+  }
+
+  /**
+   * @param patternCache Cache of the patterns of regular expressions, which also decides about their backend
+   * @param maximumFuzzyEdits Maximum number of edits of fuzzy searches, see FuzzyMatcher
+   */
+  public FilterPredicateCompiler(Logger logger, PatternCache patternCache, int maximumFuzzyEdits) {
+    this(logger, patternCache, maximumFuzzyEdits, false, AdaptiveJunction.DEFAULT_REPLAN_INTERVAL);
+  }
+
+  /**
+   * @param patternCache Cache of the patterns of regular expressions, which also decides about their backend
+   * @param maximumFuzzyEdits Maximum number of edits of fuzzy searches, see FuzzyMatcher
+   * @param reorderAdaptively Whether to re-plan the order of the operands of junctions while evaluating, see AdaptiveJunction
+   * @param replanInterval Approximate number of evaluations of a junction between re-plans of its order
+   */
+  public FilterPredicateCompiler(Logger logger, PatternCache patternCache, int maximumFuzzyEdits, boolean reorderAdaptively, int replanInterval) {
+    this.logger = logger;
+    this.patternCache = patternCache;
+    this.maximumFuzzyEdits = maximumFuzzyEdits;
+    this.reorderAdaptively = reorderAdaptively;
+    this.replanInterval = replanInterval;
+  }
+
+  @Override
+  public <T> Predicate<T> compile(ABinaryFilterExpression<?, ?> expression, IFieldAccessor<T> accessor) throws AParserError {
+    if (expression instanceof ConjunctionExpression)
+      return compileConjunction(compileOperands((ConjunctionExpression) expression, accessor));
+
+    if (expression instanceof DisjunctionExpression)
+      return compileDisjunction(compileOperands((DisjunctionExpression) expression, accessor));
+
+    if (expression instanceof ComparisonExpression)
+      return compileComparison((ComparisonExpression) expression, accessor);
+
+    throw new IllegalStateException("Unknown expression type " + expression.getClass().getSimpleName());
+  }
+
+  //=========================================================================//
+  //                                Junctions                                //
+  //=========================================================================//
+
+  @SuppressWarnings("unchecked")
+  private <T> Predicate<T>[] compileOperands(AJunctionExpression junction, IFieldAccessor<T> accessor) throws AParserError {
+    List<ABinaryFilterExpression<?, ?>> operands = junction.flattenOperands();
+    Predicate<T>[] result = (Predicate<T>[]) new Predicate<?>[operands.size()];
+
+    for (int i = 0; i < result.length; i++)
+      result[i] = compile(operands.get(i), accessor);
+
+    return result;
+  }
+
+  /**
+   * Combines compiled operands into a junction, which is reordered adaptively if enabled
+   * @param operands Operands, in the order in which they're evaluated initially
+   * @param isConjunction Whether all operands need to pass, or whether any single passing operand suffices
+   */
+  public <T> Predicate<T> compileJunction(Predicate<T>[] operands, boolean isConjunction) {
+    return isConjunction ? compileConjunction(operands) : compileDisjunction(operands);
+  }
+
+  private <T> Predicate<T> compileConjunction(Predicate<T>[] operands) {
+    if (reorderAdaptively)
+      return new AdaptiveJunction<>(operands, true, replanInterval);
+
+    if (operands.length == 2) {
+      Predicate<T> lhs = operands[0], rhs = operands[1];
+      return target -> lhs.test(target) && rhs.test(target);
+    }
+
+    return target -> {
+      for (Predicate<T> operand : operands) {
+        if (!operand.test(target))
+          return false;
+      }
+
+      return true;
+    };
+  }
+
+  private <T> Predicate<T> compileDisjunction(Predicate<T>[] operands) {
+    if (reorderAdaptively)
+      return new AdaptiveJunction<>(operands, false, replanInterval);
+
+    if (operands.length == 2) {
+      Predicate<T> lhs = operands[0], rhs = operands[1];
+      return target -> lhs.test(target) || rhs.test(target);
+    }
+
+    return target -> {
+      for (Predicate<T> operand : operands) {
+        if (operand.test(target))
+          return true;
+      }
+
+      return false;
+    };
+  }
+
+  //=========================================================================//
+  //                              Comparisons                                //
+  //=========================================================================//
+
+  private <T> Predicate<T> compileComparison(ComparisonExpression comparison, IFieldAccessor<T> accessor) throws AParserError {
+    logger.log(Level.FINEST, () -> DebugLogSource.COMPILER + "Compiling comparison " + comparison.expressionify());
+
+    FFieldReader<T> reader = accessor.resolve(comparison.getLhs().getValue());
+    TerminalExpression<?> value = comparison.getRhs();
+    @Nullable Predicate<T> result;
+
+    if (value instanceof LongExpression) {
+      long number = ((LongExpression) value).getValue();
+
+      if (reader instanceof INumericFieldReader) {
+        INumericFieldReader<T> numericReader = (INumericFieldReader<T>) reader;
+        result = compileOrdering(comparison.getOperator(), target -> numericReader.compareToLong(target, number));
+      }
+
+      else
+        result = compileOrdering(comparison.getOperator(), target -> ValueComparisons.compareToLong(reader.read(target), number));
+    }
+
+    else if (value instanceof DoubleExpression) {
+      double number = ((DoubleExpression) value).getValue();
+
+      if (reader instanceof INumericFieldReader) {
+        INumericFieldReader<T> numericReader = (INumericFieldReader<T>) reader;
+        result = compileOrdering(comparison.getOperator(), target -> numericReader.compareToDouble(target, number));
+      }
+
+      else
+        result = compileOrdering(comparison.getOperator(), target -> ValueComparisons.compareToDouble(reader.read(target), number));
+    }
+
+    else if (value instanceof StringExpression)
+      result = compileStringComparison(comparison, (StringExpression) value, reader);
+
+    else if (value instanceof LiteralExpression)
+      result = compileLiteralComparison(comparison.getOperator(), ((LiteralExpression) value).getValue(), reader);
+
+    else if (value instanceof IdentifierExpression)
+      result = compileIdentifierComparison(comparison.getOperator(), reader, accessor.resolve(((IdentifierExpression) value).getValue()));
+
+    else
+      throw new IllegalStateException("Unknown terminal type " + value.getClass().getSimpleName());
+
+    if (result == null)
+      throw new UnsupportedComparisonError(comparison);
+
+    return result;
+  }
+
+  private <T> @Nullable Predicate<T> compileStringComparison(ComparisonExpression comparison, StringExpression string, FFieldReader<T> reader) throws AParserError {
+    String needle = string.getValue();
+    boolean ignoreCase = !string.isCaseSensitive();
+
+    FFieldReader<T> stringReader = string.shouldTrimTarget()
+      ? target -> ValueComparisons.asTrimmedString(reader.read(target))
+      : target -> ValueComparisons.asString(reader.read(target));
+
+    switch (comparison.getOperator()) {
+      case EQUAL:
+      case STARTS_WITH:
+      case ENDS_WITH:
+      case CONTAINS: {
+        // The matcher trims by itself, without creating a trimmed copy of each value
+        StringMatcher matcher = new StringMatcher(comparison.getOperator(), needle, ignoreCase, string.shouldTrimTarget());
+        return target -> matcher.matches(ValueComparisons.asString(reader.read(target)));
+      }
+
+      case NOT_EQUAL: {
+        StringMatcher matcher = new StringMatcher(ComparisonOperator.EQUAL, needle, ignoreCase, string.shouldTrimTarget());
+        return target -> !matcher.matches(ValueComparisons.asString(reader.read(target)));
+      }
+
+      case REGEX_MATCHER: {
+        IRegexMatcher matcher = patternCache.compile(string);
+        return target -> ValueComparisons.matches((String) stringReader.read(target), matcher);
+      }
+
+      case CONTAINS_FUZZY: {
+        FuzzyMatcher matcher = new FuzzyMatcher(needle, ignoreCase, maximumFuzzyEdits);
+        return target -> ValueComparisons.containsFuzzy((String) stringReader.read(target), matcher);
+      }
+
+      default:
+        return compileOrdering(comparison.getOperator(), ignoreCase
+          ? target -> ValueComparisons.compareStringIgnoreCase((String) stringReader.read(target), needle)
+          : target -> ValueComparisons.compareString((String) stringReader.read(target), needle)
+        );
+    }
+  }
+
+  private <T> @Nullable Predicate<T> compileLiteralComparison(ComparisonOperator operator, LiteralType literal, FFieldReader<T> reader) {
+    Object value = literal.getValue();
+
+    switch (operator) {
+      case EQUAL:
+        return value == null
+          ? target -> reader.read(target) == null
+          : target -> value.equals(reader.read(target));
+
+      case NOT_EQUAL:
+        return value == null
+          ? target -> reader.read(target) != null
+          : target -> !value.equals(reader.read(target));
+
+      default:
+        return null;
+    }
+  }
+
+  private <T> @Nullable Predicate<T> compileIdentifierComparison(ComparisonOperator operator, FFieldReader<T> reader, FFieldReader<T> otherReader) {
+    switch (operator) {
+      case EQUAL:
+        return target -> ValueComparisons.valuesEqual(reader.read(target), otherReader.read(target));
+
+      case NOT_EQUAL:
+        return target -> !ValueComparisons.valuesEqual(reader.read(target), otherReader.read(target));
+
+      case STARTS_WITH:
+        return target -> ValueComparisons.startsWith(ValueComparisons.asString(reader.read(target)), ValueComparisons.asString(otherReader.read(target)));
+
+      case ENDS_WITH:
+        return target -> ValueComparisons.endsWith(ValueComparisons.asString(reader.read(target)), ValueComparisons.asString(otherReader.read(target)));
+
+      case CONTAINS:
+        return target -> ValueComparisons.contains(ValueComparisons.asString(reader.read(target)), ValueComparisons.asString(otherReader.read(target)));
+
+      // Patterns have to be known at compile time
+      case REGEX_MATCHER:
+      case CONTAINS_FUZZY:
+        return null;
+
+      default:
+        return compileOrdering(operator, target -> ValueComparisons.compareValues(reader.read(target), otherReader.read(target)));
+    }
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  /**
+   * Compiles an operator which only depends on the sign of a comparison
+   * @param operator Operator to compile
+   * @param comparator Comparison of the target against the constant, yielding a sign or INCOMPARABLE
+   * @return Compiled predicate or null if the operator is not an ordering
+   */
+  public static <T> @Nullable Predicate<T> compileOrdering(ComparisonOperator operator, ToIntFunction<T> comparator) {
+    switch (operator) {
+      case EQUAL:
+        return target -> comparator.applyAsInt(target) == 0;
+
+      case NOT_EQUAL:
+        return target -> comparator.applyAsInt(target) != 0;
+
+      case GREATER_THAN:
+        return target -> comparator.applyAsInt(target) > 0;
+
+      case GREATER_THAN_OR_EQUAL:
+        return target -> comparator.applyAsInt(target) >= 0;
+
+      case LESS_THAN:
+        return target -> {
+          int result = comparator.applyAsInt(target);
+          return result < 0 && result != ValueComparisons.INCOMPARABLE;
+        };
+
+      case LESS_THAN_OR_EQUAL:
+        return target -> {
+          int result = comparator.applyAsInt(target);
+          return result <= 0 && result != ValueComparisons.INCOMPARABLE;
+        };
+
+      default:
+        return null;
+    }
+  }
+}
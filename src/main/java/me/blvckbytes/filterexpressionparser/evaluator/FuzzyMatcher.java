@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * Searches for occurrences of a needle within values, which may differ from the needle by a limited number of
+ * insertions, deletions and substitutions of characters. All rows of the table of edit distances are advanced at
+ * once per character of the value, as bit-vectors of their vertical differences, by Myers' bit-parallel algorithm.
+ * Needles of up to 64 characters are held by a single word, while longer needles are split into blocks of words.
+ */
+public class FuzzyMatcher {
+
+  /**
+   * Default maximum number of edits, which is further limited to a third of the needle's length
+   */
+  public static final int DEFAULT_MAXIMUM_EDITS = 2;
+
+  private static final int LATIN_LIMIT = 256;
+
+  private final int length;
+  private final int maximumEdits;
+  private final boolean ignoreCase;
+  private final int blockCount;
+  private final long lastBit;
+
+  // Bitmasks of the needle's positions which hold a given character, block by block
+  private final long[] latinMasks;
+  private final char[] otherCharacters;
+  private final long[] otherMasks;
+
+  /**
+   * @param needle Needle to search for
+   * @param ignoreCase Whether to compare characters case-insensitively
+   * @param maximumEdits Maximum number of edits, which is limited to a third of the needle's length,
+   *                     so that short needles are not found within just about every value
+   */
+  public FuzzyMatcher(String needle, boolean ignoreCase, int maximumEdits) {
+    this.length = needle.length();
+    this.maximumEdits = Math.max(0, Math.min(maximumEdits, length / 3));
+    this.ignoreCase = ignoreCase;
+    this.blockCount = Math.max(1, (length + 63) / 64);
+    this.lastBit = 1L << ((length - 1) & 63);
+
+    TreeSet<Character> others = new TreeSet<>();
+
+    for (int i = 0; i < length; i++) {
+      char c = fold(needle.charAt(i));
+
+      if (c >= LATIN_LIMIT)
+        others.add(c);
+    }
+
+    this.latinMasks = new long[LATIN_LIMIT * blockCount];
+    this.otherCharacters = new char[others.size()];
+    this.otherMasks = new long[others.size() * blockCount];
+
+    int index = 0;
+
+    for (char c : others)
+      otherCharacters[index++] = c;
+
+    for (int i = 0; i < length; i++) {
+      char c = fold(needle.charAt(i));
+      long bit = 1L << (i & 63);
+
+      if (c < LATIN_LIMIT)
+        latinMasks[c * blockCount + (i >> 6)] |= bit;
+      else
+        otherMasks[Arrays.binarySearch(otherCharacters, c) * blockCount + (i >> 6)] |= bit;
+    }
+  }
+
+  public int getMaximumEdits() {
+    return maximumEdits;
+  }
+
+  /**
+   * Checks whether the needle occurs anywhere within the value, with at most the maximum number of edits
+   */
+  public boolean find(String value) {
+    if (length <= maximumEdits)
+      return true;
+
+    return blockCount == 1 ? findSingleBlock(value) : findMultipleBlocks(value);
+  }
+
+  private boolean findSingleBlock(String value) {
+    // Vertical differences of the first column are all +1, as it's the distance to an empty prefix of the value
+    long positive = -1, negative = 0;
+    int score = length;
+
+    for (int i = 0; i < value.length(); i++) {
+      long equal = maskOf(value.charAt(i), 0);
+
+      long verticalCarry = equal | negative;
+      long horizontal = (((equal & positive) + positive) ^ positive) | equal;
+      long horizontalPositive = negative | ~(horizontal | positive);
+      long horizontalNegative = positive & horizontal;
+
+      if ((horizontalPositive & lastBit) != 0)
+        ++score;
+      else if ((horizontalNegative & lastBit) != 0)
+        --score;
+
+      // The first row is all zeros, as the needle may begin anywhere within the value
+      horizontalPositive <<= 1;
+      horizontalNegative <<= 1;
+
+      positive = horizontalNegative | ~(verticalCarry | horizontalPositive);
+      negative = horizontalPositive & verticalCarry;
+
+      if (score <= maximumEdits)
+        return true;
+    }
+
+    return false;
+  }
+
+  private boolean findMultipleBlocks(String value) {
+    long[] positives = new long[blockCount], negatives = new long[blockCount];
+    Arrays.fill(positives, -1);
+    int score = length;
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      // Horizontal difference which is carried from the last row of one block into the next block
+      int carry = 0;
+
+      for (int block = 0; block < blockCount; block++) {
+        long equal = maskOf(c, block);
+        long positive = positives[block], negative = negatives[block];
+        long highBit = block == blockCount - 1 ? lastBit : Long.MIN_VALUE;
+
+        long verticalCarry = equal | negative;
+
+        if (carry < 0)
+          equal |= 1;
+
+        long horizontal = (((equal & positive) + positive) ^ positive) | equal;
+        long horizontalPositive = negative | ~(horizontal | positive);
+        long horizontalNegative = positive & horizontal;
+
+        int nextCarry = (horizontalPositive & highBit) != 0 ? 1 : (horizontalNegative & highBit) != 0 ? -1 : 0;
+
+        horizontalPositive <<= 1;
+        horizontalNegative <<= 1;
+
+        if (carry < 0)
+          horizontalNegative |= 1;
+        else if (carry > 0)
+          horizontalPositive |= 1;
+
+        positives[block] = horizontalNegative | ~(verticalCarry | horizontalPositive);
+        negatives[block] = horizontalPositive & verticalCarry;
+        carry = nextCarry;
+      }
+
+      score += carry;
+
+      if (score <= maximumEdits)
+        return true;
+    }
+
+    return false;
+  }
+
+  private long maskOf(char c, int block) {
+    c = fold(c);
+
+    if (c < LATIN_LIMIT)
+      return latinMasks[c * blockCount + block];
+
+    int index = Arrays.binarySearch(otherCharacters, c);
+    return index < 0 ? 0 : otherMasks[index * blockCount + block];
+  }
+
+  private char fold(char c) {
+    return ignoreCase ? ValueComparisons.foldCase(c) : c;
+  }
+}
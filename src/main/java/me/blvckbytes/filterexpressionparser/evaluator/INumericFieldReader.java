@@ -0,0 +1,47 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator;
+
+/**
+ * Reader of a field which is able to compare it's value against numeric constants by itself,
+ * converting it into a primitive instead of passing it around as an object. Compilers use these
+ * comparisons whenever the terminal of a comparison is a long or a double.
+ * @param <T> Type of the evaluated objects
+ */
+public interface INumericFieldReader<T> extends FFieldReader<T> {
+
+  /**
+   * Compares the field's value against a long constant, just like ValueComparisons.compareToLong
+   * @return Sign of the comparison or INCOMPARABLE if the value is not numeric
+   */
+  int compareToLong(T target, long other);
+
+  /**
+   * Compares the field's value against a double constant, just like ValueComparisons.compareToDouble
+   * @return Sign of the comparison or INCOMPARABLE if the value is not numeric
+   */
+  int compareToDouble(T target, double other);
+
+}
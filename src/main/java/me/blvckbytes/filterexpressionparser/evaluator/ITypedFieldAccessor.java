@@ -0,0 +1,48 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator;
+
+/**
+ * Accessor which is also able to read numeric fields as primitives, without boxing their values
+ * @param <T> Type of the evaluated objects
+ */
+public interface ITypedFieldAccessor<T> extends IFieldAccessor<T> {
+
+  /**
+   * Resolves an identifier into a reader of the integral field it references
+   * @param identifier Identifier, as specified within the filter
+   * @return Reader of the field's value, which is never null
+   * @throws IllegalArgumentException The field is declared as a floating point number
+   */
+  FLongReader<T> resolveLong(String identifier);
+
+  /**
+   * Resolves an identifier into a reader of the numeric field it references
+   * @param identifier Identifier, as specified within the filter
+   * @return Reader of the field's value, which is never null
+   */
+  FDoubleReader<T> resolveDouble(String identifier);
+
+}
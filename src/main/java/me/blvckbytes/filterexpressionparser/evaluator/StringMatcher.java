@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator;
+
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Matches values against a string constant without allocating, by trimming values through the bounds of
+ * the compared region and by folding their characters one at a time, against a needle folded in advance.
+ * Searches for needles of at least HORSPOOL_THRESHOLD characters skip ahead by a table of shifts.
+ */
+public class StringMatcher {
+
+  /**
+   * Minimum length of needles which are searched for by Horspool's algorithm, where shorter needles are
+   * compared at every position, as the skip table would not allow for large enough shifts to pay off
+   */
+  public static final int HORSPOOL_THRESHOLD = 4;
+
+  private static final int LATIN_LIMIT = 256;
+
+  private final ComparisonOperator operator;
+  private final String needle;
+  private final char[] foldedNeedle;
+  private final boolean ignoreCase, trimTarget;
+
+  // Shifts by the folded character at the last position of the window, only used when searching case-insensitively
+  private final int @Nullable [] latinShifts;
+  private final int otherShift;
+
+  /**
+   * @param operator One of EQUAL, STARTS_WITH, ENDS_WITH or CONTAINS, where NOT_EQUAL is the negation of EQUAL
+   * @param needle Constant to compare values against
+   * @param ignoreCase Whether to compare characters case-insensitively, like String#equalsIgnoreCase
+   * @param trimTarget Whether to ignore leading and trailing whitespace of values, like String#trim
+   */
+  public StringMatcher(ComparisonOperator operator, String needle, boolean ignoreCase, boolean trimTarget) {
+    if (operator != ComparisonOperator.EQUAL && operator != ComparisonOperator.STARTS_WITH && operator != ComparisonOperator.ENDS_WITH && operator != ComparisonOperator.CONTAINS)
+      throw new IllegalArgumentException("Unsupported operator " + operator);
+
+    this.operator = operator;
+    this.needle = needle;
+    this.ignoreCase = ignoreCase;
+    this.trimTarget = trimTarget;
+    this.foldedNeedle = new char[needle.length()];
+
+    for (int i = 0; i < foldedNeedle.length; i++)
+      foldedNeedle[i] = ignoreCase ? ValueComparisons.foldCase(needle.charAt(i)) : needle.charAt(i);
+
+    int length = foldedNeedle.length;
+
+    if (!ignoreCase || operator != ComparisonOperator.CONTAINS || length < HORSPOOL_THRESHOLD) {
+      this.latinShifts = null;
+      this.otherShift = 0;
+      return;
+    }
+
+    this.latinShifts = new int[LATIN_LIMIT];
+    Arrays.fill(latinShifts, length);
+
+    int otherShift = length;
+
+    // The last character is left out, as the window would not move if it were to be found there
+    for (int i = 0; i < length - 1; i++) {
+      char c = foldedNeedle[i];
+
+      // Shifts of all other characters share a single, and thus the smallest, value
+      if (c < LATIN_LIMIT)
+        latinShifts[c] = length - 1 - i;
+      else
+        otherShift = Math.min(otherShift, length - 1 - i);
+    }
+
+    this.otherShift = otherShift;
+  }
+
+  public boolean matches(@Nullable String value) {
+    if (value == null)
+      return false;
+
+    int start = 0, end = value.length();
+
+    if (trimTarget) {
+      while (start < end && value.charAt(start) <= ' ')
+        ++start;
+
+      while (end > start && value.charAt(end - 1) <= ' ')
+        --end;
+    }
+
+    int length = foldedNeedle.length;
+
+    switch (operator) {
+      case EQUAL:
+        return end - start == length && regionMatches(value, start);
+
+      case STARTS_WITH:
+        return end - start >= length && regionMatches(value, start);
+
+      case ENDS_WITH:
+        return end - start >= length && regionMatches(value, end - length);
+
+      default:
+        return contains(value, start, end);
+    }
+  }
+
+  private boolean regionMatches(String value, int offset) {
+    if (!ignoreCase)
+      return value.startsWith(needle, offset);
+
+    for (int i = 0; i < foldedNeedle.length; i++) {
+      if (ValueComparisons.foldCase(value.charAt(offset + i)) != foldedNeedle[i])
+        return false;
+    }
+
+    return true;
+  }
+
+  private boolean contains(String value, int start, int end) {
+    int length = foldedNeedle.length;
+
+    if (!ignoreCase) {
+      int index = value.indexOf(needle, start);
+      return index >= 0 && index + length <= end;
+    }
+
+    if (length == 0)
+      return true;
+
+    int lastStart = end - length;
+
+    if (latinShifts == null) {
+      for (int i = start; i <= lastStart; i++) {
+        if (regionMatches(value, i))
+          return true;
+      }
+
+      return false;
+    }
+
+    int last = length - 1;
+
+    for (int i = start; i <= lastStart;) {
+      char c = ValueComparisons.foldCase(value.charAt(i + last));
+
+      if (c == foldedNeedle[last]) {
+        int j = last - 1;
+
+        while (j >= 0 && ValueComparisons.foldCase(value.charAt(i + j)) == foldedNeedle[j])
+          --j;
+
+        if (j < 0)
+          return true;
+      }
+
+      i += c < LATIN_LIMIT ? latinShifts[c] : otherShift;
+    }
+
+    return false;
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator;
+
+import me.blvckbytes.filterexpressionparser.regex.IRegexMatcher;
+import org.jetbrains.annotations.Nullable;
+
+
+/**
+ * Comparison primitives shared by all evaluators, which define how runtime
+ * field values relate to each other and to the terminals of a filter
+ */
+public class ValueComparisons {
+
+  // Result of comparing values which do not share a common ordering, chosen to fail every "greater" check
+  public static final int INCOMPARABLE = Integer.MIN_VALUE;
+
+  private ValueComparisons() {}
+
+  /**
+   * Compares a field value against a long constant
+   * @return Sign of the comparison or INCOMPARABLE if the value is not numeric
+   */
+  public static int compareToLong(@Nullable Object value, long other) {
+    if (isIntegral(value))
+      return Long.compare(((Number) value).longValue(), other);
+
+    if (value instanceof Number)
+      return Double.compare(((Number) value).doubleValue(), other);
+
+    return INCOMPARABLE;
+  }
+
+  /**
+   * Compares a field value against a double constant
+   * @return Sign of the comparison or INCOMPARABLE if the value is not numeric
+   */
+  public static int compareToDouble(@Nullable Object value, double other) {
+    if (value instanceof Number)
+      return Double.compare(((Number) value).doubleValue(), other);
+
+    return INCOMPARABLE;
+  }
+
+  /**
+   * Compares two field values with each other
+   * @return Sign of the comparison or INCOMPARABLE if the values are neither both numeric nor both strings
+   */
+  public static int compareValues(@Nullable Object value, @Nullable Object other) {
+    if (value instanceof Number && other instanceof Number) {
+      if (isIntegral(value) && isIntegral(other))
+        return Long.compare(((Number) value).longValue(), ((Number) other).longValue());
+
+      return Double.compare(((Number) value).doubleValue(), ((Number) other).doubleValue());
+    }
+
+    if (value instanceof String && other instanceof String)
+      return Integer.signum(((String) value).compareTo((String) other));
+
+    return INCOMPARABLE;
+  }
+
+  /**
+   * Checks two field values for equality, where numbers are compared by their numeric value
+   */
+  public static boolean valuesEqual(@Nullable Object value, @Nullable Object other) {
+    if (value == null || other == null)
+      return value == other;
+
+    if (value instanceof Number && other instanceof Number)
+      return compareValues(value, other) == 0;
+
+    return value.equals(other);
+  }
+
+  /**
+   * Get the string representation of a field value, used by all string operators
+   */
+  public static @Nullable String asString(@Nullable Object value) {
+    return value == null ? null : value.toString();
+  }
+
+  /**
+   * Get the string representation of a field value with leading and trailing whitespace removed
+   */
+  public static @Nullable String asTrimmedString(@Nullable Object value) {
+    return value == null ? null : value.toString().trim();
+  }
+
+  public static boolean startsWith(@Nullable String value, @Nullable String prefix) {
+    return value != null && prefix != null && value.startsWith(prefix);
+  }
+
+  public static boolean endsWith(@Nullable String value, @Nullable String suffix) {
+    return value != null && suffix != null && value.endsWith(suffix);
+  }
+
+  public static boolean contains(@Nullable String value, @Nullable String needle) {
+    return value != null && needle != null && value.contains(needle);
+  }
+
+  public static boolean matches(@Nullable String value, IRegexMatcher matcher) {
+    return value != null && matcher.find(value);
+  }
+
+  public static boolean containsFuzzy(@Nullable String value, FuzzyMatcher matcher) {
+    return value != null && matcher.find(value);
+  }
+
+  /**
+   * Compares a string value lexicographically against another string
+   * @return Sign of the comparison or INCOMPARABLE if either is null
+   */
+  public static int compareString(@Nullable String value, @Nullable String other) {
+    if (value == null || other == null)
+      return INCOMPARABLE;
+
+    return Integer.signum(value.compareTo(other));
+  }
+
+  /**
+   * Compares a string value lexicographically against another string, ignoring the casing of both
+   * @return Sign of the comparison or INCOMPARABLE if either is null
+   */
+  public static int compareStringIgnoreCase(@Nullable String value, @Nullable String other) {
+    if (value == null || other == null)
+      return INCOMPARABLE;
+
+    return Integer.signum(value.compareToIgnoreCase(other));
+  }
+
+  /**
+   * Folds the case of a character, so that two characters are equal when ignoring their case,
+   * as defined by String#equalsIgnoreCase, if and only if their folded characters are equal
+   */
+  public static char foldCase(char c) {
+    if (c < 128)
+      return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  public static boolean matchesString(@Nullable String value, StringMatcher matcher) {
+    return matcher.matches(value);
+  }
+
+  /**
+   * Whether a value is a number without a fractional part, which is compared as a long
+   */
+  public static boolean isIntegral(@Nullable Object value) {
+    return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+  }
+}
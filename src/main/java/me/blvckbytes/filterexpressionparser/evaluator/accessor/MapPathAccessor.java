@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.accessor;
+
+import me.blvckbytes.filterexpressionparser.evaluator.FFieldReader;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.INumericFieldReader;
+import me.blvckbytes.filterexpressionparser.evaluator.ValueComparisons;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accessor of records made up of nested maps, like deserialized JSON, where each segment of a
+ * dotted identifier path, like meta.tags.primary, is looked up within the map of the previous one.
+ * Paths are split once per identifier, so that evaluating only performs a single map lookup per
+ * segment. A missing key or a value which is not a map at any but the last segment reads as null.
+ */
+public class MapPathAccessor implements IFieldAccessor<Map<String, Object>> {
+
+  private final ConcurrentHashMap<String, PathReader> readers;
+
+  public MapPathAccessor() {
+    this.readers = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public FFieldReader<Map<String, Object>> resolve(String identifier) {
+    return readers.computeIfAbsent(identifier, PathReader::new);
+  }
+
+  private static class PathReader implements INumericFieldReader<Map<String, Object>> {
+
+    private final String[] segments;
+    private final String lastSegment;
+
+    PathReader(String path) {
+      this.segments = path.split("\\.", -1);
+      this.lastSegment = segments[segments.length - 1];
+    }
+
+    @Override
+    public @Nullable Object read(Map<String, Object> target) {
+      Object value = target;
+
+      for (int i = 0; i < segments.length - 1; i++) {
+        if (!(value instanceof Map))
+          return null;
+
+        value = ((Map<?, ?>) value).get(segments[i]);
+      }
+
+      return value instanceof Map ? ((Map<?, ?>) value).get(lastSegment) : null;
+    }
+
+    @Override
+    public int compareToLong(Map<String, Object> target, long other) {
+      Object value = read(target);
+
+      // Checking for the exact types deserializers produce before walking the general case
+      if (value instanceof Long)
+        return Long.compare((Long) value, other);
+
+      if (value instanceof Integer)
+        return Long.compare((Integer) value, other);
+
+      if (value instanceof Double)
+        return Double.compare((Double) value, other);
+
+      return ValueComparisons.compareToLong(value, other);
+    }
+
+    @Override
+    public int compareToDouble(Map<String, Object> target, double other) {
+      Object value = read(target);
+
+      if (value instanceof Double)
+        return Double.compare((Double) value, other);
+
+      if (value instanceof Long)
+        return Double.compare((Long) value, other);
+
+      return ValueComparisons.compareToDouble(value, other);
+    }
+  }
+}
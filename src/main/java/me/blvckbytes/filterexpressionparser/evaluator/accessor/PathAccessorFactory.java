@@ -0,0 +1,549 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.accessor;
+
+import me.blvckbytes.filterexpressionparser.evaluator.FDoubleReader;
+import me.blvckbytes.filterexpressionparser.evaluator.FFieldReader;
+import me.blvckbytes.filterexpressionparser.evaluator.FLongReader;
+import me.blvckbytes.filterexpressionparser.evaluator.ITypedFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.ValueComparisons;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Resolves dotted identifier paths, like owner.address.city, against the members of a target
+ * class once, by looking up a getter (getCity, isCity or the record-style city) or a public field
+ * per segment. Getters are invoked through a generated lambda whenever the class is visible to this
+ * library, and through a method handle otherwise. A null value at any segment reads as null, while
+ * segments whose declared type is lacking the member are resolved against the runtime class of the
+ * value instead. Readers are cached per class and path, and are thus shared by all evaluators.
+ * Numeric fields may also be read as primitives, where primitive getters are invoked without boxing,
+ * but where no segment may be null.
+ */
+public class PathAccessorFactory {
+
+  private static final PathAccessorFactory SHARED = new PathAccessorFactory();
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  // Readers are keyed by their path, prefixed by a character which encodes the type of value they read
+  private final ClassValue<ConcurrentHashMap<String, Object>> readersByClass;
+
+  public PathAccessorFactory() {
+    this.readersByClass = new ClassValue<ConcurrentHashMap<String, Object>>() {
+      @Override
+      protected ConcurrentHashMap<String, Object> computeValue(Class<?> type) {
+        return new ConcurrentHashMap<>();
+      }
+    };
+  }
+
+  /**
+   * Factory which is shared by default, caching the readers of all classes
+   */
+  public static PathAccessorFactory getShared() {
+    return SHARED;
+  }
+
+  /**
+   * Creates an accessor which resolves identifiers against the members of the target class
+   * @param type Class of the evaluated objects
+   */
+  public <T> ITypedFieldAccessor<T> forClass(Class<T> type) {
+    return new ITypedFieldAccessor<T>() {
+
+      @Override
+      public FFieldReader<T> resolve(String identifier) {
+        return PathAccessorFactory.this.resolve(type, identifier);
+      }
+
+      @Override
+      public FLongReader<T> resolveLong(String identifier) {
+        return PathAccessorFactory.this.resolveLong(type, identifier);
+      }
+
+      @Override
+      public FDoubleReader<T> resolveDouble(String identifier) {
+        return PathAccessorFactory.this.resolveDouble(type, identifier);
+      }
+    };
+  }
+
+  /**
+   * Resolves a dotted identifier path against the members of the target class, or returns the
+   * reader of a previous call with the same class and path
+   * @param type Class of the evaluated objects
+   * @param path Identifier path, with segments separated by dots
+   * @throws IllegalArgumentException The class is lacking the member of the first segment
+   */
+  @SuppressWarnings("unchecked")
+  public <T> FFieldReader<T> resolve(Class<T> type, String path) {
+    return (FFieldReader<T>) getCached(type, 'o' + path, () -> createReader(type, path));
+  }
+
+  /**
+   * Resolves a dotted identifier path against the members of the target class into a reader of
+   * an integral number, or returns the reader of a previous call with the same class and path
+   * @param type Class of the evaluated objects
+   * @param path Identifier path, with segments separated by dots
+   * @throws IllegalArgumentException The class is lacking the member of the first segment, or the member
+   *                                  of the last segment is declared as a floating point number
+   */
+  @SuppressWarnings("unchecked")
+  public <T> FLongReader<T> resolveLong(Class<T> type, String path) {
+    return (FLongReader<T>) getCached(type, 'l' + path, () -> createLongReader(type, path));
+  }
+
+  /**
+   * Resolves a dotted identifier path against the members of the target class into a reader of
+   * a number, or returns the reader of a previous call with the same class and path
+   * @param type Class of the evaluated objects
+   * @param path Identifier path, with segments separated by dots
+   * @throws IllegalArgumentException The class is lacking the member of the first segment
+   */
+  @SuppressWarnings("unchecked")
+  public <T> FDoubleReader<T> resolveDouble(Class<T> type, String path) {
+    return (FDoubleReader<T>) getCached(type, 'd' + path, () -> createDoubleReader(type, path));
+  }
+
+  private Object getCached(Class<?> type, String key, Supplier<Object> factory) {
+    ConcurrentHashMap<String, Object> readers = readersByClass.get(type);
+    Object reader = readers.get(key);
+
+    if (reader == null) {
+      // Resolving outside of computeIfAbsent, as it may be slow and recurse into the cache
+      reader = factory.get();
+      Object existing = readers.putIfAbsent(key, reader);
+
+      if (existing != null)
+        reader = existing;
+    }
+
+    return reader;
+  }
+
+  private FFieldReader<Object> createReader(Class<?> type, String path) {
+    String[] names = path.split("\\.", -1);
+    Function<Object, Object>[] getters = createGetters(type, names, new Member[names.length]);
+
+    if (getters.length == 1) {
+      Function<Object, Object> getter = getters[0];
+      return target -> target == null ? null : getter.apply(target);
+    }
+
+    return target -> {
+      Object value = target;
+
+      for (int i = 0; i < getters.length && value != null; i++)
+        value = getters[i].apply(value);
+
+      return value;
+    };
+  }
+
+  private FLongReader<Object> createLongReader(Class<?> type, String path) {
+    String[] names = path.split("\\.", -1);
+    Member[] members = new Member[names.length];
+    Function<Object, Object>[] getters = createGetters(type, names, members);
+    Member member = members[members.length - 1];
+    ToLongFunction<Object> getter = createLongGetter(member);
+
+    if (getter == null) {
+      Class<?> declaredType = member == null ? null : getDeclaredType(member);
+
+      if (declaredType == float.class || declaredType == double.class || declaredType == Float.class || declaredType == Double.class)
+        throw new IllegalArgumentException("The member " + path + " of " + type.getName() + " is not integral");
+
+      FFieldReader<Object> reader = createReader(type, path);
+
+      // Cutting off fractions would not compare like the value itself
+      return target -> {
+        Object value = reader.read(target);
+
+        if (!ValueComparisons.isIntegral(value))
+          throw new IllegalStateException("The member " + path + " of " + type.getName() + " holds the non-integral value " + value);
+
+        return ((Number) value).longValue();
+      };
+    }
+
+    if (getters.length == 1)
+      return getter::applyAsLong;
+
+    Function<Object, Object>[] prefix = Arrays.copyOf(getters, getters.length - 1);
+    return target -> getter.applyAsLong(readPrefix(prefix, target));
+  }
+
+  private FDoubleReader<Object> createDoubleReader(Class<?> type, String path) {
+    String[] names = path.split("\\.", -1);
+    Member[] members = new Member[names.length];
+    Function<Object, Object>[] getters = createGetters(type, names, members);
+    ToDoubleFunction<Object> getter = createDoubleGetter(members[members.length - 1]);
+
+    if (getter == null) {
+      FFieldReader<Object> reader = createReader(type, path);
+      return target -> ((Number) reader.read(target)).doubleValue();
+    }
+
+    if (getters.length == 1)
+      return getter::applyAsDouble;
+
+    Function<Object, Object>[] prefix = Arrays.copyOf(getters, getters.length - 1);
+    return target -> getter.applyAsDouble(readPrefix(prefix, target));
+  }
+
+  private static Object readPrefix(Function<Object, Object>[] getters, Object target) {
+    Object value = target;
+
+    for (Function<Object, Object> getter : getters)
+      value = getter.apply(value);
+
+    return value;
+  }
+
+  /**
+   * Creates the getters of all segments of a path
+   * @param members Output of the member each segment resolved to, or null if it's resolved at runtime
+   */
+  @SuppressWarnings("unchecked")
+  private Function<Object, Object>[] createGetters(Class<?> type, String[] names, Member[] members) {
+    Function<Object, Object>[] result = (Function<Object, Object>[]) new Function<?, ?>[names.length];
+    Class<?> declaredType = type;
+
+    for (int i = 0; i < names.length; i++) {
+      String name = names[i];
+
+      if (name.isEmpty())
+        throw new IllegalArgumentException("The path " + String.join(".", names) + " contains an empty segment");
+
+      Member member = findMember(declaredType, name);
+
+      if (member == null) {
+        if (i == 0 || Modifier.isFinal(declaredType.getModifiers()) || declaredType.isPrimitive())
+          throw new IllegalArgumentException("The class " + declaredType.getName() + " has no member " + name);
+
+        result[i] = createRuntimeGetter(name);
+        declaredType = Object.class;
+        continue;
+      }
+
+      members[i] = member;
+      result[i] = createGetter(member);
+      declaredType = getDeclaredType(member);
+    }
+
+    return result;
+  }
+
+  //=========================================================================//
+  //                                 Members                                 //
+  //=========================================================================//
+
+  /**
+   * Finds the getter or public field which a segment refers to, preferring getters over fields
+   */
+  private static @Nullable Member findMember(Class<?> type, String name) {
+    String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+
+    Method method = findGetter(type, "get" + suffix);
+
+    if (method == null) {
+      method = findGetter(type, "is" + suffix);
+
+      if (method != null && method.getReturnType() != boolean.class && method.getReturnType() != Boolean.class)
+        method = null;
+    }
+
+    if (method == null)
+      method = findGetter(type, name);
+
+    if (method != null)
+      return method;
+
+    try {
+      Field field = type.getField(name);
+      return Modifier.isStatic(field.getModifiers()) ? null : field;
+    } catch (NoSuchFieldException e) {
+      return null;
+    }
+  }
+
+  private static @Nullable Method findGetter(Class<?> type, String name) {
+    try {
+      Method method = type.getMethod(name);
+
+      if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class)
+        return null;
+
+      return findPublicDeclaration(method);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Finds the declaration of a method within a public type, as methods of non-public
+   * classes, like the implementations of interfaces, can not be invoked from outside
+   */
+  private static Method findPublicDeclaration(Method method) {
+    if (isPublic(method.getDeclaringClass()))
+      return method;
+
+    for (Class<?> type = method.getDeclaringClass(); type != null; type = type.getSuperclass()) {
+      if (isPublic(type)) {
+        Method declaration = findGetter(type, method.getName());
+
+        if (declaration != null)
+          return declaration;
+      }
+
+      for (Class<?> interfaceType : type.getInterfaces()) {
+        Method declaration = findGetter(interfaceType, method.getName());
+
+        if (declaration != null && isPublic(declaration.getDeclaringClass()))
+          return declaration;
+      }
+    }
+
+    return method;
+  }
+
+  /**
+   * Checks whether a class and all of it's enclosing classes are public
+   */
+  private static boolean isPublic(Class<?> type) {
+    for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+      if (!Modifier.isPublic(current.getModifiers()))
+        return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Creates a getter which resolves the member of a segment against the runtime class of each
+   * value, caching one getter per encountered class, and which reads null if there's no such member
+   */
+  private static Function<Object, Object> createRuntimeGetter(String name) {
+    ClassValue<Function<Object, Object>> gettersByClass = new ClassValue<Function<Object, Object>>() {
+      @Override
+      protected Function<Object, Object> computeValue(Class<?> type) {
+        Member member = findMember(type, name);
+
+        if (member == null)
+          return value -> null;
+
+        return createGetter(member);
+      }
+    };
+
+    return value -> gettersByClass.get(value.getClass()).apply(value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> createGetter(Member member) {
+    MethodHandle handle = unreflect(member);
+    Object lambda = linkLambda(member, handle, Function.class, "apply", Object.class);
+
+    if (lambda != null)
+      return (Function<Object, Object>) lambda;
+
+    MethodHandle genericHandle = handle.asType(MethodType.methodType(Object.class, Object.class));
+
+    return value -> {
+      try {
+        return genericHandle.invokeExact(value);
+      } catch (Throwable e) {
+        throw toReadFailure(member, value, e);
+      }
+    };
+  }
+
+  /**
+   * Creates a getter which reads an integral member without boxing it's value
+   * @return Getter or null if the member's type is not a primitive which widens to a long
+   */
+  @SuppressWarnings("unchecked")
+  private static @Nullable ToLongFunction<Object> createLongGetter(@Nullable Member member) {
+    Class<?> type = getPrimitiveType(member);
+
+    if (type != byte.class && type != short.class && type != int.class && type != long.class)
+      return null;
+
+    MethodHandle handle = unreflect(member);
+    Object lambda = linkLambda(member, handle, ToLongFunction.class, "applyAsLong", long.class);
+
+    if (lambda != null)
+      return (ToLongFunction<Object>) lambda;
+
+    MethodHandle genericHandle = handle.asType(MethodType.methodType(long.class, Object.class));
+
+    return value -> {
+      try {
+        return (long) genericHandle.invokeExact(value);
+      } catch (Throwable e) {
+        throw toReadFailure(member, value, e);
+      }
+    };
+  }
+
+  /**
+   * Creates a getter which reads a numeric member without boxing it's value
+   * @return Getter or null if the member's type is not a primitive which widens to a double
+   */
+  @SuppressWarnings("unchecked")
+  private static @Nullable ToDoubleFunction<Object> createDoubleGetter(@Nullable Member member) {
+    Class<?> type = getPrimitiveType(member);
+
+    if (type == null || type == boolean.class || type == char.class)
+      return null;
+
+    MethodHandle handle = unreflect(member);
+    Object lambda = linkLambda(member, handle, ToDoubleFunction.class, "applyAsDouble", double.class);
+
+    if (lambda != null)
+      return (ToDoubleFunction<Object>) lambda;
+
+    MethodHandle genericHandle = handle.asType(MethodType.methodType(double.class, Object.class));
+
+    return value -> {
+      try {
+        return (double) genericHandle.invokeExact(value);
+      } catch (Throwable e) {
+        throw toReadFailure(member, value, e);
+      }
+    };
+  }
+
+  /**
+   * Translates a throwable of invoking a getter's handle into an unchecked exception, passing unchecked ones through
+   */
+  private static RuntimeException toReadFailure(Member member, Object value, Throwable throwable) {
+    if (throwable instanceof Error)
+      throw (Error) throwable;
+
+    if (throwable instanceof RuntimeException)
+      return (RuntimeException) throwable;
+
+    return new IllegalStateException("Could not read " + member.getName() + " of " + value.getClass().getName(), throwable);
+  }
+
+  private static @Nullable Class<?> getPrimitiveType(@Nullable Member member) {
+    if (member == null)
+      return null;
+
+    Class<?> type = getDeclaredType(member);
+    return type.isPrimitive() ? type : null;
+  }
+
+  /**
+   * @return Return type of a getter or type of a field
+   */
+  private static Class<?> getDeclaredType(Member member) {
+    return member instanceof Method ? ((Method) member).getReturnType() : ((Field) member).getType();
+  }
+
+  /**
+   * Generates a lambda which implements a functional interface by invoking a getter directly
+   * @param returnType Return type of the interface's method, to which the getter's value is boxed or widened
+   * @return Instance of the interface or null if the getter can not be invoked by a generated lambda
+   */
+  private static @Nullable Object linkLambda(Member member, MethodHandle handle, Class<?> interfaceType, String name, Class<?> returnType) {
+    if (!(member instanceof Method) || !isLinkable((Method) member))
+      return null;
+
+    MethodType type = handle.type();
+
+    try {
+      CallSite site = LambdaMetafactory.metafactory(
+        LOOKUP, name, MethodType.methodType(interfaceType),
+        MethodType.methodType(returnType, Object.class), handle,
+        returnType == Object.class ? type.wrap() : type.changeReturnType(returnType)
+      );
+
+      return site.getTarget().invoke();
+    } catch (Throwable e) {
+      // Falling back to invoking the handle, which is always possible
+      return null;
+    }
+  }
+
+  private static MethodHandle unreflect(Member member) {
+    try {
+      return unreflect(member, false);
+    } catch (IllegalAccessException e) {
+      try {
+        return unreflect(member, true);
+      } catch (IllegalAccessException | RuntimeException inner) {
+        throw new IllegalArgumentException("The member " + member.getName() + " of " + member.getDeclaringClass().getName() + " is not accessible", inner);
+      }
+    }
+  }
+
+  private static MethodHandle unreflect(Member member, boolean forceAccess) throws IllegalAccessException {
+    if (member instanceof Method) {
+      Method method = (Method) member;
+
+      if (forceAccess)
+        method.setAccessible(true);
+
+      return LOOKUP.unreflect(method);
+    }
+
+    Field field = (Field) member;
+
+    if (forceAccess)
+      field.setAccessible(true);
+
+    return LOOKUP.unreflectGetter(field);
+  }
+
+  /**
+   * Checks whether a generated lambda, which is linked by the loader of this library,
+   * is able to invoke the method directly
+   */
+  private static boolean isLinkable(Method method) {
+    Class<?> declaringClass = method.getDeclaringClass();
+
+    if (!Modifier.isPublic(method.getModifiers()) || !isPublic(declaringClass))
+      return false;
+
+    try {
+      return Class.forName(declaringClass.getName(), false, PathAccessorFactory.class.getClassLoader()) == declaringClass;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+}
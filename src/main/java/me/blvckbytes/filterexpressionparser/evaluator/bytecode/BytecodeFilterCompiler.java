@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.bytecode;
+
+import me.blvckbytes.filterexpressionparser.cache.PatternCache;
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.FuzzyMatcher;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.IPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.logging.DebugLogSource;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compiles filter expressions into classes of their own, which evaluate the whole expression within a
+ * single method of straight-line bytecode and thus do not suffer from megamorphic call sites, like a tree of
+ * closures does. Every class is defined by it's own loader and can be unloaded as soon as it's predicate
+ * is no longer referenced. Expressions which exceed the limits of a single method are compiled into closures.
+ */
+public class BytecodeFilterCompiler implements IPredicateCompiler {
+
+  private static final String GENERATED_CLASS_PREFIX = BytecodeFilterCompiler.class.getPackage().getName() + ".GeneratedFilter$";
+  private static final AtomicLong generatedClassCounter = new AtomicLong();
+
+  private final Logger logger;
+  private final PatternCache patternCache;
+  private final int maximumFuzzyEdits;
+  private final FilterPredicateCompiler fallbackCompiler;
+
+  public BytecodeFilterCompiler(Logger logger) {
+    this(logger, PatternCache.getShared());
+  }
+
+  public BytecodeFilterCompiler(Logger logger, PatternCache patternCache) {
+    this(logger, patternCache, FuzzyMatcher.DEFAULT_MAXIMUM_EDITS);
+  }
+
+  /**
+   * @param patternCache Cache of the patterns of regular expressions, which also decides about their backend
+   * @param maximumFuzzyEdits Maximum number of edits of fuzzy searches, see FuzzyMatcher
+   */
+  public BytecodeFilterCompiler(Logger logger, PatternCache patternCache, int maximumFuzzyEdits) {
+    this.logger = logger;
+    this.patternCache = patternCache;
+    this.maximumFuzzyEdits = maximumFuzzyEdits;
+    this.fallbackCompiler = new FilterPredicateCompiler(logger, patternCache, maximumFuzzyEdits);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Predicate<T> compile(ABinaryFilterExpression<?, ?> expression, IFieldAccessor<T> accessor) throws AParserError {
+    String binaryName = GENERATED_CLASS_PREFIX + generatedClassCounter.incrementAndGet();
+    FilterClassGenerator<T> generator = new FilterClassGenerator<>(binaryName.replace('.', '/'), accessor, patternCache, maximumFuzzyEdits);
+
+    byte[] classFile = generator.generate(expression);
+
+    if (classFile == null) {
+      logger.log(Level.FINEST, () -> DebugLogSource.COMPILER + "Expression exceeds the limits of a generated method, compiling closures instead");
+      return fallbackCompiler.compile(expression, accessor);
+    }
+
+    logger.log(Level.FINEST, () -> DebugLogSource.COMPILER + "Generated " + binaryName + " (" + classFile.length + " bytes)");
+
+    try {
+      Class<?> filterClass = new FilterClassLoader(BytecodeFilterCompiler.class.getClassLoader()).define(binaryName, classFile);
+      return (Predicate<T>) filterClass.getConstructor(Object[].class).newInstance((Object) generator.getFieldValues());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Could not instantiate the generated filter " + binaryName, e);
+    }
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.bytecode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal writer of class files, which only supports what's needed to emit
+ * filter classes: a constant pool, fields and methods with plain code attributes.
+ * Classes are written in version 49 (Java 5), which is still verified by type
+ * inference and thus doesn't require stack map frames to be computed.
+ */
+class ClassFileWriter {
+
+  static final int ACC_PUBLIC = 0x0001, ACC_PRIVATE = 0x0002, ACC_FINAL = 0x0010, ACC_SUPER = 0x0020;
+
+  private static final int CLASS_FILE_VERSION = 49;
+
+  private static final int
+    TAG_UTF8 = 1, TAG_INTEGER = 3, TAG_LONG = 5, TAG_DOUBLE = 6, TAG_CLASS = 7,
+    TAG_STRING = 8, TAG_FIELD_REF = 9, TAG_METHOD_REF = 10, TAG_INTERFACE_METHOD_REF = 11,
+    TAG_NAME_AND_TYPE = 12;
+
+  private final ByteArrayOutputStream constantPoolBytes;
+  private final DataOutputStream constantPool;
+  private final Map<String, Integer> constantIndices;
+  private int constantCount;
+
+  private final ByteArrayOutputStream memberBytes;
+  private final DataOutputStream members;
+  private int fieldCount, methodCount;
+  private final List<byte[]> methods;
+
+  private final int thisClass, superClass, interfaceClass;
+
+  /**
+   * @param className Internal name of the class to write
+   * @param superName Internal name of the super class
+   * @param interfaceName Internal name of the single implemented interface
+   */
+  ClassFileWriter(String className, String superName, String interfaceName) {
+    this.constantPoolBytes = new ByteArrayOutputStream();
+    this.constantPool = new DataOutputStream(constantPoolBytes);
+    this.constantIndices = new HashMap<>();
+    this.constantCount = 1;
+
+    this.memberBytes = new ByteArrayOutputStream();
+    this.members = new DataOutputStream(memberBytes);
+    this.methods = new ArrayList<>();
+
+    this.thisClass = classConstant(className);
+    this.superClass = classConstant(superName);
+    this.interfaceClass = classConstant(interfaceName);
+  }
+
+  //=========================================================================//
+  //                              Constant Pool                              //
+  //=========================================================================//
+
+  int utf8Constant(String value) {
+    return constant("U" + value, 1, out -> {
+      out.writeByte(TAG_UTF8);
+      out.writeUTF(value);
+    });
+  }
+
+  int integerConstant(int value) {
+    return constant("I" + value, 1, out -> {
+      out.writeByte(TAG_INTEGER);
+      out.writeInt(value);
+    });
+  }
+
+  int longConstant(long value) {
+    return constant("J" + value, 2, out -> {
+      out.writeByte(TAG_LONG);
+      out.writeLong(value);
+    });
+  }
+
+  int doubleConstant(double value) {
+    // Use the raw bits as the key, as -0.0 and 0.0 as well as NaNs would collide otherwise
+    return constant("D" + Double.doubleToRawLongBits(value), 2, out -> {
+      out.writeByte(TAG_DOUBLE);
+      out.writeDouble(value);
+    });
+  }
+
+  int classConstant(String internalName) {
+    int nameIndex = utf8Constant(internalName);
+    return constant("C" + internalName, 1, out -> {
+      out.writeByte(TAG_CLASS);
+      out.writeShort(nameIndex);
+    });
+  }
+
+  int fieldConstant(String owner, String name, String descriptor) {
+    return memberConstant(TAG_FIELD_REF, owner, name, descriptor);
+  }
+
+  int methodConstant(String owner, String name, String descriptor) {
+    return memberConstant(TAG_METHOD_REF, owner, name, descriptor);
+  }
+
+  int interfaceMethodConstant(String owner, String name, String descriptor) {
+    return memberConstant(TAG_INTERFACE_METHOD_REF, owner, name, descriptor);
+  }
+
+  private int memberConstant(int tag, String owner, String name, String descriptor) {
+    int classIndex = classConstant(owner);
+    int nameIndex = utf8Constant(name), descriptorIndex = utf8Constant(descriptor);
+
+    int nameAndTypeIndex = constant("N" + name + ":" + descriptor, 1, out -> {
+      out.writeByte(TAG_NAME_AND_TYPE);
+      out.writeShort(nameIndex);
+      out.writeShort(descriptorIndex);
+    });
+
+    return constant("M" + tag + owner + "." + name + ":" + descriptor, 1, out -> {
+      out.writeByte(tag);
+      out.writeShort(classIndex);
+      out.writeShort(nameAndTypeIndex);
+    });
+  }
+
+  private int constant(String key, int slots, FConstantWriter writer) {
+    Integer existing = constantIndices.get(key);
+
+    if (existing != null)
+      return existing;
+
+    try {
+      writer.write(constantPool);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    int index = constantCount;
+    constantCount += slots;
+
+    if (constantCount > 0xFFFF)
+      throw new IllegalStateException("The constant pool exceeded it's maximum size");
+
+    constantIndices.put(key, index);
+    return index;
+  }
+
+  //=========================================================================//
+  //                                 Members                                 //
+  //=========================================================================//
+
+  void addField(int access, String name, String descriptor) {
+    try {
+      members.writeShort(access);
+      members.writeShort(utf8Constant(name));
+      members.writeShort(utf8Constant(descriptor));
+      members.writeShort(0);
+      ++fieldCount;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  void addMethod(int access, String name, String descriptor, CodeBuilder code) {
+    try {
+      ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+      DataOutputStream method = new DataOutputStream(methodBytes);
+      byte[] instructions = code.toByteArray();
+
+      method.writeShort(access);
+      method.writeShort(utf8Constant(name));
+      method.writeShort(utf8Constant(descriptor));
+
+      // Single code attribute without exception table or nested attributes
+      method.writeShort(1);
+      method.writeShort(utf8Constant("Code"));
+      method.writeInt(2 + 2 + 4 + instructions.length + 2 + 2);
+      method.writeShort(code.getMaxStack());
+      method.writeShort(code.getMaxLocals());
+      method.writeInt(instructions.length);
+      method.write(instructions);
+      method.writeShort(0);
+      method.writeShort(0);
+
+      methods.add(methodBytes.toByteArray());
+      ++methodCount;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  byte[] toByteArray() {
+    try {
+      ByteArrayOutputStream result = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(result);
+
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(CLASS_FILE_VERSION);
+
+      out.writeShort(constantCount);
+      constantPoolBytes.writeTo(out);
+
+      out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+      out.writeShort(thisClass);
+      out.writeShort(superClass);
+
+      out.writeShort(1);
+      out.writeShort(interfaceClass);
+
+      out.writeShort(fieldCount);
+      memberBytes.writeTo(out);
+
+      out.writeShort(methodCount);
+      for (byte[] method : methods)
+        out.write(method);
+
+      // No class attributes
+      out.writeShort(0);
+
+      return result.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface FConstantWriter {
+
+    void write(DataOutputStream out) throws IOException;
+
+  }
+}
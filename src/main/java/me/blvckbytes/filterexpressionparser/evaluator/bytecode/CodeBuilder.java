@@ -0,0 +1,178 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.bytecode;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the instructions of a single method and resolves the offsets of
+ * branches once their target labels have been placed
+ */
+class CodeBuilder {
+
+  static final int
+    ICONST_0 = 0x03, ICONST_1 = 0x04, BIPUSH = 0x10, SIPUSH = 0x11, LDC_W = 0x13, LDC2_W = 0x14,
+    ILOAD = 0x15, ALOAD = 0x19, ISTORE = 0x36, AALOAD = 0x32,
+    IFEQ = 0x99, IFNE = 0x9A, IFLT = 0x9B, IFGE = 0x9C, IFGT = 0x9D, IFLE = 0x9E,
+    IF_ICMPEQ = 0x9F, GOTO = 0xA7, IRETURN = 0xAC, RETURN = 0xB1,
+    GETSTATIC = 0xB2, GETFIELD = 0xB4, PUTFIELD = 0xB5,
+    INVOKEVIRTUAL = 0xB6, INVOKESPECIAL = 0xB7, INVOKESTATIC = 0xB8, INVOKEINTERFACE = 0xB9,
+    CHECKCAST = 0xC0, IFNULL = 0xC6, IFNONNULL = 0xC7;
+
+  // Branch offsets are signed shorts, relative to the branch instruction
+  static final int MAX_BRANCH_OFFSET = Short.MAX_VALUE;
+
+  private final ByteArrayOutputStream code;
+  private final List<Label> labels;
+  private final int maxStack, maxLocals;
+
+  /**
+   * @param maxStack Maximum depth of the operand stack, which the caller has to determine
+   * @param maxLocals Number of local variable slots, including the parameters
+   */
+  CodeBuilder(int maxStack, int maxLocals) {
+    this.code = new ByteArrayOutputStream();
+    this.labels = new ArrayList<>();
+    this.maxStack = maxStack;
+    this.maxLocals = maxLocals;
+  }
+
+  CodeBuilder instruction(int opcode) {
+    code.write(opcode);
+    return this;
+  }
+
+  CodeBuilder instruction(int opcode, int shortOperand) {
+    code.write(opcode);
+    writeShort(shortOperand);
+    return this;
+  }
+
+  CodeBuilder localInstruction(int opcode, int slot) {
+    code.write(opcode);
+    code.write(slot);
+    return this;
+  }
+
+  CodeBuilder invokeInterface(int methodIndex, int argumentCount) {
+    code.write(INVOKEINTERFACE);
+    writeShort(methodIndex);
+    code.write(argumentCount + 1);
+    code.write(0);
+    return this;
+  }
+
+  CodeBuilder pushInt(int value) {
+    if (value >= -1 && value <= 5)
+      code.write(ICONST_0 + value);
+
+    else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+      code.write(BIPUSH);
+      code.write(value);
+    }
+
+    else {
+      code.write(SIPUSH);
+      writeShort(value);
+    }
+
+    return this;
+  }
+
+  CodeBuilder jump(int opcode, Label target) {
+    target.addReference(code.size());
+    code.write(opcode);
+    writeShort(0);
+    return this;
+  }
+
+  CodeBuilder place(Label label) {
+    label.place(code.size());
+    labels.add(label);
+    return this;
+  }
+
+  int size() {
+    return code.size();
+  }
+
+  int getMaxStack() {
+    return maxStack;
+  }
+
+  int getMaxLocals() {
+    return maxLocals;
+  }
+
+  byte[] toByteArray() {
+    byte[] result = code.toByteArray();
+
+    for (Label label : labels) {
+      for (int reference : label.getReferences()) {
+        int offset = label.getPosition() - reference;
+
+        if (offset > MAX_BRANCH_OFFSET || offset < Short.MIN_VALUE)
+          throw new IllegalStateException("Branch offset out of range");
+
+        result[reference + 1] = (byte) (offset >> 8);
+        result[reference + 2] = (byte) offset;
+      }
+    }
+
+    return result;
+  }
+
+  private void writeShort(int value) {
+    code.write(value >> 8);
+    code.write(value);
+  }
+
+  static class Label {
+
+    private final List<Integer> references = new ArrayList<>();
+    private int position = -1;
+
+    private void addReference(int instructionPosition) {
+      references.add(instructionPosition);
+    }
+
+    private void place(int position) {
+      if (this.position >= 0)
+        throw new IllegalStateException("Labels can only be placed once");
+
+      this.position = position;
+    }
+
+    private int getPosition() {
+      return position;
+    }
+
+    private List<Integer> getReferences() {
+      return references;
+    }
+  }
+}
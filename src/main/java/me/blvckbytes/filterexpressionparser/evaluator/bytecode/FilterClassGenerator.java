@@ -0,0 +1,495 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.bytecode;
+
+import me.blvckbytes.filterexpressionparser.cache.PatternCache;
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.error.UnsupportedComparisonError;
+import me.blvckbytes.filterexpressionparser.evaluator.FFieldReader;
+import me.blvckbytes.filterexpressionparser.evaluator.FuzzyMatcher;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.INumericFieldReader;
+import me.blvckbytes.filterexpressionparser.evaluator.StringMatcher;
+import me.blvckbytes.filterexpressionparser.evaluator.ValueComparisons;
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import me.blvckbytes.filterexpressionparser.parser.LiteralType;
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+import me.blvckbytes.filterexpressionparser.regex.IRegexMatcher;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static me.blvckbytes.filterexpressionparser.evaluator.bytecode.CodeBuilder.*;
+
+/**
+ * Generates the class file of a single filter, which implements Predicate by evaluating
+ * all comparisons as well as the short-circuiting of junctions as straight-line bytecode.
+ * Readers and constants which cannot be expressed as constant pool entries are passed to
+ * the constructor as an array and kept in final fields.
+ */
+class FilterClassGenerator<T> {
+
+  private static final String
+    OBJECT = internalName(Object.class),
+    STRING = internalName(String.class),
+    BOOLEAN = internalName(Boolean.class),
+    PREDICATE = internalName(Predicate.class),
+    FIELD_READER = internalName(FFieldReader.class),
+    NUMERIC_FIELD_READER = internalName(INumericFieldReader.class),
+    COMPARISONS = internalName(ValueComparisons.class);
+
+  private static final int MAX_STACK = 4;
+
+  // Slots: this, target, comparison result
+  private static final int TARGET_SLOT = 1, COMPARISON_SLOT = 2, MAX_LOCALS = 3;
+
+  private final String className;
+  private final IFieldAccessor<T> accessor;
+  private final PatternCache patternCache;
+  private final int maximumFuzzyEdits;
+  private final ClassFileWriter writer;
+  private final List<Object> fieldValues;
+  private final List<String> fieldDescriptors;
+  private final Map<String, FFieldReader<T>> readerByIdentifier;
+  private final Map<String, Integer> readerFieldByIdentifier;
+  private final Map<String, Integer> numericReaderFieldByIdentifier;
+  private final CodeBuilder code;
+
+  /**
+   * @param className Internal name of the class to generate
+   * @param accessor Accessor used to resolve identifiers
+   * @param patternCache Cache to compile the patterns of regular expressions by
+   * @param maximumFuzzyEdits Maximum number of edits of fuzzy searches
+   */
+  FilterClassGenerator(String className, IFieldAccessor<T> accessor, PatternCache patternCache, int maximumFuzzyEdits) {
+    this.className = className;
+    this.accessor = accessor;
+    this.patternCache = patternCache;
+    this.maximumFuzzyEdits = maximumFuzzyEdits;
+    this.writer = new ClassFileWriter(className, OBJECT, PREDICATE);
+    this.fieldValues = new ArrayList<>();
+    this.fieldDescriptors = new ArrayList<>();
+    this.readerByIdentifier = new HashMap<>();
+    this.readerFieldByIdentifier = new HashMap<>();
+    this.numericReaderFieldByIdentifier = new HashMap<>();
+    this.code = new CodeBuilder(MAX_STACK, MAX_LOCALS);
+  }
+
+  /**
+   * Generates the class file of the provided expression
+   * @return Class file or null if the expression is too large to be expressed as a single method
+   */
+  byte @Nullable [] generate(ABinaryFilterExpression<?, ?> expression) throws AParserError {
+    Label falseLabel = new Label();
+
+    emitJump(expression, false, falseLabel);
+    code.instruction(ICONST_1).instruction(IRETURN);
+    code.place(falseLabel).instruction(ICONST_0).instruction(IRETURN);
+
+    if (code.size() > MAX_BRANCH_OFFSET)
+      return null;
+
+    for (int i = 0; i < fieldDescriptors.size(); i++)
+      writer.addField(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_FINAL, fieldName(i), fieldDescriptors.get(i));
+
+    writer.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", "([L" + OBJECT + ";)V", generateConstructor());
+    writer.addMethod(ClassFileWriter.ACC_PUBLIC, "test", "(L" + OBJECT + ";)Z", code);
+
+    return writer.toByteArray();
+  }
+
+  /**
+   * Get the values of all fields, in the order the generated constructor expects them
+   */
+  Object[] getFieldValues() {
+    return fieldValues.toArray();
+  }
+
+  //=========================================================================//
+  //                               Expressions                               //
+  //=========================================================================//
+
+  /**
+   * Emits the evaluation of an expression which jumps to the label if it's
+   * result equals jumpIfTrue and falls through otherwise
+   */
+  private void emitJump(ABinaryFilterExpression<?, ?> expression, boolean jumpIfTrue, Label label) throws AParserError {
+    if (expression instanceof AJunctionExpression) {
+      List<ABinaryFilterExpression<?, ?>> operands = ((AJunctionExpression) expression).flattenOperands();
+      int lastIndex = operands.size() - 1;
+
+      // A conjunction is false as soon as any operand is false and a disjunction is true
+      // as soon as any operand is true, which is when the evaluation short-circuits
+      boolean shortCircuitsOn = expression instanceof DisjunctionExpression;
+
+      if (jumpIfTrue == shortCircuitsOn) {
+        for (ABinaryFilterExpression<?, ?> operand : operands)
+          emitJump(operand, shortCircuitsOn, label);
+        return;
+      }
+
+      // Only the last operand decides about jumping, all others skip it when short-circuiting
+      Label shortCircuit = new Label();
+
+      for (int i = 0; i < lastIndex; i++)
+        emitJump(operands.get(i), shortCircuitsOn, shortCircuit);
+
+      emitJump(operands.get(lastIndex), jumpIfTrue, label);
+      code.place(shortCircuit);
+      return;
+    }
+
+    if (expression instanceof ComparisonExpression) {
+      emitComparison((ComparisonExpression) expression, jumpIfTrue, label);
+      return;
+    }
+
+    throw new IllegalStateException("Unknown expression type " + expression.getClass().getSimpleName());
+  }
+
+  private void emitComparison(ComparisonExpression comparison, boolean jumpIfTrue, Label label) throws AParserError {
+    ComparisonOperator operator = comparison.getOperator();
+    TerminalExpression<?> value = comparison.getRhs();
+
+    if (value instanceof LongExpression) {
+      if (!isOrdering(operator))
+        throw new UnsupportedComparisonError(comparison);
+
+      emitNumericComparison(comparison.getLhs(), "compareToLong", "J", writer.longConstant(((LongExpression) value).getValue()));
+      emitOrderingJump(operator, jumpIfTrue, label);
+      return;
+    }
+
+    if (value instanceof DoubleExpression) {
+      if (!isOrdering(operator))
+        throw new UnsupportedComparisonError(comparison);
+
+      emitNumericComparison(comparison.getLhs(), "compareToDouble", "D", writer.doubleConstant(((DoubleExpression) value).getValue()));
+      emitOrderingJump(operator, jumpIfTrue, label);
+      return;
+    }
+
+    if (value instanceof StringExpression) {
+      emitStringComparison(comparison, (StringExpression) value, jumpIfTrue, label);
+      return;
+    }
+
+    if (value instanceof LiteralExpression) {
+      emitLiteralComparison(comparison, ((LiteralExpression) value).getValue(), jumpIfTrue, label);
+      return;
+    }
+
+    if (value instanceof IdentifierExpression) {
+      emitIdentifierComparison(comparison, (IdentifierExpression) value, jumpIfTrue, label);
+      return;
+    }
+
+    throw new IllegalStateException("Unknown terminal type " + value.getClass().getSimpleName());
+  }
+
+  private void emitStringComparison(ComparisonExpression comparison, StringExpression string, boolean jumpIfTrue, Label label) throws AParserError {
+    ComparisonOperator operator = comparison.getOperator();
+    String stringToString = "(L" + STRING + ";L" + STRING + ";)";
+    boolean ignoreCase = !string.isCaseSensitive();
+
+    emitRead(comparison.getLhs());
+
+    switch (operator) {
+      case EQUAL:
+      case NOT_EQUAL:
+      case STARTS_WITH:
+      case ENDS_WITH:
+      case CONTAINS: {
+        // The matcher trims by itself, without creating a trimmed copy of each value
+        ComparisonOperator matcherOperator = operator == ComparisonOperator.NOT_EQUAL ? ComparisonOperator.EQUAL : operator;
+        StringMatcher matcher = new StringMatcher(matcherOperator, string.getValue(), ignoreCase, string.shouldTrimTarget());
+
+        emitComparisonsCall("asString", "(L" + OBJECT + ";)L" + STRING + ";");
+        emitConstant(matcher, "L" + internalName(StringMatcher.class) + ";");
+        emitComparisonsCall("matchesString", "(L" + STRING + ";L" + internalName(StringMatcher.class) + ";)Z");
+        code.jump(jumpIfTrue == (operator != ComparisonOperator.NOT_EQUAL) ? IFNE : IFEQ, label);
+        return;
+      }
+    }
+
+    emitComparisonsCall(string.shouldTrimTarget() ? "asTrimmedString" : "asString", "(L" + OBJECT + ";)L" + STRING + ";");
+
+    if (operator == ComparisonOperator.REGEX_MATCHER) {
+      IRegexMatcher matcher = patternCache.compile(string);
+      emitConstant(matcher, "L" + internalName(IRegexMatcher.class) + ";");
+      emitComparisonsCall("matches", "(L" + STRING + ";L" + internalName(IRegexMatcher.class) + ";)Z");
+      code.jump(jumpIfTrue ? IFNE : IFEQ, label);
+      return;
+    }
+
+    if (operator == ComparisonOperator.CONTAINS_FUZZY) {
+      FuzzyMatcher matcher = new FuzzyMatcher(string.getValue(), ignoreCase, maximumFuzzyEdits);
+      emitConstant(matcher, "L" + internalName(FuzzyMatcher.class) + ";");
+      emitComparisonsCall("containsFuzzy", "(L" + STRING + ";L" + internalName(FuzzyMatcher.class) + ";)Z");
+      code.jump(jumpIfTrue ? IFNE : IFEQ, label);
+      return;
+    }
+
+    emitConstant(string.getValue(), "L" + STRING + ";");
+    emitComparisonsCall(ignoreCase ? "compareStringIgnoreCase" : "compareString", stringToString + "I");
+    emitOrderingJump(operator, jumpIfTrue, label);
+  }
+
+  private void emitLiteralComparison(ComparisonExpression comparison, LiteralType literal, boolean jumpIfTrue, Label label) throws AParserError {
+    ComparisonOperator operator = comparison.getOperator();
+
+    if (operator != ComparisonOperator.EQUAL && operator != ComparisonOperator.NOT_EQUAL)
+      throw new UnsupportedComparisonError(comparison);
+
+    boolean jumpIfEqual = jumpIfTrue == (operator == ComparisonOperator.EQUAL);
+
+    if (literal == LiteralType.NULL) {
+      emitRead(comparison.getLhs());
+      code.jump(jumpIfEqual ? IFNULL : IFNONNULL, label);
+      return;
+    }
+
+    code.instruction(GETSTATIC, writer.fieldConstant(BOOLEAN, literal == LiteralType.TRUE ? "TRUE" : "FALSE", "L" + BOOLEAN + ";"));
+    emitRead(comparison.getLhs());
+    code.instruction(INVOKEVIRTUAL, writer.methodConstant(BOOLEAN, "equals", "(L" + OBJECT + ";)Z"));
+    code.jump(jumpIfEqual ? IFNE : IFEQ, label);
+  }
+
+  private void emitIdentifierComparison(ComparisonExpression comparison, IdentifierExpression other, boolean jumpIfTrue, Label label) throws AParserError {
+    ComparisonOperator operator = comparison.getOperator();
+    String stringToString = "(L" + STRING + ";L" + STRING + ";)Z";
+    String objectToString = "(L" + OBJECT + ";)L" + STRING + ";";
+
+    switch (operator) {
+      case EQUAL:
+      case NOT_EQUAL:
+        emitRead(comparison.getLhs());
+        emitRead(other);
+        emitComparisonsCall("valuesEqual", "(L" + OBJECT + ";L" + OBJECT + ";)Z");
+        code.jump(jumpIfTrue == (operator == ComparisonOperator.EQUAL) ? IFNE : IFEQ, label);
+        return;
+
+      case STARTS_WITH:
+      case ENDS_WITH:
+      case CONTAINS:
+        emitRead(comparison.getLhs());
+        emitComparisonsCall("asString", objectToString);
+        emitRead(other);
+        emitComparisonsCall("asString", objectToString);
+        emitComparisonsCall(operator == ComparisonOperator.STARTS_WITH ? "startsWith" : operator == ComparisonOperator.ENDS_WITH ? "endsWith" : "contains", stringToString);
+        code.jump(jumpIfTrue ? IFNE : IFEQ, label);
+        return;
+
+      // Patterns have to be known at compile time
+      case REGEX_MATCHER:
+      case CONTAINS_FUZZY:
+        throw new UnsupportedComparisonError(comparison);
+
+      default:
+        emitRead(comparison.getLhs());
+        emitRead(other);
+        emitComparisonsCall("compareValues", "(L" + OBJECT + ";L" + OBJECT + ";)I");
+        emitOrderingJump(operator, jumpIfTrue, label);
+    }
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  /**
+   * Emits a jump which consumes the sign of a comparison (or INCOMPARABLE) from the stack
+   */
+  private void emitOrderingJump(ComparisonOperator operator, boolean jumpIfTrue, Label label) {
+    switch (operator) {
+      case EQUAL:
+        code.jump(jumpIfTrue ? IFEQ : IFNE, label);
+        return;
+
+      case NOT_EQUAL:
+        code.jump(jumpIfTrue ? IFNE : IFEQ, label);
+        return;
+
+      // INCOMPARABLE is negative and thus always fails these checks
+      case GREATER_THAN:
+        code.jump(jumpIfTrue ? IFGT : IFLE, label);
+        return;
+
+      case GREATER_THAN_OR_EQUAL:
+        code.jump(jumpIfTrue ? IFGE : IFLT, label);
+        return;
+
+      // INCOMPARABLE is negative and thus has to be ruled out explicitly
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL: {
+        boolean orEqual = operator == ComparisonOperator.LESS_THAN_OR_EQUAL;
+
+        code.localInstruction(ISTORE, COMPARISON_SLOT);
+        code.localInstruction(ILOAD, COMPARISON_SLOT);
+        code.instruction(LDC_W, writer.integerConstant(ValueComparisons.INCOMPARABLE));
+
+        if (jumpIfTrue) {
+          Label incomparable = new Label();
+          code.jump(IF_ICMPEQ, incomparable);
+          code.localInstruction(ILOAD, COMPARISON_SLOT);
+          code.jump(orEqual ? IFLE : IFLT, label);
+          code.place(incomparable);
+          return;
+        }
+
+        code.jump(IF_ICMPEQ, label);
+        code.localInstruction(ILOAD, COMPARISON_SLOT);
+        code.jump(orEqual ? IFGT : IFGE, label);
+        return;
+      }
+
+      default:
+        throw new IllegalStateException("Not an ordering operator: " + operator);
+    }
+  }
+
+  /**
+   * Emits reading the field referenced by an identifier, which pushes it's value onto the stack
+   */
+  private void emitRead(IdentifierExpression identifier) {
+    Integer field = readerFieldByIdentifier.get(identifier.getValue());
+
+    if (field == null) {
+      field = addField(resolve(identifier), "L" + FIELD_READER + ";");
+      readerFieldByIdentifier.put(identifier.getValue(), field);
+    }
+
+    emitGetField(field);
+    code.localInstruction(ALOAD, TARGET_SLOT);
+    code.invokeInterface(writer.interfaceMethodConstant(FIELD_READER, "read", "(L" + OBJECT + ";)L" + OBJECT + ";"), 1);
+  }
+
+  /**
+   * Emits comparing the field referenced by an identifier against a wide numeric constant, which pushes the
+   * result onto the stack. Readers which compare numbers by themselves are called directly, while the values
+   * of all others are compared by the equally named method of the value comparisons.
+   * @param name Name of the comparison method
+   * @param descriptor Descriptor of the constant's primitive type
+   * @param constant Constant pool index of the constant
+   */
+  private void emitNumericComparison(IdentifierExpression identifier, String name, String descriptor, int constant) {
+    FFieldReader<T> reader = resolve(identifier);
+
+    if (!(reader instanceof INumericFieldReader)) {
+      emitRead(identifier);
+      code.instruction(LDC2_W, constant);
+      emitComparisonsCall(name, "(L" + OBJECT + ";" + descriptor + ")I");
+      return;
+    }
+
+    Integer field = numericReaderFieldByIdentifier.get(identifier.getValue());
+
+    if (field == null) {
+      field = addField(reader, "L" + NUMERIC_FIELD_READER + ";");
+      numericReaderFieldByIdentifier.put(identifier.getValue(), field);
+    }
+
+    emitGetField(field);
+    code.localInstruction(ALOAD, TARGET_SLOT);
+    code.instruction(LDC2_W, constant);
+    // The wide constant occupies two argument slots
+    code.invokeInterface(writer.interfaceMethodConstant(NUMERIC_FIELD_READER, name, "(L" + OBJECT + ";" + descriptor + ")I"), 3);
+  }
+
+  private FFieldReader<T> resolve(IdentifierExpression identifier) {
+    return readerByIdentifier.computeIfAbsent(identifier.getValue(), accessor::resolve);
+  }
+
+  private void emitConstant(Object value, String descriptor) {
+    emitGetField(addField(value, descriptor));
+  }
+
+  private void emitGetField(int field) {
+    code.localInstruction(ALOAD, 0);
+    code.instruction(GETFIELD, writer.fieldConstant(className, fieldName(field), fieldDescriptors.get(field)));
+  }
+
+  private void emitComparisonsCall(String name, String descriptor) {
+    code.instruction(INVOKESTATIC, writer.methodConstant(COMPARISONS, name, descriptor));
+  }
+
+  private int addField(Object value, String descriptor) {
+    fieldValues.add(value);
+    fieldDescriptors.add(descriptor);
+    return fieldValues.size() - 1;
+  }
+
+  /**
+   * Generates a constructor which calls the super constructor and then
+   * assigns all fields from the elements of it's only array parameter
+   */
+  private CodeBuilder generateConstructor() {
+    CodeBuilder constructor = new CodeBuilder(MAX_STACK, 2);
+
+    constructor.localInstruction(ALOAD, 0);
+    constructor.instruction(INVOKESPECIAL, writer.methodConstant(OBJECT, "<init>", "()V"));
+
+    for (int i = 0; i < fieldDescriptors.size(); i++) {
+      String descriptor = fieldDescriptors.get(i);
+
+      constructor.localInstruction(ALOAD, 0);
+      constructor.localInstruction(ALOAD, 1);
+      constructor.pushInt(i);
+      constructor.instruction(AALOAD);
+      constructor.instruction(CHECKCAST, writer.classConstant(descriptor.substring(1, descriptor.length() - 1)));
+      constructor.instruction(PUTFIELD, writer.fieldConstant(className, fieldName(i), descriptor));
+    }
+
+    constructor.instruction(RETURN);
+    return constructor;
+  }
+
+  private static boolean isOrdering(ComparisonOperator operator) {
+    switch (operator) {
+      case EQUAL:
+      case NOT_EQUAL:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        return true;
+
+      default:
+        return false;
+    }
+  }
+
+  private static String fieldName(int index) {
+    return "f" + index;
+  }
+
+  private static String internalName(Class<?> type) {
+    return type.getName().replace('.', '/');
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.columnar;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Values of a single field for all rows of a batch, stored contiguously
+ */
+public abstract class AColumn {
+
+  // Bitmap of rows whose value is null, if any
+  protected final long @Nullable [] nulls;
+
+  protected AColumn(long @Nullable [] nulls) {
+    this.nulls = nulls;
+  }
+
+  /**
+   * Get the number of rows this column holds values for
+   */
+  public abstract int size();
+
+  /**
+   * Get the boxed value of a row, which is only used by evaluations that have not been specialized
+   */
+  public abstract @Nullable Object getValue(int row);
+
+  public boolean isNull(int row) {
+    return nulls != null && Bitmaps.isSet(nulls, row);
+  }
+
+  public long @Nullable [] getNulls() {
+    return nulls;
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.columnar;
+
+/**
+ * Operations on bitmaps of rows, where row i is represented by bit (i % 64) of word (i / 64)
+ */
+public class Bitmaps {
+
+  private Bitmaps() {}
+
+  public static long[] create(int rowCount) {
+    return new long[wordCount(rowCount)];
+  }
+
+  public static int wordCount(int rowCount) {
+    return (rowCount + 63) >>> 6;
+  }
+
+  public static boolean isSet(long[] bitmap, int row) {
+    return (bitmap[row >>> 6] & (1L << row)) != 0;
+  }
+
+  public static void set(long[] bitmap, int row) {
+    bitmap[row >>> 6] |= 1L << row;
+  }
+
+  /**
+   * Sets the bits of all rows from the first up to and including the last row
+   */
+  public static void setRange(long[] bitmap, int firstRow, int lastRow) {
+    int firstWord = firstRow >>> 6, lastWord = lastRow >>> 6;
+    long firstMask = -1L << firstRow, lastMask = -1L >>> (63 - (lastRow & 63));
+
+    if (firstWord == lastWord) {
+      bitmap[firstWord] |= firstMask & lastMask;
+      return;
+    }
+
+    bitmap[firstWord] |= firstMask;
+
+    for (int i = firstWord + 1; i < lastWord; i++)
+      bitmap[i] = -1L;
+
+    bitmap[lastWord] |= lastMask;
+  }
+
+  /**
+   * Intersects the target with another bitmap, in place
+   */
+  public static void and(long[] target, long[] other) {
+    for (int i = 0; i < target.length; i++)
+      target[i] &= other[i];
+  }
+
+  /**
+   * Unites the target with another bitmap, in place
+   */
+  public static void or(long[] target, long[] other) {
+    for (int i = 0; i < target.length; i++)
+      target[i] |= other[i];
+  }
+
+  /**
+   * Removes all bits of another bitmap from the target, in place
+   */
+  public static void andNot(long[] target, long[] other) {
+    for (int i = 0; i < target.length; i++)
+      target[i] &= ~other[i];
+  }
+
+  /**
+   * Flips the first rowCount bits of the target, in place, leaving all following bits cleared
+   */
+  public static void invert(long[] target, int rowCount) {
+    for (int i = 0; i < target.length; i++)
+      target[i] = ~target[i];
+
+    clearTail(target, rowCount);
+  }
+
+  /**
+   * Clears all bits past the first rowCount bits of the target, in place
+   */
+  public static void clearTail(long[] target, int rowCount) {
+    int remainder = rowCount & 63;
+
+    if (remainder != 0)
+      target[target.length - 1] &= (1L << remainder) - 1;
+  }
+
+  public static int cardinality(long[] bitmap) {
+    int result = 0;
+
+    for (long word : bitmap)
+      result += Long.bitCount(word);
+
+    return result;
+  }
+
+  public static boolean isEmpty(long[] bitmap) {
+    for (long word : bitmap) {
+      if (word != 0)
+        return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Checks whether all of the first rowCount bits are set
+   */
+  public static boolean isFull(long[] bitmap, int rowCount) {
+    int fullWords = rowCount >>> 6;
+
+    for (int i = 0; i < fullWords; i++) {
+      if (bitmap[i] != -1L)
+        return false;
+    }
+
+    int remainder = rowCount & 63;
+    return remainder == 0 || bitmap[fullWords] == (1L << remainder) - 1;
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.columnar;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A number of rows, stored as one column per field
+ */
+public class ColumnBatch {
+
+  private final int rowCount;
+  private final Map<String, AColumn> columnsByIdentifier;
+
+  /**
+   * @param rowCount Number of rows within the batch
+   * @param columnsByIdentifier Columns, keyed by the identifier they're referenced by within filters
+   */
+  public ColumnBatch(int rowCount, Map<String, AColumn> columnsByIdentifier) {
+    for (Map.Entry<String, AColumn> entry : columnsByIdentifier.entrySet()) {
+      if (entry.getValue().size() < rowCount)
+        throw new IllegalArgumentException("The column " + entry.getKey() + " holds less than " + rowCount + " rows");
+    }
+
+    this.rowCount = rowCount;
+    this.columnsByIdentifier = new HashMap<>(columnsByIdentifier);
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Get the column of an identifier, where missing columns are to be treated as all null
+   */
+  public @Nullable AColumn getColumn(String identifier) {
+    return columnsByIdentifier.get(identifier);
+  }
+}
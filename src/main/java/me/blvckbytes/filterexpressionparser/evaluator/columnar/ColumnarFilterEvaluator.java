@@ -0,0 +1,400 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.columnar;
+
+import me.blvckbytes.filterexpressionparser.cache.PatternCache;
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.FuzzyMatcher;
+import me.blvckbytes.filterexpressionparser.logging.DebugLogSource;
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import me.blvckbytes.filterexpressionparser.parser.LiteralType;
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Evaluates filters on whole batches of rows at once, column by column. Comparisons of primitive columns
+ * against constants are evaluated as tight loops into bitmaps of matching rows, which are then combined
+ * word by word for junctions. All other comparisons are evaluated row by row through the predicates of
+ * the FilterPredicateCompiler, whose semantics the specialized loops follow exactly.
+ */
+public class ColumnarFilterEvaluator {
+
+  private final Logger logger;
+  private final FilterPredicateCompiler fallbackCompiler;
+
+  public ColumnarFilterEvaluator(Logger logger) {
+    this(logger, PatternCache.getShared());
+  }
+
+  public ColumnarFilterEvaluator(Logger logger, PatternCache patternCache) {
+    this(logger, patternCache, FuzzyMatcher.DEFAULT_MAXIMUM_EDITS);
+  }
+
+  /**
+   * @param patternCache Cache of the patterns of regular expressions, which also decides about their backend
+   * @param maximumFuzzyEdits Maximum number of edits of fuzzy searches, see FuzzyMatcher
+   */
+  public ColumnarFilterEvaluator(Logger logger, PatternCache patternCache, int maximumFuzzyEdits) {
+    this.logger = logger;
+    this.fallbackCompiler = new FilterPredicateCompiler(logger, patternCache, maximumFuzzyEdits);
+  }
+
+  /**
+   * Evaluates a filter on all rows of a batch. Operands of junctions are skipped as soon as they
+   * could no longer change the result, which is why their errors may not always be reported.
+   * @return Bitmap of all matching rows
+   */
+  public long[] evaluate(ABinaryFilterExpression<?, ?> expression, ColumnBatch batch) throws AParserError {
+    if (expression instanceof AJunctionExpression) {
+      boolean isConjunction = expression instanceof ConjunctionExpression;
+      List<ABinaryFilterExpression<?, ?>> operands = ((AJunctionExpression) expression).flattenOperands();
+      long[] result = evaluate(operands.get(0), batch);
+
+      for (int i = 1; i < operands.size(); i++) {
+        if (isConjunction ? Bitmaps.isEmpty(result) : Bitmaps.isFull(result, batch.getRowCount()))
+          break;
+
+        long[] operand = evaluate(operands.get(i), batch);
+
+        if (isConjunction)
+          Bitmaps.and(result, operand);
+        else
+          Bitmaps.or(result, operand);
+      }
+
+      return result;
+    }
+
+    if (expression instanceof ComparisonExpression)
+      return evaluateComparison((ComparisonExpression) expression, batch);
+
+    throw new IllegalStateException("Unknown expression type " + expression.getClass().getSimpleName());
+  }
+
+  //=========================================================================//
+  //                               Comparisons                               //
+  //=========================================================================//
+
+  private long[] evaluateComparison(ComparisonExpression comparison, ColumnBatch batch) throws AParserError {
+    AColumn column = batch.getColumn(comparison.getLhs().getValue());
+    TerminalExpression<?> value = comparison.getRhs();
+    ComparisonOperator operator = comparison.getOperator();
+    int rowCount = batch.getRowCount();
+
+    long[] result = Bitmaps.create(rowCount);
+
+    if (column != null && tryEvaluateSpecialized(column, value, operator, rowCount, result))
+      return result;
+
+    logger.log(Level.FINEST, () -> DebugLogSource.COMPILER + "Evaluating comparison " + comparison.expressionify() + " row by row");
+
+    return evaluateRowByRow(comparison, batch, result);
+  }
+
+  /**
+   * Evaluates a comparison of a column against a constant by a specialized loop, if available
+   * @return True if the result has been written, false if there's no loop for this combination
+   */
+  private boolean tryEvaluateSpecialized(AColumn column, TerminalExpression<?> value, ComparisonOperator operator, int rowCount, long[] result) {
+    if (value instanceof LiteralExpression && ((LiteralExpression) value).getValue() == LiteralType.NULL) {
+      if (operator != ComparisonOperator.EQUAL && operator != ComparisonOperator.NOT_EQUAL)
+        return false;
+
+      // Columns may hold more rows than the batch, whose null bits must not leak into the result
+      if (column.getNulls() != null) {
+        Bitmaps.or(result, column.getNulls());
+        Bitmaps.clearTail(result, rowCount);
+      }
+
+      if (operator == ComparisonOperator.NOT_EQUAL)
+        Bitmaps.invert(result, rowCount);
+
+      return true;
+    }
+
+    // Only the equality, less-than and less-than-or-equal loops exist, the remaining operators are their inversions
+    boolean invert = operator == ComparisonOperator.NOT_EQUAL || operator == ComparisonOperator.GREATER_THAN || operator == ComparisonOperator.GREATER_THAN_OR_EQUAL;
+    ComparisonOperator loopOperator;
+
+    switch (operator) {
+      case EQUAL:
+      case NOT_EQUAL:
+        loopOperator = ComparisonOperator.EQUAL;
+        break;
+
+      case LESS_THAN:
+      case GREATER_THAN_OR_EQUAL:
+        loopOperator = ComparisonOperator.LESS_THAN;
+        break;
+
+      case LESS_THAN_OR_EQUAL:
+      case GREATER_THAN:
+        loopOperator = ComparisonOperator.LESS_THAN_OR_EQUAL;
+        break;
+
+      default:
+        return false;
+    }
+
+    if (!trySelect(column, value, loopOperator, rowCount, result))
+      return false;
+
+    if (invert)
+      Bitmaps.invert(result, rowCount);
+
+    // Null values are unequal to any constant and have no ordering
+    if (column.getNulls() != null) {
+      if (operator == ComparisonOperator.NOT_EQUAL) {
+        Bitmaps.or(result, column.getNulls());
+        Bitmaps.clearTail(result, rowCount);
+      }
+      else
+        Bitmaps.andNot(result, column.getNulls());
+    }
+
+    return true;
+  }
+
+  private boolean trySelect(AColumn column, TerminalExpression<?> value, ComparisonOperator loopOperator, int rowCount, long[] result) {
+    if (column instanceof StringColumn) {
+      if (loopOperator != ComparisonOperator.EQUAL || !(value instanceof StringExpression))
+        return false;
+
+      StringExpression string = (StringExpression) value;
+
+      if (!string.isCaseSensitive() || string.shouldTrimTarget())
+        return false;
+
+      selectEqual(((StringColumn) column).getValues(), string.getValue(), rowCount, result);
+      return true;
+    }
+
+    if (!(value instanceof LongExpression || value instanceof DoubleExpression))
+      return false;
+
+    if (column instanceof LongColumn && value instanceof LongExpression) {
+      long[] values = ((LongColumn) column).getValues();
+      long constant = ((LongExpression) value).getValue();
+
+      if (loopOperator == ComparisonOperator.EQUAL)
+        selectEqual(values, constant, rowCount, result);
+      else if (loopOperator == ComparisonOperator.LESS_THAN)
+        selectLessThan(values, constant, rowCount, result);
+      else
+        selectLessThanOrEqual(values, constant, rowCount, result);
+
+      return true;
+    }
+
+    double constant = ((Number) value.getValue()).doubleValue();
+
+    // Comparisons of doubles order -0.0 before 0.0, which primitive operators do not
+    if (constant == 0)
+      return false;
+
+    if (column instanceof LongColumn) {
+      long[] values = ((LongColumn) column).getValues();
+
+      if (loopOperator == ComparisonOperator.EQUAL)
+        selectEqual(values, constant, rowCount, result);
+      else if (loopOperator == ComparisonOperator.LESS_THAN)
+        selectLessThan(values, constant, rowCount, result);
+      else
+        selectLessThanOrEqual(values, constant, rowCount, result);
+
+      return true;
+    }
+
+    if (column instanceof DoubleColumn) {
+      double[] values = ((DoubleColumn) column).getValues();
+
+      // NaN is ordered after all other values, which is also where the primitive operators place it, as they never hold
+      if (loopOperator == ComparisonOperator.EQUAL)
+        selectEqual(values, constant, rowCount, result);
+      else if (loopOperator == ComparisonOperator.LESS_THAN)
+        selectLessThan(values, constant, rowCount, result);
+      else
+        selectLessThanOrEqual(values, constant, rowCount, result);
+
+      return true;
+    }
+
+    return false;
+  }
+
+  private long[] evaluateRowByRow(ComparisonExpression comparison, ColumnBatch batch, long[] result) throws AParserError {
+    int[] cursor = new int[1];
+
+    Predicate<int[]> predicate = fallbackCompiler.compile(comparison, identifier -> {
+      AColumn column = batch.getColumn(identifier);
+
+      if (column == null)
+        return row -> null;
+
+      return row -> column.getValue(row[0]);
+    });
+
+    for (int row = 0; row < batch.getRowCount(); row++) {
+      cursor[0] = row;
+
+      if (predicate.test(cursor))
+        Bitmaps.set(result, row);
+    }
+
+    return result;
+  }
+
+  //=========================================================================//
+  //                                  Loops                                  //
+  //=========================================================================//
+
+  // Each loop collects the bits of a whole word before storing it, where shifting by
+  // the row index only shifts by it's lower six bits, which is it's offset within the word
+
+  private static void selectEqual(long[] values, long constant, int rowCount, long[] result) {
+    for (int word = 0; word < result.length; word++) {
+      int end = Math.min((word + 1) << 6, rowCount);
+      long bits = 0;
+
+      for (int row = word << 6; row < end; row++)
+        bits |= (values[row] == constant ? 1L : 0L) << row;
+
+      result[word] = bits;
+    }
+  }
+
+  private static void selectLessThan(long[] values, long constant, int rowCount, long[] result) {
+    for (int word = 0; word < result.length; word++) {
+      int end = Math.min((word + 1) << 6, rowCount);
+      long bits = 0;
+
+      for (int row = word << 6; row < end; row++)
+        bits |= (values[row] < constant ? 1L : 0L) << row;
+
+      result[word] = bits;
+    }
+  }
+
+  private static void selectLessThanOrEqual(long[] values, long constant, int rowCount, long[] result) {
+    for (int word = 0; word < result.length; word++) {
+      int end = Math.min((word + 1) << 6, rowCount);
+      long bits = 0;
+
+      for (int row = word << 6; row < end; row++)
+        bits |= (values[row] <= constant ? 1L : 0L) << row;
+
+      result[word] = bits;
+    }
+  }
+
+  private static void selectEqual(long[] values, double constant, int rowCount, long[] result) {
+    for (int word = 0; word < result.length; word++) {
+      int end = Math.min((word + 1) << 6, rowCount);
+      long bits = 0;
+
+      for (int row = word << 6; row < end; row++)
+        bits |= ((double) values[row] == constant ? 1L : 0L) << row;
+
+      result[word] = bits;
+    }
+  }
+
+  private static void selectLessThan(long[] values, double constant, int rowCount, long[] result) {
+    for (int word = 0; word < result.length; word++) {
+      int end = Math.min((word + 1) << 6, rowCount);
+      long bits = 0;
+
+      for (int row = word << 6; row < end; row++)
+        bits |= ((double) values[row] < constant ? 1L : 0L) << row;
+
+      result[word] = bits;
+    }
+  }
+
+  private static void selectLessThanOrEqual(long[] values, double constant, int rowCount, long[] result) {
+    for (int word = 0; word < result.length; word++) {
+      int end = Math.min((word + 1) << 6, rowCount);
+      long bits = 0;
+
+      for (int row = word << 6; row < end; row++)
+        bits |= ((double) values[row] <= constant ? 1L : 0L) << row;
+
+      result[word] = bits;
+    }
+  }
+
+  private static void selectEqual(double[] values, double constant, int rowCount, long[] result) {
+    for (int word = 0; word < result.length; word++) {
+      int end = Math.min((word + 1) << 6, rowCount);
+      long bits = 0;
+
+      for (int row = word << 6; row < end; row++)
+        bits |= (values[row] == constant ? 1L : 0L) << row;
+
+      result[word] = bits;
+    }
+  }
+
+  private static void selectLessThan(double[] values, double constant, int rowCount, long[] result) {
+    for (int word = 0; word < result.length; word++) {
+      int end = Math.min((word + 1) << 6, rowCount);
+      long bits = 0;
+
+      for (int row = word << 6; row < end; row++)
+        bits |= (values[row] < constant ? 1L : 0L) << row;
+
+      result[word] = bits;
+    }
+  }
+
+  private static void selectLessThanOrEqual(double[] values, double constant, int rowCount, long[] result) {
+    for (int word = 0; word < result.length; word++) {
+      int end = Math.min((word + 1) << 6, rowCount);
+      long bits = 0;
+
+      for (int row = word << 6; row < end; row++)
+        bits |= (values[row] <= constant ? 1L : 0L) << row;
+
+      result[word] = bits;
+    }
+  }
+
+  private static void selectEqual(String[] values, String constant, int rowCount, long[] result) {
+    for (int word = 0; word < result.length; word++) {
+      int end = Math.min((word + 1) << 6, rowCount);
+      long bits = 0;
+
+      for (int row = word << 6; row < end; row++)
+        bits |= (constant.equals(values[row]) ? 1L : 0L) << row;
+
+      result[word] = bits;
+    }
+  }
+}
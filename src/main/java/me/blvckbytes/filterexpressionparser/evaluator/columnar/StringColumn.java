@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.columnar;
+
+import org.jetbrains.annotations.Nullable;
+
+public class StringColumn extends AColumn {
+
+  private final @Nullable String[] values;
+
+  /**
+   * @param values Values of all rows, where null rows hold null
+   */
+  public StringColumn(@Nullable String[] values) {
+    super(collectNulls(values));
+    this.values = values;
+  }
+
+  public @Nullable String[] getValues() {
+    return values;
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public @Nullable Object getValue(int row) {
+    return values[row];
+  }
+
+  private static long @Nullable [] collectNulls(@Nullable String[] values) {
+    long[] result = null;
+
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null)
+        continue;
+
+      if (result == null)
+        result = Bitmaps.create(values.length);
+
+      Bitmaps.set(result, i);
+    }
+
+    return result;
+  }
+}
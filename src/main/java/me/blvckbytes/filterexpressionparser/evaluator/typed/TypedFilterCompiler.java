@@ -0,0 +1,324 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.evaluator.typed;
+
+import me.blvckbytes.filterexpressionparser.cache.PatternCache;
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.error.TypeMismatchError;
+import me.blvckbytes.filterexpressionparser.error.UnknownIdentifierError;
+import me.blvckbytes.filterexpressionparser.evaluator.*;
+import me.blvckbytes.filterexpressionparser.logging.DebugLogSource;
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import me.blvckbytes.filterexpressionparser.parser.LiteralType;
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Checks filters against the field types declared by a schema and compiles them into predicates, whose
+ * numeric comparisons are specialized by the types of both sides and read their fields as primitives,
+ * through an ITypedFieldAccessor. Comparisons which make no sense for the declared types, like a regular
+ * expression on a long field, are rejected before compiling anything. All other comparisons, as well as all
+ * comparisons read through other accessors, are compiled by the FilterPredicateCompiler, whose semantics the
+ * specialized comparisons follow exactly, as long as the values of numeric and boolean fields are never null.
+ */
+public class TypedFilterCompiler {
+
+  private final Logger logger;
+  private final FilterPredicateCompiler fallbackCompiler;
+
+  public TypedFilterCompiler(Logger logger) {
+    this(logger, PatternCache.getShared());
+  }
+
+  public TypedFilterCompiler(Logger logger, PatternCache patternCache) {
+    this(logger, patternCache, FuzzyMatcher.DEFAULT_MAXIMUM_EDITS);
+  }
+
+  /**
+   * @param patternCache Cache of the patterns of regular expressions, which also decides about their backend
+   * @param maximumFuzzyEdits Maximum number of edits of fuzzy searches, see FuzzyMatcher
+   */
+  public TypedFilterCompiler(Logger logger, PatternCache patternCache, int maximumFuzzyEdits) {
+    this.logger = logger;
+    this.fallbackCompiler = new FilterPredicateCompiler(logger, patternCache, maximumFuzzyEdits);
+  }
+
+  /**
+   * Checks all comparisons of a filter against the types declared by a schema
+   * @throws UnknownIdentifierError An identifier is not declared by the schema
+   * @throws TypeMismatchError A comparison makes no sense for the types of it's sides
+   */
+  public void check(ABinaryFilterExpression<?, ?> expression, IFilterSchema schema) throws AParserError {
+    classifyAll(expression, schema, new IdentityHashMap<>());
+  }
+
+  /**
+   * Checks a filter against a schema and compiles it into a predicate which can be reused for any number of objects
+   * @param expression Expression to compile
+   * @param schema Schema which declares the types of all fields
+   * @param accessor Accessor used to resolve the expression's identifiers, which should implement ITypedFieldAccessor
+   * @return Predicate which holds for all objects matching the filter
+   */
+  public <T> Predicate<T> compile(ABinaryFilterExpression<?, ?> expression, IFilterSchema schema, IFieldAccessor<T> accessor) throws AParserError {
+    Map<ComparisonExpression, ComparisonKind> kinds = new IdentityHashMap<>();
+
+    // Reporting type errors before resolving any identifiers
+    classifyAll(expression, schema, kinds);
+    return compileChecked(expression, kinds, accessor);
+  }
+
+  private <T> Predicate<T> compileChecked(ABinaryFilterExpression<?, ?> expression, Map<ComparisonExpression, ComparisonKind> kinds, IFieldAccessor<T> accessor) throws AParserError {
+    if (expression instanceof AJunctionExpression) {
+      List<ABinaryFilterExpression<?, ?>> operands = ((AJunctionExpression) expression).flattenOperands();
+
+      @SuppressWarnings("unchecked")
+      Predicate<T>[] predicates = (Predicate<T>[]) new Predicate<?>[operands.size()];
+
+      for (int i = 0; i < predicates.length; i++)
+        predicates[i] = compileChecked(operands.get(i), kinds, accessor);
+
+      return fallbackCompiler.compileJunction(predicates, expression instanceof ConjunctionExpression);
+    }
+
+    if (expression instanceof ComparisonExpression) {
+      ComparisonExpression comparison = (ComparisonExpression) expression;
+      return compileComparison(comparison, kinds.get(comparison), accessor);
+    }
+
+    throw new IllegalStateException("Unknown expression type " + expression.getClass().getSimpleName());
+  }
+
+  //=========================================================================//
+  //                               Type Checks                               //
+  //=========================================================================//
+
+  private enum ComparisonKind {
+    // Integral field against a long constant
+    LONG_CONSTANT,
+    // Numeric field against a numeric constant, where either is not integral
+    DOUBLE_CONSTANT,
+    // Two integral fields
+    LONG_FIELDS,
+    // Two numeric fields, where either is not integral
+    DOUBLE_FIELDS,
+    // Strings and literals, compiled by the fallback compiler
+    UNSPECIALIZED
+  }
+
+  /**
+   * Classifies all comparisons of a filter, which are collected by identity
+   */
+  private void classifyAll(ABinaryFilterExpression<?, ?> expression, IFilterSchema schema, Map<ComparisonExpression, ComparisonKind> kinds) throws AParserError {
+    if (expression instanceof AJunctionExpression) {
+      for (ABinaryFilterExpression<?, ?> operand : ((AJunctionExpression) expression).flattenOperands())
+        classifyAll(operand, schema, kinds);
+
+      return;
+    }
+
+    if (expression instanceof ComparisonExpression) {
+      ComparisonExpression comparison = (ComparisonExpression) expression;
+      kinds.put(comparison, classify(comparison, schema));
+      return;
+    }
+
+    throw new IllegalStateException("Unknown expression type " + expression.getClass().getSimpleName());
+  }
+
+  private ComparisonKind classify(ComparisonExpression comparison, IFilterSchema schema) throws AParserError {
+    FieldType type = getType(comparison.getLhs(), schema);
+    ComparisonOperator operator = comparison.getOperator();
+    TerminalExpression<?> value = comparison.getRhs();
+
+    if (value instanceof LongExpression || value instanceof DoubleExpression) {
+      if (!type.isNumeric() || !isOrdering(operator))
+        throw new TypeMismatchError(comparison, type.name(), "the number " + value.expressionify());
+
+      return type == FieldType.LONG && value instanceof LongExpression ? ComparisonKind.LONG_CONSTANT : ComparisonKind.DOUBLE_CONSTANT;
+    }
+
+    if (value instanceof StringExpression) {
+      if (type != FieldType.STRING)
+        throw new TypeMismatchError(comparison, type.name(), "the string " + value.expressionify());
+
+      return ComparisonKind.UNSPECIALIZED;
+    }
+
+    if (value instanceof LiteralExpression) {
+      boolean isNull = ((LiteralExpression) value).getValue() == LiteralType.NULL;
+      boolean isEquality = operator == ComparisonOperator.EQUAL || operator == ComparisonOperator.NOT_EQUAL;
+
+      // Only strings may be null
+      if (!isEquality || type != (isNull ? FieldType.STRING : FieldType.BOOLEAN))
+        throw new TypeMismatchError(comparison, type.name(), "the literal " + value.expressionify());
+
+      return ComparisonKind.UNSPECIALIZED;
+    }
+
+    if (value instanceof IdentifierExpression) {
+      FieldType otherType = getType((IdentifierExpression) value, schema);
+
+      if (type.isNumeric() && otherType.isNumeric() && isOrdering(operator))
+        return type == FieldType.LONG && otherType == FieldType.LONG ? ComparisonKind.LONG_FIELDS : ComparisonKind.DOUBLE_FIELDS;
+
+      if (type == FieldType.STRING && otherType == FieldType.STRING && isStringFieldOperator(operator))
+        return ComparisonKind.UNSPECIALIZED;
+
+      if (type == FieldType.BOOLEAN && otherType == FieldType.BOOLEAN && (operator == ComparisonOperator.EQUAL || operator == ComparisonOperator.NOT_EQUAL))
+        return ComparisonKind.UNSPECIALIZED;
+
+      throw new TypeMismatchError(comparison, type.name(), "the field " + value.expressionify() + " of type " + otherType);
+    }
+
+    throw new IllegalStateException("Unknown terminal type " + value.getClass().getSimpleName());
+  }
+
+  private FieldType getType(IdentifierExpression identifier, IFilterSchema schema) throws AParserError {
+    FieldType type = schema.getType(identifier.getValue());
+
+    if (type == null)
+      throw new UnknownIdentifierError(identifier);
+
+    return type;
+  }
+
+  private boolean isOrdering(ComparisonOperator operator) {
+    switch (operator) {
+      case EQUAL:
+      case NOT_EQUAL:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        return true;
+
+      default:
+        return false;
+    }
+  }
+
+  private boolean isStringFieldOperator(ComparisonOperator operator) {
+    // Patterns have to be known at compile time
+    return operator != ComparisonOperator.REGEX_MATCHER && operator != ComparisonOperator.CONTAINS_FUZZY;
+  }
+
+  //=========================================================================//
+  //                               Comparisons                               //
+  //=========================================================================//
+
+  private <T> Predicate<T> compileComparison(ComparisonExpression comparison, ComparisonKind kind, IFieldAccessor<T> accessor) throws AParserError {
+    ComparisonOperator operator = comparison.getOperator();
+    String identifier = comparison.getLhs().getValue();
+    TerminalExpression<?> value = comparison.getRhs();
+
+    // Values of other accessors are boxed anyway, and may not even be integral where the schema declares a long
+    if (kind == ComparisonKind.UNSPECIALIZED || !(accessor instanceof ITypedFieldAccessor))
+      return fallbackCompiler.compile(comparison, accessor);
+
+    ITypedFieldAccessor<T> typedAccessor = (ITypedFieldAccessor<T>) accessor;
+
+    logger.log(Level.FINEST, () -> DebugLogSource.COMPILER + "Compiling comparison " + comparison.expressionify() + " as " + kind);
+
+    switch (kind) {
+      case LONG_CONSTANT:
+        return compileLongComparison(operator, typedAccessor.resolveLong(identifier), ((LongExpression) value).getValue());
+
+      case DOUBLE_CONSTANT:
+        return compileDoubleComparison(operator, typedAccessor.resolveDouble(identifier), ((Number) value.getValue()).doubleValue());
+
+      case LONG_FIELDS: {
+        FLongReader<T> reader = typedAccessor.resolveLong(identifier);
+        FLongReader<T> otherReader = typedAccessor.resolveLong(((IdentifierExpression) value).getValue());
+        return FilterPredicateCompiler.compileOrdering(operator, target -> Long.compare(reader.read(target), otherReader.read(target)));
+      }
+
+      case DOUBLE_FIELDS: {
+        FDoubleReader<T> reader = typedAccessor.resolveDouble(identifier);
+        FDoubleReader<T> otherReader = typedAccessor.resolveDouble(((IdentifierExpression) value).getValue());
+        return FilterPredicateCompiler.compileOrdering(operator, target -> Double.compare(reader.read(target), otherReader.read(target)));
+      }
+
+      default:
+        throw new IllegalStateException("Unknown comparison kind " + kind);
+    }
+  }
+
+  private <T> Predicate<T> compileLongComparison(ComparisonOperator operator, FLongReader<T> reader, long number) {
+    switch (operator) {
+      case EQUAL:
+        return target -> reader.read(target) == number;
+
+      case NOT_EQUAL:
+        return target -> reader.read(target) != number;
+
+      case GREATER_THAN:
+        return target -> reader.read(target) > number;
+
+      case GREATER_THAN_OR_EQUAL:
+        return target -> reader.read(target) >= number;
+
+      case LESS_THAN:
+        return target -> reader.read(target) < number;
+
+      case LESS_THAN_OR_EQUAL:
+        return target -> reader.read(target) <= number;
+
+      default:
+        throw new IllegalStateException("Not an ordering operator: " + operator);
+    }
+  }
+
+  private <T> Predicate<T> compileDoubleComparison(ComparisonOperator operator, FDoubleReader<T> reader, double number) {
+    // Comparing just like Double.compare, where NaN is greater than all other values and -0.0 is less than 0.0
+    switch (operator) {
+      case EQUAL:
+        return target -> Double.compare(reader.read(target), number) == 0;
+
+      case NOT_EQUAL:
+        return target -> Double.compare(reader.read(target), number) != 0;
+
+      case GREATER_THAN:
+        return target -> Double.compare(reader.read(target), number) > 0;
+
+      case GREATER_THAN_OR_EQUAL:
+        return target -> Double.compare(reader.read(target), number) >= 0;
+
+      case LESS_THAN:
+        return target -> Double.compare(reader.read(target), number) < 0;
+
+      case LESS_THAN_OR_EQUAL:
+        return target -> Double.compare(reader.read(target), number) <= 0;
+
+      default:
+        throw new IllegalStateException("Not an ordering operator: " + operator);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+/**
+ * Set of the lower 16 bits of all rows within a chunk of a CompressedBitmap. Results of operations may share state
+ * with their operands, which is why only the last container of a bitmap which is still being built is modified.
+ */
+abstract class ABitmapContainer {
+
+  // Number of values up to which a sorted array takes up no more space than a bitmap of all 65536 values
+  static final int MAX_ARRAY_SIZE = 4096;
+
+  abstract int cardinality();
+
+  abstract boolean contains(char value);
+
+  /**
+   * Adds a value which is greater than all contained values
+   * @return Container which holds all values, being either this or a container of another kind
+   */
+  abstract ABitmapContainer add(char value);
+
+  /**
+   * Sets the bits of all contained values within the bitmap, where the value zero corresponds to the first row
+   */
+  abstract void setAll(long[] bitmap, int firstRow);
+
+  /**
+   * @return Number of runs of consecutive values
+   */
+  abstract int runCount();
+
+  abstract BitmapContainer toBitmapContainer();
+
+  /**
+   * Only to be called if the cardinality doesn't exceed MAX_ARRAY_SIZE
+   */
+  abstract ArrayContainer toArrayContainer();
+
+  abstract RunContainer toRunContainer();
+
+  ABitmapContainer and(ABitmapContainer other) {
+    return toBitmapContainer().and(other);
+  }
+
+  ABitmapContainer or(ABitmapContainer other) {
+    return toBitmapContainer().or(other);
+  }
+
+  ABitmapContainer andNot(ABitmapContainer other) {
+    return toBitmapContainer().andNot(other);
+  }
+
+  /**
+   * @return Container of the same values, of whichever kind takes up the least space
+   */
+  ABitmapContainer optimize() {
+    int cardinality = cardinality();
+
+    // Arrays store one char per value, bitmaps 4096 chars in total and runs two chars per run
+    if (runCount() * 2 < Math.min(cardinality, MAX_ARRAY_SIZE))
+      return toRunContainer();
+
+    if (cardinality <= MAX_ARRAY_SIZE)
+      return toArrayContainer();
+
+    return toBitmapContainer();
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import java.util.Arrays;
+
+/**
+ * Container of sparse values, stored within a sorted array
+ */
+class ArrayContainer extends ABitmapContainer {
+
+  private char[] values;
+  private int size;
+
+  ArrayContainer() {
+    this(new char[4], 0);
+  }
+
+  private ArrayContainer(char[] values, int size) {
+    this.values = values;
+    this.size = size;
+  }
+
+  @Override
+  int cardinality() {
+    return size;
+  }
+
+  @Override
+  boolean contains(char value) {
+    return Arrays.binarySearch(values, 0, size, value) >= 0;
+  }
+
+  @Override
+  ABitmapContainer add(char value) {
+    if (size == MAX_ARRAY_SIZE)
+      return toBitmapContainer().add(value);
+
+    if (size == values.length)
+      values = Arrays.copyOf(values, Math.min(size * 2, MAX_ARRAY_SIZE));
+
+    values[size++] = value;
+    return this;
+  }
+
+  @Override
+  void setAll(long[] bitmap, int firstRow) {
+    for (int i = 0; i < size; i++) {
+      int row = firstRow + values[i];
+      bitmap[row >>> 6] |= 1L << row;
+    }
+  }
+
+  @Override
+  int runCount() {
+    int result = 0;
+
+    for (int i = 0; i < size; i++) {
+      if (i == 0 || values[i] != values[i - 1] + 1)
+        ++result;
+    }
+
+    return result;
+  }
+
+  @Override
+  BitmapContainer toBitmapContainer() {
+    BitmapContainer result = new BitmapContainer();
+
+    for (int i = 0; i < size; i++)
+      result.add(values[i]);
+
+    return result;
+  }
+
+  @Override
+  ArrayContainer toArrayContainer() {
+    return this;
+  }
+
+  @Override
+  RunContainer toRunContainer() {
+    RunContainer result = new RunContainer();
+
+    for (int i = 0; i < size; i++)
+      result.add(values[i]);
+
+    return result;
+  }
+
+  @Override
+  ABitmapContainer and(ABitmapContainer other) {
+    return filter(other, true);
+  }
+
+  @Override
+  ABitmapContainer andNot(ABitmapContainer other) {
+    return filter(other, false);
+  }
+
+  @Override
+  ABitmapContainer or(ABitmapContainer other) {
+    if (!(other instanceof ArrayContainer))
+      return other.or(this);
+
+    ArrayContainer otherArray = (ArrayContainer) other;
+
+    if (size + otherArray.size > MAX_ARRAY_SIZE)
+      return toBitmapContainer().or(other);
+
+    char[] result = new char[size + otherArray.size];
+    int resultSize = 0, i = 0, j = 0;
+
+    while (i < size && j < otherArray.size) {
+      char value = values[i], otherValue = otherArray.values[j];
+
+      if (value <= otherValue)
+        ++i;
+
+      if (otherValue <= value)
+        ++j;
+
+      result[resultSize++] = value < otherValue ? value : otherValue;
+    }
+
+    while (i < size)
+      result[resultSize++] = values[i++];
+
+    while (j < otherArray.size)
+      result[resultSize++] = otherArray.values[j++];
+
+    return new ArrayContainer(result, resultSize);
+  }
+
+  /**
+   * Clears the bits of all contained values within the words of a bitmap container
+   */
+  void clearAll(long[] words) {
+    for (int i = 0; i < size; i++)
+      words[values[i] >>> 6] &= ~(1L << values[i]);
+  }
+
+  private ArrayContainer filter(ABitmapContainer other, boolean keepContained) {
+    char[] result = new char[size];
+    int resultSize = 0;
+
+    for (int i = 0; i < size; i++) {
+      if (other.contains(values[i]) == keepContained)
+        result[resultSize++] = values[i];
+    }
+
+    return new ArrayContainer(result, resultSize);
+  }
+}
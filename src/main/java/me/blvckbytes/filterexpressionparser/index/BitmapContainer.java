@@ -0,0 +1,166 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+/**
+ * Container of dense values, stored as a bit per possible value
+ */
+class BitmapContainer extends ABitmapContainer {
+
+  static final int WORD_COUNT = 1024;
+
+  private final long[] words;
+  private int cardinality;
+
+  BitmapContainer() {
+    this(new long[WORD_COUNT], 0);
+  }
+
+  BitmapContainer(long[] words, int cardinality) {
+    this.words = words;
+    this.cardinality = cardinality;
+  }
+
+  @Override
+  int cardinality() {
+    return cardinality;
+  }
+
+  @Override
+  boolean contains(char value) {
+    return (words[value >>> 6] & (1L << value)) != 0;
+  }
+
+  @Override
+  ABitmapContainer add(char value) {
+    words[value >>> 6] |= 1L << value;
+    ++cardinality;
+    return this;
+  }
+
+  @Override
+  void setAll(long[] bitmap, int firstRow) {
+    int firstWord = firstRow >>> 6;
+    int wordCount = Math.min(WORD_COUNT, bitmap.length - firstWord);
+
+    for (int i = 0; i < wordCount; i++)
+      bitmap[firstWord + i] |= words[i];
+  }
+
+  @Override
+  int runCount() {
+    int result = 0;
+    long previousWord = 0;
+
+    // Each run starts at a set bit whose preceding bit, which may be the last bit of the previous word, is cleared
+    for (long word : words) {
+      result += Long.bitCount(word & ~((word << 1) | (previousWord >>> 63)));
+      previousWord = word;
+    }
+
+    return result;
+  }
+
+  @Override
+  BitmapContainer toBitmapContainer() {
+    return this;
+  }
+
+  @Override
+  ArrayContainer toArrayContainer() {
+    ArrayContainer result = new ArrayContainer();
+    forEach(result);
+    return result;
+  }
+
+  @Override
+  RunContainer toRunContainer() {
+    RunContainer result = new RunContainer();
+    forEach(result);
+    return result;
+  }
+
+  @Override
+  ABitmapContainer and(ABitmapContainer other) {
+    if (other instanceof ArrayContainer)
+      return other.and(this);
+
+    long[] otherWords = other.toBitmapContainer().words;
+    long[] result = new long[WORD_COUNT];
+
+    for (int i = 0; i < WORD_COUNT; i++)
+      result[i] = words[i] & otherWords[i];
+
+    return ofWords(result);
+  }
+
+  @Override
+  ABitmapContainer or(ABitmapContainer other) {
+    long[] result = words.clone();
+    other.setAll(result, 0);
+    return ofWords(result);
+  }
+
+  @Override
+  ABitmapContainer andNot(ABitmapContainer other) {
+    long[] result = words.clone();
+
+    if (other instanceof ArrayContainer)
+      ((ArrayContainer) other).clearAll(result);
+
+    else {
+      long[] otherWords = other.toBitmapContainer().words;
+
+      for (int i = 0; i < WORD_COUNT; i++)
+        result[i] &= ~otherWords[i];
+    }
+
+    return ofWords(result);
+  }
+
+  private void forEach(ABitmapContainer target) {
+    for (int i = 0; i < WORD_COUNT; i++) {
+      long word = words[i];
+
+      while (word != 0) {
+        target.add((char) ((i << 6) + Long.numberOfTrailingZeros(word)));
+        word &= word - 1;
+      }
+    }
+  }
+
+  /**
+   * @return Container of the set bits, which is an array container if there are few enough of them
+   */
+  private static ABitmapContainer ofWords(long[] words) {
+    int cardinality = 0;
+
+    for (long word : words)
+      cardinality += Long.bitCount(word);
+
+    BitmapContainer result = new BitmapContainer(words, cardinality);
+    return cardinality <= MAX_ARRAY_SIZE ? result.toArrayContainer() : result;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import me.blvckbytes.filterexpressionparser.parser.LiteralType;
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up the rows whose field equals a constant, keyed just like by the HashIndex, but keeps the rows of each
+ * key within a CompressedBitmap. It's meant for fields with only a few distinct values, each of which is shared by
+ * many rows, so that equality, inequality and whole junctions of them are answered by operations on bitmaps.
+ */
+class BitmapIndex {
+
+  private static final CompressedBitmap NO_ROWS = new CompressedBitmap();
+
+  private final List<@Nullable Object> values;
+  private final Map<Object, CompressedBitmap> rowsByValue;
+  private final CompressedBitmap nullRows;
+
+  // Indexed by whether strings are folded (first bit) and whether values are trimmed (second bit)
+  private final List<@Nullable Map<String, CompressedBitmap>> rowsByString;
+
+  BitmapIndex() {
+    this.values = new ArrayList<>();
+    this.rowsByValue = new HashMap<>();
+    this.nullRows = new CompressedBitmap();
+    this.rowsByString = new ArrayList<>();
+
+    for (int i = 0; i < 4; i++)
+      rowsByString.add(null);
+  }
+
+  /**
+   * Whether the rows a comparison holds for can be looked up exactly, where inequality holds for all rows
+   * which are not equal to the constant
+   */
+  static boolean supports(ComparisonExpression comparison) {
+    if (comparison.getOperator() != ComparisonOperator.EQUAL && comparison.getOperator() != ComparisonOperator.NOT_EQUAL)
+      return false;
+
+    TerminalExpression<?> value = comparison.getRhs();
+
+    if (value instanceof LongExpression)
+      return Math.abs((double) ((LongExpression) value).getValue()) < HashIndex.EXACT_LONG_LIMIT;
+
+    return value instanceof StringExpression || value instanceof LiteralExpression;
+  }
+
+  /**
+   * Adds the value of the next row, where rows have to be added in ascending order, starting at zero
+   */
+  synchronized void add(@Nullable Object value) {
+    int row = values.size();
+    values.add(value);
+
+    if (value == null) {
+      nullRows.add(row);
+      return;
+    }
+
+    rowsByValue.computeIfAbsent(HashIndex.toKey(value), key -> new CompressedBitmap()).add(row);
+
+    for (int i = 0; i < 4; i++) {
+      Map<String, CompressedBitmap> map = rowsByString.get(i);
+
+      if (map != null)
+        map.computeIfAbsent(HashIndex.toStringKey(value, i), key -> new CompressedBitmap()).add(row);
+    }
+  }
+
+  /**
+   * @return Rows whose value equals the constant of the supported comparison, regardless of its operator
+   */
+  synchronized CompressedBitmap lookUpEqual(ComparisonExpression comparison) {
+    TerminalExpression<?> value = comparison.getRhs();
+    @Nullable CompressedBitmap rows;
+
+    if (value instanceof StringExpression) {
+      StringExpression string = (StringExpression) value;
+      int variant = (string.isCaseSensitive() ? 0 : 1) | (string.shouldTrimTarget() ? 2 : 0);
+      rows = getOrBuildStringMap(variant).get(string.isCaseSensitive() ? string.getValue() : FieldIndex.foldString(string.getValue()));
+    }
+
+    else if (value instanceof LiteralExpression) {
+      LiteralType literal = ((LiteralExpression) value).getValue();
+      rows = literal == LiteralType.NULL ? nullRows : rowsByValue.get(literal == LiteralType.TRUE);
+    }
+
+    else
+      rows = rowsByValue.get(HashIndex.toKey(((LongExpression) value).getValue()));
+
+    return rows == null ? NO_ROWS : rows;
+  }
+
+  private Map<String, CompressedBitmap> getOrBuildStringMap(int variant) {
+    Map<String, CompressedBitmap> map = rowsByString.get(variant);
+
+    if (map != null)
+      return map;
+
+    map = new HashMap<>();
+
+    for (int row = 0; row < values.size(); row++) {
+      Object value = values.get(row);
+
+      if (value != null)
+        map.computeIfAbsent(HashIndex.toStringKey(value, variant), key -> new CompressedBitmap()).add(row);
+    }
+
+    rowsByString.set(variant, map);
+    return map;
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import java.util.Arrays;
+
+/**
+ * Set of rows, compressed like a Roaring bitmap: rows are partitioned into chunks of 65536 by their upper 16 bits,
+ * and the lower 16 bits of the rows within each non-empty chunk are kept by a container. Containers are sorted
+ * arrays while sparse, bitmaps while dense and lists of runs while mostly consecutive. Operations only combine the
+ * containers of equal chunks and leave their operands unmodified.
+ */
+class CompressedBitmap {
+
+  private char[] keys;
+  private ABitmapContainer[] containers;
+  private int size;
+
+  CompressedBitmap() {
+    this.keys = new char[4];
+    this.containers = new ABitmapContainer[4];
+  }
+
+  /**
+   * @return Bitmap of all rows from zero up to, but excluding, the row count
+   */
+  static CompressedBitmap ofRange(int rowCount) {
+    CompressedBitmap result = new CompressedBitmap();
+
+    for (long firstRow = 0; firstRow < rowCount; firstRow += 1 << 16) {
+      long lastRow = Math.min(rowCount, firstRow + (1 << 16)) - 1;
+      result.append((char) (firstRow >>> 16), RunContainer.upTo((char) lastRow));
+    }
+
+    return result;
+  }
+
+  /**
+   * Adds a row which is greater than all contained rows
+   */
+  void add(int row) {
+    char key = (char) (row >>> 16);
+
+    if (size > 0 && keys[size - 1] == key) {
+      containers[size - 1] = containers[size - 1].add((char) row);
+      return;
+    }
+
+    // Chunks are complete once a row of the next chunk is added, which is why they're only optimized then
+    if (size > 0)
+      containers[size - 1] = containers[size - 1].optimize();
+
+    append(key, new ArrayContainer().add((char) row));
+  }
+
+  /**
+   * Sets the bits of all contained rows within the bitmap
+   */
+  void setAll(long[] bitmap) {
+    for (int i = 0; i < size; i++)
+      containers[i].setAll(bitmap, keys[i] << 16);
+  }
+
+  CompressedBitmap and(CompressedBitmap other) {
+    CompressedBitmap result = new CompressedBitmap();
+    int i = 0, j = 0;
+
+    while (i < size && j < other.size) {
+      if (keys[i] < other.keys[j])
+        ++i;
+
+      else if (keys[i] > other.keys[j])
+        ++j;
+
+      else
+        result.appendIfNotEmpty(keys[i], containers[i++].and(other.containers[j++]));
+    }
+
+    return result;
+  }
+
+  CompressedBitmap or(CompressedBitmap other) {
+    CompressedBitmap result = new CompressedBitmap();
+    int i = 0, j = 0;
+
+    while (i < size || j < other.size) {
+      if (j == other.size || (i < size && keys[i] < other.keys[j]))
+        result.append(keys[i], containers[i++]);
+
+      else if (i == size || keys[i] > other.keys[j])
+        result.append(other.keys[j], other.containers[j++]);
+
+      else
+        result.append(keys[i], containers[i++].or(other.containers[j++]));
+    }
+
+    return result;
+  }
+
+  CompressedBitmap andNot(CompressedBitmap other) {
+    CompressedBitmap result = new CompressedBitmap();
+    int j = 0;
+
+    for (int i = 0; i < size; i++) {
+      while (j < other.size && other.keys[j] < keys[i])
+        ++j;
+
+      if (j < other.size && other.keys[j] == keys[i])
+        result.appendIfNotEmpty(keys[i], containers[i].andNot(other.containers[j]));
+      else
+        result.append(keys[i], containers[i]);
+    }
+
+    return result;
+  }
+
+  private void appendIfNotEmpty(char key, ABitmapContainer container) {
+    if (container.cardinality() > 0)
+      append(key, container);
+  }
+
+  private void append(char key, ABitmapContainer container) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      containers = Arrays.copyOf(containers, size * 2);
+    }
+
+    keys[size] = key;
+    containers[size++] = container;
+  }
+}
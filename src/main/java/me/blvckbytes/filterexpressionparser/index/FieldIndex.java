@@ -0,0 +1,398 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import me.blvckbytes.filterexpressionparser.evaluator.FFieldReader;
+import me.blvckbytes.filterexpressionparser.evaluator.ValueComparisons;
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import me.blvckbytes.filterexpressionparser.parser.LiteralType;
+import me.blvckbytes.filterexpressionparser.parser.NumericInterval;
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Holds all indexed comparisons of a single identifier, so that the comparisons which hold for a value are
+ * found by as many lookups as there are kinds of comparisons, rather than by evaluating each of them. String
+ * equality is looked up by hashing the value, in the same way as it is trimmed and folded by the comparison,
+ * while numeric comparisons are kept within sorted maps per operator, where all hits form a contiguous range.
+ * Entries are replaced by copies whenever they change, so that lookups never have to wait on modifications.
+ */
+class FieldIndex<K, T> {
+
+  private static final ComparisonOperator[] NUMERIC_OPERATORS = {
+    ComparisonOperator.EQUAL,
+    ComparisonOperator.LESS_THAN, ComparisonOperator.LESS_THAN_OR_EQUAL,
+    ComparisonOperator.GREATER_THAN, ComparisonOperator.GREATER_THAN_OR_EQUAL
+  };
+
+  // Values beyond this magnitude are whole numbers, but not all longs beyond it are representable as doubles
+  private static final double EXACT_LONG_LIMIT = 0x1p53;
+
+  // Longs are at most this far away from the double they're converted into
+  private static final long ROUNDING_DISTANCE = 2048;
+
+  private final FFieldReader<T> reader;
+
+  // Indexed by whether strings are folded (first bit) and whether values are trimmed (second bit)
+  private final List<ConcurrentMap<String, IndexedClause<K, T>[]>> stringMaps;
+
+  private final Map<ComparisonOperator, ConcurrentNavigableMap<Long, IndexedClause<K, T>[]>> longMaps;
+  private final Map<ComparisonOperator, ConcurrentNavigableMap<Double, IndexedClause<K, T>[]>> doubleMaps;
+  private final ConcurrentMap<Boolean, IndexedClause<K, T>[]> booleanMap;
+  private final IntervalTree<IndexedClause<K, T>> intervalTree;
+
+  private volatile IndexedClause<K, T> @Nullable [] nullClauses, nonNullClauses;
+
+  // Number of indexed comparisons, only accessed by modifications, which are serialized by the FilterIndex
+  private int size;
+
+  FieldIndex(FFieldReader<T> reader) {
+    this.reader = reader;
+    this.stringMaps = new ArrayList<>();
+
+    for (int i = 0; i < 4; i++)
+      stringMaps.add(new ConcurrentHashMap<>());
+
+    this.longMaps = new EnumMap<>(ComparisonOperator.class);
+    this.doubleMaps = new EnumMap<>(ComparisonOperator.class);
+
+    for (ComparisonOperator operator : NUMERIC_OPERATORS) {
+      longMaps.put(operator, new ConcurrentSkipListMap<>());
+      doubleMaps.put(operator, new ConcurrentSkipListMap<>());
+    }
+
+    this.booleanMap = new ConcurrentHashMap<>();
+    this.intervalTree = new IntervalTree<>();
+  }
+
+  /**
+   * Whether a comparison can be looked up by an index, where all other comparisons have to be evaluated
+   */
+  static boolean isIndexable(ComparisonExpression comparison) {
+    ComparisonOperator operator = comparison.getOperator();
+    TerminalExpression<?> value = comparison.getRhs();
+
+    if (value instanceof StringExpression)
+      return operator == ComparisonOperator.EQUAL;
+
+    if (value instanceof LongExpression || value instanceof DoubleExpression)
+      return isNumericOperator(operator);
+
+    if (value instanceof LiteralExpression) {
+      if (operator == ComparisonOperator.EQUAL)
+        return true;
+
+      return operator == ComparisonOperator.NOT_EQUAL && ((LiteralExpression) value).getValue() == LiteralType.NULL;
+    }
+
+    return false;
+  }
+
+  /**
+   * Whether a comparison is indexable and likely holds for only a small share of all values
+   */
+  static boolean isSelective(ComparisonExpression comparison) {
+    if (comparison.getOperator() != ComparisonOperator.EQUAL)
+      return false;
+
+    TerminalExpression<?> value = comparison.getRhs();
+
+    if (value instanceof LiteralExpression)
+      return ((LiteralExpression) value).getValue() == LiteralType.NULL;
+
+    return value instanceof StringExpression || value instanceof LongExpression || value instanceof DoubleExpression;
+  }
+
+  void add(ComparisonExpression comparison, IndexedClause<K, T> clause) {
+    modify(comparison, clause, true);
+    ++size;
+  }
+
+  void remove(ComparisonExpression comparison, IndexedClause<K, T> clause) {
+    modify(comparison, clause, false);
+    --size;
+  }
+
+  void addInterval(NumericInterval interval, IndexedClause<K, T> clause) {
+    intervalTree.add(interval, clause);
+    ++size;
+  }
+
+  void removeInterval(IndexedClause<K, T> clause) {
+    intervalTree.remove(clause);
+    --size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Passes all clauses with an indexed comparison on this field which holds for the target to the consumer,
+   * once per comparison, so that clauses with multiple comparisons on this field are passed multiple times
+   */
+  void collect(T target, Consumer<IndexedClause<K, T>> consumer) {
+    Object value = reader.read(target);
+
+    // Null only equals null, while all other comparisons fail on it
+    if (value == null) {
+      visit(nullClauses, consumer);
+      return;
+    }
+
+    visit(nonNullClauses, consumer);
+
+    if (value instanceof Boolean)
+      visit(booleanMap.get(value), consumer);
+
+    collectStrings(ValueComparisons.asString(value), consumer);
+
+    if (value instanceof Number)
+      collectNumbers((Number) value, consumer);
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private static boolean isNumericOperator(ComparisonOperator operator) {
+    for (ComparisonOperator numericOperator : NUMERIC_OPERATORS) {
+      if (numericOperator == operator)
+        return true;
+    }
+
+    return false;
+  }
+
+  private void modify(ComparisonExpression comparison, IndexedClause<K, T> clause, boolean isAdding) {
+    ComparisonOperator operator = comparison.getOperator();
+    TerminalExpression<?> value = comparison.getRhs();
+
+    if (value instanceof StringExpression) {
+      StringExpression string = (StringExpression) value;
+      ConcurrentMap<String, IndexedClause<K, T>[]> map = stringMaps.get(stringMapIndex(!string.isCaseSensitive(), string.shouldTrimTarget()));
+      modifyEntry(map, string.isCaseSensitive() ? string.getValue() : foldString(string.getValue()), clause, isAdding);
+      return;
+    }
+
+    if (value instanceof LongExpression) {
+      modifyEntry(longMaps.get(operator), ((LongExpression) value).getValue(), clause, isAdding);
+      return;
+    }
+
+    if (value instanceof DoubleExpression) {
+      modifyEntry(doubleMaps.get(operator), ((DoubleExpression) value).getValue(), clause, isAdding);
+      return;
+    }
+
+    LiteralType literal = ((LiteralExpression) value).getValue();
+
+    if (literal != LiteralType.NULL) {
+      modifyEntry(booleanMap, literal == LiteralType.TRUE, clause, isAdding);
+      return;
+    }
+
+    if (operator == ComparisonOperator.EQUAL)
+      nullClauses = isAdding ? append(nullClauses, clause) : without(nullClauses, clause);
+    else
+      nonNullClauses = isAdding ? append(nonNullClauses, clause) : without(nonNullClauses, clause);
+  }
+
+  private <X> void modifyEntry(ConcurrentMap<X, IndexedClause<K, T>[]> map, X key, IndexedClause<K, T> clause, boolean isAdding) {
+    // Both functions are free of side effects, as maps may apply them more than once
+    if (isAdding)
+      map.compute(key, (k, clauses) -> append(clauses, clause));
+    else
+      map.computeIfPresent(key, (k, clauses) -> without(clauses, clause));
+  }
+
+  private void collectStrings(String value, Consumer<IndexedClause<K, T>> consumer) {
+    @Nullable String trimmedValue = null;
+
+    for (int i = 0; i < 4; i++) {
+      ConcurrentMap<String, IndexedClause<K, T>[]> map = stringMaps.get(i);
+
+      if (map.isEmpty())
+        continue;
+
+      boolean isFolded = (i & 1) != 0, isTrimmed = (i & 2) != 0;
+      String key = value;
+
+      if (isTrimmed) {
+        if (trimmedValue == null)
+          trimmedValue = value.trim();
+
+        key = trimmedValue;
+      }
+
+      if (isFolded)
+        key = foldString(key);
+
+      visit(map.get(key), consumer);
+    }
+  }
+
+  private void collectNumbers(Number value, Consumer<IndexedClause<K, T>> consumer) {
+    // Double constants are always compared against the value as a double
+    double doubleValue = value.doubleValue();
+
+    // Intervals only hold constants which compare as doubles just like they compare as longs
+    intervalTree.stab(doubleValue, consumer);
+
+    visit(doubleMaps.get(ComparisonOperator.EQUAL).get(doubleValue), consumer);
+    visitAll(doubleMaps.get(ComparisonOperator.LESS_THAN).tailMap(doubleValue, false), consumer);
+    visitAll(doubleMaps.get(ComparisonOperator.LESS_THAN_OR_EQUAL).tailMap(doubleValue, true), consumer);
+    visitAll(doubleMaps.get(ComparisonOperator.GREATER_THAN).headMap(doubleValue, false), consumer);
+    visitAll(doubleMaps.get(ComparisonOperator.GREATER_THAN_OR_EQUAL).headMap(doubleValue, true), consumer);
+
+    // Long constants compare as equal to all values from the first bound up to, but excluding, the second bound
+    @Nullable Long equalFrom, greaterFrom;
+
+    if (ValueComparisons.isIntegral(value)) {
+      long longValue = value.longValue();
+      equalFrom = longValue;
+      greaterFrom = longValue == Long.MAX_VALUE ? null : longValue + 1;
+    }
+
+    else {
+      equalFrom = lowestLongFrom(doubleValue, false);
+      greaterFrom = lowestLongFrom(doubleValue, true);
+    }
+
+    ConcurrentNavigableMap<Long, IndexedClause<K, T>[]> equalMap = longMaps.get(ComparisonOperator.EQUAL);
+
+    if (equalFrom != null)
+      visitAll(greaterFrom == null ? equalMap.tailMap(equalFrom, true) : equalMap.subMap(equalFrom, true, greaterFrom, false), consumer);
+
+    if (greaterFrom != null)
+      visitAll(longMaps.get(ComparisonOperator.LESS_THAN).tailMap(greaterFrom, true), consumer);
+
+    if (equalFrom != null)
+      visitAll(longMaps.get(ComparisonOperator.LESS_THAN_OR_EQUAL).tailMap(equalFrom, true), consumer);
+
+    ConcurrentNavigableMap<Long, IndexedClause<K, T>[]> greaterMap = longMaps.get(ComparisonOperator.GREATER_THAN);
+    visitAll(equalFrom == null ? greaterMap : greaterMap.headMap(equalFrom, false), consumer);
+
+    ConcurrentNavigableMap<Long, IndexedClause<K, T>[]> greaterOrEqualMap = longMaps.get(ComparisonOperator.GREATER_THAN_OR_EQUAL);
+    visitAll(greaterFrom == null ? greaterOrEqualMap : greaterOrEqualMap.headMap(greaterFrom, false), consumer);
+  }
+
+  /**
+   * Finds the lowest long which, converted to a double, compares as greater than or equal to, or, if strict,
+   * as greater than the passed value, in the same way as ValueComparisons#compareToLong compares them
+   * @return Lowest long or null if there is none, as the value is NaN or greater than all longs
+   */
+  private static @Nullable Long lowestLongFrom(double value, boolean strict) {
+    // NaN compares as greater than all numbers
+    if (Double.isNaN(value))
+      return null;
+
+    // Negative zero compares as less than zero, and thus as less than the long zero
+    if (value == 0)
+      return strict && Double.doubleToRawLongBits(value) == 0 ? 1L : 0L;
+
+    if (Math.abs(value) < EXACT_LONG_LIMIT)
+      return strict ? (long) Math.floor(value) + 1 : (long) Math.ceil(value);
+
+    // Whole numbers beyond the exact range may compare as equal to multiple longs close to them
+    long candidate = (long) value;
+    long current = candidate < Long.MIN_VALUE + ROUNDING_DISTANCE ? Long.MIN_VALUE : candidate - ROUNDING_DISTANCE;
+
+    while (true) {
+      int comparison = Double.compare((double) current, value);
+
+      if (strict ? comparison > 0 : comparison >= 0)
+        return current;
+
+      if (current == Long.MAX_VALUE)
+        return null;
+
+      ++current;
+    }
+  }
+
+  static String foldString(String value) {
+    char[] result = new char[value.length()];
+
+    for (int i = 0; i < result.length; i++)
+      result[i] = ValueComparisons.foldCase(value.charAt(i));
+
+    return new String(result);
+  }
+
+  private static int stringMapIndex(boolean isFolded, boolean isTrimmed) {
+    return (isFolded ? 1 : 0) | (isTrimmed ? 2 : 0);
+  }
+
+  private void visitAll(Map<?, IndexedClause<K, T>[]> map, Consumer<IndexedClause<K, T>> consumer) {
+    for (IndexedClause<K, T>[] clauses : map.values())
+      visit(clauses, consumer);
+  }
+
+  private void visit(IndexedClause<K, T> @Nullable [] clauses, Consumer<IndexedClause<K, T>> consumer) {
+    if (clauses == null)
+      return;
+
+    for (IndexedClause<K, T> clause : clauses)
+      consumer.accept(clause);
+  }
+
+  @SuppressWarnings("unchecked")
+  private IndexedClause<K, T>[] append(IndexedClause<K, T> @Nullable [] clauses, IndexedClause<K, T> clause) {
+    if (clauses == null)
+      return (IndexedClause<K, T>[]) new IndexedClause<?, ?>[] { clause };
+
+    IndexedClause<K, T>[] result = Arrays.copyOf(clauses, clauses.length + 1);
+    result[clauses.length] = clause;
+    return result;
+  }
+
+  /**
+   * Removes a single occurrence of the clause, as it has been added once per comparison
+   * @return Remaining clauses or null if there are none
+   */
+  private IndexedClause<K, T> @Nullable [] without(IndexedClause<K, T>[] clauses, IndexedClause<K, T> clause) {
+    for (int i = 0; i < clauses.length; i++) {
+      if (clauses[i] != clause)
+        continue;
+
+      if (clauses.length == 1)
+        return null;
+
+      IndexedClause<K, T>[] result = Arrays.copyOf(clauses, clauses.length - 1);
+      System.arraycopy(clauses, i + 1, result, i, clauses.length - i - 1);
+      return result;
+    }
+
+    return clauses;
+  }
+}
@@ -0,0 +1,338 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.IPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.logging.DebugLogSource;
+import me.blvckbytes.filterexpressionparser.parser.NumericInterval;
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Matches objects against any number of registered filters at once, by the counting algorithm. Filters are split
+ * into conjunctions of comparisons, whose comparisons are looked up within an index per identifier, sharing equal
+ * comparisons of all filters. Matching looks up each indexed field of the object once and counts the hits per
+ * conjunction, which matches as soon as all of its indexed comparisons have been hit and the remaining
+ * comparisons hold. Conjunctions with equality comparisons are only indexed by these, while all other
+ * conjunctions are indexed by their null- and boolean checks, as well as by their ranges, which are merged into
+ * an interval per field, so that one lookup within an IntervalTree finds all intervals of a field which contain
+ * the value. The effort thus depends on the number of hits, rather than on the number of filters, except for
+ * filters without any indexed comparison, which have to be evaluated for every object.
+ * Filters can be registered and removed while matching concurrently, where matching never waits on them.
+ * @param <K> Type of the IDs of filters
+ * @param <T> Type of the matched objects
+ */
+public class FilterIndex<K, T> {
+
+  /**
+   * Maximum number of conjunctions a filter may be split into, where filters which would be split up
+   * further, like (a == 1 || b == 2) && (c == 3 || d == 4) && ..., are evaluated as a whole instead
+   */
+  public static final int MAXIMUM_CLAUSES = 64;
+
+  private final Logger logger;
+  private final IFieldAccessor<T> accessor;
+  private final IPredicateCompiler compiler;
+
+  // Modifications are serialized by the lock, while matching only reads the concurrent maps and volatile fields
+  private final ReentrantLock lock;
+  private final Map<String, FieldIndex<K, T>> fieldIndices;
+  private final Map<K, List<IndexedClause<K, T>>> clausesByFilterId;
+  private volatile IndexedClause<K, T>[] unindexedClauses;
+
+  public FilterIndex(Logger logger, IFieldAccessor<T> accessor) {
+    this(logger, accessor, new FilterPredicateCompiler(logger));
+  }
+
+  /**
+   * @param accessor Accessor used to resolve the identifiers of all registered filters
+   * @param compiler Compiler of the comparisons which cannot be looked up within an index
+   */
+  @SuppressWarnings("unchecked")
+  public FilterIndex(Logger logger, IFieldAccessor<T> accessor, IPredicateCompiler compiler) {
+    this.logger = logger;
+    this.accessor = accessor;
+    this.compiler = compiler;
+    this.lock = new ReentrantLock();
+    this.fieldIndices = new ConcurrentHashMap<>();
+    this.clausesByFilterId = new ConcurrentHashMap<>();
+    this.unindexedClauses = (IndexedClause<K, T>[]) new IndexedClause<?, ?>[0];
+  }
+
+  /**
+   * Registers a filter, replacing any filter which has previously been registered under the same ID
+   * @throws AParserError Comparisons which cannot be compiled, see IPredicateCompiler
+   */
+  public void register(K filterId, ABinaryFilterExpression<?, ?> expression) throws AParserError {
+    // Compile outside of the lock, as this may fail and takes the longest
+    List<IndexedClause<K, T>> clauses = createClauses(filterId, expression);
+
+    lock.lock();
+
+    try {
+      removeClauses(clausesByFilterId.remove(filterId));
+
+      for (IndexedClause<K, T> clause : clauses)
+        addClause(clause);
+
+      clausesByFilterId.put(filterId, clauses);
+    } finally {
+      lock.unlock();
+    }
+
+    logger.log(Level.FINEST, () -> DebugLogSource.INDEX + "Registered filter " + filterId + " as " + clauses.size() + " clause(s)");
+  }
+
+  /**
+   * @return Whether a filter has been registered under the ID
+   */
+  public boolean remove(K filterId) {
+    lock.lock();
+
+    try {
+      List<IndexedClause<K, T>> clauses = clausesByFilterId.remove(filterId);
+
+      if (clauses == null)
+        return false;
+
+      removeClauses(clauses);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return IDs of all registered filters which hold for the target
+   */
+  public Set<K> match(T target) {
+    Set<K> result = new HashSet<>();
+    Map<IndexedClause<K, T>, int[]> hitCounts = new HashMap<>();
+
+    for (FieldIndex<K, T> fieldIndex : fieldIndices.values()) {
+      fieldIndex.collect(target, clause -> {
+        int requiredCount = clause.getRequiredCount();
+
+        // Clauses with a single indexed comparison don't need to be counted
+        if (requiredCount != 1 && ++hitCounts.computeIfAbsent(clause, key -> new int[1])[0] != requiredCount)
+          return;
+
+        if (!result.contains(clause.getFilterId()) && clause.testResidual(target))
+          result.add(clause.getFilterId());
+      });
+    }
+
+    for (IndexedClause<K, T> clause : unindexedClauses) {
+      if (!result.contains(clause.getFilterId()) && clause.testResidual(target))
+        result.add(clause.getFilterId());
+    }
+
+    return result;
+  }
+
+  /**
+   * @return Number of registered filters
+   */
+  public int size() {
+    return clausesByFilterId.size();
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private List<IndexedClause<K, T>> createClauses(K filterId, ABinaryFilterExpression<?, ?> expression) throws AParserError {
+    List<List<ComparisonExpression>> conjunctions = splitIntoConjunctions(expression);
+
+    if (conjunctions == null)
+      return Collections.singletonList(new IndexedClause<>(filterId, Collections.emptyList(), Collections.emptyMap(), compiler.compile(expression, accessor)));
+
+    List<IndexedClause<K, T>> result = new ArrayList<>();
+
+    for (List<ComparisonExpression> conjunction : conjunctions) {
+      List<ComparisonExpression> indexedComparisons = new ArrayList<>();
+      Map<String, NumericInterval> intervals = new HashMap<>();
+      List<Predicate<T>> residuals = new ArrayList<>();
+      boolean hasSelectiveComparison = false;
+
+      for (ComparisonExpression comparison : conjunction)
+        hasSelectiveComparison |= FieldIndex.isSelective(comparison);
+
+      // Ranges and booleans hold for large shares of all objects, so counting their hits would take longer
+      // than evaluating them on the few objects which already passed all of the selective comparisons
+      for (ComparisonExpression comparison : conjunction) {
+        if (!hasSelectiveComparison && NumericInterval.isRepresentable(comparison)) {
+          intervals.merge(comparison.getLhs().getValue(), NumericInterval.UNBOUNDED.restrict(comparison), (interval, unused) -> interval.restrict(comparison));
+          continue;
+        }
+
+        if (hasSelectiveComparison ? FieldIndex.isSelective(comparison) : FieldIndex.isIndexable(comparison))
+          indexedComparisons.add(comparison);
+        else
+          residuals.add(compiler.compile(comparison, accessor));
+      }
+
+      result.add(new IndexedClause<>(filterId, indexedComparisons, intervals, combineResiduals(residuals)));
+    }
+
+    return result;
+  }
+
+  /**
+   * Splits an expression into a disjunction of conjunctions of comparisons
+   * @return Conjunctions or null if there would be more than MAXIMUM_CLAUSES of them
+   */
+  private @Nullable List<List<ComparisonExpression>> splitIntoConjunctions(ABinaryFilterExpression<?, ?> expression) {
+    if (expression instanceof ComparisonExpression) {
+      List<List<ComparisonExpression>> result = new ArrayList<>();
+      result.add(Collections.singletonList((ComparisonExpression) expression));
+      return result;
+    }
+
+    List<List<ComparisonExpression>> result = null;
+
+    for (ABinaryFilterExpression<?, ?> operand : ((AJunctionExpression) expression).flattenOperands()) {
+      List<List<ComparisonExpression>> operandConjunctions = splitIntoConjunctions(operand);
+
+      if (operandConjunctions == null)
+        return null;
+
+      if (result == null) {
+        result = operandConjunctions;
+        continue;
+      }
+
+      if (expression instanceof DisjunctionExpression) {
+        result.addAll(operandConjunctions);
+
+        if (result.size() > MAXIMUM_CLAUSES)
+          return null;
+
+        continue;
+      }
+
+      // Distribute the conjunction over the alternatives of both sides
+      if ((long) result.size() * operandConjunctions.size() > MAXIMUM_CLAUSES)
+        return null;
+
+      List<List<ComparisonExpression>> product = new ArrayList<>();
+
+      for (List<ComparisonExpression> lhs : result) {
+        for (List<ComparisonExpression> rhs : operandConjunctions) {
+          List<ComparisonExpression> conjunction = new ArrayList<>(lhs);
+          conjunction.addAll(rhs);
+          product.add(conjunction);
+        }
+      }
+
+      result = product;
+    }
+
+    return result;
+  }
+
+  private @Nullable Predicate<T> combineResiduals(List<Predicate<T>> residuals) {
+    if (residuals.isEmpty())
+      return null;
+
+    if (residuals.size() == 1)
+      return residuals.get(0);
+
+    return target -> {
+      for (Predicate<T> residual : residuals) {
+        if (!residual.test(target))
+          return false;
+      }
+
+      return true;
+    };
+  }
+
+  private void addClause(IndexedClause<K, T> clause) {
+    if (clause.getRequiredCount() == 0) {
+      unindexedClauses = append(unindexedClauses, clause);
+      return;
+    }
+
+    for (ComparisonExpression comparison : clause.getIndexedComparisons())
+      getOrCreateFieldIndex(comparison.getLhs().getValue()).add(comparison, clause);
+
+    clause.getIntervals().forEach((identifier, interval) -> getOrCreateFieldIndex(identifier).addInterval(interval, clause));
+  }
+
+  private FieldIndex<K, T> getOrCreateFieldIndex(String identifier) {
+    return fieldIndices.computeIfAbsent(identifier, key -> new FieldIndex<>(accessor.resolve(key)));
+  }
+
+  private void removeFromFieldIndex(String identifier, Consumer<FieldIndex<K, T>> removal) {
+    FieldIndex<K, T> fieldIndex = fieldIndices.get(identifier);
+
+    removal.accept(fieldIndex);
+
+    if (fieldIndex.isEmpty())
+      fieldIndices.remove(identifier);
+  }
+
+  private void removeClauses(@Nullable List<IndexedClause<K, T>> clauses) {
+    if (clauses == null)
+      return;
+
+    for (IndexedClause<K, T> clause : clauses) {
+      if (clause.getRequiredCount() == 0) {
+        unindexedClauses = without(unindexedClauses, clause);
+        continue;
+      }
+
+      for (ComparisonExpression comparison : clause.getIndexedComparisons())
+        removeFromFieldIndex(comparison.getLhs().getValue(), fieldIndex -> fieldIndex.remove(comparison, clause));
+
+      for (String identifier : clause.getIntervals().keySet())
+        removeFromFieldIndex(identifier, fieldIndex -> fieldIndex.removeInterval(clause));
+    }
+  }
+
+  private IndexedClause<K, T>[] append(IndexedClause<K, T>[] clauses, IndexedClause<K, T> clause) {
+    IndexedClause<K, T>[] result = Arrays.copyOf(clauses, clauses.length + 1);
+    result[clauses.length] = clause;
+    return result;
+  }
+
+  private IndexedClause<K, T>[] without(IndexedClause<K, T>[] clauses, IndexedClause<K, T> clause) {
+    List<IndexedClause<K, T>> result = new ArrayList<>(Arrays.asList(clauses));
+    result.remove(clause);
+    return result.toArray(Arrays.copyOf(clauses, 0));
+  }
+}
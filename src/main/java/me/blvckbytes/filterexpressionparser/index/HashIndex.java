@@ -0,0 +1,180 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import me.blvckbytes.filterexpressionparser.evaluator.ValueComparisons;
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import me.blvckbytes.filterexpressionparser.parser.LiteralType;
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up the rows whose field equals a constant, in the way the equality operator compares them. Numbers are
+ * keyed by longs whenever they compare as equal to a long, and by doubles otherwise, while strings are keyed by
+ * their trimmed and folded variants, each of which is only built once it's first looked up.
+ */
+class HashIndex {
+
+  // Beyond this magnitude, numbers may compare as equal to others which aren't represented by the same key
+  static final double EXACT_LONG_LIMIT = 0x1p53;
+
+  private final List<@Nullable Object> values;
+  private final Map<Object, RowList> rowsByValue;
+  private final RowList nullRows;
+
+  // Indexed by whether strings are folded (first bit) and whether values are trimmed (second bit)
+  private final List<@Nullable Map<String, RowList>> rowsByString;
+
+  HashIndex() {
+    this.values = new ArrayList<>();
+    this.rowsByValue = new HashMap<>();
+    this.nullRows = new RowList();
+    this.rowsByString = new ArrayList<>();
+
+    for (int i = 0; i < 4; i++)
+      rowsByString.add(null);
+  }
+
+  /**
+   * Whether the rows a comparison holds for can be looked up exactly
+   */
+  static boolean supports(ComparisonExpression comparison) {
+    if (comparison.getOperator() != ComparisonOperator.EQUAL)
+      return false;
+
+    TerminalExpression<?> value = comparison.getRhs();
+
+    if (value instanceof LongExpression)
+      return Math.abs((double) ((LongExpression) value).getValue()) < EXACT_LONG_LIMIT;
+
+    if (value instanceof DoubleExpression)
+      return Math.abs(((DoubleExpression) value).getValue()) < EXACT_LONG_LIMIT;
+
+    return value instanceof StringExpression || value instanceof LiteralExpression;
+  }
+
+  /**
+   * Adds the value of the next row, where rows have to be added in ascending order, starting at zero
+   */
+  synchronized void add(@Nullable Object value) {
+    int row = values.size();
+    values.add(value);
+
+    if (value == null) {
+      nullRows.add(row);
+      return;
+    }
+
+    rowsByValue.computeIfAbsent(toKey(value), key -> new RowList()).add(row);
+
+    for (int i = 0; i < 4; i++) {
+      Map<String, RowList> map = rowsByString.get(i);
+
+      if (map != null)
+        map.computeIfAbsent(toStringKey(value, i), key -> new RowList()).add(row);
+    }
+  }
+
+  /**
+   * Sets the bits of all rows which the supported comparison holds for
+   */
+  synchronized void collect(ComparisonExpression comparison, long[] bitmap) {
+    TerminalExpression<?> value = comparison.getRhs();
+    @Nullable RowList rows;
+
+    if (value instanceof StringExpression) {
+      StringExpression string = (StringExpression) value;
+      int variant = (string.isCaseSensitive() ? 0 : 1) | (string.shouldTrimTarget() ? 2 : 0);
+      rows = getOrBuildStringMap(variant).get(string.isCaseSensitive() ? string.getValue() : FieldIndex.foldString(string.getValue()));
+    }
+
+    else if (value instanceof LiteralExpression) {
+      LiteralType literal = ((LiteralExpression) value).getValue();
+      rows = literal == LiteralType.NULL ? nullRows : rowsByValue.get(literal == LiteralType.TRUE);
+    }
+
+    else
+      rows = rowsByValue.get(toKey(((TerminalExpression<?>) value).getValue()));
+
+    if (rows != null)
+      rows.setAll(bitmap);
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private Map<String, RowList> getOrBuildStringMap(int variant) {
+    Map<String, RowList> map = rowsByString.get(variant);
+
+    if (map != null)
+      return map;
+
+    map = new HashMap<>();
+
+    for (int row = 0; row < values.size(); row++) {
+      Object value = values.get(row);
+
+      if (value != null)
+        map.computeIfAbsent(toStringKey(value, variant), key -> new RowList()).add(row);
+    }
+
+    rowsByString.set(variant, map);
+    return map;
+  }
+
+  static String toStringKey(Object value, int variant) {
+    String result = ValueComparisons.asString(value);
+
+    if ((variant & 2) != 0)
+      result = result.trim();
+
+    if ((variant & 1) != 0)
+      result = FieldIndex.foldString(result);
+
+    return result;
+  }
+
+  static Object toKey(Object value) {
+    if (!(value instanceof Number))
+      return value;
+
+    if (ValueComparisons.isIntegral(value))
+      return ((Number) value).longValue();
+
+    double number = ((Number) value).doubleValue();
+
+    // Negative zero doesn't compare as equal to zero, and thus is kept apart from the long zero
+    if (number == Math.rint(number) && Math.abs(number) < EXACT_LONG_LIMIT && Double.doubleToRawLongBits(number) != Double.doubleToRawLongBits(-0.0))
+      return (long) number;
+
+    return number;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import me.blvckbytes.filterexpressionparser.parser.NumericInterval;
+import me.blvckbytes.filterexpressionparser.parser.expression.ComparisonExpression;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Conjunction of comparisons, which is one of the alternatives of a registered filter. Comparisons which can
+ * be looked up within a FieldIndex are counted while matching, where all range comparisons on the same field
+ * are merged into a single interval first. All other comparisons form the residual predicate, which is only
+ * evaluated once all indexed comparisons and intervals have been found to hold.
+ */
+class IndexedClause<K, T> {
+
+  private final K filterId;
+  private final List<ComparisonExpression> indexedComparisons;
+  private final Map<String, NumericInterval> intervals;
+  private final @Nullable Predicate<T> residual;
+
+  IndexedClause(K filterId, List<ComparisonExpression> indexedComparisons, Map<String, NumericInterval> intervals, @Nullable Predicate<T> residual) {
+    this.filterId = filterId;
+    this.indexedComparisons = indexedComparisons;
+    this.intervals = intervals;
+    this.residual = residual;
+  }
+
+  K getFilterId() {
+    return filterId;
+  }
+
+  List<ComparisonExpression> getIndexedComparisons() {
+    return indexedComparisons;
+  }
+
+  /**
+   * @return Intervals by the identifiers of the fields they apply to
+   */
+  Map<String, NumericInterval> getIntervals() {
+    return intervals;
+  }
+
+  int getRequiredCount() {
+    return indexedComparisons.size() + intervals.size();
+  }
+
+  boolean testResidual(T target) {
+    return residual == null || residual.test(target);
+  }
+}
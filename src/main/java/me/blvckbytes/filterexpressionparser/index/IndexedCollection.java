@@ -0,0 +1,509 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.evaluator.FFieldReader;
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.IPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.columnar.Bitmaps;
+import me.blvckbytes.filterexpressionparser.logging.DebugLogSource;
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import me.blvckbytes.filterexpressionparser.parser.ExpressionSimplifier;
+import me.blvckbytes.filterexpressionparser.parser.NumericInterval;
+import me.blvckbytes.filterexpressionparser.parser.SimplifiedExpression;
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collection of objects, which can be filtered by looking up comparisons within indexes on their fields, rather
+ * than by evaluating the filter on each object. Filters are simplified first, where filters which always or never
+ * hold don't look at any index or object. Hash indexes look up equality, while sorted indexes look up numeric
+ * ranges and equality, where all ranges on the same field within a conjunction are merged into a single lookup.
+ * Each lookup results in a bitmap of candidate rows, which are intersected for conjunctions and united for
+ * disjunctions. Trigram indexes narrow down the rows which substring, prefix, suffix and regex comparisons may
+ * hold for, which are then verified on these rows. Ranges and trigram lookups which would mark many more rows
+ * than a conjunction's other lookups left are evaluated on these candidates instead. Bitmap indexes look up
+ * equality and inequality on fields with few distinct values, where all such lookups within a junction are
+ * combined on their compressed bitmaps. Comparisons without a suitable index remain as residuals, which are only
+ * evaluated on the candidates, or on all objects if a disjunction contains them. Filtering may happen
+ * concurrently, but neither objects nor indexes may be added while doing so.
+ * @param <T> Type of the contained objects
+ */
+public class IndexedCollection<T> {
+
+  private final Logger logger;
+  private final IFieldAccessor<T> accessor;
+  private final IPredicateCompiler compiler;
+  private final ExpressionSimplifier simplifier;
+  private final List<T> elements;
+  private final Map<String, HashIndex> hashIndices;
+  private final Map<String, SortedIndex> sortedIndices;
+  private final Map<String, TrigramIndex> trigramIndices;
+  private final Map<String, BitmapIndex> bitmapIndices;
+  private final Map<String, FFieldReader<T>> readers;
+
+  public IndexedCollection(Logger logger, IFieldAccessor<T> accessor) {
+    this(logger, accessor, new FilterPredicateCompiler(logger));
+  }
+
+  /**
+   * @param accessor Accessor used to resolve the identifiers of indexes and filters
+   * @param compiler Compiler of the comparisons which cannot be looked up within an index
+   */
+  public IndexedCollection(Logger logger, IFieldAccessor<T> accessor, IPredicateCompiler compiler) {
+    this.logger = logger;
+    this.accessor = accessor;
+    this.compiler = compiler;
+    this.simplifier = new ExpressionSimplifier();
+    this.elements = new ArrayList<>();
+    this.hashIndices = new HashMap<>();
+    this.sortedIndices = new HashMap<>();
+    this.trigramIndices = new HashMap<>();
+    this.bitmapIndices = new HashMap<>();
+    this.readers = new HashMap<>();
+  }
+
+  /**
+   * Indexes a field by hashing, to look up equality with strings, numbers, booleans and null
+   */
+  public void addHashIndex(String identifier) {
+    if (hashIndices.containsKey(identifier))
+      return;
+
+    HashIndex index = new HashIndex();
+    FFieldReader<T> reader = getReader(identifier);
+
+    for (T element : elements)
+      index.add(reader.read(element));
+
+    hashIndices.put(identifier, index);
+  }
+
+  /**
+   * Indexes a numeric field in ascending order, to look up ranges and equality with numbers
+   */
+  public void addSortedIndex(String identifier) {
+    if (sortedIndices.containsKey(identifier))
+      return;
+
+    SortedIndex index = new SortedIndex();
+    FFieldReader<T> reader = getReader(identifier);
+
+    for (T element : elements)
+      index.add(reader.read(element));
+
+    sortedIndices.put(identifier, index);
+  }
+
+  /**
+   * Indexes the trigrams of a field's string representation, to narrow down substring, prefix, suffix and regex
+   * comparisons, case-sensitively as well as case-insensitively
+   */
+  public void addTrigramIndex(String identifier) {
+    if (trigramIndices.containsKey(identifier))
+      return;
+
+    TrigramIndex index = new TrigramIndex();
+    FFieldReader<T> reader = getReader(identifier);
+
+    for (T element : elements)
+      index.add(reader.read(element));
+
+    trigramIndices.put(identifier, index);
+  }
+
+  /**
+   * Indexes a field with few distinct values by a compressed bitmap of rows per value, to look up equality and
+   * inequality with strings, longs, booleans and null
+   */
+  public void addBitmapIndex(String identifier) {
+    if (bitmapIndices.containsKey(identifier))
+      return;
+
+    BitmapIndex index = new BitmapIndex();
+    FFieldReader<T> reader = getReader(identifier);
+
+    for (T element : elements)
+      index.add(reader.read(element));
+
+    bitmapIndices.put(identifier, index);
+  }
+
+  public void add(T element) {
+    elements.add(element);
+
+    for (Map.Entry<String, HashIndex> entry : hashIndices.entrySet())
+      entry.getValue().add(readers.get(entry.getKey()).read(element));
+
+    for (Map.Entry<String, SortedIndex> entry : sortedIndices.entrySet())
+      entry.getValue().add(readers.get(entry.getKey()).read(element));
+
+    for (Map.Entry<String, TrigramIndex> entry : trigramIndices.entrySet())
+      entry.getValue().add(readers.get(entry.getKey()).read(element));
+
+    for (Map.Entry<String, BitmapIndex> entry : bitmapIndices.entrySet())
+      entry.getValue().add(readers.get(entry.getKey()).read(element));
+  }
+
+  public void addAll(Collection<? extends T> elements) {
+    for (T element : elements)
+      add(element);
+  }
+
+  public int size() {
+    return elements.size();
+  }
+
+  /**
+   * @return All contained objects which the filter holds for, in the order they've been added
+   * @throws AParserError Residual comparisons which cannot be compiled, see IPredicateCompiler
+   */
+  public List<T> filter(ABinaryFilterExpression<?, ?> filter) throws AParserError {
+    SimplifiedExpression simplified = simplifier.simplify(filter);
+    ABinaryFilterExpression<?, ?> expression = simplified.getExpression();
+
+    if (expression == null) {
+      logger.log(Level.FINEST, () -> DebugLogSource.INDEX + "Simplified " + filter.expressionify() + " to " + simplified.isAlwaysTrue());
+      return simplified.isAlwaysTrue() ? new ArrayList<>(elements) : new ArrayList<>();
+    }
+
+    int rowCount = elements.size();
+    Plan plan = plan(expression, rowCount);
+    Predicate<T> residual = compileResiduals(plan.residuals);
+
+    logger.log(Level.FINEST, () -> DebugLogSource.INDEX + "Planned " + expression.expressionify() + " as " + (
+      plan.candidates == null ? "a scan" : "a lookup of " + Bitmaps.cardinality(plan.candidates) + " candidate(s)"
+    ) + " with " + plan.residuals.size() + " residual(s)");
+
+    List<T> result = new ArrayList<>();
+
+    if (plan.candidates == null) {
+      for (int row = 0; row < rowCount; row++) {
+        T element = elements.get(row);
+
+        if (residual.test(element))
+          result.add(element);
+      }
+
+      return result;
+    }
+
+    long[] candidates = plan.candidates;
+
+    for (int wordIndex = 0; wordIndex < candidates.length; wordIndex++) {
+      long word = candidates[wordIndex];
+
+      while (word != 0) {
+        T element = elements.get((wordIndex << 6) + Long.numberOfTrailingZeros(word));
+
+        if (residual.test(element))
+          result.add(element);
+
+        word &= word - 1;
+      }
+    }
+
+    return result;
+  }
+
+  //=========================================================================//
+  //                                Planning                                 //
+  //=========================================================================//
+
+  // Ranges and trigram lookups are evaluated on the candidates if they'd mark more than this many times as many rows
+  private static final int RESIDUAL_LOOKUP_FACTOR = 8;
+
+  private static class Plan {
+
+    // Rows which may match, or null if all rows may match
+    final long @Nullable [] candidates;
+
+    // Expressions which all have to hold on the candidates as well
+    final List<ABinaryFilterExpression<?, ?>> residuals;
+
+    Plan(long @Nullable [] candidates, List<ABinaryFilterExpression<?, ?>> residuals) {
+      this.candidates = candidates;
+      this.residuals = residuals;
+    }
+  }
+
+  private Plan plan(ABinaryFilterExpression<?, ?> expression, int rowCount) {
+    if (isBitmapLookup(expression))
+      return new Plan(toBitmap(lookUpBitmaps(expression, rowCount), rowCount), Collections.emptyList());
+
+    if (expression instanceof ComparisonExpression)
+      return planComparison((ComparisonExpression) expression, rowCount);
+
+    List<ABinaryFilterExpression<?, ?>> operands = ((AJunctionExpression) expression).flattenOperands();
+
+    if (expression instanceof DisjunctionExpression) {
+      long[] candidates = Bitmaps.create(rowCount);
+      List<ABinaryFilterExpression<?, ?>> bitmapOperands = new ArrayList<>();
+      boolean isExact = true;
+
+      for (ABinaryFilterExpression<?, ?> operand : operands) {
+        if (isBitmapLookup(operand)) {
+          bitmapOperands.add(operand);
+          continue;
+        }
+
+        Plan operandPlan = plan(operand, rowCount);
+
+        // A single operand which may hold for any row requires a scan of all rows
+        if (operandPlan.candidates == null)
+          return new Plan(null, Collections.singletonList(expression));
+
+        Bitmaps.or(candidates, operandPlan.candidates);
+        isExact &= operandPlan.residuals.isEmpty();
+      }
+
+      if (!bitmapOperands.isEmpty())
+        lookUpBitmaps(false, bitmapOperands, rowCount).setAll(candidates);
+
+      return new Plan(candidates, isExact ? Collections.emptyList() : Collections.singletonList(expression));
+    }
+
+    long @Nullable [] candidates = null;
+    List<ABinaryFilterExpression<?, ?>> residuals = new ArrayList<>();
+    Map<String, NumericInterval> intervals = new LinkedHashMap<>();
+    Map<String, List<ComparisonExpression>> intervalComparisons = new HashMap<>();
+    List<ComparisonExpression> trigramLookups = new ArrayList<>();
+    List<ABinaryFilterExpression<?, ?>> bitmapOperands = new ArrayList<>();
+
+    for (ABinaryFilterExpression<?, ?> operand : operands) {
+      if (isBitmapLookup(operand)) {
+        bitmapOperands.add(operand);
+        continue;
+      }
+
+      if (operand instanceof ComparisonExpression && isIntervalLookup((ComparisonExpression) operand)) {
+        ComparisonExpression comparison = (ComparisonExpression) operand;
+        intervals.merge(comparison.getLhs().getValue(), NumericInterval.UNBOUNDED.restrict(comparison), (interval, unused) -> interval.restrict(comparison));
+        intervalComparisons.computeIfAbsent(comparison.getLhs().getValue(), identifier -> new ArrayList<>()).add(comparison);
+        continue;
+      }
+
+      if (operand instanceof ComparisonExpression && isTrigramLookup((ComparisonExpression) operand)) {
+        trigramLookups.add((ComparisonExpression) operand);
+        continue;
+      }
+
+      Plan operandPlan = plan(operand, rowCount);
+      candidates = intersect(candidates, operandPlan.candidates);
+      residuals.addAll(operandPlan.residuals);
+    }
+
+    if (!bitmapOperands.isEmpty())
+      candidates = intersect(candidates, toBitmap(lookUpBitmaps(true, bitmapOperands, rowCount), rowCount));
+
+    for (Map.Entry<String, NumericInterval> entry : intervals.entrySet()) {
+      SortedIndex sortedIndex = sortedIndices.get(entry.getKey());
+
+      if (candidates != null && (long) Bitmaps.cardinality(candidates) * RESIDUAL_LOOKUP_FACTOR < sortedIndex.count(entry.getValue())) {
+        residuals.addAll(intervalComparisons.get(entry.getKey()));
+        continue;
+      }
+
+      long[] intervalCandidates = Bitmaps.create(rowCount);
+      sortedIndex.collect(entry.getValue(), intervalCandidates);
+      candidates = intersect(candidates, intervalCandidates);
+    }
+
+    for (ComparisonExpression comparison : trigramLookups) {
+      TrigramIndex trigramIndex = trigramIndices.get(comparison.getLhs().getValue());
+
+      // Trigrams only narrow down the rows, which is why the comparison has to be verified either way
+      residuals.add(comparison);
+
+      if (candidates != null && (long) Bitmaps.cardinality(candidates) * RESIDUAL_LOOKUP_FACTOR < trigramIndex.estimate(comparison))
+        continue;
+
+      long[] trigramCandidates = Bitmaps.create(rowCount);
+      trigramIndex.collect(comparison, trigramCandidates);
+      candidates = intersect(candidates, trigramCandidates);
+    }
+
+    return new Plan(candidates, residuals);
+  }
+
+  private Plan planComparison(ComparisonExpression comparison, int rowCount) {
+    long @Nullable [] candidates = lookUp(comparison, rowCount);
+
+    if (candidates != null)
+      return new Plan(candidates, Collections.emptyList());
+
+    if (isTrigramLookup(comparison)) {
+      candidates = Bitmaps.create(rowCount);
+      trigramIndices.get(comparison.getLhs().getValue()).collect(comparison, candidates);
+    }
+
+    return new Plan(candidates, Collections.singletonList(comparison));
+  }
+
+  private long @Nullable [] lookUp(ComparisonExpression comparison, int rowCount) {
+    String identifier = comparison.getLhs().getValue();
+    HashIndex hashIndex = hashIndices.get(identifier);
+
+    if (hashIndex != null && HashIndex.supports(comparison)) {
+      long[] result = Bitmaps.create(rowCount);
+      hashIndex.collect(comparison, result);
+      return result;
+    }
+
+    if (isIntervalLookup(comparison)) {
+      long[] result = Bitmaps.create(rowCount);
+      sortedIndices.get(identifier).collect(NumericInterval.UNBOUNDED.restrict(comparison), result);
+      return result;
+    }
+
+    return null;
+  }
+
+  /**
+   * Whether a comparison is looked up within a sorted index, where equality is preferably looked up by hashing
+   */
+  private boolean isIntervalLookup(ComparisonExpression comparison) {
+    String identifier = comparison.getLhs().getValue();
+
+    if (!sortedIndices.containsKey(identifier) || !NumericInterval.isRepresentable(comparison))
+      return false;
+
+    return !(hashIndices.containsKey(identifier) && HashIndex.supports(comparison));
+  }
+
+  private boolean isTrigramLookup(ComparisonExpression comparison) {
+    return trigramIndices.containsKey(comparison.getLhs().getValue()) && TrigramIndex.supports(comparison);
+  }
+
+  /**
+   * Whether an expression only consists of comparisons which are looked up within bitmap indexes
+   */
+  private boolean isBitmapLookup(ABinaryFilterExpression<?, ?> expression) {
+    if (expression instanceof ComparisonExpression) {
+      ComparisonExpression comparison = (ComparisonExpression) expression;
+      return bitmapIndices.containsKey(comparison.getLhs().getValue()) && BitmapIndex.supports(comparison);
+    }
+
+    for (ABinaryFilterExpression<?, ?> operand : ((AJunctionExpression) expression).flattenOperands()) {
+      if (!isBitmapLookup(operand))
+        return false;
+    }
+
+    return true;
+  }
+
+  private CompressedBitmap lookUpBitmaps(ABinaryFilterExpression<?, ?> expression, int rowCount) {
+    if (expression instanceof ComparisonExpression) {
+      ComparisonExpression comparison = (ComparisonExpression) expression;
+      CompressedBitmap equalRows = bitmapIndices.get(comparison.getLhs().getValue()).lookUpEqual(comparison);
+
+      if (comparison.getOperator() == ComparisonOperator.NOT_EQUAL)
+        return CompressedBitmap.ofRange(rowCount).andNot(equalRows);
+
+      return equalRows;
+    }
+
+    return lookUpBitmaps(expression instanceof ConjunctionExpression, ((AJunctionExpression) expression).flattenOperands(), rowCount);
+  }
+
+  /**
+   * Combines the rows of operands which are all bitmap lookups, where the rows equal to inequalities within a
+   * conjunction are removed from the rows of all other operands, rather than inverting them first
+   */
+  private CompressedBitmap lookUpBitmaps(boolean isConjunction, List<ABinaryFilterExpression<?, ?>> operands, int rowCount) {
+    @Nullable CompressedBitmap result = null;
+    List<CompressedBitmap> excludedRows = new ArrayList<>();
+
+    for (ABinaryFilterExpression<?, ?> operand : operands) {
+      if (isConjunction && operand instanceof ComparisonExpression && ((ComparisonExpression) operand).getOperator() == ComparisonOperator.NOT_EQUAL) {
+        ComparisonExpression comparison = (ComparisonExpression) operand;
+        excludedRows.add(bitmapIndices.get(comparison.getLhs().getValue()).lookUpEqual(comparison));
+        continue;
+      }
+
+      CompressedBitmap rows = lookUpBitmaps(operand, rowCount);
+
+      if (result == null)
+        result = rows;
+      else
+        result = isConjunction ? result.and(rows) : result.or(rows);
+    }
+
+    if (result == null)
+      result = CompressedBitmap.ofRange(rowCount);
+
+    for (CompressedBitmap rows : excludedRows)
+      result = result.andNot(rows);
+
+    return result;
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private long @Nullable [] intersect(long @Nullable [] candidates, long @Nullable [] other) {
+    if (candidates == null)
+      return other;
+
+    if (other != null)
+      Bitmaps.and(candidates, other);
+
+    return candidates;
+  }
+
+  private long[] toBitmap(CompressedBitmap rows, int rowCount) {
+    long[] result = Bitmaps.create(rowCount);
+    rows.setAll(result);
+    return result;
+  }
+
+  private Predicate<T> compileResiduals(List<ABinaryFilterExpression<?, ?>> residuals) throws AParserError {
+    List<Predicate<T>> predicates = new ArrayList<>();
+
+    for (ABinaryFilterExpression<?, ?> residual : residuals)
+      predicates.add(compiler.compile(residual, accessor));
+
+    return target -> {
+      for (Predicate<T> predicate : predicates) {
+        if (!predicate.test(target))
+          return false;
+      }
+
+      return true;
+    };
+  }
+
+  private FFieldReader<T> getReader(String identifier) {
+    return readers.computeIfAbsent(identifier, accessor::resolve);
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import me.blvckbytes.filterexpressionparser.parser.NumericInterval;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Answers which of the stored intervals contain a given number, by a treap which is ordered by the lower
+ * bounds of intervals and where each node knows the greatest upper bound within its subtree. Subtrees whose
+ * intervals all end below the number, or which all begin above it, are skipped, so that a lookup visits
+ * O(log n) nodes per interval it reports. Nodes are never modified, but copied along the path to each change,
+ * so that lookups can walk the tree while it's being modified. Modifications need to be serialized.
+ */
+class IntervalTree<V> {
+
+  private static class Node<V> {
+
+    final NumericInterval interval;
+    final V value;
+    final long sequence;
+    final int priority;
+    final @Nullable Node<V> left, right;
+
+    // Greatest upper bound of all intervals within this subtree, by Double#compare
+    final double maximumHigh;
+
+    Node(NumericInterval interval, V value, long sequence, @Nullable Node<V> left, @Nullable Node<V> right) {
+      this.interval = interval;
+      this.value = value;
+      this.sequence = sequence;
+      this.priority = Long.hashCode(sequence * 0x9E3779B97F4A7C15L);
+      this.left = left;
+      this.right = right;
+
+      double maximumHigh = interval.getHigh();
+
+      if (left != null && Double.compare(left.maximumHigh, maximumHigh) > 0)
+        maximumHigh = left.maximumHigh;
+
+      if (right != null && Double.compare(right.maximumHigh, maximumHigh) > 0)
+        maximumHigh = right.maximumHigh;
+
+      this.maximumHigh = maximumHigh;
+    }
+
+    Node<V> withChildren(@Nullable Node<V> left, @Nullable Node<V> right) {
+      return new Node<>(interval, value, sequence, left, right);
+    }
+
+    int compareTo(Node<V> other) {
+      int result = Double.compare(interval.getLow(), other.interval.getLow());
+      return result != 0 ? result : Long.compare(sequence, other.sequence);
+    }
+  }
+
+  private volatile @Nullable Node<V> root;
+
+  // Only accessed by modifications
+  private final Map<V, Node<V>> nodesByValue;
+  private long nextSequence;
+
+  IntervalTree() {
+    this.nodesByValue = new IdentityHashMap<>();
+  }
+
+  /**
+   * Adds an interval, where each value may only be added once at a time
+   */
+  void add(NumericInterval interval, V value) {
+    Node<V> node = new Node<>(interval, value, nextSequence++, null, null);
+    nodesByValue.put(value, node);
+    root = insert(root, node);
+  }
+
+  void remove(V value) {
+    Node<V> node = nodesByValue.remove(value);
+
+    if (node != null)
+      root = delete(root, node);
+  }
+
+  boolean isEmpty() {
+    return nodesByValue.isEmpty();
+  }
+
+  /**
+   * Passes the values of all intervals which contain the number to the consumer
+   */
+  void stab(double number, Consumer<V> consumer) {
+    stab(root, number, consumer);
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private void stab(@Nullable Node<V> node, double number, Consumer<V> consumer) {
+    if (node == null || Double.compare(number, node.maximumHigh) > 0)
+      return;
+
+    stab(node.left, number, consumer);
+
+    if (node.interval.contains(number))
+      consumer.accept(node.value);
+
+    // All intervals to the right begin at or after this one
+    if (Double.compare(number, node.interval.getLow()) >= 0)
+      stab(node.right, number, consumer);
+  }
+
+  private Node<V> insert(@Nullable Node<V> node, Node<V> inserted) {
+    if (node == null)
+      return inserted;
+
+    if (inserted.compareTo(node) < 0) {
+      Node<V> left = insert(node.left, inserted);
+
+      // Rotate right, to keep the node with the higher priority on top
+      if (left.priority > node.priority)
+        return left.withChildren(left.left, node.withChildren(left.right, node.right));
+
+      return node.withChildren(left, node.right);
+    }
+
+    Node<V> right = insert(node.right, inserted);
+
+    if (right.priority > node.priority)
+      return right.withChildren(node.withChildren(node.left, right.left), right.right);
+
+    return node.withChildren(node.left, right);
+  }
+
+  private @Nullable Node<V> delete(@Nullable Node<V> node, Node<V> deleted) {
+    if (node == null)
+      return null;
+
+    int result = deleted.compareTo(node);
+
+    if (result < 0)
+      return node.withChildren(delete(node.left, deleted), node.right);
+
+    if (result > 0)
+      return node.withChildren(node.left, delete(node.right, deleted));
+
+    return merge(node.left, node.right);
+  }
+
+  private @Nullable Node<V> merge(@Nullable Node<V> left, @Nullable Node<V> right) {
+    if (left == null)
+      return right;
+
+    if (right == null)
+      return left;
+
+    if (left.priority > right.priority)
+      return left.withChildren(left.left, merge(left.right, right));
+
+    return right.withChildren(merge(left, right.left), right.right);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import me.blvckbytes.filterexpressionparser.evaluator.columnar.Bitmaps;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of row numbers, in the order they've been added
+ */
+class RowList {
+
+  private int[] rows;
+  private int size;
+
+  RowList() {
+    this.rows = new int[4];
+  }
+
+  void add(int row) {
+    if (size == rows.length)
+      rows = Arrays.copyOf(rows, size * 2);
+
+    rows[size++] = row;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int get(int index) {
+    return rows[index];
+  }
+
+  /**
+   * Sets the bits of all rows within the bitmap
+   */
+  void setAll(long[] bitmap) {
+    for (int i = 0; i < size; i++)
+      Bitmaps.set(bitmap, rows[i]);
+  }
+}
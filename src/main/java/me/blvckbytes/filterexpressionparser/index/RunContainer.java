@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import me.blvckbytes.filterexpressionparser.evaluator.columnar.Bitmaps;
+
+import java.util.Arrays;
+
+/**
+ * Container of consecutive values, stored as the first and last value of each run
+ */
+class RunContainer extends ABitmapContainer {
+
+  private char[] starts, ends;
+  private int runCount, cardinality;
+
+  RunContainer() {
+    this.starts = new char[4];
+    this.ends = new char[4];
+  }
+
+  /**
+   * @return Container of all values from zero up to and including the last value
+   */
+  static RunContainer upTo(char lastValue) {
+    RunContainer result = new RunContainer();
+    result.starts[0] = 0;
+    result.ends[0] = lastValue;
+    result.runCount = 1;
+    result.cardinality = lastValue + 1;
+    return result;
+  }
+
+  @Override
+  int cardinality() {
+    return cardinality;
+  }
+
+  @Override
+  boolean contains(char value) {
+    int index = Arrays.binarySearch(starts, 0, runCount, value);
+
+    if (index >= 0)
+      return true;
+
+    // Index of the last run which starts before the value
+    int runIndex = -index - 2;
+    return runIndex >= 0 && value <= ends[runIndex];
+  }
+
+  @Override
+  ABitmapContainer add(char value) {
+    ++cardinality;
+
+    if (runCount > 0 && ends[runCount - 1] + 1 == value) {
+      ends[runCount - 1] = value;
+      return this;
+    }
+
+    if (runCount == starts.length) {
+      starts = Arrays.copyOf(starts, runCount * 2);
+      ends = Arrays.copyOf(ends, runCount * 2);
+    }
+
+    starts[runCount] = value;
+    ends[runCount++] = value;
+    return this;
+  }
+
+  @Override
+  void setAll(long[] bitmap, int firstRow) {
+    for (int i = 0; i < runCount; i++)
+      Bitmaps.setRange(bitmap, firstRow + starts[i], firstRow + ends[i]);
+  }
+
+  @Override
+  int runCount() {
+    return runCount;
+  }
+
+  @Override
+  BitmapContainer toBitmapContainer() {
+    long[] words = new long[BitmapContainer.WORD_COUNT];
+    setAll(words, 0);
+    return new BitmapContainer(words, cardinality);
+  }
+
+  @Override
+  ArrayContainer toArrayContainer() {
+    ArrayContainer result = new ArrayContainer();
+
+    for (int i = 0; i < runCount; i++) {
+      for (int value = starts[i]; value <= ends[i]; value++)
+        result.add((char) value);
+    }
+
+    return result;
+  }
+
+  @Override
+  RunContainer toRunContainer() {
+    return this;
+  }
+
+  @Override
+  ABitmapContainer and(ABitmapContainer other) {
+    if (other instanceof ArrayContainer)
+      return other.and(this);
+
+    return super.and(other);
+  }
+
+  @Override
+  ABitmapContainer or(ABitmapContainer other) {
+    // Runs which cover all values absorb any other container
+    if (cardinality == 1 << 16)
+      return this;
+
+    return super.or(other);
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import me.blvckbytes.filterexpressionparser.evaluator.columnar.Bitmaps;
+import me.blvckbytes.filterexpressionparser.parser.NumericInterval;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Looks up the rows whose numeric field lies within an interval, by a binary search over all numbers in ascending
+ * order. Rows are appended unsorted and only sorted once they're looked up, so that adding many rows at once
+ * doesn't cause any sorting until the next lookup. Fields which aren't numbers never lie within an interval.
+ */
+class SortedIndex {
+
+  // Numbers, mapped into longs which compare like Double#compare compares the numbers
+  private long[] keys;
+  private int[] rows;
+  private int size, nextRow;
+  private boolean isSorted;
+
+  SortedIndex() {
+    this.keys = new long[16];
+    this.rows = new int[16];
+    this.isSorted = true;
+  }
+
+  /**
+   * Adds the value of the next row, where rows have to be added in ascending order, starting at zero
+   */
+  synchronized void add(@Nullable Object value) {
+    int row = nextRow++;
+
+    if (!(value instanceof Number))
+      return;
+
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      rows = Arrays.copyOf(rows, size * 2);
+    }
+
+    keys[size] = toKey(((Number) value).doubleValue());
+    rows[size] = row;
+    ++size;
+
+    isSorted = false;
+  }
+
+  /**
+   * Sets the bits of all rows whose number lies within the interval
+   */
+  synchronized void collect(NumericInterval interval, long[] bitmap) {
+    ensureSorted();
+
+    int from = firstIndexOf(toKey(interval.getLow()), !interval.isLowInclusive());
+    int to = firstIndexOf(toKey(interval.getHigh()), interval.isHighInclusive());
+
+    for (int i = from; i < to; i++)
+      Bitmaps.set(bitmap, rows[i]);
+  }
+
+  /**
+   * @return Number of rows whose number lies within the interval
+   */
+  synchronized int count(NumericInterval interval) {
+    ensureSorted();
+    return firstIndexOf(toKey(interval.getHigh()), interval.isHighInclusive()) - firstIndexOf(toKey(interval.getLow()), !interval.isLowInclusive());
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private void ensureSorted() {
+    if (isSorted)
+      return;
+
+    sort(0, size - 1);
+    isSorted = true;
+  }
+
+  private static long toKey(double number) {
+    long bits = Double.doubleToLongBits(number);
+
+    // Flipping all but the sign bit of negative numbers reverses their order, while NaN stays the greatest
+    return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+  }
+
+  /**
+   * @return Index of the first key which is greater than, or, if not strict, greater than or equal to the passed key
+   */
+  private int firstIndexOf(long key, boolean strict) {
+    int low = 0, high = size;
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+
+      if (strict ? keys[middle] <= key : keys[middle] < key)
+        low = middle + 1;
+      else
+        high = middle;
+    }
+
+    return low;
+  }
+
+  /**
+   * Sorts keys and rows by keys, through a quicksort which only recurses into the smaller partition
+   */
+  private void sort(int low, int high) {
+    while (high - low > 16) {
+      int middle = (low + high) >>> 1;
+
+      // Median of three, which ends up at the middle
+      if (keys[middle] < keys[low])
+        swap(middle, low);
+
+      if (keys[high] < keys[low])
+        swap(high, low);
+
+      if (keys[high] < keys[middle])
+        swap(high, middle);
+
+      long pivot = keys[middle];
+      int i = low, j = high;
+
+      while (i <= j) {
+        while (keys[i] < pivot)
+          ++i;
+
+        while (keys[j] > pivot)
+          --j;
+
+        if (i <= j)
+          swap(i++, j--);
+      }
+
+      if (j - low < high - i) {
+        sort(low, j);
+        low = i;
+      } else {
+        sort(i, high);
+        high = j;
+      }
+    }
+
+    for (int i = low + 1; i <= high; i++) {
+      for (int j = i; j > low && keys[j] < keys[j - 1]; j--)
+        swap(j, j - 1);
+    }
+  }
+
+  private void swap(int a, int b) {
+    long key = keys[a];
+    keys[a] = keys[b];
+    keys[b] = key;
+
+    int row = rows[a];
+    rows[a] = rows[b];
+    rows[b] = row;
+  }
+}
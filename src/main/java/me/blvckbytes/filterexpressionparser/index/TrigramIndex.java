@@ -0,0 +1,395 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.index;
+
+import me.blvckbytes.filterexpressionparser.evaluator.ValueComparisons;
+import me.blvckbytes.filterexpressionparser.evaluator.columnar.Bitmaps;
+import me.blvckbytes.filterexpressionparser.parser.expression.ComparisonExpression;
+import me.blvckbytes.filterexpressionparser.parser.expression.StringExpression;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Narrows down the rows which a substring, prefix, suffix or regex comparison may hold for, by looking up all
+ * trigrams (sequences of three characters) which the values of these rows have to contain. Postings of folded
+ * trigrams, which serve case-insensitive comparisons, are only built once they're first looked up. As trigrams
+ * don't tell where within the value they occur, each candidate still has to be verified by the comparison itself.
+ */
+class TrigramIndex {
+
+  private static final int GRAM_LENGTH = 3;
+
+  // Escapes of a letter or digit which match a single character out of a fixed class, all others are not parsed
+  private static final String CLASS_ESCAPES = "dDsSwWhHvVbBAzZGRX";
+
+  private final List<@Nullable String> values;
+  private final Map<Long, RowList> rowsByGram;
+  private @Nullable Map<Long, RowList> rowsByFoldedGram;
+
+  TrigramIndex() {
+    this.values = new ArrayList<>();
+    this.rowsByGram = new HashMap<>();
+  }
+
+  /**
+   * Whether the comparison requires at least one trigram to be contained within the value
+   */
+  static boolean supports(ComparisonExpression comparison) {
+    return !requiredLiterals(comparison).isEmpty();
+  }
+
+  /**
+   * Adds the value of the next row, where rows have to be added in ascending order, starting at zero
+   */
+  synchronized void add(@Nullable Object value) {
+    int row = values.size();
+    String string = ValueComparisons.asString(value);
+    values.add(string);
+
+    if (string == null)
+      return;
+
+    addGrams(rowsByGram, string, row);
+
+    if (rowsByFoldedGram != null)
+      addGrams(rowsByFoldedGram, FieldIndex.foldString(string), row);
+  }
+
+  /**
+   * @return Upper bound of the number of rows which the supported comparison may hold for
+   */
+  synchronized int estimate(ComparisonExpression comparison) {
+    int result = values.size();
+
+    for (RowList rows : lookUpPostings(comparison)) {
+      if (rows == null)
+        return 0;
+
+      result = Math.min(result, rows.size());
+    }
+
+    return result;
+  }
+
+  /**
+   * Sets the bits of all rows which the supported comparison may hold for
+   */
+  synchronized void collect(ComparisonExpression comparison, long[] bitmap) {
+    List<@Nullable RowList> postings = lookUpPostings(comparison);
+
+    if (postings.contains(null))
+      return;
+
+    postings.sort(Comparator.comparingInt(RowList::size));
+
+    RowList smallest = postings.get(0);
+    int[] candidates = new int[smallest.size()];
+    int candidateCount = candidates.length;
+
+    for (int i = 0; i < candidateCount; i++)
+      candidates[i] = smallest.get(i);
+
+    for (int i = 1; i < postings.size() && candidateCount > 0; i++)
+      candidateCount = intersect(candidates, candidateCount, postings.get(i));
+
+    for (int i = 0; i < candidateCount; i++)
+      Bitmaps.set(bitmap, candidates[i]);
+  }
+
+  //=========================================================================//
+  //                                Postings                                 //
+  //=========================================================================//
+
+  private List<@Nullable RowList> lookUpPostings(ComparisonExpression comparison) {
+    boolean ignoreCase = !((StringExpression) comparison.getRhs()).isCaseSensitive();
+    Map<Long, RowList> postings = ignoreCase ? getOrBuildFoldedPostings() : rowsByGram;
+    Set<Long> grams = new HashSet<>();
+
+    for (String literal : requiredLiterals(comparison)) {
+      String gramSource = ignoreCase ? FieldIndex.foldString(literal) : literal;
+
+      for (int i = 0; i + GRAM_LENGTH <= gramSource.length(); i++)
+        grams.add(gramAt(gramSource, i));
+    }
+
+    List<@Nullable RowList> result = new ArrayList<>();
+
+    for (Long gram : grams)
+      result.add(postings.get(gram));
+
+    return result;
+  }
+
+  private Map<Long, RowList> getOrBuildFoldedPostings() {
+    if (rowsByFoldedGram != null)
+      return rowsByFoldedGram;
+
+    Map<Long, RowList> postings = new HashMap<>();
+
+    for (int row = 0; row < values.size(); row++) {
+      String value = values.get(row);
+
+      if (value != null)
+        addGrams(postings, FieldIndex.foldString(value), row);
+    }
+
+    rowsByFoldedGram = postings;
+    return postings;
+  }
+
+  private static void addGrams(Map<Long, RowList> postings, String value, int row) {
+    for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+      RowList rows = postings.computeIfAbsent(gramAt(value, i), gram -> new RowList());
+
+      // Grams which occur multiple times within a value only list it's row once
+      if (rows.size() == 0 || rows.get(rows.size() - 1) != row)
+        rows.add(row);
+    }
+  }
+
+  private static long gramAt(String value, int index) {
+    return ((long) value.charAt(index) << 32) | ((long) value.charAt(index + 1) << 16) | value.charAt(index + 2);
+  }
+
+  /**
+   * Keeps only those of the ascending candidates which are also contained within the ascending rows
+   * @return Number of remaining candidates, which have been moved to the front
+   */
+  private static int intersect(int[] candidates, int candidateCount, RowList rows) {
+    int resultCount = 0;
+    int rowIndex = 0;
+
+    for (int i = 0; i < candidateCount && rowIndex < rows.size(); i++) {
+      int candidate = candidates[i];
+
+      while (rowIndex < rows.size() && rows.get(rowIndex) < candidate)
+        ++rowIndex;
+
+      if (rowIndex < rows.size() && rows.get(rowIndex) == candidate)
+        candidates[resultCount++] = candidate;
+    }
+
+    return resultCount;
+  }
+
+  //=========================================================================//
+  //                            Required Literals                            //
+  //=========================================================================//
+
+  /**
+   * @return Strings of at least the length of a trigram which each value has to contain for the comparison to hold
+   */
+  static List<String> requiredLiterals(ComparisonExpression comparison) {
+    if (!(comparison.getRhs() instanceof StringExpression))
+      return Collections.emptyList();
+
+    String value = ((StringExpression) comparison.getRhs()).getValue();
+    List<String> result = new ArrayList<>();
+
+    switch (comparison.getOperator()) {
+      case STARTS_WITH:
+      case ENDS_WITH:
+      case CONTAINS:
+        addLiteral(result, value);
+        break;
+
+      case REGEX_MATCHER:
+        if (!addRegexLiterals(result, value))
+          result.clear();
+        break;
+
+      default:
+        break;
+    }
+
+    return result;
+  }
+
+  /**
+   * Adds all runs of literal characters which every match of the pattern contains, where alternations at the
+   * top level, inline flags and escapes which are not understood make the pattern require no literal at all.
+   * Groups and character classes are skipped, as are characters which a quantifier may repeat zero times.
+   * @return False if the pattern requires no literal which could be determined
+   */
+  private static boolean addRegexLiterals(List<String> result, String pattern) {
+    StringBuilder run = new StringBuilder();
+
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+
+      switch (c) {
+        case '\\': {
+          if (i + 1 == pattern.length())
+            return false;
+
+          char escaped = pattern.charAt(++i);
+
+          if (Character.isLetterOrDigit(escaped)) {
+            if (CLASS_ESCAPES.indexOf(escaped) < 0)
+              return false;
+
+            flushRun(result, run);
+            break;
+          }
+
+          appendToRun(result, run, escaped);
+          break;
+        }
+
+        case '[':
+          flushRun(result, run);
+
+          if ((i = skipClass(pattern, i)) < 0)
+            return false;
+          break;
+
+        case '(':
+          // Inline flags, like (?i), change how all following literals match
+          if (i + 2 < pattern.length() && pattern.charAt(i + 1) == '?' && "idmsuxU-".indexOf(pattern.charAt(i + 2)) >= 0)
+            return false;
+
+          flushRun(result, run);
+
+          if ((i = skipGroup(pattern, i)) < 0)
+            return false;
+          break;
+
+        case '|':
+          return false;
+
+        case '{':
+          run.setLength(Math.max(0, run.length() - 1));
+          flushRun(result, run);
+
+          if ((i = pattern.indexOf('}', i)) < 0)
+            return false;
+          break;
+
+        // The preceding character may occur zero times
+        case '?':
+        case '*':
+          run.setLength(Math.max(0, run.length() - 1));
+          flushRun(result, run);
+          break;
+
+        // The preceding character has to occur, but may be repeated, and thus ends the run
+        case '+':
+        case '.':
+        case '^':
+        case '$':
+        case ')':
+        case ']':
+        case '}':
+          flushRun(result, run);
+          break;
+
+        default:
+          appendToRun(result, run, c);
+      }
+    }
+
+    flushRun(result, run);
+    return true;
+  }
+
+  private static void appendToRun(List<String> result, StringBuilder run, char c) {
+    // Quantifiers would apply to the whole code point, which is why surrogates interrupt runs
+    if (Character.isSurrogate(c)) {
+      flushRun(result, run);
+      return;
+    }
+
+    run.append(c);
+  }
+
+  private static void flushRun(List<String> result, StringBuilder run) {
+    addLiteral(result, run.toString());
+    run.setLength(0);
+  }
+
+  private static void addLiteral(List<String> result, String literal) {
+    if (literal.length() >= GRAM_LENGTH)
+      result.add(literal);
+  }
+
+  /**
+   * @return Index of the bracket which closes the class opened at the start index, or -1 if there's none
+   */
+  private static int skipClass(String pattern, int start) {
+    int i = start + 1;
+
+    if (i < pattern.length() && pattern.charAt(i) == '^')
+      ++i;
+
+    // A closing bracket right at the start is a member of the class
+    if (i < pattern.length() && pattern.charAt(i) == ']')
+      ++i;
+
+    for (; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+
+      if (c == '\\')
+        ++i;
+
+      else if (c == '[') {
+        if ((i = skipClass(pattern, i)) < 0)
+          return -1;
+      }
+
+      else if (c == ']')
+        return i;
+    }
+
+    return -1;
+  }
+
+  /**
+   * @return Index of the parenthesis which closes the group opened at the start index, or -1 if there's none
+   */
+  private static int skipGroup(String pattern, int start) {
+    for (int i = start + 1; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+
+      if (c == '\\')
+        ++i;
+
+      else if (c == '[') {
+        if ((i = skipClass(pattern, i)) < 0)
+          return -1;
+      }
+
+      else if (c == '(') {
+        if ((i = skipGroup(pattern, i)) < 0)
+          return -1;
+      }
+
+      else if (c == ')')
+        return i;
+    }
+
+    return -1;
+  }
+}
@@ -26,7 +26,11 @@ package me.blvckbytes.filterexpressionparser.logging;
 
 public enum DebugLogSource {
   TOKENIZER,
-  PARSER
+  PARSER,
+  COMPILER,
+  CACHE,
+  SQL,
+  INDEX
   ;
 
   @Override
@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.parser;
+
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites expressions into a canonical form, so that filters which only differ in the order, nesting
+ * or repetition of the operands of their junctions result in equal trees. Chains of junctions are
+ * flattened, their operands are sorted by a total order and duplicates are removed, after which the
+ * remaining operands are chained up from left to right again, just like the parser would have done.
+ */
+public class ExpressionNormalizer {
+
+  /**
+   * Normalizes an expression, leaving the passed tree untouched
+   * @return Normalized expression, where comparisons are returned as they are
+   */
+  public ABinaryFilterExpression<?, ?> normalize(ABinaryFilterExpression<?, ?> expression) {
+    if (!(expression instanceof AJunctionExpression))
+      return expression;
+
+    AJunctionExpression junction = (AJunctionExpression) expression;
+    List<ABinaryFilterExpression<?, ?>> operands = new ArrayList<>();
+
+    for (ABinaryFilterExpression<?, ?> operand : junction.flattenOperands()) {
+      ABinaryFilterExpression<?, ?> normalizedOperand = normalize(operand);
+
+      // Removing duplicates may have collapsed a nested junction into one of this type, like a && (b || b)
+      if (normalizedOperand.getClass() == junction.getClass())
+        operands.addAll(((AJunctionExpression) normalizedOperand).flattenOperands());
+      else
+        operands.add(normalizedOperand);
+    }
+
+    operands.sort(ExpressionNormalizer::compareExpressions);
+
+    ABinaryFilterExpression<?, ?> result = null;
+    ABinaryFilterExpression<?, ?> previous = null;
+
+    for (ABinaryFilterExpression<?, ?> operand : operands) {
+      // Junctions are idempotent, so equal operands (which are adjacent after sorting) can be dropped
+      if (previous != null && compareExpressions(previous, operand) == 0)
+        continue;
+
+      previous = operand;
+
+      if (result == null) {
+        result = operand;
+        continue;
+      }
+
+      result = AJunctionExpression.create(junction, result, operand);
+    }
+
+    return result;
+  }
+
+  /**
+   * Total order over expressions, which only considers their structure and is consistent with equals
+   */
+  public static int compareExpressions(ABinaryFilterExpression<?, ?> a, ABinaryFilterExpression<?, ?> b) {
+    int result = Integer.compare(rankExpression(a), rankExpression(b));
+
+    if (result != 0)
+      return result;
+
+    if (a instanceof ComparisonExpression) {
+      ComparisonExpression comparisonA = (ComparisonExpression) a;
+      ComparisonExpression comparisonB = (ComparisonExpression) b;
+
+      if ((result = comparisonA.getLhs().getValue().compareTo(comparisonB.getLhs().getValue())) != 0)
+        return result;
+
+      if ((result = comparisonA.getOperator().compareTo(comparisonB.getOperator())) != 0)
+        return result;
+
+      return compareTerminals(comparisonA.getRhs(), comparisonB.getRhs());
+    }
+
+    List<ABinaryFilterExpression<?, ?>> operandsA = ((AJunctionExpression) a).flattenOperands();
+    List<ABinaryFilterExpression<?, ?>> operandsB = ((AJunctionExpression) b).flattenOperands();
+
+    if ((result = Integer.compare(operandsA.size(), operandsB.size())) != 0)
+      return result;
+
+    for (int i = 0; i < operandsA.size(); i++) {
+      if ((result = compareExpressions(operandsA.get(i), operandsB.get(i))) != 0)
+        return result;
+    }
+
+    return 0;
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private static int compareTerminals(TerminalExpression<?> a, TerminalExpression<?> b) {
+    int result = Integer.compare(rankTerminal(a), rankTerminal(b));
+
+    if (result != 0)
+      return result;
+
+    if (a instanceof LongExpression)
+      return Long.compare(((LongExpression) a).getValue(), ((LongExpression) b).getValue());
+
+    if (a instanceof DoubleExpression)
+      return Double.compare(((DoubleExpression) a).getValue(), ((DoubleExpression) b).getValue());
+
+    if (a instanceof LiteralExpression)
+      return ((LiteralExpression) a).getValue().compareTo(((LiteralExpression) b).getValue());
+
+    if (a instanceof StringExpression) {
+      StringExpression stringA = (StringExpression) a;
+      StringExpression stringB = (StringExpression) b;
+
+      if ((result = stringA.getValue().compareTo(stringB.getValue())) != 0)
+        return result;
+
+      if ((result = Boolean.compare(stringA.isCaseSensitive(), stringB.isCaseSensitive())) != 0)
+        return result;
+
+      return Boolean.compare(stringA.shouldTrimTarget(), stringB.shouldTrimTarget());
+    }
+
+    return ((String) a.getValue()).compareTo((String) b.getValue());
+  }
+
+  private static int rankExpression(ABinaryFilterExpression<?, ?> expression) {
+    if (expression instanceof ComparisonExpression)
+      return 0;
+
+    if (expression instanceof ConjunctionExpression)
+      return 1;
+
+    if (expression instanceof DisjunctionExpression)
+      return 2;
+
+    throw new IllegalStateException("Unknown expression type: " + expression.getClass());
+  }
+
+  private static int rankTerminal(TerminalExpression<?> terminal) {
+    if (terminal instanceof LongExpression)
+      return 0;
+
+    if (terminal instanceof DoubleExpression)
+      return 1;
+
+    if (terminal instanceof StringExpression)
+      return 2;
+
+    if (terminal instanceof LiteralExpression)
+      return 3;
+
+    if (terminal instanceof IdentifierExpression)
+      return 4;
+
+    throw new IllegalStateException("Unknown terminal type: " + terminal.getClass());
+  }
+}
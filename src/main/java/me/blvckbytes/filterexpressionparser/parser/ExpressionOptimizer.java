@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.parser;
+
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reorders the operands of junctions by their estimated cost and selectivity, so that evaluating them
+ * short-circuits as early and as cheaply as possible. Operands of conjunctions are ordered by their cost
+ * per chance of being false, while operands of disjunctions are ordered by their cost per chance of
+ * being true. As comparisons have no side effects, the order of operands never alters the result.
+ * Operands of equal rank keep their order, so that optimizing an optimized expression changes nothing.
+ */
+public class ExpressionOptimizer {
+
+  /**
+   * Optimizes an expression, leaving the passed tree untouched
+   * @return Optimized expression, where comparisons are returned as they are
+   */
+  public ABinaryFilterExpression<?, ?> optimize(ABinaryFilterExpression<?, ?> expression) {
+    return optimizeAndEstimate(expression).expression;
+  }
+
+  /**
+   * Estimates the relative cost of evaluating a comparison once, where
+   * one unit is about the cost of comparing a field against a literal
+   */
+  protected double estimateCost(ComparisonExpression comparison) {
+    TerminalExpression<?> value = comparison.getRhs();
+
+    if (value instanceof LiteralExpression)
+      return 1;
+
+    if (value instanceof LongExpression || value instanceof DoubleExpression) {
+      switch (comparison.getOperator()) {
+        case EQUAL:
+        case NOT_EQUAL:
+          return 1.5;
+
+        default:
+          return 2;
+      }
+    }
+
+    if (value instanceof IdentifierExpression)
+      return 3;
+
+    StringExpression string = (StringExpression) value;
+
+    // Folding characters and skipping whitespace both add to each comparison of a character
+    double characterCost = 1 + (string.isCaseSensitive() ? 0 : 0.5) + (string.shouldTrimTarget() ? 0.25 : 0);
+
+    switch (comparison.getOperator()) {
+      case EQUAL:
+      case NOT_EQUAL:
+      case STARTS_WITH:
+      case ENDS_WITH:
+        return 2 * characterCost;
+
+      case CONTAINS:
+        return 6 * characterCost;
+
+      case REGEX_MATCHER:
+        return 25;
+
+      case CONTAINS_FUZZY:
+        return 40;
+
+      default:
+        return 3 * characterCost;
+    }
+  }
+
+  /**
+   * Estimates the chance of a comparison to be true for any given value, in the range of (0, 1)
+   */
+  protected double estimateSelectivity(ComparisonExpression comparison) {
+    TerminalExpression<?> value = comparison.getRhs();
+
+    // Booleans are about as often true as they are false
+    if (value instanceof LiteralExpression && ((LiteralExpression) value).getValue() != LiteralType.NULL)
+      return .5;
+
+    switch (comparison.getOperator()) {
+      case EQUAL:
+        return .1;
+
+      case NOT_EQUAL:
+        return .9;
+
+      case STARTS_WITH:
+      case ENDS_WITH:
+        return .15;
+
+      case CONTAINS:
+        return .2;
+
+      case REGEX_MATCHER:
+      case CONTAINS_FUZZY:
+        return .25;
+
+      default:
+        return .4;
+    }
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private EstimatedExpression optimizeAndEstimate(ABinaryFilterExpression<?, ?> expression) {
+    if (expression instanceof ComparisonExpression) {
+      ComparisonExpression comparison = (ComparisonExpression) expression;
+      return new EstimatedExpression(comparison, estimateCost(comparison), estimateSelectivity(comparison));
+    }
+
+    AJunctionExpression junction = (AJunctionExpression) expression;
+    boolean isConjunction = junction instanceof ConjunctionExpression;
+    List<EstimatedExpression> operands = new ArrayList<>();
+
+    for (ABinaryFilterExpression<?, ?> operand : junction.flattenOperands())
+      operands.add(optimizeAndEstimate(operand));
+
+    // The chance to short-circuit is the chance of being false within conjunctions and of being true within disjunctions
+    operands.sort(Comparator.comparingDouble(operand -> operand.cost / (isConjunction ? 1 - operand.selectivity : operand.selectivity)));
+
+    ABinaryFilterExpression<?, ?> result = null;
+    double cost = 0, chanceOfReaching = 1;
+
+    for (EstimatedExpression operand : operands) {
+      cost += chanceOfReaching * operand.cost;
+      chanceOfReaching *= isConjunction ? operand.selectivity : 1 - operand.selectivity;
+
+      if (result == null) {
+        result = operand.expression;
+        continue;
+      }
+
+      result = AJunctionExpression.create(junction, result, operand.expression);
+    }
+
+    return new EstimatedExpression(result, cost, isConjunction ? chanceOfReaching : 1 - chanceOfReaching);
+  }
+
+  private static class EstimatedExpression {
+
+    private final ABinaryFilterExpression<?, ?> expression;
+    private final double cost, selectivity;
+
+    private EstimatedExpression(ABinaryFilterExpression<?, ?> expression, double cost, double selectivity) {
+      this.expression = expression;
+      this.cost = cost;
+      this.selectivity = selectivity;
+    }
+  }
+}
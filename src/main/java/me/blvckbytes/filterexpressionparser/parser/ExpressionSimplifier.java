@@ -0,0 +1,368 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.parser;
+
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Simplifies expressions by relating the comparisons on the same identifier to each other. Conjunctions drop
+ * operands which other operands imply, like price < 10 next to price < 5, and are always false if two operands
+ * exclude each other, like a == 1 and a == 2. Disjunctions drop operands which imply other operands, like x > 3
+ * next to x >= 3, and are always true if two operands complement each other, like a == 1 and a != 1. Numeric
+ * comparisons are related by their intervals, while equality with literals and strings is related by whether the
+ * constants are equal. Constant verdicts of operands are propagated up to their junctions.
+ */
+public class ExpressionSimplifier {
+
+  // Number of nested junctions which are descended into when relating two operands, as the effort grows exponentially
+  private static final int MAX_RELATION_DEPTH = 4;
+
+  /**
+   * Simplifies an expression, leaving the passed tree untouched
+   * @return Simplified expression or constant verdict, where comparisons are returned as they are
+   */
+  public SimplifiedExpression simplify(ABinaryFilterExpression<?, ?> expression) {
+    if (!(expression instanceof AJunctionExpression))
+      return SimplifiedExpression.ofExpression(expression);
+
+    AJunctionExpression junction = (AJunctionExpression) expression;
+    boolean isConjunction = junction instanceof ConjunctionExpression;
+    List<ABinaryFilterExpression<?, ?>> operands = new ArrayList<>();
+
+    for (ABinaryFilterExpression<?, ?> operand : junction.flattenOperands()) {
+      SimplifiedExpression simplifiedOperand = simplify(operand);
+      ABinaryFilterExpression<?, ?> operandExpression = simplifiedOperand.getExpression();
+
+      // False operands decide conjunctions and true operands decide disjunctions, while all others have no effect
+      if (operandExpression == null) {
+        if (simplifiedOperand.isAlwaysTrue() != isConjunction)
+          return simplifiedOperand;
+
+        continue;
+      }
+
+      // Simplifying may have collapsed a nested junction into one of this type, like a && (b || b)
+      if (operandExpression.getClass() == junction.getClass())
+        operands.addAll(((AJunctionExpression) operandExpression).flattenOperands());
+      else
+        operands.add(operandExpression);
+    }
+
+    if (operands.isEmpty())
+      return SimplifiedExpression.ofConstant(isConjunction);
+
+    for (int i = 0; i < operands.size(); i++) {
+      for (int j = i + 1; j < operands.size(); j++) {
+        if (isConjunction ? excludes(operands.get(i), operands.get(j), 0) : complements(operands.get(i), operands.get(j), 0))
+          return SimplifiedExpression.ofConstant(!isConjunction);
+      }
+    }
+
+    if (isConjunction && excludesRemainingNumber(operands))
+      return SimplifiedExpression.ALWAYS_FALSE;
+
+    ABinaryFilterExpression<?, ?> result = null;
+    boolean[] isRedundant = new boolean[operands.size()];
+
+    for (int i = 0; i < operands.size(); i++) {
+      ABinaryFilterExpression<?, ?> operand = operands.get(i);
+
+      // Of two operands which imply each other, the latter one is kept, as the former one has been dropped by then
+      for (int j = 0; j < operands.size(); j++) {
+        if (i == j || isRedundant[j])
+          continue;
+
+        if (isConjunction ? implies(operands.get(j), operand, 0) : implies(operand, operands.get(j), 0)) {
+          isRedundant[i] = true;
+          break;
+        }
+      }
+
+      if (isRedundant[i])
+        continue;
+
+      if (result == null) {
+        result = operand;
+        continue;
+      }
+
+      result = AJunctionExpression.create(junction, result, operand);
+    }
+
+    return SimplifiedExpression.ofExpression(result);
+  }
+
+  //=========================================================================//
+  //                                Relations                                //
+  //=========================================================================//
+
+  /**
+   * Whether a holding for a value implies that b holds for it as well
+   */
+  private boolean implies(ABinaryFilterExpression<?, ?> a, ABinaryFilterExpression<?, ?> b, int depth) {
+    if (a.equals(b))
+      return true;
+
+    if (depth == MAX_RELATION_DEPTH)
+      return false;
+
+    if (b instanceof ConjunctionExpression)
+      return allOperands((AJunctionExpression) b, operand -> implies(a, operand, depth + 1));
+
+    if (a instanceof DisjunctionExpression)
+      return allOperands((AJunctionExpression) a, operand -> implies(operand, b, depth + 1));
+
+    if (b instanceof DisjunctionExpression && anyOperand((AJunctionExpression) b, operand -> implies(a, operand, depth + 1)))
+      return true;
+
+    if (a instanceof ConjunctionExpression)
+      return anyOperand((AJunctionExpression) a, operand -> implies(operand, b, depth + 1));
+
+    if (b instanceof DisjunctionExpression)
+      return false;
+
+    // A implies b if a excludes the negation of b
+    return excludes((ComparisonExpression) a, false, (ComparisonExpression) b, true);
+  }
+
+  /**
+   * Whether a and b never hold for the same value
+   */
+  private boolean excludes(ABinaryFilterExpression<?, ?> a, ABinaryFilterExpression<?, ?> b, int depth) {
+    if (depth == MAX_RELATION_DEPTH)
+      return false;
+
+    if (a instanceof DisjunctionExpression)
+      return allOperands((AJunctionExpression) a, operand -> excludes(operand, b, depth + 1));
+
+    if (b instanceof DisjunctionExpression)
+      return allOperands((AJunctionExpression) b, operand -> excludes(a, operand, depth + 1));
+
+    if (a instanceof ConjunctionExpression)
+      return anyOperand((AJunctionExpression) a, operand -> excludes(operand, b, depth + 1));
+
+    if (b instanceof ConjunctionExpression)
+      return anyOperand((AJunctionExpression) b, operand -> excludes(a, operand, depth + 1));
+
+    return excludes((ComparisonExpression) a, false, (ComparisonExpression) b, false);
+  }
+
+  /**
+   * Whether a or b holds for every value
+   */
+  private boolean complements(ABinaryFilterExpression<?, ?> a, ABinaryFilterExpression<?, ?> b, int depth) {
+    if (depth == MAX_RELATION_DEPTH)
+      return false;
+
+    if (a instanceof ConjunctionExpression)
+      return allOperands((AJunctionExpression) a, operand -> complements(operand, b, depth + 1));
+
+    if (b instanceof ConjunctionExpression)
+      return allOperands((AJunctionExpression) b, operand -> complements(a, operand, depth + 1));
+
+    if (a instanceof DisjunctionExpression)
+      return anyOperand((AJunctionExpression) a, operand -> complements(operand, b, depth + 1));
+
+    if (b instanceof DisjunctionExpression)
+      return anyOperand((AJunctionExpression) b, operand -> complements(a, operand, depth + 1));
+
+    // A or b holds for every value if their negations exclude each other
+    return excludes((ComparisonExpression) a, true, (ComparisonExpression) b, true);
+  }
+
+  private boolean excludes(ComparisonExpression a, boolean negateA, ComparisonExpression b, boolean negateB) {
+    if (!a.getLhs().getValue().equals(b.getLhs().getValue()))
+      return false;
+
+    return Constraint.of(a, negateA).excludes(Constraint.of(b, negateB));
+  }
+
+  /**
+   * Whether the numeric bounds on an identifier only leave a single number, which an inequality excludes, where
+   * a conjunction of comparisons which pairwise don't exclude each other may only ever exclude a value like this
+   */
+  private boolean excludesRemainingNumber(List<ABinaryFilterExpression<?, ?>> operands) {
+    Map<String, NumericInterval> intervals = new HashMap<>();
+
+    for (ABinaryFilterExpression<?, ?> operand : operands) {
+      if (!(operand instanceof ComparisonExpression) || !NumericInterval.isRepresentable((ComparisonExpression) operand))
+        continue;
+
+      ComparisonExpression comparison = (ComparisonExpression) operand;
+      intervals.merge(comparison.getLhs().getValue(), NumericInterval.UNBOUNDED.restrict(comparison), (interval, unused) -> interval.restrict(comparison));
+    }
+
+    for (ABinaryFilterExpression<?, ?> operand : operands) {
+      if (!(operand instanceof ComparisonExpression))
+        continue;
+
+      ComparisonExpression comparison = (ComparisonExpression) operand;
+
+      if (comparison.getOperator() != ComparisonOperator.NOT_EQUAL || !NumericInterval.isRepresentable(comparison.getRhs()))
+        continue;
+
+      NumericInterval interval = intervals.get(comparison.getLhs().getValue());
+
+      if (interval != null && NumericInterval.point(comparison.getRhs()).encloses(interval))
+        return true;
+    }
+
+    return false;
+  }
+
+  //=========================================================================//
+  //                               Constraints                               //
+  //=========================================================================//
+
+  private enum ConstraintKind {
+    // Holds for numbers within an interval only, or for all but these if negated
+    NUMERIC,
+    // Holds for a single literal, which is never a number, or for all other values if negated
+    LITERAL,
+    // Holds for the values whose string representation equals a string, or for all others if negated
+    STRING,
+    // Holds for values equal to an identifier or to a number which cannot be compared like a double, or for all others if negated
+    EQUALITY,
+    // Holds for an unknown set of values, which cannot be related to any other set
+    OTHER
+  }
+
+  /**
+   * Set of values a comparison holds for, or if negated, the set of values it doesn't hold for
+   */
+  private static class Constraint {
+
+    private final ConstraintKind kind;
+    private final boolean isNegated;
+    private final Object value;
+
+    private Constraint(ConstraintKind kind, boolean isNegated, Object value) {
+      this.kind = kind;
+      this.isNegated = isNegated;
+      this.value = value;
+    }
+
+    static Constraint of(ComparisonExpression comparison, boolean negate) {
+      ComparisonOperator operator = comparison.getOperator();
+      TerminalExpression<?> value = comparison.getRhs();
+
+      if (NumericInterval.isRepresentable(comparison))
+        return new Constraint(ConstraintKind.NUMERIC, negate, NumericInterval.UNBOUNDED.restrict(comparison));
+
+      // Inequality is the exact negation of equality, for all kinds of values
+      if (operator != ComparisonOperator.EQUAL && operator != ComparisonOperator.NOT_EQUAL)
+        return new Constraint(ConstraintKind.OTHER, negate, comparison);
+
+      boolean isNegated = negate != (operator == ComparisonOperator.NOT_EQUAL);
+
+      if (NumericInterval.isRepresentable(value))
+        return new Constraint(ConstraintKind.NUMERIC, isNegated, NumericInterval.point(value));
+
+      if (value instanceof LiteralExpression)
+        return new Constraint(ConstraintKind.LITERAL, isNegated, ((LiteralExpression) value).getValue());
+
+      if (value instanceof StringExpression)
+        return new Constraint(ConstraintKind.STRING, isNegated, value);
+
+      return new Constraint(ConstraintKind.EQUALITY, isNegated, value);
+    }
+
+    /**
+     * Whether no value is contained within both sets
+     */
+    boolean excludes(Constraint other) {
+      if (kind == ConstraintKind.NUMERIC && other.kind == ConstraintKind.NUMERIC) {
+        NumericInterval interval = (NumericInterval) value, otherInterval = (NumericInterval) other.value;
+
+        if (isNegated)
+          return !other.isNegated && interval.encloses(otherInterval);
+
+        if (other.isNegated)
+          return otherInterval.encloses(interval);
+
+        return interval.intersect(otherInterval).isEmpty();
+      }
+
+      // Literals are never numbers, which are the only values numeric comparisons hold for
+      if ((kind == ConstraintKind.NUMERIC && other.kind == ConstraintKind.LITERAL) || (kind == ConstraintKind.LITERAL && other.kind == ConstraintKind.NUMERIC))
+        return !isNegated && !other.isNegated;
+
+      if (kind != other.kind || kind == ConstraintKind.OTHER)
+        return false;
+
+      if (kind == ConstraintKind.STRING && !haveEqualFlags((StringExpression) value, (StringExpression) other.value))
+        return false;
+
+      if (hasEqualValue(other))
+        return isNegated != other.isNegated;
+
+      // Values may only equal a single literal or string, but may equal multiple identifiers or imprecise numbers
+      return !isNegated && !other.isNegated && kind != ConstraintKind.EQUALITY;
+    }
+
+    private boolean hasEqualValue(Constraint other) {
+      if (kind != ConstraintKind.STRING)
+        return value.equals(other.value);
+
+      StringExpression string = (StringExpression) value, otherString = (StringExpression) other.value;
+
+      return string.isCaseSensitive()
+        ? string.getValue().equals(otherString.getValue())
+        : string.getValue().equalsIgnoreCase(otherString.getValue());
+    }
+
+    private static boolean haveEqualFlags(StringExpression a, StringExpression b) {
+      return a.isCaseSensitive() == b.isCaseSensitive() && a.shouldTrimTarget() == b.shouldTrimTarget();
+    }
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private static boolean allOperands(AJunctionExpression junction, Predicate<ABinaryFilterExpression<?, ?>> predicate) {
+    for (ABinaryFilterExpression<?, ?> operand : junction.flattenOperands()) {
+      if (!predicate.test(operand))
+        return false;
+    }
+
+    return true;
+  }
+
+  private static boolean anyOperand(AJunctionExpression junction, Predicate<ABinaryFilterExpression<?, ?>> predicate) {
+    for (ABinaryFilterExpression<?, ?> operand : junction.flattenOperands()) {
+      if (predicate.test(operand))
+        return true;
+    }
+
+    return false;
+  }
+}
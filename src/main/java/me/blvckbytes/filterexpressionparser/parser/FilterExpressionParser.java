@@ -24,6 +24,8 @@
 
 package me.blvckbytes.filterexpressionparser.parser;
 
+import me.blvckbytes.filterexpressionparser.cache.PatternCache;
+import me.blvckbytes.filterexpressionparser.error.ExpressionLimitExceededError;
 import me.blvckbytes.filterexpressionparser.error.UnexpectedIdentifierAfterStringLiteralError;
 import me.blvckbytes.filterexpressionparser.logging.DebugLogSource;
 import me.blvckbytes.filterexpressionparser.error.AParserError;
@@ -33,17 +35,57 @@ import me.blvckbytes.filterexpressionparser.tokenizer.ITokenizer;
 import me.blvckbytes.filterexpressionparser.tokenizer.Token;
 import me.blvckbytes.filterexpressionparser.tokenizer.TokenCategory;
 import me.blvckbytes.filterexpressionparser.tokenizer.TokenType;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class FilterExpressionParser {
 
   private final Logger logger;
+  private final ParserMode mode;
+  private final int maximumNestingDepth;
+  private final int maximumComparisonCount;
+  private final PatternCache patternCache;
   private final FExpressionParser[] precedenceLadder;
 
   public FilterExpressionParser(Logger logger) {
+    this(logger, ParserMode.RECURSIVE_DESCENT);
+  }
+
+  public FilterExpressionParser(Logger logger, ParserMode mode) {
+    this(logger, mode, PatternCache.getShared());
+  }
+
+  /**
+   * @param patternCache Cache which validates the patterns of regular expressions while parsing,
+   *                     and should thus also be used by compilers of the parsed expressions
+   */
+  public FilterExpressionParser(Logger logger, ParserMode mode, PatternCache patternCache) {
+    this(logger, mode, Integer.MAX_VALUE, Integer.MAX_VALUE, patternCache);
+  }
+
+  /**
+   * Creates an iterative parser, which rejects inputs exceeding the provided limits as early as possible
+   * @param maximumNestingDepth Maximum number of parentheses which may be open at the same time
+   * @param maximumComparisonCount Maximum number of comparisons within a single expression
+   */
+  public FilterExpressionParser(Logger logger, int maximumNestingDepth, int maximumComparisonCount) {
+    this(logger, maximumNestingDepth, maximumComparisonCount, PatternCache.getShared());
+  }
+
+  public FilterExpressionParser(Logger logger, int maximumNestingDepth, int maximumComparisonCount, PatternCache patternCache) {
+    this(logger, ParserMode.ITERATIVE, maximumNestingDepth, maximumComparisonCount, patternCache);
+  }
+
+  private FilterExpressionParser(Logger logger, ParserMode mode, int maximumNestingDepth, int maximumComparisonCount, PatternCache patternCache) {
     this.logger = logger;
+    this.mode = mode;
+    this.maximumNestingDepth = maximumNestingDepth;
+    this.maximumComparisonCount = maximumComparisonCount;
+    this.patternCache = patternCache;
 
     this.precedenceLadder = new FExpressionParser[] {
       this::parseDisjunctionExpression,
@@ -54,9 +96,92 @@ public class FilterExpressionParser {
   }
 
   public ABinaryFilterExpression<?, ?> parse(ITokenizer tokenizer) throws AParserError {
+    if (mode == ParserMode.ITERATIVE)
+      return parseIteratively(tokenizer);
+
     return invokeLowestPrecedenceParser(tokenizer);
   }
 
+  //=========================================================================//
+  //                            Iterative Parsing                            //
+  //=========================================================================//
+
+  /**
+   * Operands of the junctions within a pair of parentheses (or the whole input), which are still being
+   * chained up. The disjunction's operand currently being parsed is a chain of conjunctions itself.
+   */
+  private static class PrecedenceFrame {
+    @Nullable ABinaryFilterExpression<?, ?> disjunction;
+    @Nullable ABinaryFilterExpression<?, ?> conjunction;
+  }
+
+  /**
+   * Parses the very same trees as the precedence ladder does, while calling upon the tokenizer in the very
+   * same order, so that even errors are reported identically. Instead of recursing into parentheses, the
+   * state of the enclosing level is pushed onto an explicit stack, so that inputs may be nested arbitrarily.
+   */
+  private ABinaryFilterExpression<?, ?> parseIteratively(ITokenizer tokenizer) throws AParserError {
+    Deque<PrecedenceFrame> enclosingFrames = new ArrayDeque<>();
+    PrecedenceFrame frame = new PrecedenceFrame();
+    int comparisonCount = 0;
+
+    while (true) {
+      Token tk = tokenizer.peekToken();
+
+      if (tk != null && tk.getType() == TokenType.PARENTHESIS_OPEN) {
+        if (enclosingFrames.size() >= maximumNestingDepth)
+          throw new ExpressionLimitExceededError(tokenizer, tk, "nesting depth", maximumNestingDepth);
+
+        // Consume the parenthesis
+        tokenizer.consumeToken();
+
+        enclosingFrames.push(frame);
+        frame = new PrecedenceFrame();
+        continue;
+      }
+
+      if (tk != null && ++comparisonCount > maximumComparisonCount)
+        throw new ExpressionLimitExceededError(tokenizer, tk, "number of comparisons", maximumComparisonCount);
+
+      ABinaryFilterExpression<?, ?> operand = parseComparisonExpression(tokenizer, precedenceLadder.length - 1);
+
+      // Chain up the operand, which may complete the contents of multiple parentheses at once
+      while (true) {
+        frame.conjunction = frame.conjunction == null ? operand : new ConjunctionExpression(
+          frame.conjunction, operand, frame.conjunction.getHead(), operand.getTail(), tokenizer.getRawText()
+        );
+
+        if ((tk = tokenizer.peekToken()) != null && tk.getType() == TokenType.BOOL_AND) {
+          tokenizer.consumeToken();
+          break;
+        }
+
+        operand = frame.conjunction;
+        frame.conjunction = null;
+
+        frame.disjunction = frame.disjunction == null ? operand : new DisjunctionExpression(
+          frame.disjunction, operand, frame.disjunction.getHead(), operand.getTail(), tokenizer.getRawText()
+        );
+
+        if ((tk = tokenizer.peekToken()) != null && tk.getType() == TokenType.BOOL_OR) {
+          tokenizer.consumeToken();
+          break;
+        }
+
+        operand = frame.disjunction;
+
+        if (enclosingFrames.isEmpty())
+          return operand;
+
+        // Parenthesis has to be closed again
+        if ((tk = tokenizer.consumeToken()) == null || tk.getType() != TokenType.PARENTHESIS_CLOSE)
+          throw new UnexpectedTokenError(tokenizer, tk, TokenType.PARENTHESIS_CLOSE);
+
+        frame = enclosingFrames.pop();
+      }
+    }
+  }
+
   //=========================================================================//
   //                            Expression Parsers                           //
   //=========================================================================//
@@ -172,6 +297,10 @@ public class FilterExpressionParser {
 
     TerminalExpression<?> valueExpression = parseTerminalExpression(tokenizer);
 
+    // Invalid patterns are reported right away, while valid ones are already cached for all compilers
+    if (operator == ComparisonOperator.REGEX_MATCHER && valueExpression instanceof StringExpression)
+      patternCache.compile((StringExpression) valueExpression);
+
     return new ComparisonExpression(
       identifierExpression,
       valueExpression,
@@ -206,6 +335,8 @@ public class FilterExpressionParser {
         boolean caseSensitive = true;
         boolean trimTarget = false;
 
+        Token stringToken = tk, stringTail = tk;
+
         // There is no case where an identifier would directly have to follow a string literal,
         // which is why it is okay to "abuse" the special "i" here, to mark case invariance
         if ((tk = tokenizer.peekToken()) != null && tk.getType() == TokenType.IDENTIFIER) {
@@ -227,10 +358,10 @@ public class FilterExpressionParser {
               throw new UnexpectedIdentifierAfterStringLiteralError(tokenizer, tk, flagsValue);
           }
 
-          tokenizer.consumeToken();
+          stringTail = tokenizer.consumeToken();
         }
 
-        return new StringExpression(value, caseSensitive, trimTarget, tk, tk, tokenizer.getRawText());
+        return new StringExpression(value, caseSensitive, trimTarget, stringToken, stringTail, tokenizer.getRawText());
 
       case IDENTIFIER: {
         logger.log(Level.FINEST, () -> DebugLogSource.PARSER + "Found an identifier");
@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.parser;
+
+import me.blvckbytes.filterexpressionparser.parser.expression.ComparisonExpression;
+import me.blvckbytes.filterexpressionparser.parser.expression.DoubleExpression;
+import me.blvckbytes.filterexpressionparser.parser.expression.LongExpression;
+import me.blvckbytes.filterexpressionparser.parser.expression.TerminalExpression;
+
+/**
+ * Range of numbers which a field has to lie within, as the intersection of all range comparisons on it within
+ * a conjunction. Bounds are compared by Double#compare, under which NaN is greater than all other numbers,
+ * so that missing upper bounds are represented by an inclusive NaN and missing lower bounds by negative infinity.
+ */
+public class NumericInterval {
+
+  // Longs below this magnitude, as well as all values which lie beyond them, compare as doubles like they do as longs
+  private static final double EXACT_LONG_LIMIT = 0x1p53;
+
+  public static final NumericInterval UNBOUNDED = new NumericInterval(Double.NEGATIVE_INFINITY, true, Double.NaN, true);
+
+  private final double low, high;
+  private final boolean lowInclusive, highInclusive;
+
+  public NumericInterval(double low, boolean lowInclusive, double high, boolean highInclusive) {
+    this.low = low;
+    this.lowInclusive = lowInclusive;
+    this.high = high;
+    this.highInclusive = highInclusive;
+  }
+
+  /**
+   * Whether a comparison bounds its field by a constant or checks it for equality with one,
+   * in a way which the interval can represent exactly
+   */
+  public static boolean isRepresentable(ComparisonExpression comparison) {
+    switch (comparison.getOperator()) {
+      case EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+        break;
+
+      default:
+        return false;
+    }
+
+    return isRepresentable(comparison.getRhs());
+  }
+
+  /**
+   * Whether a constant compares against fields just like its double value does
+   */
+  public static boolean isRepresentable(TerminalExpression<?> value) {
+    if (value instanceof DoubleExpression)
+      return true;
+
+    return value instanceof LongExpression && Math.abs((double) ((LongExpression) value).getValue()) < EXACT_LONG_LIMIT;
+  }
+
+  /**
+   * @return Interval which only contains the value of a representable constant
+   */
+  public static NumericInterval point(TerminalExpression<?> value) {
+    double bound = toDouble(value);
+    return new NumericInterval(bound, true, bound, true);
+  }
+
+  /**
+   * @return Intersection of this interval with the range of values the comparison holds for
+   */
+  public NumericInterval restrict(ComparisonExpression comparison) {
+    ComparisonOperator operator = comparison.getOperator();
+    double bound = toDouble(comparison.getRhs());
+
+    if (operator == ComparisonOperator.EQUAL)
+      return restrict(ComparisonOperator.GREATER_THAN_OR_EQUAL, bound).restrict(ComparisonOperator.LESS_THAN_OR_EQUAL, bound);
+
+    return restrict(operator, bound);
+  }
+
+  private static double toDouble(TerminalExpression<?> value) {
+    return value instanceof LongExpression
+      ? (double) ((LongExpression) value).getValue()
+      : ((DoubleExpression) value).getValue();
+  }
+
+  private NumericInterval restrict(ComparisonOperator operator, double bound) {
+    if (operator == ComparisonOperator.GREATER_THAN || operator == ComparisonOperator.GREATER_THAN_OR_EQUAL) {
+      boolean inclusive = operator == ComparisonOperator.GREATER_THAN_OR_EQUAL;
+      int comparisonResult = Double.compare(bound, low);
+
+      // Exclusive bounds are the tighter ones among equal bounds
+      if (comparisonResult > 0 || (comparisonResult == 0 && !inclusive))
+        return new NumericInterval(bound, inclusive, high, highInclusive);
+
+      return this;
+    }
+
+    boolean inclusive = operator == ComparisonOperator.LESS_THAN_OR_EQUAL;
+    int comparisonResult = Double.compare(bound, high);
+
+    if (comparisonResult < 0 || (comparisonResult == 0 && !inclusive))
+      return new NumericInterval(low, lowInclusive, bound, inclusive);
+
+    return this;
+  }
+
+  /**
+   * @return Intersection of this interval with another
+   */
+  public NumericInterval intersect(NumericInterval other) {
+    return this
+      .restrict(other.lowInclusive ? ComparisonOperator.GREATER_THAN_OR_EQUAL : ComparisonOperator.GREATER_THAN, other.low)
+      .restrict(other.highInclusive ? ComparisonOperator.LESS_THAN_OR_EQUAL : ComparisonOperator.LESS_THAN, other.high);
+  }
+
+  public boolean isEmpty() {
+    int comparisonResult = Double.compare(low, high);
+    return comparisonResult > 0 || (comparisonResult == 0 && !(lowInclusive && highInclusive));
+  }
+
+  /**
+   * Whether all numbers within the other interval also lie within this interval
+   */
+  public boolean encloses(NumericInterval other) {
+    if (other.isEmpty())
+      return true;
+
+    int lowResult = Double.compare(low, other.low);
+    int highResult = Double.compare(high, other.high);
+
+    return (lowResult < 0 || (lowResult == 0 && (lowInclusive || !other.lowInclusive)))
+      && (highResult > 0 || (highResult == 0 && (highInclusive || !other.highInclusive)));
+  }
+
+  public boolean contains(double value) {
+    int lowResult = Double.compare(value, low);
+
+    if (lowResult < 0 || (lowResult == 0 && !lowInclusive))
+      return false;
+
+    int highResult = Double.compare(value, high);
+    return highResult < 0 || (highResult == 0 && highInclusive);
+  }
+
+  public double getLow() {
+    return low;
+  }
+
+  public double getHigh() {
+    return high;
+  }
+
+  public boolean isLowInclusive() {
+    return lowInclusive;
+  }
+
+  public boolean isHighInclusive() {
+    return highInclusive;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.parser;
+
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Outcome of simplifying an expression, which is either a simplified expression or a constant verdict,
+ * in which case the filter holds for either all or no values, without having to access any of them
+ */
+public class SimplifiedExpression {
+
+  static final SimplifiedExpression ALWAYS_TRUE = new SimplifiedExpression(null, true);
+  static final SimplifiedExpression ALWAYS_FALSE = new SimplifiedExpression(null, false);
+
+  private final @Nullable ABinaryFilterExpression<?, ?> expression;
+  private final boolean constantValue;
+
+  private SimplifiedExpression(@Nullable ABinaryFilterExpression<?, ?> expression, boolean constantValue) {
+    this.expression = expression;
+    this.constantValue = constantValue;
+  }
+
+  static SimplifiedExpression ofExpression(ABinaryFilterExpression<?, ?> expression) {
+    return new SimplifiedExpression(expression, false);
+  }
+
+  static SimplifiedExpression ofConstant(boolean value) {
+    return value ? ALWAYS_TRUE : ALWAYS_FALSE;
+  }
+
+  public boolean isConstant() {
+    return expression == null;
+  }
+
+  public boolean isAlwaysTrue() {
+    return expression == null && constantValue;
+  }
+
+  public boolean isAlwaysFalse() {
+    return expression == null && !constantValue;
+  }
+
+  /**
+   * Get the simplified expression, which is null if the verdict is constant
+   */
+  public @Nullable ABinaryFilterExpression<?, ?> getExpression() {
+    return expression;
+  }
+}
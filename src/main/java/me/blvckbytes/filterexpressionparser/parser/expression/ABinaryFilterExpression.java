@@ -30,8 +30,8 @@ import org.jetbrains.annotations.Nullable;
 
 public abstract class ABinaryFilterExpression<LHSType extends AExpression, RHSType extends AExpression> extends AExpression {
 
-  protected LHSType lhs;
-  protected RHSType rhs;
+  protected final LHSType lhs;
+  protected final RHSType rhs;
 
   public ABinaryFilterExpression(LHSType lhs, RHSType rhs, Token head, Token tail, String fullContainingExpression) {
     super(head, tail, fullContainingExpression);
@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.parser.expression;
+
+import me.blvckbytes.filterexpressionparser.tokenizer.Token;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+public abstract class AJunctionExpression extends ABinaryFilterExpression<ABinaryFilterExpression<?, ?>, ABinaryFilterExpression<?, ?>> {
+
+  public AJunctionExpression(ABinaryFilterExpression<?, ?> lhs, ABinaryFilterExpression<?, ?> rhs, Token head, Token tail, String fullContainingExpression) {
+    super(lhs, rhs, head, tail, fullContainingExpression);
+  }
+
+  /**
+   * Creates a junction of the same type as the template, spanning from the head of the lhs to the tail of the rhs
+   */
+  public static AJunctionExpression create(AJunctionExpression template, ABinaryFilterExpression<?, ?> lhs, ABinaryFilterExpression<?, ?> rhs) {
+    if (template instanceof ConjunctionExpression)
+      return new ConjunctionExpression(lhs, rhs, lhs.getHead(), rhs.getTail(), template.getFullContainingExpression());
+
+    return new DisjunctionExpression(lhs, rhs, lhs.getHead(), rhs.getTail(), template.getFullContainingExpression());
+  }
+
+  /**
+   * Collects the operands of this junction and of all directly nested junctions of the
+   * same type, from left to right. Chains like a && b && c are parsed as nested binary
+   * junctions, which are all operands of a single n-ary junction logically.
+   * @return Operands, which are never junctions of this type themselves
+   */
+  public List<ABinaryFilterExpression<?, ?>> flattenOperands() {
+    List<ABinaryFilterExpression<?, ?>> result = new ArrayList<>();
+    Deque<ABinaryFilterExpression<?, ?>> pending = new ArrayDeque<>();
+
+    pending.push(this);
+
+    // Iterate instead of recursing, as chains can be arbitrarily long
+    while (!pending.isEmpty()) {
+      ABinaryFilterExpression<?, ?> current = pending.pop();
+
+      if (current.getClass() == getClass()) {
+        AJunctionExpression junction = (AJunctionExpression) current;
+        pending.push(junction.getRhs());
+        pending.push(junction.getLhs());
+        continue;
+      }
+
+      result.add(current);
+    }
+
+    return result;
+  }
+
+  /**
+   * Junctions are equal if they're of the same type and have equal operands in the same order,
+   * regardless of how these operands have been nested, as a && (b && c) is (a && b) && c
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (this == other)
+      return true;
+
+    if (other == null || other.getClass() != getClass())
+      return false;
+
+    return flattenOperands().equals(((AJunctionExpression) other).flattenOperands());
+  }
+
+  @Override
+  public int hashCode() {
+    int result = String.valueOf(getInfixSymbol()).hashCode();
+
+    for (ABinaryFilterExpression<?, ?> operand : flattenOperands())
+      result = 31 * result + operand.hashCode();
+
+    return result;
+  }
+}
@@ -71,4 +71,24 @@ public class ComparisonExpression extends ABinaryFilterExpression<IdentifierExpr
         return null;
     }
   }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other)
+      return true;
+
+    if (other == null || other.getClass() != getClass())
+      return false;
+
+    ComparisonExpression that = (ComparisonExpression) other;
+    return operation == that.operation && lhs.equals(that.lhs) && rhs.equals(that.rhs);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = operation.ordinal();
+    result = 31 * result + lhs.hashCode();
+    result = 31 * result + rhs.hashCode();
+    return result;
+  }
 }
@@ -28,7 +28,7 @@ import me.blvckbytes.filterexpressionparser.tokenizer.Token;
 import me.blvckbytes.filterexpressionparser.tokenizer.TokenType;
 import org.jetbrains.annotations.Nullable;
 
-public class ConjunctionExpression extends ABinaryFilterExpression<ABinaryFilterExpression<?, ?>, ABinaryFilterExpression<?, ?>> {
+public class ConjunctionExpression extends AJunctionExpression {
 
   public ConjunctionExpression(ABinaryFilterExpression<?, ?> lhs, ABinaryFilterExpression<?, ?> rhs, Token head, Token tail, String fullContainingExpression) {
     super(lhs, rhs, head, tail, fullContainingExpression);
@@ -43,4 +43,21 @@ public class DoubleExpression extends TerminalExpression<Double> {
   public String expressionify() {
     return String.valueOf(value);
   }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other)
+      return true;
+
+    if (other == null || other.getClass() != getClass())
+      return false;
+
+    DoubleExpression that = (DoubleExpression) other;
+    return value.equals(that.value);
+  }
+
+  @Override
+  public int hashCode() {
+    return value.hashCode();
+  }
 }
@@ -45,6 +45,18 @@ public class IdentifierExpression extends TerminalExpression<String> {
     return symbol;
   }
 
+  @Override
+  public boolean equals(Object other) {
+    if (this == other)
+      return true;
+
+    if (other == null || other.getClass() != getClass())
+      return false;
+
+    IdentifierExpression that = (IdentifierExpression) other;
+    return symbol.equals(that.symbol);
+  }
+
   @Override
   public int hashCode() {
     return symbol.hashCode();
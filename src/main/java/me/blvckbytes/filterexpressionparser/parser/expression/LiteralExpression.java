@@ -44,4 +44,22 @@ public class LiteralExpression extends TerminalExpression<LiteralType> {
   public String expressionify() {
     return String.valueOf(type.getValue());
   }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other)
+      return true;
+
+    if (other == null || other.getClass() != getClass())
+      return false;
+
+    LiteralExpression that = (LiteralExpression) other;
+    return type == that.type;
+  }
+
+  @Override
+  public int hashCode() {
+    // Enum hash codes are identity based, while the ordinal is stable across runs
+    return type.ordinal();
+  }
 }
@@ -43,4 +43,21 @@ public class LongExpression extends TerminalExpression<Long> {
   public String expressionify() {
     return String.valueOf(number);
   }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other)
+      return true;
+
+    if (other == null || other.getClass() != getClass())
+      return false;
+
+    LongExpression that = (LongExpression) other;
+    return number == that.number;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(number);
+  }
 }
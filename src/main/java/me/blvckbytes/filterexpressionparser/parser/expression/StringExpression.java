@@ -58,4 +58,24 @@ public class StringExpression extends TerminalExpression<String> {
   public String expressionify() {
     return "\"" + value + "\"";
   }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other)
+      return true;
+
+    if (other == null || other.getClass() != getClass())
+      return false;
+
+    StringExpression that = (StringExpression) other;
+    return value.equals(that.value) && caseSensitive == that.caseSensitive && trimTarget == that.trimTarget;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = value.hashCode();
+    result = 31 * result + (caseSensitive ? 1 : 0);
+    result = 31 * result + (trimTarget ? 1 : 0);
+    return result;
+  }
 }
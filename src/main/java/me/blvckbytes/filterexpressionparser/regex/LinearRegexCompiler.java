@@ -0,0 +1,618 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.regex;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.error.UnsupportedPatternError;
+import me.blvckbytes.filterexpressionparser.parser.expression.StringExpression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Compiles the supported subset of the java.util.regex syntax into a program of states, as it's executed
+ * by the LinearRegexMatcher. Supported are literals, the dot, character classes with ranges and negation,
+ * the predefined classes \d, \w and \s, groups, alternations, greedy as well as lazy quantifiers and the
+ * anchors ^ and $. Patterns are expected to have been validated by java.util.regex already, which is why
+ * all remaining constructs are reported as being unsupported, instead of being told apart from errors.
+ */
+public class LinearRegexCompiler {
+
+  /**
+   * Maximum number of states of a single program, which bounds the expansion of counted repetitions
+   */
+  public static final int MAXIMUM_PROGRAM_SIZE = 10_000;
+
+  private static final int MAXIMUM_REPETITION = 1000;
+
+  private static final IntPredicate
+    DIGIT = c -> c >= '0' && c <= '9',
+    WORD = c -> (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_',
+    SPACE = c -> c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r',
+    ANY_BUT_LINE_TERMINATOR = c -> c != '\n' && c != '\r' && c != '\u0085' && (c | 1) != '\u2029';
+
+  private final StringExpression string;
+  private final String pattern;
+  private final boolean ignoreCase;
+  private int position;
+
+  private final List<Integer> types, outs, alternates;
+  private final List<IntPredicate> predicates;
+
+  private LinearRegexCompiler(StringExpression string) {
+    this.string = string;
+    this.pattern = string.getValue();
+    this.ignoreCase = !string.isCaseSensitive();
+
+    this.types = new ArrayList<>();
+    this.outs = new ArrayList<>();
+    this.alternates = new ArrayList<>();
+    this.predicates = new ArrayList<>();
+  }
+
+  /**
+   * Compiles the pattern of a regular expression string, honoring it's case sensitivity
+   * @param maximumDfaStates Maximum number of automaton states the matcher caches at once
+   * @throws UnsupportedPatternError The pattern makes use of unsupported constructs
+   */
+  public static LinearRegexMatcher compile(StringExpression string, int maximumDfaStates) throws AParserError {
+    LinearRegexCompiler compiler = new LinearRegexCompiler(string);
+    ANode root = compiler.parseAlternation();
+
+    if (compiler.position != compiler.pattern.length())
+      throw compiler.unsupported("Unbalanced parentheses");
+
+    int match = compiler.emit(LinearRegexMatcher.MATCH, -1, -1, null);
+    int start = compiler.compileNode(root, match);
+
+    return new LinearRegexMatcher(
+      toArray(compiler.types), toArray(compiler.outs), toArray(compiler.alternates),
+      compiler.predicates.toArray(new IntPredicate[0]), start, match, maximumDfaStates
+    );
+  }
+
+  //=========================================================================//
+  //                                 Syntax                                  //
+  //=========================================================================//
+
+  private static abstract class ANode {}
+
+  private static class CharacterNode extends ANode {
+    final IntPredicate predicate;
+
+    CharacterNode(IntPredicate predicate) {
+      this.predicate = predicate;
+    }
+  }
+
+  private static class AnchorNode extends ANode {
+    final int type;
+
+    AnchorNode(int type) {
+      this.type = type;
+    }
+  }
+
+  private static class SequenceNode extends ANode {
+    final List<ANode> items;
+
+    SequenceNode(List<ANode> items) {
+      this.items = items;
+    }
+  }
+
+  private static class AlternationNode extends ANode {
+    final List<ANode> alternatives;
+
+    AlternationNode(List<ANode> alternatives) {
+      this.alternatives = alternatives;
+    }
+  }
+
+  private static class RepetitionNode extends ANode {
+    final ANode body;
+    final int minimum, maximum;
+
+    /**
+     * @param maximum Maximum number of repetitions, negative if unbounded
+     */
+    RepetitionNode(ANode body, int minimum, int maximum) {
+      this.body = body;
+      this.minimum = minimum;
+      this.maximum = maximum;
+    }
+  }
+
+  private ANode parseAlternation() throws AParserError {
+    List<ANode> alternatives = new ArrayList<>();
+    alternatives.add(parseSequence());
+
+    while (position < pattern.length() && pattern.charAt(position) == '|') {
+      ++position;
+      alternatives.add(parseSequence());
+    }
+
+    return alternatives.size() == 1 ? alternatives.get(0) : new AlternationNode(alternatives);
+  }
+
+  private ANode parseSequence() throws AParserError {
+    List<ANode> items = new ArrayList<>();
+
+    while (position < pattern.length() && pattern.charAt(position) != '|' && pattern.charAt(position) != ')')
+      items.add(parseRepetition());
+
+    return items.size() == 1 ? items.get(0) : new SequenceNode(items);
+  }
+
+  private ANode parseRepetition() throws AParserError {
+    ANode atom = parseAtom();
+
+    if (position == pattern.length())
+      return atom;
+
+    int minimum, maximum;
+
+    switch (pattern.charAt(position)) {
+      case '*':
+        minimum = 0;
+        maximum = -1;
+        ++position;
+        break;
+
+      case '+':
+        minimum = 1;
+        maximum = -1;
+        ++position;
+        break;
+
+      case '?':
+        minimum = 0;
+        maximum = 1;
+        ++position;
+        break;
+
+      case '{': {
+        ++position;
+        minimum = parseBound();
+        maximum = minimum;
+
+        if (position < pattern.length() && pattern.charAt(position) == ',') {
+          ++position;
+          maximum = position < pattern.length() && pattern.charAt(position) == '}' ? -1 : parseBound();
+        }
+
+        if (position == pattern.length() || pattern.charAt(position) != '}')
+          throw unsupported("Malformed repetition");
+
+        ++position;
+        break;
+      }
+
+      default:
+        return atom;
+    }
+
+    if (position < pattern.length()) {
+      char modifier = pattern.charAt(position);
+
+      // Lazy quantifiers match the very same inputs as greedy ones, while possessive ones do not
+      if (modifier == '?')
+        ++position;
+      else if (modifier == '+')
+        throw unsupported("Possessive quantifiers");
+    }
+
+    if (position < pattern.length() && "*+?{".indexOf(pattern.charAt(position)) >= 0)
+      throw unsupported("Nested quantifiers");
+
+    // java.util.regex ends repetitions after an empty iteration, which only makes a difference if
+    // whether an iteration may be empty depends on it's position, as it does when there are anchors
+    if (containsAnchor(atom))
+      throw unsupported("Anchors within repetitions");
+
+    return new RepetitionNode(atom, minimum, maximum);
+  }
+
+  private boolean containsAnchor(ANode node) {
+    if (node instanceof AnchorNode)
+      return true;
+
+    if (node instanceof SequenceNode)
+      return ((SequenceNode) node).items.stream().anyMatch(this::containsAnchor);
+
+    if (node instanceof AlternationNode)
+      return ((AlternationNode) node).alternatives.stream().anyMatch(this::containsAnchor);
+
+    if (node instanceof RepetitionNode)
+      return containsAnchor(((RepetitionNode) node).body);
+
+    return false;
+  }
+
+  private int parseBound() throws AParserError {
+    int start = position;
+
+    while (position < pattern.length() && pattern.charAt(position) >= '0' && pattern.charAt(position) <= '9')
+      ++position;
+
+    if (position == start || position - start > 4)
+      throw unsupported("Malformed repetition");
+
+    int bound = Integer.parseInt(pattern.substring(start, position));
+
+    if (bound > MAXIMUM_REPETITION)
+      throw unsupported("Repetitions may not exceed " + MAXIMUM_REPETITION);
+
+    return bound;
+  }
+
+  private ANode parseAtom() throws AParserError {
+    char c = pattern.charAt(position);
+
+    switch (c) {
+      case '(': {
+        ++position;
+
+        if (pattern.startsWith("?:", position))
+          position += 2;
+        else if (pattern.startsWith("?", position))
+          throw unsupported("Groups other than (?:...)");
+
+        ANode content = parseAlternation();
+
+        if (position == pattern.length() || pattern.charAt(position) != ')')
+          throw unsupported("Unbalanced parentheses");
+
+        ++position;
+        return content;
+      }
+
+      case '[':
+        return new CharacterNode(parseClass());
+
+      case '.':
+        ++position;
+        return new CharacterNode(ANY_BUT_LINE_TERMINATOR);
+
+      case '^':
+        ++position;
+        return new AnchorNode(LinearRegexMatcher.BEGIN);
+
+      case '$':
+        ++position;
+        return new AnchorNode(LinearRegexMatcher.END);
+
+      case '\\': {
+        IntPredicate predefinedClass = parsePredefinedClass();
+
+        if (predefinedClass != null)
+          return new CharacterNode(predefinedClass);
+
+        return new CharacterNode(literal(parseEscapedCharacter()));
+      }
+
+      case '*':
+      case '+':
+      case '?':
+      case '{':
+        throw unsupported("Dangling quantifier");
+
+      default: {
+        int codePoint = pattern.codePointAt(position);
+        position += Character.charCount(codePoint);
+        return new CharacterNode(literal(codePoint));
+      }
+    }
+  }
+
+  private IntPredicate parseClass() throws AParserError {
+    // Skip the opening bracket
+    ++position;
+
+    boolean isNegated = position < pattern.length() && pattern.charAt(position) == '^';
+
+    if (isNegated)
+      ++position;
+
+    if (position < pattern.length() && pattern.charAt(position) == ']')
+      throw unsupported("Leading closing brackets within classes");
+
+    IntPredicate result = c -> false;
+    boolean isFirst = true;
+
+    while (true) {
+      if (position == pattern.length())
+        throw unsupported("Unterminated class");
+
+      char c = pattern.charAt(position);
+
+      if (c == ']') {
+        ++position;
+        break;
+      }
+
+      if (c == '[' || pattern.startsWith("&&", position))
+        throw unsupported("Nested classes and class intersections");
+
+      IntPredicate item;
+
+      if (c == '\\' && (item = parsePredefinedClass()) != null) {
+        result = result.or(item);
+        isFirst = false;
+        continue;
+      }
+
+      // Dashes are only taken literally at the very start or end of a class
+      if (c == '-' && !isFirst && !pattern.startsWith("-]", position))
+        throw unsupported("Ambiguous dashes within classes");
+
+      int lower = parseClassCharacter();
+
+      if (pattern.startsWith("-", position) && !pattern.startsWith("-]", position)) {
+        ++position;
+
+        if (position < pattern.length() && pattern.charAt(position) == '[')
+          throw unsupported("Nested classes and class intersections");
+
+        int upper = parseClassCharacter();
+        item = range(lower, upper);
+      }
+      else
+        item = literal(lower);
+
+      result = result.or(item);
+      isFirst = false;
+    }
+
+    return isNegated ? result.negate() : result;
+  }
+
+  private int parseClassCharacter() throws AParserError {
+    if (pattern.charAt(position) != '\\') {
+      int codePoint = pattern.codePointAt(position);
+      position += Character.charCount(codePoint);
+      return codePoint;
+    }
+
+    if (parsePredefinedClass() != null)
+      throw unsupported("Ranges of predefined classes");
+
+    return parseEscapedCharacter();
+  }
+
+  /**
+   * Parses the predefined class at the current backslash, if there's any
+   * @return Predicate of the class or null if the escape is not a predefined class
+   */
+  private IntPredicate parsePredefinedClass() {
+    if (position + 1 >= pattern.length())
+      return null;
+
+    IntPredicate result;
+
+    switch (pattern.charAt(position + 1)) {
+      case 'd': result = DIGIT; break;
+      case 'D': result = DIGIT.negate(); break;
+      case 'w': result = WORD; break;
+      case 'W': result = WORD.negate(); break;
+      case 's': result = SPACE; break;
+      case 'S': result = SPACE.negate(); break;
+      default: return null;
+    }
+
+    position += 2;
+    return result;
+  }
+
+  private int parseEscapedCharacter() throws AParserError {
+    // Skip the backslash
+    ++position;
+
+    if (position == pattern.length())
+      throw unsupported("Trailing backslash");
+
+    char c = pattern.charAt(position++);
+
+    switch (c) {
+      case 't': return '\t';
+      case 'n': return '\n';
+      case 'r': return '\r';
+      case 'f': return '\f';
+      case 'a': return '\u0007';
+      case 'e': return '\u001B';
+
+      case 'x': {
+        if (pattern.startsWith("{", position)) {
+          int end = pattern.indexOf('}', position);
+
+          if (end < 0)
+            throw unsupported("Malformed hexadecimal escape");
+
+          int codePoint = parseHexadecimal(position + 1, end);
+          position = end + 1;
+          return codePoint;
+        }
+
+        int codePoint = parseHexadecimal(position, position + 2);
+        position += 2;
+        return codePoint;
+      }
+
+      case 'u': {
+        int codePoint = parseHexadecimal(position, position + 4);
+        position += 4;
+        return codePoint;
+      }
+
+      default:
+        // All other letters and digits denote constructs, like boundaries or backreferences
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))
+          throw unsupported("The escape \\" + c);
+
+        // Escaped surrogate pairs are taken literally as a whole
+        if (Character.isHighSurrogate(c) && position < pattern.length() && Character.isLowSurrogate(pattern.charAt(position)))
+          return Character.toCodePoint(c, pattern.charAt(position++));
+
+        return c;
+    }
+  }
+
+  private int parseHexadecimal(int start, int end) throws AParserError {
+    if (end > pattern.length() || end <= start || end - start > 6)
+      throw unsupported("Malformed hexadecimal escape");
+
+    try {
+      return Integer.parseInt(pattern.substring(start, end), 16);
+    } catch (NumberFormatException e) {
+      throw unsupported("Malformed hexadecimal escape");
+    }
+  }
+
+  //=========================================================================//
+  //                               Characters                                //
+  //=========================================================================//
+
+  // Case-insensitive comparisons follow java.util.regex with both CASE_INSENSITIVE and UNICODE_CASE
+
+  private IntPredicate literal(int codePoint) {
+    if (!ignoreCase)
+      return c -> c == codePoint;
+
+    int upper = Character.toUpperCase(codePoint);
+    int lower = Character.toLowerCase(upper);
+
+    if (upper == lower)
+      return c -> c == codePoint;
+
+    return c -> c == lower || Character.toLowerCase(Character.toUpperCase(c)) == lower;
+  }
+
+  private IntPredicate range(int lower, int upper) throws AParserError {
+    if (upper < lower)
+      throw unsupported("Reversed range");
+
+    if (!ignoreCase)
+      return c -> c >= lower && c <= upper;
+
+    return c -> {
+      if (c >= lower && c <= upper)
+        return true;
+
+      int upperCase = Character.toUpperCase(c);
+
+      if (upperCase >= lower && upperCase <= upper)
+        return true;
+
+      int lowerCase = Character.toLowerCase(upperCase);
+      return lowerCase >= lower && lowerCase <= upper;
+    };
+  }
+
+  //=========================================================================//
+  //                                 Program                                 //
+  //=========================================================================//
+
+  /**
+   * Compiles a node into states which continue at the provided state once the node has been matched
+   * @return Entry state of the node
+   */
+  private int compileNode(ANode node, int next) throws AParserError {
+    if (node instanceof CharacterNode)
+      return emit(LinearRegexMatcher.CHARACTER, next, -1, ((CharacterNode) node).predicate);
+
+    if (node instanceof AnchorNode)
+      return emit(((AnchorNode) node).type, next, -1, null);
+
+    if (node instanceof SequenceNode) {
+      List<ANode> items = ((SequenceNode) node).items;
+
+      for (int i = items.size() - 1; i >= 0; i--)
+        next = compileNode(items.get(i), next);
+
+      return next;
+    }
+
+    if (node instanceof AlternationNode) {
+      List<ANode> alternatives = ((AlternationNode) node).alternatives;
+      int entry = compileNode(alternatives.get(alternatives.size() - 1), next);
+
+      for (int i = alternatives.size() - 2; i >= 0; i--)
+        entry = emit(LinearRegexMatcher.SPLIT, compileNode(alternatives.get(i), next), entry, null);
+
+      return entry;
+    }
+
+    RepetitionNode repetition = (RepetitionNode) node;
+    int entry;
+
+    if (repetition.maximum < 0) {
+      entry = emit(LinearRegexMatcher.SPLIT, -1, next, null);
+      outs.set(entry, compileNode(repetition.body, entry));
+    }
+
+    else {
+      entry = next;
+
+      // Each optional repetition may be skipped, which also skips all following ones
+      for (int i = repetition.minimum; i < repetition.maximum; i++)
+        entry = emit(LinearRegexMatcher.SPLIT, compileNode(repetition.body, entry), next, null);
+    }
+
+    for (int i = 0; i < repetition.minimum; i++)
+      entry = compileNode(repetition.body, entry);
+
+    return entry;
+  }
+
+  private int emit(int type, int out, int alternate, IntPredicate predicate) throws AParserError {
+    if (types.size() == MAXIMUM_PROGRAM_SIZE)
+      throw unsupported("Patterns may not exceed " + MAXIMUM_PROGRAM_SIZE + " states");
+
+    types.add(type);
+    outs.add(out);
+    alternates.add(alternate);
+    predicates.add(predicate);
+
+    return types.size() - 1;
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private UnsupportedPatternError unsupported(String reason) {
+    return new UnsupportedPatternError(string, reason + " at index " + position);
+  }
+
+  private static int[] toArray(List<Integer> values) {
+    int[] result = new int[values.size()];
+
+    for (int i = 0; i < result.length; i++)
+      result[i] = values.get(i);
+
+    return result;
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.regex;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Matches a program of states by simulating all of it's paths at once, which takes time linear to the length
+ * of the input, no matter the pattern. Each set of simultaneously active states is cached as a state of a
+ * deterministic automaton, together with it's successors, so that most inputs are matched by a single lookup
+ * per character. Once the number of cached states reaches it's limit, the cache is flushed and rebuilt lazily,
+ * which bounds memory at the cost of re-computing transitions. Matchers are safe to be shared between threads.
+ */
+public class LinearRegexMatcher implements IRegexMatcher {
+
+  // Types of states within the program
+  static final int CHARACTER = 0, SPLIT = 1, BEGIN = 2, END = 3, MATCH = 4;
+
+  private static final int ASCII_LIMIT = 128;
+
+  private final int[] types, outs, alternates;
+  private final IntPredicate[] predicates;
+  private final int start, match;
+  private final int maximumDfaStates;
+
+  private final ConcurrentHashMap<DfaState, DfaState> dfaStates;
+
+  // States at the start of the input, by whether $ holds at the start as well
+  private final DfaState[] initialStates;
+
+  // Whether the search may only begin at the very start of the input or right before it's end
+  private final boolean hasAnchoredStart;
+
+  LinearRegexMatcher(int[] types, int[] outs, int[] alternates, IntPredicate[] predicates, int start, int match, int maximumDfaStates) {
+    this.types = types;
+    this.outs = outs;
+    this.alternates = alternates;
+    this.predicates = predicates;
+    this.start = start;
+    this.match = match;
+    this.maximumDfaStates = Math.max(1, maximumDfaStates);
+    this.dfaStates = new ConcurrentHashMap<>();
+    this.initialStates = new DfaState[2];
+    this.hasAnchoredStart = closure(new int[0], 0, false, false).length == 0;
+  }
+
+  /**
+   * Set of simultaneously active states, each of which either consumes a character or matches
+   */
+  private static class DfaState {
+    final int[] states;
+    final boolean isAccepting;
+    final int hashCode;
+
+    // Successors are cached separately for positions at which $ holds, and are published racily,
+    // which is safe, as states are immutable apart from their caches and may simply be computed twice
+    final DfaState[] asciiSuccessors, asciiEndSuccessors;
+    final ConcurrentHashMap<Integer, DfaState> otherSuccessors;
+
+    DfaState(int[] states, boolean isAccepting) {
+      this.states = states;
+      this.isAccepting = isAccepting;
+      this.hashCode = Arrays.hashCode(states);
+      this.asciiSuccessors = new DfaState[ASCII_LIMIT];
+      this.asciiEndSuccessors = new DfaState[ASCII_LIMIT];
+      this.otherSuccessors = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof DfaState && Arrays.equals(states, ((DfaState) other).states);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  @Override
+  public boolean find(String value) {
+    int length = value.length();
+    int position = 0;
+
+    DfaState state = initialState(isEndPosition(value, 0));
+
+    while (!state.isAccepting) {
+      if (position == length)
+        return false;
+
+      // Without active states and without a search beginning in the middle, only the end of the input may still match
+      if (state.states.length == 0 && hasAnchoredStart) {
+        int target = length - 2;
+
+        if (target > 0 && Character.isLowSurrogate(value.charAt(target)) && Character.isHighSurrogate(value.charAt(target - 1)))
+          --target;
+
+        if (target > position) {
+          position = target;
+          state = intern(closure(new int[0], 0, false, isEndPosition(value, position)));
+          continue;
+        }
+      }
+
+      int codePoint = value.codePointAt(position);
+      position += Character.charCount(codePoint);
+
+      state = successor(state, codePoint, isEndPosition(value, position));
+    }
+
+    return true;
+  }
+
+  //=========================================================================//
+  //                                Automaton                                //
+  //=========================================================================//
+
+  private DfaState initialState(boolean atEnd) {
+    int index = atEnd ? 1 : 0;
+    DfaState result = initialStates[index];
+
+    if (result == null) {
+      result = intern(closure(new int[0], 0, true, atEnd));
+      initialStates[index] = result;
+    }
+
+    return result;
+  }
+
+  /**
+   * @param atEnd Whether the position after the code point is one at which $ holds
+   */
+  private DfaState successor(DfaState state, int codePoint, boolean atEnd) {
+    DfaState result;
+
+    if (codePoint >= ASCII_LIMIT) {
+      // Non-ASCII code points right before the end are rare enough to always be computed
+      if (atEnd)
+        return intern(step(state, codePoint, true));
+
+      result = state.otherSuccessors.get(codePoint);
+
+      if (result == null) {
+        result = intern(step(state, codePoint, false));
+        state.otherSuccessors.put(codePoint, result);
+      }
+
+      return result;
+    }
+
+    DfaState[] successors = atEnd ? state.asciiEndSuccessors : state.asciiSuccessors;
+    result = successors[codePoint];
+
+    if (result == null) {
+      result = intern(step(state, codePoint, atEnd));
+      successors[codePoint] = result;
+    }
+
+    return result;
+  }
+
+  private DfaState intern(int[] states) {
+    DfaState state = new DfaState(states, Arrays.binarySearch(states, match) >= 0);
+    DfaState existing = dfaStates.get(state);
+
+    if (existing != null)
+      return existing;
+
+    // Flushing is racy as well, which may at worst let the cache slightly exceed it's limit. Also
+    // forgetting the initial states leaves flushed states unreachable, apart from ongoing searches.
+    if (dfaStates.size() >= maximumDfaStates) {
+      dfaStates.clear();
+      initialStates[0] = null;
+      initialStates[1] = null;
+    }
+
+    existing = dfaStates.putIfAbsent(state, state);
+    return existing == null ? state : existing;
+  }
+
+  /**
+   * Consumes a code point by all active states and begins another search right after it
+   * @param atEnd Whether the position after the code point is one at which $ holds
+   */
+  private int[] step(DfaState state, int codePoint, boolean atEnd) {
+    int[] seeds = new int[state.states.length];
+    int seedCount = 0;
+
+    for (int active : state.states) {
+      if (types[active] == CHARACTER && predicates[active].test(codePoint))
+        seeds[seedCount++] = outs[active];
+    }
+
+    return closure(seeds, seedCount, false, atEnd);
+  }
+
+  /**
+   * Follows all transitions which do not consume input, starting out at the seeds as well as at the start
+   * @return Sorted states which either consume a character or match
+   */
+  private int[] closure(int[] seeds, int seedCount, boolean atBegin, boolean atEnd) {
+    boolean[] visited = new boolean[types.length];
+    int[] stack = new int[types.length];
+    int[] result = new int[types.length];
+    int stackSize = 0, resultSize = 0;
+
+    stack[stackSize++] = start;
+    visited[start] = true;
+
+    for (int i = 0; i < seedCount; i++) {
+      if (!visited[seeds[i]]) {
+        visited[seeds[i]] = true;
+        stack[stackSize++] = seeds[i];
+      }
+    }
+
+    while (stackSize > 0) {
+      int current = stack[--stackSize];
+      int next = -1, alternate = -1;
+
+      switch (types[current]) {
+        case CHARACTER:
+        case MATCH:
+          result[resultSize++] = current;
+          break;
+
+        case SPLIT:
+          next = outs[current];
+          alternate = alternates[current];
+          break;
+
+        case BEGIN:
+          if (atBegin)
+            next = outs[current];
+          break;
+
+        case END:
+          if (atEnd)
+            next = outs[current];
+          break;
+      }
+
+      if (next >= 0 && !visited[next]) {
+        visited[next] = true;
+        stack[stackSize++] = next;
+      }
+
+      if (alternate >= 0 && !visited[alternate]) {
+        visited[alternate] = true;
+        stack[stackSize++] = alternate;
+      }
+    }
+
+    int[] states = Arrays.copyOf(result, resultSize);
+    Arrays.sort(states);
+    return states;
+  }
+
+  /**
+   * Decides whether $ holds at a position, which is the end of the input as well as right before a
+   * final line terminator, just like within java.util.regex without the MULTILINE flag
+   */
+  private static boolean isEndPosition(String value, int position) {
+    int length = value.length();
+
+    if (position == length)
+      return true;
+
+    if (position == length - 2)
+      return value.charAt(position) == '\r' && value.charAt(position + 1) == '\n';
+
+    if (position != length - 1)
+      return false;
+
+    char c = value.charAt(position);
+
+    // There's no end between the characters of \r\n
+    if (c == '\n')
+      return position == 0 || value.charAt(position - 1) != '\r';
+
+    return c == '\r' || c == '\u0085' || (c | 1) == '\u2029';
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.sql;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Dialect which only makes use of standard SQL and thus supports neither regular expressions
+ * nor fuzzy searches. Databases with support for these may extend it and override the hooks.
+ */
+public class AnsiSqlDialect implements ISqlDialect {
+
+  @Override
+  public String quoteIdentifier(String column) {
+    return "\"" + column.replace("\"", "\"\"") + "\"";
+  }
+
+  @Override
+  public String foldCase(String expression) {
+    return "LOWER(" + expression + ")";
+  }
+
+  @Override
+  public String trim(String expression) {
+    return "TRIM(" + expression + ")";
+  }
+
+  @Override
+  public String nullSafeEquals(String lhs, String rhs) {
+    return lhs + " IS NOT DISTINCT FROM " + rhs;
+  }
+
+  @Override
+  public String nullSafeNotEquals(String lhs, String rhs) {
+    return lhs + " IS DISTINCT FROM " + rhs;
+  }
+
+  @Override
+  public char getLikeEscapeCharacter() {
+    return '!';
+  }
+
+  @Override
+  public @Nullable String regexMatch(String expression, String parameter, boolean caseSensitive) {
+    return null;
+  }
+
+  @Override
+  public @Nullable String fuzzyContains(String expression, String parameter, boolean caseSensitive) {
+    return null;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.sql;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Renders the parts of a WHERE clause which differ between databases. All operands are either
+ * already quoted columns or expressions thereof, while values are always passed as parameters.
+ */
+public interface ISqlDialect {
+
+  /**
+   * Quotes a column name, which stems from the trusted column mapping
+   */
+  String quoteIdentifier(String column);
+
+  /**
+   * Wraps an expression so that it's value is lower-cased, for case-insensitive comparisons
+   */
+  String foldCase(String expression);
+
+  /**
+   * Wraps an expression so that leading and trailing whitespace is removed from it's value
+   */
+  String trim(String expression);
+
+  /**
+   * Compares two expressions for equality, where two nulls are considered equal as well
+   */
+  String nullSafeEquals(String lhs, String rhs);
+
+  /**
+   * Compares two expressions for inequality, where exactly one null is considered unequal as well
+   */
+  String nullSafeNotEquals(String lhs, String rhs);
+
+  /**
+   * Character which escapes wildcards within patterns of the LIKE operator
+   */
+  char getLikeEscapeCharacter();
+
+  /**
+   * Renders a regular expression match of an expression against a bound pattern
+   * @param expression Expression whose value is to be matched
+   * @param parameter Placeholder of the pattern's parameter
+   * @param caseSensitive Whether the match should respect casing
+   * @return Condition or null if regular expressions are not supported
+   */
+  @Nullable String regexMatch(String expression, String parameter, boolean caseSensitive);
+
+  /**
+   * Renders a fuzzy containment check of a bound needle within an expression
+   * @param expression Expression whose value is to be searched
+   * @param parameter Placeholder of the needle's parameter
+   * @param caseSensitive Whether the search should respect casing
+   * @return Condition or null if fuzzy searches are not supported
+   */
+  @Nullable String fuzzyContains(String expression, String parameter, boolean caseSensitive);
+
+}
@@ -0,0 +1,290 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.sql;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.error.UnknownIdentifierError;
+import me.blvckbytes.filterexpressionparser.error.UnsupportedComparisonError;
+import me.blvckbytes.filterexpressionparser.logging.DebugLogSource;
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import me.blvckbytes.filterexpressionparser.parser.expression.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Translates filter expressions into conditions of WHERE clauses, so that filtering may be pushed
+ * down into the database. Identifiers are only accepted if they have been mapped to a column, while
+ * values are never rendered into the condition itself, but always bound as parameters. Comparisons
+ * follow the semantics of the predicate compilers, which is why null fields are unequal to any value.
+ */
+public class SqlFilterEmitter {
+
+  private static final String PARAMETER = "?";
+
+  private final Logger logger;
+  private final ISqlDialect dialect;
+  private final Map<String, String> quotedColumnsByIdentifier;
+
+  /**
+   * @param dialect Dialect to render database specific conditions with
+   * @param columnsByIdentifier Mapping of all identifiers which may be filtered on to their column names
+   */
+  public SqlFilterEmitter(Logger logger, ISqlDialect dialect, Map<String, String> columnsByIdentifier) {
+    this.logger = logger;
+    this.dialect = dialect;
+    this.quotedColumnsByIdentifier = new HashMap<>();
+
+    for (Map.Entry<String, String> entry : columnsByIdentifier.entrySet())
+      quotedColumnsByIdentifier.put(entry.getKey(), dialect.quoteIdentifier(entry.getValue()));
+  }
+
+  public SqlWhereClause emit(ABinaryFilterExpression<?, ?> expression) throws AParserError {
+    StringBuilder sql = new StringBuilder();
+    List<Object> parameters = new ArrayList<>();
+
+    emitExpression(expression, sql, parameters);
+
+    return new SqlWhereClause(sql.toString(), parameters);
+  }
+
+  //=========================================================================//
+  //                               Expressions                               //
+  //=========================================================================//
+
+  private void emitExpression(ABinaryFilterExpression<?, ?> expression, StringBuilder sql, List<Object> parameters) throws AParserError {
+    if (expression instanceof AJunctionExpression) {
+      String junction = expression instanceof ConjunctionExpression ? " AND " : " OR ";
+      List<ABinaryFilterExpression<?, ?>> operands = ((AJunctionExpression) expression).flattenOperands();
+
+      sql.append('(');
+
+      for (int i = 0; i < operands.size(); i++) {
+        if (i != 0)
+          sql.append(junction);
+
+        emitExpression(operands.get(i), sql, parameters);
+      }
+
+      sql.append(')');
+      return;
+    }
+
+    if (expression instanceof ComparisonExpression) {
+      sql.append(emitComparison((ComparisonExpression) expression, parameters));
+      return;
+    }
+
+    throw new IllegalStateException("Unknown expression type " + expression.getClass().getSimpleName());
+  }
+
+  private String emitComparison(ComparisonExpression comparison, List<Object> parameters) throws AParserError {
+    logger.log(Level.FINEST, () -> DebugLogSource.SQL + "Emitting comparison " + comparison.expressionify());
+
+    String column = resolveColumn(comparison.getLhs());
+    TerminalExpression<?> value = comparison.getRhs();
+    ComparisonOperator operator = comparison.getOperator();
+    @Nullable String result;
+
+    if (value instanceof LongExpression || value instanceof DoubleExpression)
+      result = emitOrdering(operator, column, bind(parameters, value.getValue()));
+
+    else if (value instanceof StringExpression)
+      result = emitStringComparison(operator, column, (StringExpression) value, parameters);
+
+    else if (value instanceof LiteralExpression)
+      result = emitLiteralComparison(operator, column, ((LiteralExpression) value).getValue().getValue(), parameters);
+
+    else if (value instanceof IdentifierExpression)
+      result = emitIdentifierComparison(operator, column, resolveColumn((IdentifierExpression) value));
+
+    else
+      throw new IllegalStateException("Unknown terminal type " + value.getClass().getSimpleName());
+
+    if (result == null)
+      throw new UnsupportedComparisonError(comparison);
+
+    return result;
+  }
+
+  private @Nullable String emitStringComparison(ComparisonOperator operator, String column, StringExpression string, List<Object> parameters) {
+    String target = string.shouldTrimTarget() ? dialect.trim(column) : column;
+
+    // Regular expressions and fuzzy searches take care of casing themselves
+    if (operator == ComparisonOperator.REGEX_MATCHER || operator == ComparisonOperator.CONTAINS_FUZZY) {
+      String condition = operator == ComparisonOperator.REGEX_MATCHER
+        ? dialect.regexMatch(target, PARAMETER, string.isCaseSensitive())
+        : dialect.fuzzyContains(target, PARAMETER, string.isCaseSensitive());
+
+      if (condition == null)
+        return null;
+
+      bind(parameters, string.getValue());
+      return condition;
+    }
+
+    String needle = string.getValue();
+
+    if (!string.isCaseSensitive()) {
+      target = dialect.foldCase(target);
+      needle = needle.toLowerCase(Locale.ROOT);
+    }
+
+    switch (operator) {
+      case STARTS_WITH:
+        return emitLike(target, bind(parameters, escapeLike(needle) + "%"));
+
+      case ENDS_WITH:
+        return emitLike(target, bind(parameters, "%" + escapeLike(needle)));
+
+      case CONTAINS:
+        return emitLike(target, bind(parameters, "%" + escapeLike(needle) + "%"));
+
+      default:
+        return emitOrdering(operator, target, bind(parameters, needle));
+    }
+  }
+
+  private @Nullable String emitLiteralComparison(ComparisonOperator operator, String column, @Nullable Object value, List<Object> parameters) {
+    switch (operator) {
+      case EQUAL:
+        return value == null ? column + " IS NULL" : column + " = " + bind(parameters, value);
+
+      case NOT_EQUAL:
+        return value == null ? column + " IS NOT NULL" : emitNotEqual(column, bind(parameters, value));
+
+      default:
+        return null;
+    }
+  }
+
+  private @Nullable String emitIdentifierComparison(ComparisonOperator operator, String column, String otherColumn) {
+    switch (operator) {
+      case EQUAL:
+        return dialect.nullSafeEquals(column, otherColumn);
+
+      case NOT_EQUAL:
+        return dialect.nullSafeNotEquals(column, otherColumn);
+
+      // Wildcards within the other column's values could not be escaped portably
+      case STARTS_WITH:
+      case ENDS_WITH:
+      case CONTAINS:
+      case REGEX_MATCHER:
+      case CONTAINS_FUZZY:
+        return null;
+
+      default:
+        return emitOrdering(operator, column, otherColumn);
+    }
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  private String resolveColumn(IdentifierExpression identifier) throws AParserError {
+    String column = quotedColumnsByIdentifier.get(identifier.getValue());
+
+    if (column == null)
+      throw new UnknownIdentifierError(identifier);
+
+    return column;
+  }
+
+  /**
+   * Adds a value to the list of parameters
+   * @return Placeholder of the value
+   */
+  private String bind(List<Object> parameters, Object value) {
+    parameters.add(value);
+    return PARAMETER;
+  }
+
+  /**
+   * Renders an operator which only depends on the sign of a comparison
+   * @return Condition or null if the operator is not an ordering
+   */
+  private @Nullable String emitOrdering(ComparisonOperator operator, String lhs, String rhs) {
+    switch (operator) {
+      case EQUAL:
+        return lhs + " = " + rhs;
+
+      case NOT_EQUAL:
+        return emitNotEqual(lhs, rhs);
+
+      case GREATER_THAN:
+        return lhs + " > " + rhs;
+
+      case GREATER_THAN_OR_EQUAL:
+        return lhs + " >= " + rhs;
+
+      case LESS_THAN:
+        return lhs + " < " + rhs;
+
+      case LESS_THAN_OR_EQUAL:
+        return lhs + " <= " + rhs;
+
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Renders an inequality against a value, which - unlike in SQL - also holds for null fields
+   */
+  private String emitNotEqual(String expression, String parameter) {
+    return "(" + expression + " <> " + parameter + " OR " + expression + " IS NULL)";
+  }
+
+  private String emitLike(String expression, String parameter) {
+    return expression + " LIKE " + parameter + " ESCAPE '" + dialect.getLikeEscapeCharacter() + "'";
+  }
+
+  /**
+   * Escapes all wildcards within a value, so that it's matched literally by the LIKE operator
+   */
+  private String escapeLike(String value) {
+    char escape = dialect.getLikeEscapeCharacter();
+    StringBuilder result = new StringBuilder(value.length());
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      if (c == '%' || c == '_' || c == escape)
+        result.append(escape);
+
+      result.append(c);
+    }
+
+    return result.toString();
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Condition of a WHERE clause, where every value is represented by a placeholder
+ * and has to be bound by it's corresponding parameter, in order
+ */
+public class SqlWhereClause {
+
+  private final String sql;
+  private final List<Object> parameters;
+
+  public SqlWhereClause(String sql, List<Object> parameters) {
+    this.sql = sql;
+    this.parameters = Collections.unmodifiableList(parameters);
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  public List<Object> getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Binds all parameters to their placeholders within a statement which contains this clause
+   * @param firstIndex Index of the clause's first placeholder within the statement, starting at one
+   * @return Index of the placeholder following this clause's last placeholder
+   */
+  public int bindParameters(PreparedStatement statement, int firstIndex) throws SQLException {
+    int index = firstIndex;
+
+    for (Object parameter : parameters)
+      statement.setObject(index++, parameter);
+
+    return index;
+  }
+
+  @Override
+  public String toString() {
+    return sql + " " + parameters;
+  }
+}
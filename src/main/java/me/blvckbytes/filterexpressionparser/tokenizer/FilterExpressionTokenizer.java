@@ -39,14 +39,22 @@ public class FilterExpressionTokenizer implements ITokenizer {
   private final Logger logger;
   private final char[] text;
   private final Stack<TokenizerState> saveStates;
+  private final @Nullable TableDrivenTokenReader tableDrivenReader;
+  private final boolean slicedTokens;
   private TokenizerState state;
 
   public FilterExpressionTokenizer(Logger logger, String text) {
+    this(logger, text, TokenizerMode.TRIAL_ORDER);
+  }
+
+  public FilterExpressionTokenizer(Logger logger, String text, TokenizerMode mode) {
     this.rawText = text;
     this.logger = logger;
     this.text = text.toCharArray();
     this.state = new TokenizerState();
     this.saveStates = new Stack<>();
+    this.tableDrivenReader = mode == TokenizerMode.TRIAL_ORDER ? null : new TableDrivenTokenReader(this, this.text);
+    this.slicedTokens = mode == TokenizerMode.SLICED;
   }
 
   //=========================================================================//
@@ -194,6 +202,11 @@ public class FilterExpressionTokenizer implements ITokenizer {
       return;
     }
 
+    if (tableDrivenReader != null) {
+      readNextTokenTableDriven(tableDrivenReader);
+      return;
+    }
+
     for (TokenType tryType : TokenType.valuesInTrialOrder) {
       FTokenReader reader = tryType.getTokenReader();
 
@@ -218,4 +231,28 @@ public class FilterExpressionTokenizer implements ITokenizer {
     // No tokenizer matched
     throw new UnknownTokenError(state.row, state.col, rawText);
   }
+
+  /**
+   * Reads the next token by dispatching on it's first character, without speculatively saving state
+   */
+  private void readNextTokenTableDriven(TableDrivenTokenReader reader) throws AParserError {
+    int startRow = state.row, startCol = state.col;
+    TokenType type = reader.read(state.charIndex, startRow, startCol);
+
+    // No type matched
+    if (type == null)
+      throw new UnknownTokenError(startRow, startCol, rawText);
+
+    // Move forwards over the read characters, which keeps track of rows and columns
+    int endIndex = reader.getEndIndex();
+    while (state.charIndex < endIndex)
+      nextChar();
+
+    if (slicedTokens)
+      state.currentToken = reader.createSlicedToken(type, startRow, startCol);
+    else
+      state.currentToken = reader.createToken(type, startRow, startCol);
+
+    logger.log(Level.FINEST, () -> DebugLogSource.TOKENIZER + "Table driven read of " + type + " was successful");
+  }
 }
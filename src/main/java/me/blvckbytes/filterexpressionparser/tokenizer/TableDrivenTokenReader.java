@@ -0,0 +1,514 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser.tokenizer;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.error.NegativeExponentOnLongError;
+import me.blvckbytes.filterexpressionparser.error.UnterminatedStringError;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Reads tokens in a single pass by dispatching on their first character through a table
+ * which has been built from the TokenType definitions. All readers scan the source's characters
+ * directly and mirror the behaviour of the readers within TokenType exactly, which is why
+ * both yield identical tokens and errors, without this reader ever having to save state.
+ */
+class TableDrivenTokenReader {
+
+  // Types which could possibly start with a given (ASCII) character, in trial order
+  private static final TokenType[][] candidatesByFirstChar;
+
+  static {
+    candidatesByFirstChar = new TokenType[128][];
+
+    for (char c = 0; c < candidatesByFirstChar.length; c++) {
+      char firstChar = c;
+
+      candidatesByFirstChar[c] = Arrays.stream(TokenType.valuesInTrialOrder)
+        .filter(type -> couldStartWith(type, firstChar))
+        .toArray(TokenType[]::new);
+    }
+  }
+
+  private final ITokenizer tokenizer;
+  private final char[] text;
+
+  // Value of the number or string currently being read
+  private final StringBuilder value;
+
+  // Buffer for strings which are only read to check whether they would follow a number
+  private final StringBuilder lookaheadValue;
+
+  private int startIndex, startRow, startCol;
+  private int cursor;
+
+  // Range of the most recently read value within the text, where an end of -1 marks values which differ from their source
+  private int valueStart, valueEnd;
+
+  TableDrivenTokenReader(ITokenizer tokenizer, char[] text) {
+    this.tokenizer = tokenizer;
+    this.text = text;
+    this.value = new StringBuilder();
+    this.lookaheadValue = new StringBuilder();
+  }
+
+  /**
+   * Reads the token starting at the provided position
+   * @param index Index of the token's first character
+   * @param row Row of the token's first character
+   * @param col Column of the token's first character
+   * @return Type of the read token or null if no type matched
+   */
+  @Nullable TokenType read(int index, int row, int col) throws AParserError {
+    this.startIndex = index;
+    this.startRow = row;
+    this.startCol = col;
+
+    char firstChar = text[index];
+
+    if (firstChar >= candidatesByFirstChar.length)
+      return null;
+
+    for (TokenType candidate : candidatesByFirstChar[firstChar]) {
+      if (tryRead(candidate, index))
+        return candidate;
+    }
+
+    return null;
+  }
+
+  /**
+   * Creates a token of the most recently read type, with it's value already materialized
+   */
+  Token createToken(TokenType type, int row, int col) {
+    if (type.isConstantSequence())
+      return new Token(type, row, col, type.getRepresentation());
+
+    if (type == TokenType.IDENTIFIER)
+      return new Token(type, row, col, new String(text, valueStart, valueEnd - valueStart));
+
+    return new Token(type, row, col, value.toString());
+  }
+
+  /**
+   * Creates a token of the most recently read type, which refers to it's range within the text
+   * and only materializes the value on demand, if the value can be derived from that range
+   */
+  Token createSlicedToken(TokenType type, int row, int col) {
+    if (valueEnd < 0)
+      return new Token(type, row, col, value.toString());
+
+    return new Token(type, row, col, text, valueStart, valueEnd);
+  }
+
+  /**
+   * Get the index right after the most recently read token, which - just like
+   * with the trial order readers - includes whitespace that terminated a number
+   */
+  int getEndIndex() {
+    return cursor;
+  }
+
+  //=========================================================================//
+  //                                 Readers                                 //
+  //=========================================================================//
+
+  private boolean tryRead(TokenType type, int index) throws AParserError {
+    if (type.isConstantSequence()) {
+      int end = matchSequence(type, index);
+
+      if (end < 0)
+        return false;
+
+      cursor = end;
+      valueStart = index;
+      valueEnd = end;
+      return true;
+    }
+
+    switch (type) {
+      case IDENTIFIER:
+        return tryReadIdentifier(index);
+
+      case LONG:
+        return tryReadLong(index);
+
+      case DOUBLE:
+        return tryReadDouble(index);
+
+      case STRING:
+        cursor = readString(index, value);
+
+        // Strings are unescaped again when materialized, which is why the range excludes the quotes only
+        valueStart = index + 1;
+        valueEnd = cursor - 1;
+        return true;
+
+      default:
+        throw new IllegalStateException("No table driven reader available for " + type);
+    }
+  }
+
+  private boolean tryReadIdentifier(int index) {
+    int end = index + 1;
+
+    // The first char has already been checked by the dispatch table
+    while (end < text.length && TokenType.isIdentifierChar(text[end], false))
+      ++end;
+
+    cursor = end;
+    valueStart = index;
+    valueEnd = end;
+    return true;
+  }
+
+  // -?[0-9]+(e[0-9]+)?
+  private boolean tryReadLong(int index) throws AParserError {
+    value.setLength(0);
+    cursor = index;
+
+    // Negative number
+    if (text[cursor] == '-')
+      value.append(text[cursor++]);
+
+    if (collectDigits(false) != CollectorResult.READ_OKAY)
+      return false;
+
+    possiblyCollectExponent(false);
+
+    sliceNumberValue(index);
+    return true;
+  }
+
+  // -?[0-9]*.?[0-9]+(e-?[0-9]+)?
+  private boolean tryReadDouble(int index) throws AParserError {
+    value.setLength(0);
+    cursor = index;
+
+    // Negative number
+    if (text[cursor] == '-')
+      value.append(text[cursor++]);
+
+    // Shorthand 0.x notation
+    if (cursor < text.length && text[cursor] == '.') {
+      value.append('0');
+      value.append(text[cursor++]);
+
+      if (collectDigits(false) != CollectorResult.READ_OKAY)
+        return false;
+
+      sliceNumberValue(index);
+      return true;
+    }
+
+    // A double starts out like an integer
+    if (collectDigits(true) != CollectorResult.READ_OKAY)
+      return false;
+
+    // Missing decimal point
+    if (cursor >= text.length || text[cursor++] != '.')
+      return false;
+
+    value.append('.');
+
+    if (collectDigits(false) != CollectorResult.READ_OKAY)
+      return false;
+
+    possiblyCollectExponent(true);
+
+    sliceNumberValue(index);
+    return true;
+  }
+
+  /**
+   * Reads a string literal which starts at the provided index
+   * @param index Index of the opening double quote
+   * @param result Buffer to write the unescaped contents into
+   * @return Index right after the closing double quote
+   */
+  private int readString(int index, StringBuilder result) throws AParserError {
+    result.setLength(0);
+
+    int current = index + 1;
+    boolean isTerminated = false;
+
+    while (current < text.length) {
+      if (appendStringChar(result, text[current++])) {
+        isTerminated = true;
+        break;
+      }
+    }
+
+    // Strings need to be terminated
+    if (!isTerminated) {
+      int[] position = positionOf(index);
+      throw new UnterminatedStringError(position[0], position[1], tokenizer.getRawText());
+    }
+
+    return current;
+  }
+
+  /**
+   * Unescapes the contents of a string literal, which have been delimited by a previous read
+   * @param start Index right after the opening double quote
+   * @param end Index of the closing double quote
+   */
+  static String unescapeString(char[] text, int start, int end) {
+    boolean hasEscapes = false;
+
+    for (int i = start; i < end; i++) {
+      if (text[i] == '\\') {
+        hasEscapes = true;
+        break;
+      }
+    }
+
+    if (!hasEscapes)
+      return new String(text, start, end - start);
+
+    StringBuilder result = new StringBuilder(end - start);
+
+    // Also pass the closing quote, as it may still collapse a preceding escaped escape sequence
+    for (int i = start; i <= end; i++)
+      appendStringChar(result, text[i]);
+
+    return result.toString();
+  }
+
+  //=========================================================================//
+  //                                Utilities                                //
+  //=========================================================================//
+
+  /**
+   * Appends the next character of a string literal's contents, resolving escape sequences
+   * @return True if the character is the closing double quote, which is not appended
+   */
+  private static boolean appendStringChar(StringBuilder result, char c) {
+    int length = result.length();
+    boolean previousIsBackslash = length > 0 && result.charAt(length - 1) == '\\';
+    boolean previousPreviousIsBackslash = length > 1 && result.charAt(length - 2) == '\\';
+
+    // Delete an escaped escape sequence once to just leave the escape symbol
+    if (previousIsBackslash && previousPreviousIsBackslash)
+      result.deleteCharAt(length - 1);
+
+    if (c == '"') {
+      // Escaped double quote character, remove leading backslash
+      if (previousIsBackslash && !previousPreviousIsBackslash) {
+        result.deleteCharAt(result.length() - 1);
+        result.append(c);
+        return false;
+      }
+
+      return true;
+    }
+
+    result.append(c);
+    return false;
+  }
+
+  /**
+   * Marks the collected number as a range of the text if it's equal to the characters at the
+   * provided index, which it's not for shorthand notations, as they got a leading zero prepended
+   */
+  private void sliceNumberValue(int index) {
+    int length = value.length();
+
+    valueStart = index;
+    valueEnd = index + length;
+
+    for (int i = 0; i < length; i++) {
+      if (index + i >= text.length || text[index + i] != value.charAt(i)) {
+        valueEnd = -1;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Matches a constant sequence type at the provided index
+   * @return Index right after the sequence or -1 on mismatches
+   */
+  private int matchSequence(TokenType type, int index) {
+    String sequence = type.getRepresentation();
+    int end = index + sequence.length();
+
+    if (end > text.length)
+      return -1;
+
+    for (int i = 0; i < sequence.length(); i++) {
+      if (TokenType.charToLowerCase(text[index + i]) != TokenType.charToLowerCase(sequence.charAt(i)))
+        return -1;
+    }
+
+    if (end < text.length && type.getNotNextCheck() != null && type.getNotNextCheck().apply(text[end]))
+      return -1;
+
+    return end;
+  }
+
+  private void possiblyCollectExponent(boolean allowNegativeExponent) throws AParserError {
+    if (cursor >= text.length || text[cursor] != 'e')
+      return;
+
+    int exponentIndex = cursor;
+
+    // Append 'e'
+    value.append(text[cursor++]);
+
+    boolean hasNegativeSign = false;
+    int negativeSignIndex = cursor;
+
+    if (cursor < text.length && text[cursor] == '-') {
+      hasNegativeSign = true;
+      value.append(text[cursor++]);
+    }
+
+    // Collect exponent digits
+    if (collectDigits(false) == CollectorResult.READ_OKAY) {
+      if (!allowNegativeExponent && hasNegativeSign) {
+        int[] position = positionOf(negativeSignIndex);
+        throw new NegativeExponentOnLongError(position[0], position[1], tokenizer.getRawText());
+      }
+
+      return;
+    }
+
+    // Was likely not meant as an exponent, put back the characters and undo
+    // the appended chars the very same way as the trial order reader does
+    cursor = exponentIndex;
+
+    if (hasNegativeSign)
+      value.deleteCharAt(value.length() - 1);
+
+    value.deleteCharAt(value.length() - 1);
+  }
+
+  private CollectorResult collectDigits(boolean stopBeforeDot) throws AParserError {
+    if (cursor >= text.length)
+      return CollectorResult.NO_NEXT_CHAR;
+
+    int initialLength = value.length();
+
+    while (cursor < text.length) {
+      char c = text[cursor++];
+
+      // Collect as many digits as possible
+      if (TokenType.isDigit(c))
+        value.append(c);
+
+      // Whitespace or newline stops the number notation
+      else if (tokenizer.isConsideredWhitespace(c) || c == '\n')
+        break;
+
+      else if (c == '.' && stopBeforeDot) {
+        --cursor;
+        break;
+      }
+
+      else {
+        --cursor;
+
+        if (value.length() - initialLength > 0 && wouldNonNumericFollow(cursor))
+          return CollectorResult.READ_OKAY;
+
+        return CollectorResult.CHAR_MISMATCH;
+      }
+    }
+
+    return value.length() > 0 ? CollectorResult.READ_OKAY : CollectorResult.CHAR_MISMATCH;
+  }
+
+  /**
+   * Checks whether any of the TokenType#nonNumericTypes would successfully read at the provided index
+   */
+  private boolean wouldNonNumericFollow(int index) throws AParserError {
+    char c = text[index];
+
+    // Identifiers accept any leading letter, literals don't matter
+    if (TokenType.isIdentifierChar(c, true))
+      return true;
+
+    // Strings either read successfully or throw
+    if (c == '"') {
+      readString(index, lookaheadValue);
+      return true;
+    }
+
+    if (c >= candidatesByFirstChar.length)
+      return false;
+
+    for (TokenType candidate : candidatesByFirstChar[c]) {
+      if (candidate.isConstantSequence() && matchSequence(candidate, index) >= 0)
+        return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Computes the row and column of an index within the current token, only used
+   * when errors need to be reported, as the tokenizer keeps track of them otherwise
+   * @return Tuple of row and column
+   */
+  private int[] positionOf(int index) {
+    int row = startRow, col = startCol;
+
+    for (int i = startIndex; i < index; i++) {
+      if (text[i] == '\n') {
+        ++row;
+        col = 0;
+      }
+      else
+        ++col;
+    }
+
+    return new int[] { row, col };
+  }
+
+  private static boolean couldStartWith(TokenType type, char c) {
+    if (type.isConstantSequence())
+      return TokenType.charToLowerCase(type.getRepresentation().charAt(0)) == TokenType.charToLowerCase(c);
+
+    switch (type) {
+      case IDENTIFIER:
+        return TokenType.isIdentifierChar(c, true);
+
+      case LONG:
+        return c == '-' || TokenType.isDigit(c);
+
+      case DOUBLE:
+        return c == '-' || c == '.' || TokenType.isDigit(c);
+
+      case STRING:
+        return c == '"';
+
+      default:
+        return true;
+    }
+  }
+}
@@ -24,17 +24,43 @@
 
 package me.blvckbytes.filterexpressionparser.tokenizer;
 
+import org.jetbrains.annotations.Nullable;
+
 public class Token {
 
   private final TokenType type;
   private final int row, col;
-  private final String value;
+
+  // Range of the value within the source, if it is to be materialized lazily
+  private final char @Nullable [] source;
+  private final int valueStart, valueEnd;
+
+  private @Nullable String value;
 
   public Token(TokenType type, int row, int col, String value) {
     this.type = type;
     this.row = row;
     this.col = col;
     this.value = value;
+    this.source = null;
+    this.valueStart = -1;
+    this.valueEnd = -1;
+  }
+
+  /**
+   * Creates a token which only refers to a range of the source, out of which it's value is
+   * created on the first access. String values are unescaped while being materialized.
+   * @param source Characters of the whole input
+   * @param valueStart Index of the value's first character, excluding the opening quote of strings
+   * @param valueEnd Index right after the value's last character
+   */
+  public Token(TokenType type, int row, int col, char[] source, int valueStart, int valueEnd) {
+    this.type = type;
+    this.row = row;
+    this.col = col;
+    this.source = source;
+    this.valueStart = valueStart;
+    this.valueEnd = valueEnd;
   }
 
   public TokenType getType() {
@@ -50,16 +76,31 @@ public class Token {
   }
 
   public String getValue() {
+    // Racing threads would only create equal strings, which is why this does not need to be synchronized
+    if (value == null)
+      value = materializeValue();
+
     return value;
   }
 
+  private String materializeValue() {
+    // Constant sequences always share their representation, no matter how they have been cased
+    if (type.isConstantSequence())
+      return type.getRepresentation();
+
+    if (type == TokenType.STRING)
+      return TableDrivenTokenReader.unescapeString(source, valueStart, valueEnd);
+
+    return new String(source, valueStart, valueEnd - valueStart);
+  }
+
   @Override
   public String toString() {
     return "Token{" +
       "type=" + type + " (" + type.getCategory() + ")" +
       ", row=" + row +
       ", col=" + col +
-      ", value='" + value + '\'' +
+      ", value='" + getValue() + '\'' +
       '}';
   }
 }
@@ -38,15 +38,15 @@ public enum TokenType {
   //                                 Literals                                //
   //=========================================================================//
 
-  TRUE(TokenCategory.LITERAL, "true", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, "true".toCharArray())),
-  FALSE(TokenCategory.LITERAL, "false", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, "false".toCharArray())),
-  NULL(TokenCategory.LITERAL, "null", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, "null".toCharArray())),
+  TRUE(TokenCategory.LITERAL, "true"),
+  FALSE(TokenCategory.LITERAL, "false"),
+  NULL(TokenCategory.LITERAL, "null"),
 
   //=========================================================================//
   //                                  Values                                 //
   //=========================================================================//
 
-  IDENTIFIER(TokenCategory.VALUE, null, tokenizer -> {
+  IDENTIFIER(TokenCategory.VALUE, tokenizer -> {
     StringBuilder result = new StringBuilder();
 
     char firstChar = tokenizer.nextChar();
@@ -65,7 +65,7 @@ public enum TokenType {
   }),
 
   // -?[0-9]+(e[0-9]+)?
-  LONG(TokenCategory.VALUE, null, tokenizer -> {
+  LONG(TokenCategory.VALUE, tokenizer -> {
     StringBuilder result = new StringBuilder();
 
     // Negative number
@@ -81,7 +81,7 @@ public enum TokenType {
   }),
 
   // -?[0-9]*.?[0-9]+(e-?[0-9]+)?
-  DOUBLE(TokenCategory.VALUE, null, tokenizer -> {
+  DOUBLE(TokenCategory.VALUE, tokenizer -> {
     StringBuilder result = new StringBuilder();
 
     // Negative number
@@ -119,7 +119,7 @@ public enum TokenType {
     return result.toString();
   }),
 
-  STRING(TokenCategory.VALUE, null, tokenizer -> {
+  STRING(TokenCategory.VALUE, tokenizer -> {
     int startRow = tokenizer.getCurrentRow(), startCol = tokenizer.getCurrentCol();
 
     // String start marker not found
@@ -165,35 +165,36 @@ public enum TokenType {
   //                                Operators                                //
   //=========================================================================//
 
-  GREATER_THAN(TokenCategory.OPERATOR, ">", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, c -> c == '=' || c == '%', '>')),
-  GREATER_THAN_OR_EQUAL(TokenCategory.OPERATOR, ">=", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, '>', '=')),
-  LESS_THAN(TokenCategory.OPERATOR, "<", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, c -> c == '=' || c == '%', '<')),
-  LESS_THAN_OR_EQUAL(TokenCategory.OPERATOR, "<=", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, '<', '=')),
-  VALUE_EQUALS(TokenCategory.OPERATOR, "==", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, c -> c == '=', "==".toCharArray())),
-  VALUE_NOT_EQUALS(TokenCategory.OPERATOR, "!=", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, c -> c == '=', "!=".toCharArray())),
+  GREATER_THAN(TokenCategory.OPERATOR, ">", c -> c == '=' || c == '%'),
+  GREATER_THAN_OR_EQUAL(TokenCategory.OPERATOR, ">="),
+  LESS_THAN(TokenCategory.OPERATOR, "<", c -> c == '=' || c == '%'),
+  LESS_THAN_OR_EQUAL(TokenCategory.OPERATOR, "<="),
+  VALUE_EQUALS(TokenCategory.OPERATOR, "==", c -> c == '='),
+  VALUE_NOT_EQUALS(TokenCategory.OPERATOR, "!=", c -> c == '='),
 
   // While the reserved keyword "regex" would "look nicer", having a symbol that does not restrict
   // the identifier values is to be preferred, as fields like "regex" could actually be quite common
-  REGEX_MATCHER(TokenCategory.OPERATOR, "?", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, c -> c == '?', '?')),
-  STARTS_WITH(TokenCategory.OPERATOR, ">%", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, ">%".toCharArray())),
-  ENDS_WITH(TokenCategory.OPERATOR, "<%", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, "<%".toCharArray())),
-  CONTAINS(TokenCategory.OPERATOR, "%", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, c -> c == '%', '%')),
-  CONTAINS_FUZZY(TokenCategory.OPERATOR, "%%", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, "%%".toCharArray())),
+  REGEX_MATCHER(TokenCategory.OPERATOR, "?", c -> c == '?'),
+  STARTS_WITH(TokenCategory.OPERATOR, ">%"),
+  ENDS_WITH(TokenCategory.OPERATOR, "<%"),
+  CONTAINS(TokenCategory.OPERATOR, "%", c -> c == '%'),
+  CONTAINS_FUZZY(TokenCategory.OPERATOR, "%%"),
 
-  BOOL_OR(TokenCategory.JUNCTION, "||", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, "||".toCharArray())),
-  BOOL_AND(TokenCategory.JUNCTION, "&&", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, "&&".toCharArray())),
+  BOOL_OR(TokenCategory.JUNCTION, "||"),
+  BOOL_AND(TokenCategory.JUNCTION, "&&"),
 
   //=========================================================================//
   //                                 Symbols                                 //
   //=========================================================================//
 
-  PARENTHESIS_OPEN(TokenCategory.SYMBOL, "(", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, '(')),
-  PARENTHESIS_CLOSE(TokenCategory.SYMBOL, ")", tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, null, ')')),
+  PARENTHESIS_OPEN(TokenCategory.SYMBOL, "("),
+  PARENTHESIS_CLOSE(TokenCategory.SYMBOL, ")"),
 
   ;
 
   private final TokenCategory category;
-  private final String representation;
+  private final @Nullable String representation;
+  private final @Nullable Function<Character, Boolean> notNextCheck;
   private final FTokenReader tokenReader;
 
   public static final TokenType[] valuesInTrialOrder;
@@ -220,9 +221,38 @@ public enum TokenType {
       .toArray(TokenType[]::new);
   }
 
-  TokenType(TokenCategory category, String representation, FTokenReader tokenReader) {
+  /**
+   * Creates a token type which is made up of a constant sequence of characters
+   * @param category Category of this type
+   * @param representation Sequence of characters to match (case-insensitively)
+   */
+  TokenType(TokenCategory category, String representation) {
+    this(category, representation, (Function<Character, Boolean>) null);
+  }
+
+  /**
+   * Creates a token type which is made up of a constant sequence of characters
+   * @param category Category of this type
+   * @param representation Sequence of characters to match (case-insensitively)
+   * @param notNextCheck Check which rejects the match if it holds for the character right after the sequence
+   */
+  TokenType(TokenCategory category, String representation, @Nullable Function<Character, Boolean> notNextCheck) {
+    this(category, representation, notNextCheck, tokenizer -> tryCollectSequenceWithNextCheck(tokenizer, notNextCheck, representation.toCharArray()));
+  }
+
+  /**
+   * Creates a token type which has a variable value, collected by a custom reader
+   * @param category Category of this type
+   * @param tokenReader Reader used to collect the value
+   */
+  TokenType(TokenCategory category, FTokenReader tokenReader) {
+    this(category, null, null, tokenReader);
+  }
+
+  TokenType(TokenCategory category, @Nullable String representation, @Nullable Function<Character, Boolean> notNextCheck, FTokenReader tokenReader) {
     this.category = category;
     this.representation = representation;
+    this.notNextCheck = notNextCheck;
 
     // Extract out initially checking for EOF for all readers
     this.tokenReader = tokenizer -> {
@@ -238,7 +268,7 @@ public enum TokenType {
     return category;
   }
 
-  public String getRepresentation() {
+  public @Nullable String getRepresentation() {
     return representation;
   }
 
@@ -246,6 +276,18 @@ public enum TokenType {
     return tokenReader;
   }
 
+  /**
+   * Whether this type is made up of the constant sequence of characters
+   * held by it's representation, instead of being collected by a custom reader
+   */
+  public boolean isConstantSequence() {
+    return representation != null;
+  }
+
+  @Nullable Function<Character, Boolean> getNotNextCheck() {
+    return notNextCheck;
+  }
+
   private static void possiblyCollectExponent(ITokenizer tokenizer, StringBuilder result, boolean allowNegativeExponent) {
     if (!tokenizer.hasNextChar() || tokenizer.peekNextChar() != 'e')
       return;
@@ -335,7 +377,7 @@ public enum TokenType {
     return result.toString();
   }
 
-  private static char charToLowerCase(char input) {
+  static char charToLowerCase(char input) {
     // Upper case character, convert to lowercase by shifting over 32 places
     if (input >= 'A' && input <= 'Z')
       input += 32;
@@ -386,7 +428,7 @@ public enum TokenType {
    * @param isFirst Whether it's the first char of the token (special rules apply)
    * @return True if allowed, false otherwise
    */
-  private static boolean isIdentifierChar(char c, boolean isFirst) {
+  static boolean isIdentifierChar(char c, boolean isFirst) {
     return (
       (c >= 'a' && c <= 'z') ||
       (c >= 'A' && c <= 'Z') ||
@@ -399,7 +441,7 @@ public enum TokenType {
    * Checks whether the provided character is a digit
    * @param c Character in question
    */
-  private static boolean isDigit(char c) {
+  static boolean isDigit(char c) {
     return c >= '0' && c <= '9';
   }
 }
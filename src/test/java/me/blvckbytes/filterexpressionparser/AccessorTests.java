@@ -0,0 +1,291 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.evaluator.FFieldReader;
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.INumericFieldReader;
+import me.blvckbytes.filterexpressionparser.evaluator.IPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.ValueComparisons;
+import me.blvckbytes.filterexpressionparser.evaluator.accessor.MapPathAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.accessor.PathAccessorFactory;
+import me.blvckbytes.filterexpressionparser.evaluator.bytecode.BytecodeFilterCompiler;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessorTests {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final FilterExpressionParser PARSER = new FilterExpressionParser(LOGGER);
+  private static final IPredicateCompiler[] COMPILERS = { new FilterPredicateCompiler(LOGGER), new BytecodeFilterCompiler(LOGGER) };
+
+  private static final Object[] NUMBERS = {
+    null, 0L, 3L, 3, (short) 3, 3.0, 3.5F, -0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY, Long.MAX_VALUE, Long.MIN_VALUE,
+    9.007199254740993E15, new BigDecimal("3.25"), "3", true
+  };
+
+  @Test
+  public void shouldReadGettersFieldsAndRecordStyleAccessors() {
+    PathAccessorFactory factory = new PathAccessorFactory();
+    Owner owner = new Owner("Steve", 42, true, new Address("Vienna", 1010));
+
+    assertEquals("Steve", factory.resolve(Owner.class, "name").read(owner));
+    assertEquals(42, factory.resolve(Owner.class, "age").read(owner));
+    assertEquals(true, factory.resolve(Owner.class, "active").read(owner));
+    assertEquals("Vienna", factory.resolve(Owner.class, "address.city").read(owner));
+    assertEquals(1010L, factory.resolve(Owner.class, "address.zip").read(owner));
+  }
+
+  @Test
+  public void shouldTraverseNullSafely() {
+    PathAccessorFactory factory = new PathAccessorFactory();
+    Owner homeless = new Owner("Alex", 20, false, null);
+
+    assertNull(factory.resolve(Owner.class, "address.city").read(homeless));
+    assertNull(factory.resolve(Owner.class, "address.zip").read(homeless));
+    assertNull(factory.resolve(Owner.class, "name").read(null));
+    assertNull(factory.resolve(Owner.class, "address.city").read(null));
+  }
+
+  @Test
+  public void shouldResolveAgainstRuntimeClasses() {
+    PathAccessorFactory factory = new PathAccessorFactory();
+    FFieldReader<Holder> reader = factory.resolve(Holder.class, "content.city");
+
+    assertEquals("Graz", reader.read(new Holder(new Address("Graz", 8010))));
+    assertNull(reader.read(new Holder("not an address")));
+    assertNull(reader.read(new Holder(null)));
+
+    // Implementations which are not public are read through their public interface
+    assertEquals(3, factory.resolve(Holder.class, "content.size").read(new Holder(new HiddenSized())));
+    assertEquals(1, factory.resolve(Holder.class, "content.size").read(new Holder(Collections.singletonList(5))));
+  }
+
+  @Test
+  public void shouldCacheReadersPerClassAndPath() {
+    PathAccessorFactory factory = new PathAccessorFactory();
+
+    assertSame(factory.resolve(Owner.class, "address.city"), factory.resolve(Owner.class, "address.city"));
+    assertSame(factory.forClass(Owner.class).resolve("age"), factory.forClass(Owner.class).resolve("age"));
+    assertNotSame(factory.resolve(Owner.class, "name"), factory.resolve(Address.class, "city"));
+  }
+
+  @Test
+  public void shouldRejectUnknownMembers() {
+    PathAccessorFactory factory = new PathAccessorFactory();
+
+    assertThrows(IllegalArgumentException.class, () -> factory.resolve(Owner.class, "missing"));
+    assertThrows(IllegalArgumentException.class, () -> factory.resolve(Owner.class, "address.missing"));
+    assertThrows(IllegalArgumentException.class, () -> factory.resolve(Owner.class, "address..city"));
+    assertThrows(IllegalArgumentException.class, () -> factory.resolve(Owner.class, "age.value"));
+  }
+
+  @Test
+  public void shouldEvaluateNestedPaths() {
+    IFieldAccessor<Owner> accessor = PathAccessorFactory.getShared().forClass(Owner.class);
+
+    Owner[] owners = {
+      new Owner("Steve", 42, true, new Address("Vienna", 1010)),
+      new Owner("Alex", 20, false, new Address("Graz", 8010)),
+      new Owner("Notch", 44, true, null)
+    };
+
+    for (IPredicateCompiler compiler : COMPILERS) {
+      assertMatches(compiler, accessor, "address.city == \"Vienna\"", owners, true, false, false);
+      assertMatches(compiler, accessor, "address.zip > 5000 || active == true", owners, true, true, true);
+      assertMatches(compiler, accessor, "address.city != \"vienna\"i && age < 43", owners, false, true, false);
+      assertMatches(compiler, accessor, "address == null", owners, false, false, true);
+      assertMatches(compiler, accessor, "name % \"e\" && address.zip < 2000", owners, true, false, false);
+    }
+  }
+
+  @Test
+  public void shouldReadNestedMaps() {
+    MapPathAccessor accessor = new MapPathAccessor();
+    Map<String, Object> record = record("id", 7L, "meta", record("tags", record("primary", "gold"), "scores", "none"));
+
+    assertEquals(7L, accessor.resolve("id").read(record));
+    assertEquals("gold", accessor.resolve("meta.tags.primary").read(record));
+    assertNull(accessor.resolve("meta.tags.secondary").read(record));
+    assertNull(accessor.resolve("meta.scores.best").read(record));
+    assertNull(accessor.resolve("meta.missing.primary").read(record));
+    assertNull(accessor.resolve("id.value").read(record));
+    assertSame(accessor.resolve("meta.tags.primary"), accessor.resolve("meta.tags.primary"));
+  }
+
+  @Test
+  public void shouldCompareNestedNumbersLikeValueComparisons() {
+    MapPathAccessor accessor = new MapPathAccessor();
+    INumericFieldReader<Map<String, Object>> reader = (INumericFieldReader<Map<String, Object>>) accessor.resolve("meta.value");
+
+    for (Object number : NUMBERS) {
+      Map<String, Object> record = record("meta", record("value", number));
+
+      for (long constant : new long[] { -1, 0, 3, 4, Long.MAX_VALUE })
+        assertEquals(ValueComparisons.compareToLong(number, constant), reader.compareToLong(record, constant), number + " against " + constant);
+
+      for (double constant : new double[] { -0.0, 0.0, 3.0, 3.25, Double.NaN, Double.POSITIVE_INFINITY })
+        assertEquals(ValueComparisons.compareToDouble(number, constant), reader.compareToDouble(record, constant), number + " against " + constant);
+    }
+  }
+
+  @Test
+  public void shouldCompileNumericComparisonsAgainstNumericReaders() {
+    String[] inputs = { "meta.value > 2", "meta.value <= 3.0", "meta.value != 3", "meta.value == 3.5 || meta.value < -1" };
+
+    // Reading the value as an object is not supported, so that only the numeric comparisons may pass
+    IFieldAccessor<Map<String, Object>> numericOnly = identifier -> new INumericFieldReader<Map<String, Object>>() {
+
+      private final INumericFieldReader<Map<String, Object>> reader = (INumericFieldReader<Map<String, Object>>) new MapPathAccessor().resolve(identifier);
+
+      @Override
+      public Object read(Map<String, Object> target) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public int compareToLong(Map<String, Object> target, long other) {
+        return reader.compareToLong(target, other);
+      }
+
+      @Override
+      public int compareToDouble(Map<String, Object> target, double other) {
+        return reader.compareToDouble(target, other);
+      }
+    };
+
+    IFieldAccessor<Map<String, Object>> flatAccessor = identifier -> target -> ((Map<?, ?>) target.get("meta")).get("value");
+
+    for (IPredicateCompiler compiler : COMPILERS) {
+      for (String input : inputs) {
+        Predicate<Map<String, Object>> predicate = compiler.compile(PARSER.parse(new FilterExpressionTokenizer(LOGGER, input)), numericOnly);
+        Predicate<Map<String, Object>> expected = compiler.compile(PARSER.parse(new FilterExpressionTokenizer(LOGGER, input)), flatAccessor);
+
+        for (Object number : NUMBERS) {
+          Map<String, Object> record = record("meta", record("value", number));
+          assertEquals(expected.test(record), predicate.test(record), input + " on " + number);
+        }
+      }
+    }
+  }
+
+  private void assertMatches(IPredicateCompiler compiler, IFieldAccessor<Owner> accessor, String input, Owner[] owners, boolean... expected) {
+    Predicate<Owner> predicate = compiler.compile(PARSER.parse(new FilterExpressionTokenizer(LOGGER, input)), accessor);
+
+    for (int i = 0; i < owners.length; i++)
+      assertEquals(expected[i], predicate.test(owners[i]), input + " on " + owners[i].getName());
+  }
+
+  private Map<String, Object> record(Object... keysAndValues) {
+    Map<String, Object> result = new HashMap<>();
+
+    for (int i = 0; i < keysAndValues.length; i += 2)
+      result.put((String) keysAndValues[i], keysAndValues[i + 1]);
+
+    return result;
+  }
+
+  public static class Owner {
+
+    private final String name;
+    private final int age;
+    private final boolean active;
+    private final Address address;
+
+    public Owner(String name, int age, boolean active, Address address) {
+      this.name = name;
+      this.age = age;
+      this.active = active;
+      this.address = address;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getAge() {
+      return age;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public Address getAddress() {
+      return address;
+    }
+  }
+
+  public static final class Address {
+
+    public final String city;
+    private final long zip;
+
+    public Address(String city, long zip) {
+      this.city = city;
+      this.zip = zip;
+    }
+
+    public long zip() {
+      return zip;
+    }
+  }
+
+  public static class Holder {
+
+    private final Object content;
+
+    public Holder(Object content) {
+      this.content = content;
+    }
+
+    public Object getContent() {
+      return content;
+    }
+  }
+
+  public interface Sized {
+    int getSize();
+  }
+
+  private static class HiddenSized implements Sized {
+
+    @Override
+    public int getSize() {
+      return 3;
+    }
+  }
+}
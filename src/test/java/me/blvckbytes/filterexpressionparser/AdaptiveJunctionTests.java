@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.cache.PatternCache;
+import me.blvckbytes.filterexpressionparser.evaluator.AdaptiveJunction;
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.FuzzyMatcher;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveJunctionTests extends TestsBase {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldMoveShortCircuitingOperandsFirst() {
+    Predicate<Object>[] operands = new Predicate[] { target -> true, target -> true, target -> false };
+
+    AdaptiveJunction<Object> conjunction = new AdaptiveJunction<>(operands, true, AdaptiveJunction.SAMPLING_INTERVAL);
+    AdaptiveJunction<Object> disjunction = new AdaptiveJunction<>(operands, false, AdaptiveJunction.SAMPLING_INTERVAL);
+
+    for (int i = 0; i < 10_000; i++) {
+      assertFalse(conjunction.test(null));
+      assertTrue(disjunction.test(null));
+    }
+
+    assertEquals(2, conjunction.getOrder()[0]);
+    assertNotEquals(2, disjunction.getOrder()[0]);
+  }
+
+  @Test
+  public void shouldEvaluateConcurrently() throws Exception {
+    ABinaryFilterExpression<?, ?> expression = parse(
+      "(deleted == null && active == true && price < 2) || (name <% \"7\" && (price > 8 || weight < 1.5))"
+    );
+
+    Predicate<Map<String, Object>> expected = COMPILER.compile(expression, MAP_ACCESSOR);
+    Predicate<Map<String, Object>> adaptive = new FilterPredicateCompiler(
+      LOGGER, PatternCache.getShared(), FuzzyMatcher.DEFAULT_MAXIMUM_EDITS, true, 256
+    ).compile(expression, MAP_ACCESSOR);
+
+    List<Map<String, Object>> records = new ArrayList<>();
+    Random random = new Random(0);
+
+    for (int i = 0; i < 5000; i++) {
+      Map<String, Object> record = new HashMap<>();
+      record.put("name", "item" + i);
+      record.put("price", (long) random.nextInt(10));
+      record.put("weight", random.nextDouble() * 10);
+      record.put("active", random.nextInt(10) != 0);
+      record.put("deleted", random.nextInt(10) == 0 ? "yes" : null);
+      records.add(record);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+
+      for (int thread = 0; thread < 8; thread++) {
+        futures.add(executor.submit(() -> {
+          for (int round = 0; round < 20; round++) {
+            for (Map<String, Object> record : records)
+              assertEquals(expected.test(record), adaptive.test(record), record.toString());
+          }
+        }));
+      }
+
+      for (Future<?> future : futures)
+        future.get();
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
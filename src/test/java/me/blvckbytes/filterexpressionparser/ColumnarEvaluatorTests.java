@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.error.UnsupportedComparisonError;
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.columnar.*;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarEvaluatorTests {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final FilterExpressionParser PARSER = new FilterExpressionParser(LOGGER);
+  private static final FilterPredicateCompiler COMPILER = new FilterPredicateCompiler(LOGGER);
+  private static final ColumnarFilterEvaluator EVALUATOR = new ColumnarFilterEvaluator(LOGGER);
+
+  private static final String[] COLORS = { "purple", "Purple", "gold", " gold", null };
+  private static final double[] WEIGHTS = { -0.0, 0.0, 2.5, -1.5, Double.NaN, 8, Double.POSITIVE_INFINITY };
+
+  @Test
+  public void shouldMatchPredicateSemantics() {
+    String[] inputs = {
+      "price < 5", "price <= 4", "price > 4", "price >= 4", "price == 3", "price != 3",
+      "price < 4.5", "price >= 4.0", "price == 3.0", "price != 0.0", "price > -0.0",
+      "weight < 2.5", "weight <= 2.5", "weight > 2.5", "weight >= 8", "weight == 8", "weight != 2.5",
+      "weight == 0.0", "weight == -0.0", "weight < 0", "weight > 0.0", "weight >= -0.0",
+      "price == null", "price != null", "weight == null", "color != null", "missing == null", "missing != null",
+      "missing == 5", "missing != 5", "missing < \"a\"",
+      "color == \"purple\"", "color != \"purple\"", "color == \"purple\"i", "color == \"gold\"t",
+      "color >% \"p\"i", "color > \"gold\"", "color == 5", "price == \"3\"",
+      "price > weight", "price == weight", "color == color",
+      "price < 5 && weight > 0 && color == \"purple\"",
+      "price > 8 || weight == 2.5 || color == null",
+      "(price < 3 || price > 9) && (weight != 8 || color % \"ol\")",
+      "price < 0 && color ? \"x\"",
+      "price >= 0 || price == null || color ? \"x\"",
+    };
+
+    Random random = new Random(0);
+
+    for (int rowCount : new int[] { 0, 1, 63, 64, 65, 200 }) {
+      List<Map<String, Object>> rows = new ArrayList<>();
+      long[] prices = new long[rowCount], priceNulls = Bitmaps.create(rowCount);
+      double[] weights = new double[rowCount];
+      long[] weightNulls = Bitmaps.create(rowCount);
+      String[] colors = new String[rowCount];
+
+      for (int row = 0; row < rowCount; row++) {
+        Map<String, Object> record = new HashMap<>();
+
+        // Null rows still hold arbitrary values, which have to be ignored
+        prices[row] = random.nextInt(12);
+        weights[row] = WEIGHTS[random.nextInt(WEIGHTS.length)];
+        colors[row] = COLORS[random.nextInt(COLORS.length)];
+
+        if (random.nextInt(6) == 0)
+          Bitmaps.set(priceNulls, row);
+        else
+          record.put("price", prices[row]);
+
+        if (random.nextInt(6) == 0)
+          Bitmaps.set(weightNulls, row);
+        else
+          record.put("weight", weights[row]);
+
+        record.put("color", colors[row]);
+        rows.add(record);
+      }
+
+      Map<String, AColumn> columns = new HashMap<>();
+      columns.put("price", new LongColumn(prices, priceNulls));
+      columns.put("weight", new DoubleColumn(weights, weightNulls));
+      columns.put("color", new StringColumn(colors));
+
+      ColumnBatch batch = new ColumnBatch(rowCount, columns);
+
+      for (String input : inputs) {
+        Predicate<Map<String, Object>> predicate = COMPILER.compile(parse(input), identifier -> target -> target.get(identifier));
+        long[] expected = Bitmaps.create(rowCount);
+
+        for (int row = 0; row < rowCount; row++) {
+          if (predicate.test(rows.get(row)))
+            Bitmaps.set(expected, row);
+        }
+
+        assertArrayEquals(expected, EVALUATOR.evaluate(parse(input), batch), "Results differ for " + input + " on " + rowCount + " rows");
+      }
+    }
+  }
+
+  @Test
+  public void shouldIgnoreRowsPastTheBatch() {
+    long[] nulls = Bitmaps.create(128);
+    Bitmaps.setRange(nulls, 0, 127);
+
+    ColumnBatch batch = new ColumnBatch(3, Collections.singletonMap("price", new LongColumn(new long[128], nulls)));
+
+    assertArrayEquals(new long[] { 0b111 }, EVALUATOR.evaluate(parse("price == null"), batch));
+    assertArrayEquals(new long[] { 0b111 }, EVALUATOR.evaluate(parse("price != 5"), batch));
+    assertArrayEquals(new long[] { 0 }, EVALUATOR.evaluate(parse("price != null"), batch));
+  }
+
+  @Test
+  public void shouldRejectUnsupportedComparisons() {
+    ColumnBatch batch = new ColumnBatch(1, Collections.singletonMap("price", new LongColumn(new long[] { 1 })));
+
+    assertThrows(UnsupportedComparisonError.class, () -> EVALUATOR.evaluate(parse("price > true"), batch));
+    assertThrows(UnsupportedComparisonError.class, () -> EVALUATOR.evaluate(parse("price %% 5"), batch));
+  }
+
+  @Test
+  public void shouldRejectMismatchingColumns() {
+    assertThrows(IllegalArgumentException.class, () -> new ColumnBatch(2, Collections.singletonMap("price", new LongColumn(new long[] { 1 }))));
+  }
+
+  private ABinaryFilterExpression<?, ?> parse(String input) {
+    return PARSER.parse(new FilterExpressionTokenizer(LOGGER, input));
+  }
+}
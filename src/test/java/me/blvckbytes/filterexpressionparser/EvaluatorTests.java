@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.error.InvalidPatternError;
+import me.blvckbytes.filterexpressionparser.error.UnsupportedComparisonError;
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.IPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.bytecode.BytecodeFilterCompiler;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluatorTests {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final FilterExpressionParser PARSER = new FilterExpressionParser(LOGGER);
+  private static final IPredicateCompiler[] COMPILERS = { new FilterPredicateCompiler(LOGGER), new BytecodeFilterCompiler(LOGGER) };
+  private static final IFieldAccessor<Map<String, Object>> MAP_ACCESSOR = identifier -> target -> target.get(identifier);
+
+  @Test
+  public void shouldEvaluateNumbers() {
+    Map<String, Object> item = record("price", 4, "weight", 2.5, "height", 2.5);
+
+    assertTrue(evaluate("price < 5", item));
+    assertTrue(evaluate("price <= 4 && price >= 4.0", item));
+    assertFalse(evaluate("price > 4", item));
+    assertTrue(evaluate("weight == 2.5 && weight != 3", item));
+    assertTrue(evaluate("weight == height && price > weight", item));
+    assertFalse(evaluate("missing < 5 || missing >= 5", item));
+    assertTrue(evaluate("missing != 5", item));
+  }
+
+  @Test
+  public void shouldEvaluateStrings() {
+    Map<String, Object> item = record("color", "Purple", "name", "  User  ");
+
+    assertTrue(evaluate("color == \"Purple\"", item));
+    assertFalse(evaluate("color == \"purple\"", item));
+    assertTrue(evaluate("color == \"purple\"i", item));
+    assertTrue(evaluate("name == \"User\"t && name != \"User\"", item));
+    assertTrue(evaluate("color >% \"pur\"i && color <% \"PLE\"i && color % \"rpl\"", item));
+    assertFalse(evaluate("color >% \"pur\" || color % \"RPL\"", item));
+    assertTrue(evaluate("color ? \"^p.+e$\"i && color ? \"rp\"", item));
+    assertTrue(evaluate("color > \"Orange\" && color < \"Red\"", item));
+  }
+
+  @Test
+  public void shouldEvaluateFuzzySearches() {
+    Map<String, Object> item = record("description", "A shiny golden bar", "code", "  ab  ");
+
+    assertTrue(evaluate("description %% \"golden\"", item));
+    assertTrue(evaluate("description %% \"gloden\" && description %% \"shinny\"", item));
+    assertFalse(evaluate("description %% \"silver\"", item));
+    assertTrue(evaluate("description %% \"GOLDN\"i", item));
+    assertFalse(evaluate("description %% \"GOLDN\"", item));
+    assertTrue(evaluate("code %% \"ab\"t && code %% \"ab\"", item));
+    assertFalse(evaluate("code %% \"ax\" || missing %% \"\"", item));
+  }
+
+  @Test
+  public void shouldEvaluateLiteralsAndJunctions() {
+    Map<String, Object> item = record("active", true, "deleted", null, "color", "gold", "price", 9L);
+
+    assertTrue(evaluate("active == true && deleted == null && color != null", item));
+    assertFalse(evaluate("active == false || deleted != null", item));
+    assertTrue(evaluate("color==\"purple\"&&price<5||color==\"gold\"&&price<10", item));
+    assertFalse(evaluate("(color==\"purple\"||color==\"gold\")&&price<5", item));
+  }
+
+  @Test
+  public void shouldEvaluateExpressionsExceedingGeneratedMethods() {
+    StringBuilder input = new StringBuilder("price == 0");
+
+    for (int i = 1; i < 4000; i++)
+      input.append(" || price == ").append(i);
+
+    assertTrue(evaluate(input.toString(), record("price", 3999)));
+    assertFalse(evaluate(input.toString(), record("price", 4000)));
+  }
+
+  @Test
+  public void shouldRejectUnsupportedComparisons() {
+    assertUnsupported("active > true");
+    assertUnsupported("name ? other");
+    assertUnsupported("price % 5");
+  }
+
+  @Test
+  public void shouldRejectInvalidPatternsWhileParsing() {
+    assertThrows(InvalidPatternError.class, () -> parse("name ? \"[a-\""));
+  }
+
+  private void assertUnsupported(String input) {
+    for (IPredicateCompiler compiler : COMPILERS)
+      assertThrows(UnsupportedComparisonError.class, () -> compiler.compile(parse(input), MAP_ACCESSOR));
+  }
+
+  private boolean evaluate(String input, Map<String, Object> item) {
+    ABinaryFilterExpression<?, ?> expression = parse(input);
+    boolean result = COMPILERS[0].compile(expression, MAP_ACCESSOR).test(item);
+
+    for (int i = 1; i < COMPILERS.length; i++)
+      assertEquals(result, COMPILERS[i].compile(expression, MAP_ACCESSOR).test(item), "Compilers disagree on " + input);
+
+    return result;
+  }
+
+  private ABinaryFilterExpression<?, ?> parse(String input) {
+    return PARSER.parse(new FilterExpressionTokenizer(LOGGER, input));
+  }
+
+  private Map<String, Object> record(Object... keysAndValues) {
+    Map<String, Object> result = new HashMap<>();
+
+    for (int i = 0; i < keysAndValues.length; i += 2)
+      result.put((String) keysAndValues[i], keysAndValues[i + 1]);
+
+    return result;
+  }
+}
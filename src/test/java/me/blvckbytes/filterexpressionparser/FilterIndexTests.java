@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.index.FilterIndex;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilterIndexTests extends TestsBase {
+
+  private static final String[] COMPARISONS = {
+    "a == 3", "a < 3", "a <= 3", "a > 3", "a >= 3", "a != 3", "a == 2.5", "a < 2.5", "a >= 2.5", "a > -1",
+    "b == 1", "b < 1", "b >= 0.5", "b > 2147483647", "b <= -0.0", "b < 0",
+    "c == \"x\"", "c == \"X\"i", "c == \"x\"t", "c == \"x\"it", "c == \"3\"", "c % \"y\"", "c >% \"x\"i",
+    "d == true", "d == false", "d == null", "d != null", "d != true", "a == b"
+  };
+
+  private static final Object[] VALUES = {
+    null, 0L, 3L, 2, 7L, -5L, 2.5, 3.0, -0.0, 0.0, 0.5, Double.NaN, Double.POSITIVE_INFINITY, 9.007199254740992E15,
+    9007199254740993L, Long.MAX_VALUE, Long.MIN_VALUE, "x", "X", " x ", "  X", "xy", "3", true, false
+  };
+
+  @Test
+  public void shouldMatchLikeCompiledFilters() throws AParserError {
+    Random random = new Random(0);
+    FilterIndex<Integer, Map<String, Object>> index = new FilterIndex<>(LOGGER, MAP_ACCESSOR);
+    Map<Integer, Predicate<Map<String, Object>>> predicates = new HashMap<>();
+
+    for (int i = 0; i < 500; i++) {
+      ABinaryFilterExpression<?, ?> expression = parse(randomFilter(random, 3, COMPARISONS));
+      index.register(i, expression);
+      predicates.put(i, COMPILER.compile(expression, MAP_ACCESSOR));
+    }
+
+    // Removed filters must not match anymore, while re-registered ones match by their latest expression
+    for (int i = 0; i < 100; i++) {
+      assertTrue(index.remove(i));
+      predicates.remove(i);
+    }
+
+    for (int i = 100; i < 150; i++) {
+      ABinaryFilterExpression<?, ?> expression = parse(randomFilter(random, 3, COMPARISONS));
+      index.register(i, expression);
+      predicates.put(i, COMPILER.compile(expression, MAP_ACCESSOR));
+    }
+
+    assertFalse(index.remove(0));
+    assertEquals(400, index.size());
+
+    assertMatchesLikePredicates(predicates, randomRecords(random, 5000, VALUES, "a", "b", "c", "d"), index::match);
+  }
+
+  @Test
+  public void shouldMatchMergedRanges() throws AParserError {
+    Random random = new Random(0);
+    FilterIndex<Integer, Map<String, Object>> index = new FilterIndex<>(LOGGER, MAP_ACCESSOR);
+    Map<Integer, Predicate<Map<String, Object>>> predicates = new HashMap<>();
+
+    for (int i = 0; i < 2000; i++) {
+      int low = random.nextInt(100);
+      String input = "x " + (random.nextBoolean() ? ">" : ">=") + " " + low + " && x " + (random.nextBoolean() ? "<" : "<=") + " " + (low + random.nextInt(20)) + ".5";
+
+      if (random.nextBoolean())
+        input += " && x > " + random.nextInt(100) + " && y <= 50";
+
+      ABinaryFilterExpression<?, ?> expression = parse(input);
+      index.register(i, expression);
+      predicates.put(i, COMPILER.compile(expression, MAP_ACCESSOR));
+    }
+
+    List<Map<String, Object>> records = new ArrayList<>();
+
+    for (int i = 0; i < 1000; i++) {
+      Map<String, Object> record = new HashMap<>();
+      record.put("x", random.nextBoolean() ? (Object) (long) random.nextInt(120) : (Object) (random.nextInt(240) / 2.0));
+      record.put("y", (long) random.nextInt(100));
+      records.add(record);
+    }
+
+    assertMatchesLikePredicates(predicates, records, index::match);
+  }
+
+  @Test
+  public void shouldRegisterWhileMatching() throws Exception {
+    FilterIndex<Integer, Map<String, Object>> index = new FilterIndex<>(LOGGER, MAP_ACCESSOR);
+    ABinaryFilterExpression<?, ?> alwaysMatching = parse("a == 1 && b >= 2 && c == \"x\"");
+    ABinaryFilterExpression<?, ?> neverMatching = parse("a == 1 && b < 2");
+
+    Map<String, Object> record = new HashMap<>();
+    record.put("a", 1L);
+    record.put("b", 2.0);
+    record.put("c", "x");
+
+    index.register(-1, alwaysMatching);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      Future<?> writer = executor.submit(() -> {
+        for (int i = 0; i < 20_000; i++) {
+          index.register(i % 50, i % 2 == 0 ? alwaysMatching : neverMatching);
+
+          if (i % 3 == 0)
+            index.remove((i + 25) % 50);
+        }
+      });
+
+      List<Future<?>> readers = new ArrayList<>();
+
+      for (int thread = 0; thread < 3; thread++) {
+        readers.add(executor.submit(() -> {
+          while (!writer.isDone())
+            assertTrue(index.match(record).contains(-1));
+        }));
+      }
+
+      writer.get();
+
+      for (Future<?> reader : readers)
+        reader.get();
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
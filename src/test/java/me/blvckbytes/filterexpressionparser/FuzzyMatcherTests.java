@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.evaluator.FuzzyMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FuzzyMatcherTests {
+
+  private static final char[] ALPHABET = { 'a', 'b', 'c', 'A', 'B', 'é', 'É', 'Ω', 'ω' };
+
+  @Test
+  public void shouldMatchEditDistances() {
+    Random random = new Random(0);
+
+    for (int i = 0; i < 20_000; i++) {
+      String needle = randomString(random, random.nextInt(4) == 0 ? random.nextInt(200) : random.nextInt(12));
+      String value = randomString(random, random.nextInt(needle.length() + 8));
+      boolean ignoreCase = random.nextBoolean();
+      int maximumEdits = random.nextInt(needle.length() / 3 + 2);
+
+      FuzzyMatcher matcher = new FuzzyMatcher(needle, ignoreCase, maximumEdits);
+
+      assertEquals(
+        minimumSubstringDistance(needle, value, ignoreCase) <= matcher.getMaximumEdits(), matcher.find(value),
+        "Results differ for \"" + needle + "\" within \"" + value + "\" at " + matcher.getMaximumEdits() + " edits"
+      );
+    }
+  }
+
+  @Test
+  public void shouldLimitEditsByNeedleLength() {
+    assertEquals(0, new FuzzyMatcher("ab", false, 2).getMaximumEdits());
+    assertEquals(1, new FuzzyMatcher("gold", false, 2).getMaximumEdits());
+    assertEquals(2, new FuzzyMatcher("golden bar", false, 2).getMaximumEdits());
+    assertEquals(1, new FuzzyMatcher("golden bar", false, 1).getMaximumEdits());
+
+    assertFalse(new FuzzyMatcher("ab", false, 2).find("axb"));
+    assertTrue(new FuzzyMatcher("", false, 2).find(""));
+  }
+
+  private String randomString(Random random, int length) {
+    StringBuilder result = new StringBuilder();
+
+    for (int i = 0; i < length; i++)
+      result.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+
+    return result.toString();
+  }
+
+  /**
+   * Smallest edit distance of the needle to any substring of the value, computed by the full table
+   */
+  private int minimumSubstringDistance(String needle, String value, boolean ignoreCase) {
+    int[] previous = new int[needle.length() + 1], current = new int[needle.length() + 1];
+    int result = needle.length();
+
+    for (int i = 0; i <= needle.length(); i++)
+      previous[i] = i;
+
+    for (int j = 1; j <= value.length(); j++) {
+      current[0] = 0;
+
+      for (int i = 1; i <= needle.length(); i++) {
+        boolean isEqual = ignoreCase
+          ? needle.substring(i - 1, i).equalsIgnoreCase(value.substring(j - 1, j))
+          : needle.charAt(i - 1) == value.charAt(j - 1);
+
+        current[i] = Math.min(Math.min(current[i - 1], previous[i]) + 1, previous[i - 1] + (isEqual ? 0 : 1));
+      }
+
+      result = Math.min(result, current[needle.length()]);
+
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.index.IndexedCollection;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedCollectionTests extends TestsBase {
+
+  private static final String[] COMPARISONS = {
+    "a == 3", "a < 3", "a <= 3", "a > 3", "a >= 2.5", "a == 2.5", "a == -0.0", "a != 3", "a == \"3\"", "a == null",
+    "b == 1", "b > 0.5", "b <= 0", "b == \"x\"it", "b == \"X\"i", "b == \"x\"", "b == true", "b % \"x\"",
+    "c == 3", "c < 3", "c == false", "c == null", "a == c"
+  };
+
+  private static final String[] STRING_COMPARISONS = {
+    "s % \"abc\"", "s % \"ABC\"i", "s % \"ab\"", "s >% \"abca\"t", "s <% \"bca\"i", "s % \"kab\"i", "s % \"\u017fab\"i",
+    "s ? \"ab+c\"", "s ? \"a.bc\"", "s ? \"(ab|cd)abc\"", "s ? \"abc|bca\"", "s ? \"abc?a\"", "s ? \"ab[c]ab\"",
+    "s ? \"ABC\"i", "s ? \"^ab{0,1}cab\"", "s ? \"bca*b\"", "s ? \"(?i)abc\"", "s ? \"Kab\"i", "a == 3", "a == \"x\""
+  };
+
+  private static final String[] BITMAP_COMPARISONS = {
+    "a == \"x\"", "a != \"x\"", "a == \"X\"i", "a != \"x\"t", "a == 3", "a != 3", "a == -5", "a == true", "a != false",
+    "a == null", "a != null", "r == 3", "r != 7", "r == \"3\"", "r != null", "r == \" x \"", "a < 3", "c == 3"
+  };
+
+  private static final String STRING_CHARACTERS = "abcABC .kK\u212a\u017fs";
+
+  private static final Object[] VALUES = {
+    null, 0L, 3L, 3, 3.0, 7L, -5L, 2.5, -0.0, 0.0, 0.5, Double.NaN, Double.NEGATIVE_INFINITY, 9.007199254740993E15,
+    Long.MAX_VALUE, "x", "X", " x ", "3", true, false
+  };
+
+  @Test
+  public void shouldFilterLikeCompiledFilters() throws AParserError {
+    Random random = new Random(0);
+    IndexedCollection<Map<String, Object>> collection = new IndexedCollection<>(LOGGER, MAP_ACCESSOR);
+    List<Map<String, Object>> records = randomRecords(random, 2000, VALUES, "a", "b", "c");
+
+    // Indexes are added before and after objects, where c remains without any index
+    collection.addHashIndex("a");
+    collection.addSortedIndex("b");
+    collection.addAll(records);
+
+    collection.addSortedIndex("a");
+    collection.addHashIndex("b");
+
+    assertFiltersLikeCompiled(random, 2000, COMPARISONS, records, collection::filter);
+  }
+
+  @Test
+  public void shouldNarrowStringComparisonsLikeCompiledFilters() throws AParserError {
+    Random random = new Random(0);
+    IndexedCollection<Map<String, Object>> collection = new IndexedCollection<>(LOGGER, MAP_ACCESSOR);
+    List<Map<String, Object>> records = new ArrayList<>();
+
+    collection.addTrigramIndex("s");
+    collection.addHashIndex("a");
+
+    for (int i = 0; i < 2000; i++) {
+      Map<String, Object> record = new HashMap<>();
+      record.put("s", random.nextInt(20) == 0 ? null : randomString(random));
+      record.put("a", VALUES[random.nextInt(VALUES.length)]);
+
+      records.add(record);
+      collection.add(record);
+    }
+
+    assertFiltersLikeCompiled(random, 2000, STRING_COMPARISONS, records, collection::filter);
+  }
+
+  @Test
+  public void shouldLookUpBitmapsLikeCompiledFilters() throws AParserError {
+    Random random = new Random(0);
+    IndexedCollection<Map<String, Object>> collection = new IndexedCollection<>(LOGGER, MAP_ACCESSOR);
+    List<Map<String, Object>> records = new ArrayList<>();
+
+    // Spans multiple chunks, where a is mostly "x" within dense containers and r consists of long runs
+    collection.addBitmapIndex("a");
+
+    for (int i = 0; i < 150_000; i++) {
+      Map<String, Object> record = new HashMap<>();
+      record.put("a", random.nextInt(4) == 0 ? VALUES[random.nextInt(VALUES.length)] : "x");
+      record.put("r", VALUES[(i / 5000) % VALUES.length]);
+      record.put("c", VALUES[random.nextInt(VALUES.length)]);
+
+      records.add(record);
+      collection.add(record);
+    }
+
+    collection.addBitmapIndex("r");
+
+    assertFiltersLikeCompiled(random, 300, BITMAP_COMPARISONS, records, collection::filter);
+  }
+
+  private String randomString(Random random) {
+    StringBuilder result = new StringBuilder();
+    int length = random.nextInt(10);
+
+    for (int i = 0; i < length; i++)
+      result.append(STRING_CHARACTERS.charAt(random.nextInt(STRING_CHARACTERS.length())));
+
+    return result.toString();
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.cache.PatternCache;
+import me.blvckbytes.filterexpressionparser.error.InvalidPatternError;
+import me.blvckbytes.filterexpressionparser.error.UnsupportedPatternError;
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.ParserMode;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.parser.expression.StringExpression;
+import me.blvckbytes.filterexpressionparser.regex.IRegexMatcher;
+import me.blvckbytes.filterexpressionparser.regex.LinearRegexCompiler;
+import me.blvckbytes.filterexpressionparser.regex.RegexBackend;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import me.blvckbytes.filterexpressionparser.tokenizer.Token;
+import me.blvckbytes.filterexpressionparser.tokenizer.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinearRegexTests {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+
+  private static final String[] ATOMS = {
+    "a", "b", "A", "é", "É", ".", "\\d", "\\w", "\\s", "\\W", "\\.", "\\n", "\\x41", "\\u00e9",
+    "[ab]", "[^a]", "[a-c]", "[A-Z0-9]", "[é-ê]", "[\\d_]", "[-a]", "[a-]", "[^\\s]",
+  };
+
+  private static final String[] QUANTIFIERS = { "*", "+", "?", "{2}", "{1,2}", "{0,}", "*?", "+?", "??", "{1,3}?" };
+
+  private static final char[] ALPHABET = { 'a', 'b', 'A', 'B', 'c', '1', '_', ' ', '.', 'é', 'É', '\n', '\r', ' ' };
+
+  @Test
+  public void shouldMatchLikeJavaRegex() {
+    Random random = new Random(0);
+
+    for (int i = 0; i < 3000; i++) {
+      String source = generatePattern(random, 0);
+      boolean caseSensitive = random.nextBoolean();
+      Pattern pattern;
+
+      try {
+        pattern = Pattern.compile(source, caseSensitive ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+      } catch (PatternSyntaxException e) {
+        continue;
+      }
+
+      IRegexMatcher matcher = LinearRegexCompiler.compile(string(source, caseSensitive), 8);
+
+      for (int j = 0; j < 40; j++) {
+        StringBuilder input = new StringBuilder();
+        int length = random.nextInt(8);
+
+        for (int k = 0; k < length; k++)
+          input.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+
+        String value = input.toString();
+        assertEquals(pattern.matcher(value).find(), matcher.find(value), "Results differ for /" + source + "/" + (caseSensitive ? "" : "i") + " on \"" + value + "\"");
+      }
+    }
+  }
+
+  @Test
+  public void shouldMatchInLinearTime() {
+    IRegexMatcher matcher = LinearRegexCompiler.compile(string("(a+)+$", true), 64);
+    String input = String.join("", Collections.nCopies(100_000, "a")) + "b";
+
+    long start = System.nanoTime();
+    assertFalse(matcher.find(input));
+    assertTrue(matcher.find(input.substring(0, input.length() - 1)));
+
+    // Backtracking would not even finish the first few dozen characters in this time
+    assertTrue(System.nanoTime() - start < 5_000_000_000L);
+  }
+
+  @Test
+  public void shouldRejectUnsupportedPatterns() {
+    String[] patterns = { "(^a)+", "(a)\\1", "a(?=b)", "(?<n>a)", "(?i)a", "\\bword", "a*+", "[a[b]]", "[a&&b]", "\\p{L}", "\\Qa\\E", "a{1001}" };
+
+    for (String pattern : patterns)
+      assertThrows(UnsupportedPatternError.class, () -> LinearRegexCompiler.compile(string(pattern, true), 8), pattern);
+  }
+
+  @Test
+  public void shouldRejectWhileParsing() {
+    PatternCache cache = new PatternCache(LOGGER, RegexBackend.LINEAR, 16);
+    FilterExpressionParser parser = new FilterExpressionParser(LOGGER, ParserMode.RECURSIVE_DESCENT, cache);
+
+    assertThrows(UnsupportedPatternError.class, () -> parser.parse(new FilterExpressionTokenizer(LOGGER, "name ? \"a(?=b)\"")));
+    assertThrows(InvalidPatternError.class, () -> parser.parse(new FilterExpressionTokenizer(LOGGER, "name ? \"(a\"")));
+
+    ABinaryFilterExpression<?, ?> expression = parser.parse(new FilterExpressionTokenizer(LOGGER, "name ? \"^[a-c]+x\"i"));
+    FilterPredicateCompiler compiler = new FilterPredicateCompiler(LOGGER, cache);
+
+    assertTrue(compiler.<String>compile(expression, identifier -> target -> target).test("abCX"));
+    assertFalse(compiler.<String>compile(expression, identifier -> target -> target).test("abdx"));
+  }
+
+  private String generatePattern(Random random, int depth) {
+    StringBuilder result = new StringBuilder();
+    int length = 1 + random.nextInt(4);
+
+    for (int i = 0; i < length; i++) {
+      // Anchors are not supported within repetitions, which groups may become
+      if (depth == 0 && random.nextInt(6) == 0) {
+        result.append(random.nextBoolean() ? "^" : "$");
+        continue;
+      }
+
+      if (depth < 2 && random.nextInt(5) == 0)
+        result.append('(').append(random.nextBoolean() ? "?:" : "").append(generatePattern(random, depth + 1)).append(')');
+      else
+        result.append(ATOMS[random.nextInt(ATOMS.length)]);
+
+      if (random.nextInt(3) == 0)
+        result.append(QUANTIFIERS[random.nextInt(QUANTIFIERS.length)]);
+    }
+
+    if (random.nextInt(5) == 0)
+      result.append('|').append(generatePattern(random, depth));
+
+    return result.toString();
+  }
+
+  private StringExpression string(String value, boolean caseSensitive) {
+    Token token = new Token(TokenType.STRING, 0, 0, value);
+    return new StringExpression(value, caseSensitive, false, token, token, value);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.parser.ExpressionNormalizer;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NormalizationTests {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final FilterExpressionParser PARSER = new FilterExpressionParser(LOGGER);
+  private static final ExpressionNormalizer NORMALIZER = new ExpressionNormalizer();
+
+  @Test
+  public void shouldCompareStructurally() throws AParserError {
+    assertEquals(parse("a == 1 && b == \"x\"i"), parse("(a==1)&&(b==\"x\"i)"));
+    assertEquals(parse("a == 1 && b == \"x\"i").hashCode(), parse("(a==1)&&(b==\"x\"i)").hashCode());
+    assertEquals(parse("a == 1 && (b == 2 && c == 3)"), parse("a == 1 && b == 2 && c == 3"));
+
+    assertNotEquals(parse("a == 1 && b == 2"), parse("b == 2 && a == 1"));
+    assertNotEquals(parse("a == 1 && b == 2"), parse("a == 1 || b == 2"));
+    assertNotEquals(parse("a == \"x\"i"), parse("a == \"x\""));
+    assertNotEquals(parse("a == \"x\"t"), parse("a == \"x\""));
+    assertNotEquals(parse("a == 1"), parse("a == 1.0"));
+    assertNotEquals(parse("a == b"), parse("a == \"b\""));
+    assertNotEquals(parse("a == true"), parse("a == false"));
+    assertNotEquals(parse("a == 1"), parse("a != 1"));
+  }
+
+  @Test
+  public void shouldNormalizeOperandOrder() throws AParserError {
+    assertNormalizedEquals("a==1&&b==2", "b==2 && a==1", "(a==1)&&(b==2)");
+    assertNormalizedEquals("a > 5 || b < 3 || c == \"x\"", "c == \"x\" || (b < 3 || a > 5)");
+    assertNormalizedEquals(
+      "(a == 1 || b == 2) && (c == 3 || d == 4)",
+      "(d == 4 || c == 3) && (b == 2 || a == 1)"
+    );
+
+    assertNotEquals(normalize("a==1&&b==2"), normalize("a==1||b==2"));
+  }
+
+  @Test
+  public void shouldRemoveDuplicates() throws AParserError {
+    assertNormalizedEquals("a == 1", "a == 1 && a == 1", "a == 1 || (a == 1 || a == 1)");
+    assertNormalizedEquals("a == 1 && b == 2", "b == 2 && a == 1 && b == 2");
+
+    // The disjunction collapses into a comparison, which then joins the surrounding conjunction
+    assertNormalizedEquals("a == 1 && b == 2 && c == 3", "a == 1 && (b == 2 || b == 2) && c == 3");
+
+    assertNotEquals(normalize("a == 1 && a == 1.0"), normalize("a == 1"));
+  }
+
+  @Test
+  public void shouldBeIdempotent() throws AParserError {
+    ABinaryFilterExpression<?, ?> normalized = normalize("(c == 3 || a == 1) && b == \"x\"it && (a == 1 || c == 3)");
+    assertEquals(normalized, NORMALIZER.normalize(normalized));
+    assertEquals(normalized, normalize("b == \"x\"it && (a == 1 || c == 3)"));
+  }
+
+  @Test
+  public void shouldNormalizeLongChains() throws AParserError {
+    StringBuilder forwards = new StringBuilder(), backwards = new StringBuilder();
+
+    for (int i = 0; i < 4000; i++) {
+      if (i != 0) {
+        forwards.append(" || ");
+        backwards.insert(0, " || ");
+      }
+
+      forwards.append("a == ").append(i);
+      backwards.insert(0, "a == " + i);
+    }
+
+    ABinaryFilterExpression<?, ?> normalized = normalize(forwards.toString());
+    assertEquals(normalized, normalize(backwards.toString()));
+    assertEquals(normalized.hashCode(), normalize(backwards.toString()).hashCode());
+  }
+
+  private void assertNormalizedEquals(String expected, String... inputs) throws AParserError {
+    ABinaryFilterExpression<?, ?> expectedExpression = normalize(expected);
+
+    for (String input : inputs) {
+      ABinaryFilterExpression<?, ?> actualExpression = normalize(input);
+      assertEquals(expectedExpression, actualExpression, input);
+      assertEquals(expectedExpression.hashCode(), actualExpression.hashCode(), input);
+    }
+  }
+
+  private ABinaryFilterExpression<?, ?> normalize(String input) throws AParserError {
+    return NORMALIZER.normalize(parse(input));
+  }
+
+  private ABinaryFilterExpression<?, ?> parse(String input) throws AParserError {
+    return PARSER.parse(new FilterExpressionTokenizer(LOGGER, input));
+  }
+}
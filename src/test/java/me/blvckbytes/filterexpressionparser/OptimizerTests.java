@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.parser.ExpressionOptimizer;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimizerTests extends TestsBase {
+
+  private static final ExpressionOptimizer OPTIMIZER = new ExpressionOptimizer();
+
+  @Test
+  public void shouldEvaluateCheapOperandsFirst() throws AParserError {
+    assertOptimized("active == true && name %% \"foo\"", "name %% \"foo\" && active == true");
+    assertOptimized("price < 5 && name % \"foo\"i && name ? \"f+\"", "name ? \"f+\" && name % \"foo\"i && price < 5");
+    assertOptimized("a == 1 || (c == 3 && b != 2)", "(b != 2 && c == 3) || a == 1");
+  }
+
+  @Test
+  public void shouldPreferSelectiveOperands() throws AParserError {
+    // Equal costs, but conjunctions are left early by operands which are likely false, disjunctions by likely true ones
+    assertOptimized("a == 1 && b != 2", "b != 2 && a == 1");
+    assertOptimized("b != 2 || a == 1", "a == 1 || b != 2");
+  }
+
+  @Test
+  public void shouldKeepOrderOfEqualOperands() throws AParserError {
+    assertOptimized("b == 1 && a == 2 && c == 3", "b == 1 && a == 2 && c == 3");
+
+    ABinaryFilterExpression<?, ?> optimized = OPTIMIZER.optimize(parse("(x ? \"a\" || y == 1) && z %% \"abc\" && w > 2.5"));
+    assertEquals(optimized, OPTIMIZER.optimize(optimized));
+  }
+
+  @Test
+  public void shouldNotAlterResults() throws AParserError {
+    String input = "(name %% \"item\" || price > 5 && active == true) && (weight <= 3.5 || name ? \"[0-9]$\" || deleted == null) && name <% \"1\"t";
+    Predicate<Map<String, Object>> original = COMPILER.compile(parse(input), MAP_ACCESSOR);
+    Predicate<Map<String, Object>> optimized = COMPILER.compile(OPTIMIZER.optimize(parse(input)), MAP_ACCESSOR);
+    Random random = new Random(0);
+
+    for (int i = 0; i < 1000; i++) {
+      Map<String, Object> record = new HashMap<>();
+      record.put("name", random.nextBoolean() ? "item" + i + " " : null);
+      record.put("price", (long) random.nextInt(10));
+      record.put("weight", random.nextDouble() * 10);
+      record.put("active", random.nextBoolean());
+      record.put("deleted", random.nextBoolean() ? "yes" : null);
+
+      assertEquals(original.test(record), optimized.test(record), record.toString());
+    }
+  }
+
+  private void assertOptimized(String expected, String input) throws AParserError {
+    ABinaryFilterExpression<?, ?> optimized = OPTIMIZER.optimize(parse(input));
+    assertEquals(parse(expected), optimized, optimized.expressionify());
+  }
+}
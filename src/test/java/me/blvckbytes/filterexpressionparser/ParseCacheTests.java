@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.cache.*;
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.tokenizer.TokenizerMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParseCacheTests {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final FilterExpressionParser PARSER = new FilterExpressionParser(LOGGER);
+
+  @Test
+  public void shouldShareExpressionsOfHits() throws AParserError {
+    ParseCache cache = new ParseCache(LOGGER, PARSER, 16);
+
+    ABinaryFilterExpression<?, ?> first = cache.parse("a == 5 && b != \"x\"");
+    ABinaryFilterExpression<?, ?> second = cache.parse("a == 5 && b != \"x\"");
+
+    assertSame(first, second);
+    assertEquals(1, cache.getStats().getHits());
+    assertEquals(1, cache.getStats().getMisses());
+    assertEquals(1, cache.getStats().getSize());
+  }
+
+  @Test
+  public void shouldCacheErrors() {
+    ParseCache cache = new ParseCache(LOGGER, PARSER, 16);
+
+    AParserError first = assertThrows(AParserError.class, () -> cache.parse("a == "));
+    AParserError second = assertThrows(AParserError.class, () -> cache.parse("a == "));
+
+    assertSame(first, second);
+    assertFalse(cache.parseResult("a == ").isSuccessful());
+    assertEquals(2, cache.getStats().getHits());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsed() {
+    ParseCache cache = new ParseCache(LOGGER, PARSER, 2);
+
+    cache.parseResult("a == 1");
+    cache.parseResult("b == 2");
+    cache.parseResult("a == 1");
+    cache.parseResult("c == 3");
+
+    CacheStats stats = cache.getStats();
+    assertEquals(1, stats.getEvictions());
+    assertEquals(2, stats.getSize());
+
+    // "b == 2" has been evicted, so it's a miss again
+    cache.parseResult("a == 1");
+    cache.parseResult("b == 2");
+    assertEquals(2, cache.getStats().getHits());
+    assertEquals(4, cache.getStats().getMisses());
+  }
+
+  @Test
+  public void shouldEvictLeastFrequentlyUsed() {
+    ParseCache cache = new ParseCache(LOGGER, PARSER, TokenizerMode.TABLE_DRIVEN, new LfuEvictionPolicy(), 2, Long.MAX_VALUE);
+
+    for (int i = 0; i < 3; i++)
+      cache.parseResult("a == 1");
+
+    cache.parseResult("b == 2");
+    cache.parseResult("b == 2");
+
+    // "b" is less popular than "a" and is thus evicted first
+    cache.parseResult("c == 3");
+    assertEquals(1, cache.getStats().getEvictions());
+
+    // The fresh "c" is now the least popular entry
+    cache.parseResult("d == 4");
+    assertEquals(2, cache.getStats().getEvictions());
+
+    long hits = cache.getStats().getHits();
+    cache.parseResult("a == 1");
+    cache.parseResult("c == 3");
+    assertEquals(hits + 1, cache.getStats().getHits());
+  }
+
+  @Test
+  public void shouldRespectMaximumWeight() {
+    ParseCache cache = new ParseCache(LOGGER, PARSER, TokenizerMode.TABLE_DRIVEN, new LruEvictionPolicy(), 100, 12);
+
+    cache.parseResult("a == 1");
+    cache.parseResult("b == 2");
+    assertEquals(12, cache.getStats().getWeight());
+
+    cache.parseResult("c == 3");
+    assertEquals(2, cache.getStats().getSize());
+    assertEquals(12, cache.getStats().getWeight());
+
+    // Entries heavier than the whole cache are never admitted
+    cache.parseResult("abcdefgh == 1");
+    assertEquals(12, cache.getStats().getWeight());
+    assertEquals(2, cache.getStats().getSize());
+  }
+
+  @Test
+  public void shouldRejectOneHitWonders() {
+    TinyLfuAdmissionPolicy policy = new TinyLfuAdmissionPolicy(new LruEvictionPolicy(), 1024);
+    ParseCache cache = new ParseCache(LOGGER, PARSER, TokenizerMode.TABLE_DRIVEN, policy, 2, Long.MAX_VALUE);
+
+    for (int i = 0; i < 3; i++) {
+      cache.parseResult("a == 1");
+      cache.parseResult("b == 2");
+    }
+
+    // Scanning through many unique inputs should not displace the popular entries
+    for (int i = 0; i < 100; i++)
+      cache.parseResult("c == " + i);
+
+    assertEquals(0, cache.getStats().getEvictions());
+
+    long hits = cache.getStats().getHits();
+    cache.parseResult("a == 1");
+    cache.parseResult("b == 2");
+    assertEquals(hits + 2, cache.getStats().getHits());
+    assertTrue(policy.estimateFrequency("a == 1") >= 4);
+  }
+
+  @Test
+  public void shouldRejectInsertionsWithoutVictim() {
+    IEvictionPolicy policy = new IEvictionPolicy() {
+      @Override
+      public void onAccess(String key) {}
+
+      @Override
+      public void onInsert(String key) {}
+
+      @Override
+      public void onRemove(String key) {}
+
+      @Override
+      public String selectVictim() {
+        return null;
+      }
+    };
+
+    ParseCache cache = new ParseCache(LOGGER, PARSER, TokenizerMode.TABLE_DRIVEN, policy, 2, Long.MAX_VALUE);
+
+    for (int i = 0; i < 5; i++)
+      cache.parseResult("a == " + i);
+
+    assertEquals(2, cache.getStats().getSize());
+    assertEquals(0, cache.getStats().getEvictions());
+  }
+
+  @Test
+  public void shouldInvalidateAll() {
+    ParseCache cache = new ParseCache(LOGGER, PARSER, 16);
+
+    cache.parseResult("a == 1");
+    cache.parseResult("b == 2");
+    cache.invalidateAll();
+
+    assertEquals(0, cache.getStats().getSize());
+    assertEquals(0, cache.getStats().getWeight());
+
+    cache.parseResult("a == 1");
+    assertEquals(3, cache.getStats().getMisses());
+  }
+}
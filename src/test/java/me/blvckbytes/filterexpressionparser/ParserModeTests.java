@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.error.ExpressionLimitExceededError;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.ParserMode;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.parser.expression.ComparisonExpression;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParserModeTests {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final FilterExpressionParser RECURSIVE_PARSER = new FilterExpressionParser(LOGGER);
+  private static final FilterExpressionParser ITERATIVE_PARSER = new FilterExpressionParser(LOGGER, ParserMode.ITERATIVE);
+
+  @Test
+  public void shouldProduceIdenticalTrees() {
+    String[] inputs = {
+      "a == 1",
+      "a == 1 && b == 2 || c == 3 && d == 4",
+      "(a == 1 || b == 2) && (c == 3 || (d == 4 && e == 5))",
+      "((((a == 1))))",
+      "((a == 1) && (b == \"x\"it)) || c != null",
+      "a == 1 || b == 2 || c == 3 || d == 4",
+      "a == 1 && b == 2 && (c == 3 || d == 4) && e == 5",
+      "a == 1 )",
+      "a == 1 && ",
+      "(a == 1",
+      "(a == 1 || (b == 2)",
+      "()",
+      "a == 1 && && b == 2",
+      "a b",
+      "a == 1 || (b == \"unterminated",
+      "a == (b == 1)",
+      "",
+    };
+
+    for (String input : inputs)
+      compareModes(input);
+  }
+
+  @Test
+  public void shouldProduceIdenticalTreesForRandomInputs() {
+    String[] fragments = { "(", ")", "(", ")", "&&", "||", "a == 1", "b != \"x\"i", "c > 2.5", "d", "==", "5" };
+    Random random = new Random(1337);
+
+    for (int i = 0; i < 20000; i++) {
+      StringBuilder input = new StringBuilder();
+      int length = random.nextInt(16);
+
+      for (int j = 0; j < length; j++)
+        input.append(fragments[random.nextInt(fragments.length)]).append(' ');
+
+      compareModes(input.toString());
+    }
+  }
+
+  @Test
+  public void shouldParseDeeplyNestedInputs() {
+    int depth = 100_000;
+    String input = String.join("", Collections.nCopies(depth, "(")) + "a == 1" + String.join("", Collections.nCopies(depth, ")"));
+
+    ABinaryFilterExpression<?, ?> expression = ITERATIVE_PARSER.parse(new FilterExpressionTokenizer(LOGGER, input));
+    assertTrue(expression instanceof ComparisonExpression);
+  }
+
+  @Test
+  public void shouldEnforceLimits() {
+    FilterExpressionParser parser = new FilterExpressionParser(LOGGER, 2, 3);
+
+    parser.parse(new FilterExpressionTokenizer(LOGGER, "((a == 1) || b == 2) && c == 3"));
+
+    AParserError depthError = assertThrows(ExpressionLimitExceededError.class, () -> {
+      parser.parse(new FilterExpressionTokenizer(LOGGER, "a == 1 && ((( b == 2 )))"));
+    });
+    assertTrue(depthError.getMessage().contains("Exceeded the maximum nesting depth of 2"));
+    assertTrue(depthError.getMessage().contains("             ^"));
+
+    AParserError countError = assertThrows(ExpressionLimitExceededError.class, () -> {
+      parser.parse(new FilterExpressionTokenizer(LOGGER, "a == 1 && b == 2 && c == 3 && d == 4 && \"unterminated"));
+    });
+    assertTrue(countError.getMessage().contains("Exceeded the maximum number of comparisons of 3"));
+  }
+
+  private void compareModes(String input) {
+    assertEquals(parse(RECURSIVE_PARSER, input), parse(ITERATIVE_PARSER, input), "Trees differ for input: " + input);
+  }
+
+  private String parse(FilterExpressionParser parser, String input) {
+    try {
+      return parser.parse(new FilterExpressionTokenizer(LOGGER, input)).stringify("  ", 0);
+    } catch (Exception e) {
+      return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+  }
+}
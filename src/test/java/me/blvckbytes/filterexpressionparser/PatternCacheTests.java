@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.cache.LruEvictionPolicy;
+import me.blvckbytes.filterexpressionparser.cache.PatternCache;
+import me.blvckbytes.filterexpressionparser.error.InvalidPatternError;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.AJunctionExpression;
+import me.blvckbytes.filterexpressionparser.parser.expression.ComparisonExpression;
+import me.blvckbytes.filterexpressionparser.parser.expression.StringExpression;
+import me.blvckbytes.filterexpressionparser.regex.IRegexMatcher;
+import me.blvckbytes.filterexpressionparser.regex.RegexBackend;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PatternCacheTests {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final FilterExpressionParser PARSER = new FilterExpressionParser(LOGGER);
+
+  @Test
+  public void shouldSharePatternsOfHits() {
+    PatternCache cache = new PatternCache(LOGGER, 16);
+
+    IRegexMatcher first = cache.compile(parseString("a ? \"^x+$\""));
+    IRegexMatcher second = cache.compile(parseString("b ? \"^x+$\""));
+    IRegexMatcher insensitive = cache.compile(parseString("a ? \"^x+$\"i"));
+
+    assertSame(first, second);
+    assertNotSame(first, insensitive);
+    assertFalse(first.find("XX"));
+    assertTrue(insensitive.find("XX"));
+    assertEquals(1, cache.getStats().getHits());
+    assertEquals(2, cache.getStats().getSize());
+  }
+
+  @Test
+  public void shouldBeBounded() {
+    PatternCache cache = new PatternCache(LOGGER, 4);
+
+    for (int i = 0; i < 32; i++)
+      cache.compile(parseString("a ? \"x{" + i + "}\""));
+
+    assertEquals(4, cache.getStats().getSize());
+    assertEquals(28, cache.getStats().getEvictions());
+  }
+
+  @Test
+  public void shouldRespectMaximumWeight() {
+    PatternCache cache = new PatternCache(LOGGER, RegexBackend.JAVA, new LruEvictionPolicy(), 100, 12);
+
+    // Keys are made up of the case sensitivity and the pattern, weighing 6 each
+    cache.compile(parseString("a ? \"^abc$\""));
+    cache.compile(parseString("a ? \"^def$\""));
+    cache.compile(parseString("a ? \"^ghi$\""));
+
+    assertEquals(2, cache.getStats().getSize());
+    assertEquals(12, cache.getStats().getWeight());
+    assertEquals(1, cache.getStats().getEvictions());
+
+    // Patterns heavier than the whole cache are never admitted
+    cache.compile(parseString("a ? \"^abcdefghijkl$\""));
+    assertEquals(12, cache.getStats().getWeight());
+  }
+
+  @Test
+  public void shouldReportInvalidPatternsWhileParsing() {
+    String input = "name == \"x\" || name ? \"(unclosed\"";
+    InvalidPatternError error = assertThrows(InvalidPatternError.class, () -> parseString(input));
+
+    // The marker points at the string token, behind the line number prefix
+    String marker = String.join("", Collections.nCopies(input.indexOf("\"(") + "1: ".length(), " ")) + "^ Invalid regular expression";
+    assertTrue(error.getMessage().contains("\n" + marker), error.getMessage());
+  }
+
+  private StringExpression parseString(String input) {
+    Object expression = PARSER.parse(new FilterExpressionTokenizer(LOGGER, input));
+
+    while (!(expression instanceof ComparisonExpression))
+      expression = ((AJunctionExpression) expression).getRhs();
+
+    return (StringExpression) ((ComparisonExpression) expression).getRhs();
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.error.AParserError;
+import me.blvckbytes.filterexpressionparser.parser.ExpressionSimplifier;
+import me.blvckbytes.filterexpressionparser.parser.SimplifiedExpression;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimplifierTests extends TestsBase {
+
+  private static final ExpressionSimplifier SIMPLIFIER = new ExpressionSimplifier();
+
+  private static final String[] COMPARISONS = {
+    "a == 3", "a != 3", "a < 3", "a <= 3.0", "a > 3", "a >= 2.5", "a > 7", "a == 2.5", "a != 2.5", "a == -0.0", "a < 0",
+    "a == null", "a != null", "a == true", "a != false", "a == \"x\"", "a != \"x\"", "a == \"X\"i", "a != \"y\"", "a == \"3\"",
+    "a == b", "a != b", "a % \"x\"", "b == 3", "b != null", "b > 0.5"
+  };
+
+  private static final Object[] VALUES = {
+    null, 0L, 3L, 3, 3.0, 7L, -5L, 2.5, -0.0, 0.0, 0.5, Double.NaN, Double.NEGATIVE_INFINITY, 9.007199254740993E15,
+    Long.MAX_VALUE, "x", "X", " x ", "y", "3", true, false
+  };
+
+  @Test
+  public void shouldRemoveRedundantComparisons() throws AParserError {
+    assertSimplified("price < 5", "price < 10 && price < 5", "price < 5 && price <= 5.0 && price < 10");
+    assertSimplified("x >= 3", "x > 3 || x >= 3", "x == 4 || x >= 3 || x > 3.5");
+    assertSimplified("a > 1 && a <= 4", "a > 0 && a > 1 && a <= 4 && a < 7");
+    assertSimplified("a == 3", "a >= 3 && a == 3 && a <= 3.5", "a == 3 && a != 4 && a != null");
+    assertSimplified("a > 3", "a > 3 && a != null", "a > 3 && a != false && a != true");
+    assertSimplified("a != 3", "a != 3 || a == 5", "a != 3 || a == true");
+    assertSimplified("a == \"x\"i", "a == \"x\"i && a != \"y\"i");
+
+    // Absorption of junctions by one of their operands
+    assertSimplified("a == 1", "a == 1 || (a == 1 && b == 2)", "a == 1 && (a == 1 || b == 2)");
+    assertSimplified("a > 3 && c == 1", "a > 3 && (a > 1 || b == 2) && c == 1");
+  }
+
+  @Test
+  public void shouldDetectConstantVerdicts() throws AParserError {
+    assertAlwaysFalse(
+      "a == 1 && a == 2", "a < 1 && a > 2", "a >= 3 && a <= 3 && a != 3", "a == null && a > 1", "a == \"x\" && a == \"y\"",
+      "a == true && b == 1 && a != true", "(a == 1 || a == 2) && a > 5", "a == \"x\"i && a == \"y\"i", "a == true && a == null",
+      "b == 1 && (a == 1 && a != 1 || b == 2 && b < 2)"
+    );
+
+    assertAlwaysTrue(
+      "a == 1 || a != 1", "a != 1 || a != 2", "a == \"x\"i || a != \"X\"i", "(a < 5 && a > 1) || a != 3", "a != null || a != true",
+      "a == b || a != b", "c == 1 || (a == 1 || a != 1) && b == 2 || b != 2"
+    );
+  }
+
+  @Test
+  public void shouldKeepSatisfiableComparisons() throws AParserError {
+    assertSimplified("a == \"x\" && a == \"X\"i");
+    assertSimplified("a == \"3\" && a == 3");
+    assertSimplified("a == \"x\"t && a == \"y\"");
+    assertSimplified("a == b && a == c");
+    assertSimplified("a < 5 || a >= 5");
+    assertSimplified("a != \"x\" || a != \"X\"i");
+  }
+
+  @Test
+  public void shouldHoldForTheSameValues() throws AParserError {
+    Random random = new Random(0);
+    List<Map<String, Object>> records = randomRecords(random, 500, VALUES, "a", "b");
+
+    assertFiltersLikeCompiled(random, 5000, COMPARISONS, records, expression -> {
+      SimplifiedExpression simplified = SIMPLIFIER.simplify(expression);
+
+      Predicate<Map<String, Object>> simplifiedPredicate = simplified.isConstant()
+        ? record -> simplified.isAlwaysTrue()
+        : COMPILER.compile(simplified.getExpression(), MAP_ACCESSOR);
+
+      List<Map<String, Object>> result = new ArrayList<>();
+
+      for (Map<String, Object> record : records) {
+        if (simplifiedPredicate.test(record))
+          result.add(record);
+      }
+
+      return result;
+    });
+  }
+
+  @Test
+  public void shouldSimplifyLongChains() throws AParserError {
+    StringBuilder input = new StringBuilder();
+
+    for (int i = 0; i < 2000; i++) {
+      if (i != 0)
+        input.append(" && ");
+
+      input.append("a < ").append(2000 - i);
+    }
+
+    assertSimplified("a < 1", input.toString());
+  }
+
+  private void assertSimplified(String expected, String... inputs) throws AParserError {
+    if (inputs.length == 0)
+      inputs = new String[] { expected };
+
+    for (String input : inputs) {
+      SimplifiedExpression simplified = SIMPLIFIER.simplify(parse(input));
+      assertFalse(simplified.isConstant(), input);
+      assertEquals(parse(expected), simplified.getExpression(), input);
+    }
+  }
+
+  private void assertAlwaysFalse(String... inputs) throws AParserError {
+    for (String input : inputs)
+      assertTrue(SIMPLIFIER.simplify(parse(input)).isAlwaysFalse(), input);
+  }
+
+  private void assertAlwaysTrue(String... inputs) throws AParserError {
+    for (String input : inputs)
+      assertTrue(SIMPLIFIER.simplify(parse(input)).isAlwaysTrue(), input);
+  }
+}
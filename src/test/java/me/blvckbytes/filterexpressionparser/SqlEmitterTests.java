@@ -0,0 +1,215 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.error.UnknownIdentifierError;
+import me.blvckbytes.filterexpressionparser.error.UnsupportedComparisonError;
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import me.blvckbytes.filterexpressionparser.sql.AnsiSqlDialect;
+import me.blvckbytes.filterexpressionparser.sql.SqlFilterEmitter;
+import me.blvckbytes.filterexpressionparser.sql.SqlWhereClause;
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.*;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlEmitterTests {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+  private static final FilterExpressionParser PARSER = new FilterExpressionParser(LOGGER);
+  private static final FilterPredicateCompiler COMPILER = new FilterPredicateCompiler(LOGGER);
+
+  private static final String[] COLUMNS = { "name", "color", "price", "weight", "active", "alias" };
+  private static final String[] NAMES = { "User", "  user ", "50% off", "snake_case", "a!b", "Gold bar", null };
+  private static final String[] COLORS = { "purple", "Purple", "gold", "green", null };
+
+  private static final SqlFilterEmitter EMITTER;
+
+  static {
+    Map<String, String> columnsByIdentifier = new HashMap<>();
+
+    for (String column : COLUMNS)
+      columnsByIdentifier.put(column, "ITEM_" + column.toUpperCase(Locale.ROOT));
+
+    // H2 supports regular expressions, which standard SQL does not
+    EMITTER = new SqlFilterEmitter(LOGGER, new AnsiSqlDialect() {
+      @Override
+      public String regexMatch(String expression, String parameter, boolean caseSensitive) {
+        return "REGEXP_LIKE(" + expression + ", " + parameter + ", '" + (caseSensitive ? 'c' : 'i') + "')";
+      }
+    }, columnsByIdentifier);
+  }
+
+  private static Connection connection;
+  private static List<Map<String, Object>> records;
+
+  @BeforeAll
+  public static void setup() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:");
+    records = new ArrayList<>();
+
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(
+        "CREATE TABLE \"ITEMS\" (\"ID\" INT, \"ITEM_NAME\" VARCHAR, \"ITEM_COLOR\" VARCHAR, \"ITEM_PRICE\" BIGINT, " +
+        "\"ITEM_WEIGHT\" DOUBLE, \"ITEM_ACTIVE\" BOOLEAN, \"ITEM_ALIAS\" VARCHAR)"
+      );
+    }
+
+    Random random = new Random(0);
+
+    try (PreparedStatement statement = connection.prepareStatement("INSERT INTO \"ITEMS\" VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+      for (int id = 0; id < 200; id++) {
+        Map<String, Object> record = new HashMap<>();
+        record.put("id", id);
+        record.put("name", NAMES[random.nextInt(NAMES.length)]);
+        record.put("color", COLORS[random.nextInt(COLORS.length)]);
+        record.put("price", random.nextInt(8) == 0 ? null : (long) random.nextInt(12));
+        record.put("weight", random.nextInt(8) == 0 ? null : random.nextInt(40) / 4.0);
+        record.put("active", random.nextInt(8) == 0 ? null : random.nextBoolean());
+        record.put("alias", NAMES[random.nextInt(NAMES.length)]);
+        records.add(record);
+
+        statement.setObject(1, id);
+
+        for (int i = 0; i < COLUMNS.length; i++)
+          statement.setObject(i + 2, record.get(COLUMNS[i]));
+
+        statement.executeUpdate();
+      }
+    }
+  }
+
+  @AfterAll
+  public static void teardown() throws SQLException {
+    connection.close();
+  }
+
+  @Test
+  public void shouldMatchPredicateSemantics() throws SQLException {
+    String[] inputs = {
+      "price < 5",
+      "price <= 4 && price >= 4.0",
+      "price != 5",
+      "weight == 2.5 || weight > 8",
+      "weight != 2.5 && price > weight",
+      "color == \"purple\"",
+      "color == \"purple\"i",
+      "color != \"purple\"i",
+      "name == \"user\"it",
+      "name == \"User\"t && name != \"User\"",
+      "name >% \"us\"i || name <% \"BAR\"i",
+      "name % \"% \" || name % \"_\" || name % \"!\"",
+      "name % \"\"",
+      "color > \"gold\" && color < \"purple\"",
+      "color >= \"GOLD\"i",
+      "active == true",
+      "active != false",
+      "active == null || color == null",
+      "active != null && color != null",
+      "name == alias",
+      "name != alias",
+      "name < alias || price >= weight",
+      "color ? \"^p.+e$\"i && name ? \"s\"",
+      "(color == \"purple\" || color == \"gold\") && price < 5 || name % \"user\"it && active == true",
+    };
+
+    for (String input : inputs) {
+      SqlWhereClause clause = EMITTER.emit(parse(input));
+      Predicate<Map<String, Object>> predicate = COMPILER.compile(parse(input), identifier -> target -> target.get(identifier));
+
+      Set<Integer> expected = new TreeSet<>();
+
+      for (Map<String, Object> record : records) {
+        if (predicate.test(record))
+          expected.add((Integer) record.get("id"));
+      }
+
+      assertEquals(expected, query(clause), "Results differ for " + input + ", emitted as " + clause);
+    }
+  }
+
+  @Test
+  public void shouldBindAllValues() throws SQLException {
+    String value = "x' OR '1'='1\"; DROP TABLE ITEMS; --";
+    SqlWhereClause clause = EMITTER.emit(parse("name == \"" + value.replace("\"", "\\\"") + "\" || price > 5 || active == true"));
+
+    assertEquals("(\"ITEM_NAME\" = ? OR \"ITEM_PRICE\" > ? OR \"ITEM_ACTIVE\" = ?)", clause.getSql());
+    assertEquals(Arrays.asList(value, 5L, true), clause.getParameters());
+    assertTrue(query(EMITTER.emit(parse("name == \"" + value.replace("\"", "\\\"") + "\""))).isEmpty());
+  }
+
+  @Test
+  public void shouldEscapeWildcards() {
+    SqlWhereClause clause = EMITTER.emit(parse("name % \"50%_!\"i"));
+
+    assertEquals("LOWER(\"ITEM_NAME\") LIKE ? ESCAPE '!'", clause.getSql());
+    assertEquals(Collections.singletonList("%50!%!_!!%"), clause.getParameters());
+  }
+
+  @Test
+  public void shouldRejectUnknownIdentifiers() {
+    assertThrows(UnknownIdentifierError.class, () -> EMITTER.emit(parse("password == \"x\"")));
+    assertThrows(UnknownIdentifierError.class, () -> EMITTER.emit(parse("name == password")));
+  }
+
+  @Test
+  public void shouldRejectUnsupportedComparisons() {
+    SqlFilterEmitter ansiEmitter = new SqlFilterEmitter(LOGGER, new AnsiSqlDialect(), Collections.singletonMap("name", "NAME"));
+
+    assertThrows(UnsupportedComparisonError.class, () -> ansiEmitter.emit(parse("name ? \"^a\"")));
+    assertThrows(UnsupportedComparisonError.class, () -> ansiEmitter.emit(parse("name %% \"a\"")));
+    assertThrows(UnsupportedComparisonError.class, () -> ansiEmitter.emit(parse("name > true")));
+    assertThrows(UnsupportedComparisonError.class, () -> ansiEmitter.emit(parse("name % name")));
+  }
+
+  private Set<Integer> query(SqlWhereClause clause) throws SQLException {
+    Set<Integer> result = new TreeSet<>();
+
+    try (PreparedStatement statement = connection.prepareStatement("SELECT \"ID\" FROM \"ITEMS\" WHERE " + clause.getSql())) {
+      clause.bindParameters(statement, 1);
+
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next())
+          result.add(resultSet.getInt(1));
+      }
+    }
+
+    return result;
+  }
+
+  private ABinaryFilterExpression<?, ?> parse(String input) {
+    return PARSER.parse(new FilterExpressionTokenizer(LOGGER, input));
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.evaluator.StringMatcher;
+import me.blvckbytes.filterexpressionparser.evaluator.ValueComparisons;
+import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringMatcherTests {
+
+  private static final char[] ALPHABET = { 'a', 'b', 'k', 'K', 'A', ' ', '\t', 'é', 'É', 'µ', 'Μ', 'ſ', 's', 'S', '\u212A', 'İ', 'ı', 'i', 'I' };
+
+  private static final ComparisonOperator[] OPERATORS = {
+    ComparisonOperator.EQUAL, ComparisonOperator.STARTS_WITH, ComparisonOperator.ENDS_WITH, ComparisonOperator.CONTAINS
+  };
+
+  @Test
+  public void shouldMatchLikeValueComparisons() {
+    Random random = new Random(0);
+
+    for (int i = 0; i < 200_000; i++) {
+      ComparisonOperator operator = OPERATORS[random.nextInt(OPERATORS.length)];
+      String needle = randomString(random, random.nextInt(4) == 0 ? random.nextInt(12) : random.nextInt(4));
+      String value = randomString(random, random.nextInt(needle.length() + 8));
+      boolean ignoreCase = random.nextBoolean(), trimTarget = random.nextBoolean();
+
+      StringMatcher matcher = new StringMatcher(operator, needle, ignoreCase, trimTarget);
+
+      assertEquals(
+        reference(operator, trimTarget ? ValueComparisons.asTrimmedString(value) : value, needle, ignoreCase), matcher.matches(value),
+        "Results differ for " + operator + " \"" + needle + "\" on \"" + value + "\" (ignoreCase=" + ignoreCase + ", trimTarget=" + trimTarget + ")"
+      );
+    }
+  }
+
+  @Test
+  public void shouldHandleEdgeCases() {
+    assertFalse(new StringMatcher(ComparisonOperator.EQUAL, "", false, false).matches(null));
+    assertTrue(new StringMatcher(ComparisonOperator.EQUAL, "", false, true).matches(" \t "));
+    assertTrue(new StringMatcher(ComparisonOperator.CONTAINS, "", true, true).matches("   "));
+    assertFalse(new StringMatcher(ComparisonOperator.CONTAINS, "ab", false, true).matches(" a b "));
+    assertFalse(new StringMatcher(ComparisonOperator.CONTAINS, "b ", false, true).matches(" ab "));
+    assertTrue(new StringMatcher(ComparisonOperator.CONTAINS, "GOLDEN BAR", true, true).matches("  a golden bar "));
+    assertThrows(IllegalArgumentException.class, () -> new StringMatcher(ComparisonOperator.NOT_EQUAL, "a", false, false));
+  }
+
+  /**
+   * Straightforward implementation of the string operators, which the matcher has to agree with
+   */
+  private boolean reference(ComparisonOperator operator, @Nullable String value, String needle, boolean ignoreCase) {
+    if (value == null)
+      return false;
+
+    switch (operator) {
+      case EQUAL:
+        return ignoreCase ? value.equalsIgnoreCase(needle) : value.equals(needle);
+
+      case STARTS_WITH:
+        return ignoreCase ? value.regionMatches(true, 0, needle, 0, needle.length()) : value.startsWith(needle);
+
+      case ENDS_WITH:
+        return ignoreCase ? value.regionMatches(true, value.length() - needle.length(), needle, 0, needle.length()) : value.endsWith(needle);
+
+      default:
+        if (!ignoreCase)
+          return value.contains(needle);
+
+        for (int i = 0; i <= value.length() - needle.length(); i++) {
+          if (value.regionMatches(true, i, needle, 0, needle.length()))
+            return true;
+        }
+
+        return false;
+    }
+  }
+
+  private String randomString(Random random, int length) {
+    StringBuilder result = new StringBuilder();
+
+    for (int i = 0; i < length; i++)
+      result.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+
+    return result.toString();
+  }
+}
@@ -1,20 +1,97 @@
 package me.blvckbytes.filterexpressionparser;
 
+import me.blvckbytes.filterexpressionparser.evaluator.FilterPredicateCompiler;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
 import me.blvckbytes.filterexpressionparser.parser.ComparisonOperator;
 import me.blvckbytes.filterexpressionparser.parser.LiteralType;
 import me.blvckbytes.filterexpressionparser.parser.FilterExpressionParser;
 import me.blvckbytes.filterexpressionparser.parser.expression.*;
 import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
 
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.logging.Logger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public abstract class TestsBase {
 
-  private static final Logger LOGGER = Logger.getGlobal();
-  private static final FilterExpressionParser PARSER = new FilterExpressionParser(LOGGER);
+  protected static final Logger LOGGER = Logger.getGlobal();
+  protected static final FilterExpressionParser PARSER = new FilterExpressionParser(LOGGER);
+  protected static final FilterPredicateCompiler COMPILER = new FilterPredicateCompiler(LOGGER);
+  protected static final IFieldAccessor<Map<String, Object>> MAP_ACCESSOR = identifier -> target -> target.get(identifier);
 
   public void validate(String input, ABinaryFilterExpression<?, ?> expectedExpression) {
-    compareExpressions(PARSER.parse(new FilterExpressionTokenizer(LOGGER, input)), expectedExpression);
+    compareExpressions(parse(input), expectedExpression);
+  }
+
+  protected ABinaryFilterExpression<?, ?> parse(String input) {
+    return PARSER.parse(new FilterExpressionTokenizer(LOGGER, input));
+  }
+
+  /**
+   * Builds a filter out of randomly picked comparisons, joined by randomly nested junctions of up to the given depth
+   */
+  protected String randomFilter(Random random, int depth, String[] comparisons) {
+    if (depth == 0 || random.nextInt(3) == 0)
+      return comparisons[random.nextInt(comparisons.length)];
+
+    String junction = random.nextBoolean() ? " && " : " || ";
+    return "(" + randomFilter(random, depth - 1, comparisons) + junction + randomFilter(random, depth - 1, comparisons) + ")";
+  }
+
+  /**
+   * Builds records which hold a randomly picked value for each of the given fields
+   */
+  protected List<Map<String, Object>> randomRecords(Random random, int count, Object[] values, String... fields) {
+    List<Map<String, Object>> result = new ArrayList<>();
+
+    for (int i = 0; i < count; i++) {
+      Map<String, Object> record = new HashMap<>();
+
+      for (String field : fields)
+        record.put(field, values[random.nextInt(values.length)]);
+
+      result.add(record);
+    }
+
+    return result;
+  }
+
+  /**
+   * Asserts that an evaluator yields the same records as the compiled predicate, for each of a number of random filters
+   * @param evaluator Evaluates a filter on all records, yielding those it holds for in their original order
+   */
+  protected void assertFiltersLikeCompiled(Random random, int filterCount, String[] comparisons, List<Map<String, Object>> records, Function<ABinaryFilterExpression<?, ?>, List<Map<String, Object>>> evaluator) {
+    for (int i = 0; i < filterCount; i++) {
+      ABinaryFilterExpression<?, ?> expression = parse(randomFilter(random, 3, comparisons));
+      Predicate<Map<String, Object>> predicate = COMPILER.compile(expression, MAP_ACCESSOR);
+      List<Map<String, Object>> expected = new ArrayList<>();
+
+      for (Map<String, Object> record : records) {
+        if (predicate.test(record))
+          expected.add(record);
+      }
+
+      assertEquals(expected, evaluator.apply(expression), expression.expressionify());
+    }
+  }
+
+  /**
+   * Asserts that a matcher yields the keys of exactly those compiled predicates which hold for each of the records
+   */
+  protected <K> void assertMatchesLikePredicates(Map<K, Predicate<Map<String, Object>>> predicates, List<Map<String, Object>> records, Function<Map<String, Object>, Set<K>> matcher) {
+    for (Map<String, Object> record : records) {
+      Set<K> expected = new HashSet<>();
+
+      predicates.forEach((key, predicate) -> {
+        if (predicate.test(record))
+          expected.add(key);
+      });
+
+      assertEquals(expected, matcher.apply(record), record.toString());
+    }
   }
 
   private void compareExpressions(AExpression actual, AExpression expected) {
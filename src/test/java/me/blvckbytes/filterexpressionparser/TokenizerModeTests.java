@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.tokenizer.FilterExpressionTokenizer;
+import me.blvckbytes.filterexpressionparser.tokenizer.Token;
+import me.blvckbytes.filterexpressionparser.tokenizer.TokenizerMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TokenizerModeTests {
+
+  private static final Logger LOGGER = Logger.getGlobal();
+
+  @Test
+  public void shouldProduceIdenticalTokens() {
+    String[] inputs = {
+      "name != \"User\"",
+      "(color == \"purple\" && price < 5) || (color == \"gold\" && price < 10)",
+      "color==\"purple\"&&price<5||color==\"gold\"&&price<10",
+      "a >= 5e3 && b <= -.5 && c > 5.25e-3 && d < -12",
+      "a == 5 e3 || b == 5e || c == 5ex || d == 5e3.",
+      "a == 5e-3",
+      "a==5\"b\" || a == 5\"unterminated",
+      "trueish == TRUE && nullable != Null && FALSEly == false",
+      "a ? \"\\\\d+\\\"\" && b % \"\\\\\" && c %% \"x\"it && d >% \"y\"t && e <% \"z\"i",
+      "a === b",
+      "a == -",
+      "a == - ",
+      "a == -x",
+      "a == -5.",
+      "multi\nline == \"str\ning\"\n&& x\t==\t1",
+      "a == 1 # b",
+      "a == \"ünicode\" && ü == 1",
+      "a == \"\\\\\\\\\\\"\" && b == \"x\\\\\\\\y\\\"z\"",
+      "",
+    };
+
+    for (String input : inputs)
+      compareModes(input);
+  }
+
+  @Test
+  public void shouldProduceIdenticalTokensForRandomInputs() {
+    char[] alphabet = "aetrufnlxE019-._ \n\t\"\\<>=!?%|&()#".toCharArray();
+    Random random = new Random(1337);
+
+    for (int i = 0; i < 20000; i++) {
+      char[] input = new char[random.nextInt(24)];
+
+      for (int j = 0; j < input.length; j++)
+        input[j] = alphabet[random.nextInt(alphabet.length)];
+
+      compareModes(new String(input));
+    }
+  }
+
+  private void compareModes(String input) {
+    List<String> expected = tokenize(input, TokenizerMode.TRIAL_ORDER);
+
+    assertEquals(expected, tokenize(input, TokenizerMode.TABLE_DRIVEN), "Token streams differ for input: " + input);
+    assertEquals(expected, tokenize(input, TokenizerMode.SLICED), "Token streams differ for input: " + input);
+  }
+
+  private List<String> tokenize(String input, TokenizerMode mode) {
+    FilterExpressionTokenizer tokenizer = new FilterExpressionTokenizer(LOGGER, input, mode);
+    List<String> result = new ArrayList<>();
+
+    try {
+      Token token;
+      while ((token = tokenizer.consumeToken()) != null)
+        result.add(token.toString());
+    } catch (RuntimeException e) {
+      result.add(e.getClass().getSimpleName() + ": " + e.getMessage());
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 BlvckBytes
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.blvckbytes.filterexpressionparser;
+
+import me.blvckbytes.filterexpressionparser.error.TypeMismatchError;
+import me.blvckbytes.filterexpressionparser.error.UnknownIdentifierError;
+import me.blvckbytes.filterexpressionparser.evaluator.IFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.ITypedFieldAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.accessor.MapPathAccessor;
+import me.blvckbytes.filterexpressionparser.evaluator.accessor.PathAccessorFactory;
+import me.blvckbytes.filterexpressionparser.evaluator.typed.FieldType;
+import me.blvckbytes.filterexpressionparser.evaluator.typed.IFilterSchema;
+import me.blvckbytes.filterexpressionparser.evaluator.typed.TypedFilterCompiler;
+import me.blvckbytes.filterexpressionparser.parser.expression.ABinaryFilterExpression;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TypedCompilerTests extends TestsBase {
+
+  private static final TypedFilterCompiler TYPED_COMPILER = new TypedFilterCompiler(LOGGER);
+
+  private static final Map<String, FieldType> TYPES = new HashMap<>();
+  private static final IFilterSchema SCHEMA = TYPES::get;
+
+  static {
+    TYPES.put("count", FieldType.LONG);
+    TYPES.put("stock", FieldType.LONG);
+    TYPES.put("price", FieldType.DOUBLE);
+    TYPES.put("weight", FieldType.DOUBLE);
+    TYPES.put("name", FieldType.STRING);
+    TYPES.put("color", FieldType.STRING);
+    TYPES.put("active", FieldType.BOOLEAN);
+    TYPES.put("deleted", FieldType.BOOLEAN);
+    TYPES.put("details.size", FieldType.LONG);
+  }
+
+  private static final String[] COMPARISONS = {
+    "count == 3", "count != 3", "count > 3", "count >= -1", "count < 0", "count <= 2147483647", "count > 2.5", "count == 3.0",
+    "count == stock", "count < stock", "count >= price", "price == 3", "price > -0.0", "price < 0", "price <= 2.5", "price != 2.5",
+    "price > weight", "price == weight", "weight >= count", "name == \"item3\"", "name != null", "name == null", "name % \"em\"i",
+    "name ? \"^item[0-4]$\"", "name > color", "name != color", "color %% \"gren\"", "active == true", "active != deleted",
+    "deleted == false"
+  };
+
+  private static final Object[] LONGS = { 0L, 3L, -1L, 7L, 9007199254740993L, Long.MIN_VALUE };
+  private static final Object[] DOUBLES = { 0.0, -0.0, 2.5, 3.0, -7.25, Double.NaN, Double.POSITIVE_INFINITY, 9.007199254740992E15 };
+  private static final Object[] STRINGS = { null, "item3", "ITEM3", "green", "gold", "item", "" };
+
+  @Test
+  public void shouldRejectNonsensicalComparisons() {
+    String[] inputs = {
+      "count ? \"^1\"", "count % \"1\"", "count == \"3\"", "count == true", "count == null", "price %% \"1\"", "price >% \"3\"",
+      "name > 5", "name == 2.5", "name == true", "active == 1", "active > true", "active == null", "active == \"true\"",
+      "count == name", "name > active", "count == active", "name < color && count ? \"x\"", "price > 1 || active == price"
+    };
+
+    for (String input : inputs)
+      assertThrows(TypeMismatchError.class, () -> TYPED_COMPILER.check(parse(input), SCHEMA), input);
+
+    assertThrows(UnknownIdentifierError.class, () -> TYPED_COMPILER.check(parse("missing == 1"), SCHEMA));
+    assertThrows(UnknownIdentifierError.class, () -> TYPED_COMPILER.compile(parse("count == 1 && name == missing"), SCHEMA, MAP_ACCESSOR));
+  }
+
+  @Test
+  public void shouldAcceptWellTypedComparisons() {
+    for (String input : COMPARISONS)
+      assertDoesNotThrow(() -> TYPED_COMPILER.check(parse(input), SCHEMA), input);
+  }
+
+  @Test
+  public void shouldEvaluateLikeUntypedCompiler() {
+    Random random = new Random(0);
+    List<Map<String, Object>> records = new ArrayList<>();
+
+    for (int i = 0; i < 500; i++) {
+      Map<String, Object> record = new HashMap<>();
+      record.put("count", LONGS[random.nextInt(LONGS.length)]);
+      record.put("stock", random.nextBoolean() ? LONGS[random.nextInt(LONGS.length)] : (Object) random.nextInt(5));
+      record.put("price", DOUBLES[random.nextInt(DOUBLES.length)]);
+      record.put("weight", DOUBLES[random.nextInt(DOUBLES.length)]);
+      record.put("name", STRINGS[random.nextInt(STRINGS.length)]);
+      record.put("color", STRINGS[random.nextInt(STRINGS.length)]);
+      record.put("active", random.nextBoolean());
+      record.put("deleted", random.nextBoolean());
+      records.add(record);
+    }
+
+    for (int i = 0; i < 2000; i++) {
+      String input = randomFilter(random, 2, COMPARISONS);
+      ABinaryFilterExpression<?, ?> expression = parse(input);
+
+      Predicate<Map<String, Object>> expected = COMPILER.compile(expression, MAP_ACCESSOR);
+      Predicate<Map<String, Object>> actual = TYPED_COMPILER.compile(expression, SCHEMA, MAP_ACCESSOR);
+
+      for (Map<String, Object> record : records)
+        assertEquals(expected.test(record), actual.test(record), input + " on " + record);
+    }
+  }
+
+  @Test
+  public void shouldEvaluateThroughPrimitiveGetters() {
+    ITypedFieldAccessor<Item> accessor = PathAccessorFactory.getShared().forClass(Item.class);
+    List<Item> items = new ArrayList<>();
+
+    for (Object count : LONGS) {
+      for (Object price : DOUBLES)
+        items.add(new Item((Long) count, (int) ((Long) count % 5), (Double) price, "item" + count, count.equals(3L), new Details((int) ((Long) count & 7))));
+    }
+
+    String[] inputs = {
+      "count == 3", "count > 2.5", "stock <= count", "price > -0.0", "price >= count", "weight < price", "details.size == 3",
+      "details.size > stock || active == true", "name % \"3\" && price != 2.5", "count >= weight && details.size < 5.5"
+    };
+
+    for (String input : inputs) {
+      Predicate<Item> expected = COMPILER.compile(parse(input), accessor);
+      Predicate<Item> actual = TYPED_COMPILER.compile(parse(input), SCHEMA, accessor);
+
+      for (Item item : items)
+        assertEquals(expected.test(item), actual.test(item), input + " on " + item.getName());
+    }
+  }
+
+  @Test
+  public void shouldRejectFractionalMembersDeclaredAsLong() {
+    IFilterSchema schema = identifier -> FieldType.LONG;
+    ITypedFieldAccessor<Item> accessor = PathAccessorFactory.getShared().forClass(Item.class);
+
+    assertThrows(IllegalArgumentException.class, () -> TYPED_COMPILER.compile(parse("price == 2"), schema, accessor));
+    assertThrows(IllegalArgumentException.class, () -> TYPED_COMPILER.compile(parse("count < weight"), schema, accessor));
+  }
+
+  @Test
+  public void shouldNotTruncateFractionalValuesOfLongFields() {
+    IFilterSchema schema = identifier -> FieldType.LONG;
+    Map<String, Object> record = new HashMap<>();
+    record.put("price", 2.7);
+    record.put("count", 2L);
+
+    for (IFieldAccessor<Map<String, Object>> accessor : Arrays.asList(MAP_ACCESSOR, new MapPathAccessor())) {
+      for (String input : new String[] { "price == 2", "price > 2", "price < 3", "count == price", "count < price" }) {
+        ABinaryFilterExpression<?, ?> expression = parse(input);
+        assertEquals(COMPILER.compile(expression, accessor).test(record), TYPED_COMPILER.compile(expression, schema, accessor).test(record), input);
+      }
+    }
+  }
+
+  @Test
+  public void shouldReadPrimitivesThroughPathAccessors() {
+    PathAccessorFactory factory = new PathAccessorFactory();
+    Item item = new Item(9007199254740993L, 4, 2.5, "item", true, new Details(6));
+
+    assertEquals(9007199254740993L, factory.resolveLong(Item.class, "count").read(item));
+    assertEquals(4L, factory.resolveLong(Item.class, "stock").read(item));
+    assertEquals(4.0, factory.resolveDouble(Item.class, "stock").read(item));
+    assertEquals(2.5, factory.resolveDouble(Item.class, "price").read(item));
+    assertEquals(0.5, factory.resolveDouble(Item.class, "weight").read(item));
+    assertEquals(6L, factory.resolveLong(Item.class, "details.size").read(item));
+    assertEquals(6.0, factory.resolveDouble(Item.class, "details.size").read(item));
+    assertSame(factory.resolveLong(Item.class, "count"), factory.resolveLong(Item.class, "count"));
+    assertNotSame(factory.resolve(Item.class, "count"), factory.resolveLong(Item.class, "count"));
+  }
+
+  public static class Item {
+
+    private final long count;
+    private final int stock;
+    private final double price;
+    private final String name;
+    private final boolean active;
+    private final Details details;
+
+    // Public fields are read through method handles instead of generated lambdas
+    public final float weight;
+
+    public Item(long count, int stock, double price, String name, boolean active, Details details) {
+      this.count = count;
+      this.stock = stock;
+      this.price = price;
+      this.name = name;
+      this.active = active;
+      this.details = details;
+      this.weight = 0.5F;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public int getStock() {
+      return stock;
+    }
+
+    public double getPrice() {
+      return price;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public Details getDetails() {
+      return details;
+    }
+  }
+
+  public static class Details {
+
+    private final int size;
+
+    public Details(int size) {
+      this.size = size;
+    }
+
+    public int size() {
+      return size;
+    }
+  }
+}